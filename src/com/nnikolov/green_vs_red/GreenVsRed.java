@@ -1,15 +1,25 @@
 package com.nnikolov.green_vs_red;
 
+import com.nnikolov.green_vs_red.distributed.PartitionedSimulationDriver;
+import com.nnikolov.green_vs_red.engine.CheckpointedGridSimulation;
+import com.nnikolov.green_vs_red.engine.DenseSteppingGridEvolutionEngine;
+import com.nnikolov.green_vs_red.engine.GridCellQuery;
+import com.nnikolov.green_vs_red.engine.GridEvolutionEngineSelector;
+import com.nnikolov.green_vs_red.engine.LightConeGridCellQueryEngine;
 import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
 import com.nnikolov.green_vs_red.input.InputArgumentsReader;
+import com.nnikolov.green_vs_red.io.GridGenerationStatisticsCsvWriter;
+import com.nnikolov.green_vs_red.io.PackedBinaryGridFileReader;
+import com.nnikolov.green_vs_red.jfr.GridConstructionEvent;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
 import com.nnikolov.green_vs_red.model.TargetGridGeneration;
 import com.nnikolov.green_vs_red.util.RectangularCellMatrixUtil;
 import com.nnikolov.green_vs_red.util.VariableActionUtil;
-import com.nnikolov.green_vs_red.model.Cell;
 import com.nnikolov.green_vs_red.model.Grid;
-import com.nnikolov.green_vs_red.util.GridGenerationStepper;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -54,11 +64,45 @@ import java.util.function.Consumer;
  *          input step (1). These numbers represent the intended colors of the Cells in the cell matrix that will be
  *          stored in a Grid.
  *
+ *          - Alternatively, a run-length encoded cell matrix, which may span any amount of lines and follows the
+ *          pattern: [N]T[N]T...!; Where each T is 'r' (N RED Cells), 'g' (N GREEN Cells) or '$' (end of a row) and
+ *          each optional N is a positive run count. The '!' character ends the cell matrix. Omitted Cells at the end
+ *          of rows and omitted rows at the end of the cell matrix are RED.
+ *
  *      (3) A String that conforms to the pattern: X, Y, N; Where X & Y are numbers that can be stored in a 'short'
  *      primitive type. N is a number that can be stored in a 'long' primitive type. X & Y respectively represent the
  *      horizontal and vertical coordinates of a Cell in the defined cell matrix (via input steps (1) & (2)) that will
  *      have its color tracked over N generations.
  *
+ * Alternatively, the application may be started with the arguments: --grid-file <path>; In that case, the initial
+ * Grid is loaded from a packed binary Grid file (see PackedBinaryGridFileFormat), instead of input steps (1) & (2).
+ *
+ * The application may also be started in a non-interactive batch mode with the arguments:
+ * --batch <input file> <output file> [worker threads]; In that case, the input file holds any amount of concatenated
+ * cases (each consisting of input steps (1), (2) & (3)), which are processed in parallel. One result line per case is
+ * written to the output file, in the order of the cases. Malformed cases produce an error record: "ERROR: <message>".
+ *
+ * The Grid generations are progressed on the Java heap by default. With the system property:
+ * -Dgreen_vs_red.storage=direct; they are progressed in native memory outside of the Java heap instead, and a packed
+ * binary Grid file is memory-mapped rather than read (see PackedCellMatrix.Storage).
+ *
+ * The query is answered by the cheapest of the discovered GridEvolutionEngines for its Grid dimensions, density and
+ * targeted generation. The choice can be overridden with the system property: -Dgreen_vs_red.engine=<name>; (e.g.
+ * dense, light-cone, block-lookup-table, mirror-symmetric or temporal-blocking). See GridEvolutionEngineSelector.
+ *
+ * With the system property: -Dgreen_vs_red.workers=<N>; the Grid generations of the interactive application are
+ * progressed by N worker JVMs, which own row partitions of the cell matrix (see PartitionedSimulationDriver), unless
+ * only a small part of the cell matrix affects the targeted Cell.
+ *
+ * With the system property: -Dgreen_vs_red.checkpoint=<path>; the interactive application progresses the whole Grid
+ * and persists its state to a checkpoint file at most once per -Dgreen_vs_red.checkpoint.interval=<seconds> (60 by
+ * default). Restarting the application with the same input resumes the simulation from that checkpoint (see
+ * CheckpointedGridSimulation).
+ *
+ * With the system property: -Dgreen_vs_red.statistics=<path>; the interactive application progresses the whole Grid
+ * and streams the population statistics of every generation (GREEN Cells, changed Cells and the bounding box of the
+ * GREEN Cells) to a CSV file (see GridGenerationStatisticsCsvWriter).
+ *
  * */
 public final class GreenVsRed {
 
@@ -79,12 +123,80 @@ public final class GreenVsRed {
     private final static InputArgumentsReader inputArgumentsReader =
             new InputArgumentsReader(System.in, messageOutputStringConsumer);
 
-    public static void main(final String[] args) {
-        //Construct an initial Grid from User input.
-        final Grid grid = constructGridFromUserInput();
+    /**
+     * The application argument, which is followed by the Path of a packed binary Grid file that holds the initial
+     * Grid.
+     *
+     * */
+    private final static String gridFileArgument = "--grid-file";
+
+    /**
+     * The application argument, which is followed by the Paths of a batch input file and an output file (and
+     * optionally by the amount of worker threads) and starts the non-interactive batch mode.
+     *
+     * */
+    private final static String batchArgument = "--batch";
+
+    /**
+     * The GridEvolutionEngineSelector, which picks the engine that answers the query of the User (or of a batch
+     * case), among all of the discovered GridEvolutionEngines.
+     *
+     * */
+    private final static GridEvolutionEngineSelector gridEvolutionEngineSelector =
+            GridEvolutionEngineSelector.fromServiceLoader();
+
+    /**
+     * The amount of worker JVMs, which progress the Grid generations of the interactive application, as selected via
+     * the 'green_vs_red.workers' system property (1 by default, i.e. no worker JVMs).
+     *
+     * */
+    private final static int partitionWorkersCount = Integer.getInteger("green_vs_red.workers", 1);
+
+    /**
+     * The Path of the simulation checkpoint file of the interactive application, as selected via the
+     * 'green_vs_red.checkpoint' system property (NULL by default, i.e. no checkpoints).
+     *
+     * */
+    private final static String checkpointPath = System.getProperty("green_vs_red.checkpoint");
+
+    /**
+     * The Path of the CSV file, which receives the population statistics of every generation of the interactive
+     * application, as selected via the 'green_vs_red.statistics' system property (NULL by default, i.e. no
+     * statistics).
+     *
+     * */
+    private final static String statisticsPath = System.getProperty("green_vs_red.statistics");
+
+    /**
+     * The minimal amount of seconds between two checkpoints, as selected via the 'green_vs_red.checkpoint.interval'
+     * system property (60 by default).
+     *
+     * */
+    private final static long checkpointIntervalSeconds = Long.getLong("green_vs_red.checkpoint.interval", 60);
+
+    public static void main(final String[] args) throws IOException {
+        if ((args.length == 3 || args.length == 4) && args[0].equals(batchArgument)) {
+            //Process all of the cases of a batch input file, without any interaction with the User.
+            GreenVsRedBatchProcessor.process(Paths.get(args[1]), Paths.get(args[2]),
+                    args.length == 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors());
+
+            return;
+        }
+
+        final Grid grid;
+
+        if (args.length == 2 && args[0].equals(gridFileArgument))
+            //Load the initial Grid from a packed binary Grid file.
+            grid = PackedCellMatrix.Storage.getPreferred() == PackedCellMatrix.Storage.DIRECT ?
+                    PackedBinaryGridFileReader.readMapped(Paths.get(args[1])) :
+                    PackedBinaryGridFileReader.read(Paths.get(args[1]));
+        else {
+            //Construct an initial Grid from User input.
+            grid = constructGridFromUserInput();
 
-        //Alter the Cell colors in the cellMatrix of the above-mentioned Grid with ones defined by User input.
-        setGridCellMatrixCellColorsFromUserInput(grid);
+            //Alter the Cell colors in the cellMatrix of the above-mentioned Grid with ones defined by User input.
+            setGridCellMatrixCellColorsFromUserInput(grid);
+        }
 
         /* Grid cellMatrix Cell Generation tracking data START */
 
@@ -106,8 +218,34 @@ public final class GreenVsRed {
         * up to the targeted Grid generation (including the first ZERO generation) to the message output string
         * consumer.
         * */
-        messageOutputStringConsumer.accept(Long.toString(getTargetCellGreenColorChangesUpToTargetGeneration(
-                grid, targetCellCoordinates[0], targetGridGeneration[0])));
+        final long targetCellGreenColorChanges;
+
+        if (statisticsPath != null)
+            //Progress the whole Grid, while streaming the population statistics of every generation to a CSV file.
+            try (final GridGenerationStatisticsCsvWriter gridGenerationStatisticsCsvWriter =
+                         new GridGenerationStatisticsCsvWriter(Paths.get(statisticsPath))) {
+                targetCellGreenColorChanges = new DenseSteppingGridEvolutionEngine(gridGenerationStatisticsCsvWriter)
+                        .getTargetCellGreenColorChangesUpToTargetGeneration(new GridCellQuery(grid,
+                                targetCellCoordinates[0][0], targetCellCoordinates[0][1], targetGridGeneration[0]));
+            }
+        else if (checkpointPath != null)
+            //Progress the whole Grid, while periodically persisting its state to the checkpoint file.
+            targetCellGreenColorChanges =
+                    CheckpointedGridSimulation.getTargetCellGreenColorChangesUpToTargetGeneration(grid,
+                            targetCellCoordinates[0][0], targetCellCoordinates[0][1], targetGridGeneration[0],
+                            Paths.get(checkpointPath), TimeUnit.SECONDS.toMillis(checkpointIntervalSeconds));
+        else if (partitionWorkersCount > 1 && !LightConeGridCellQueryEngine.prunesCellMatrix(
+                grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY(), targetGridGeneration[0]))
+            //Progress the whole Grid via a partitioned simulation over several worker JVMs.
+            targetCellGreenColorChanges =
+                    PartitionedSimulationDriver.getTargetCellGreenColorChangesUpToTargetGeneration(grid,
+                            targetCellCoordinates[0][0], targetCellCoordinates[0][1], targetGridGeneration[0],
+                            partitionWorkersCount);
+        else
+            targetCellGreenColorChanges = getTargetCellGreenColorChangesUpToTargetGeneration(
+                    grid, targetCellCoordinates[0], targetGridGeneration[0]);
+
+        messageOutputStringConsumer.accept(Long.toString(targetCellGreenColorChanges));
     }
 
     /**
@@ -119,13 +257,22 @@ public final class GreenVsRed {
      *
      * */
     private static Grid constructGridFromUserInput() {
+        //Begin a JFR Event, which is only committed if a recording that has enabled it is active.
+        final GridConstructionEvent gridConstructionEvent = new GridConstructionEvent();
+        gridConstructionEvent.begin();
+
         //Initialise a one-element Grid array
         final Grid[] grid = new Grid[1];
 
+        //Initialise a one-element counter of the Grid construction attempts.
+        final int[] attempts = new int[1];
+
         //Loop until a valid initial-state Grid instance is constructed via User input.
         VariableActionUtil.loopAndOutputErrorMessagesUntilAllActionExceptionsAreCleared.accept(
                 //All Exception message String will be fed to the application standard messageOutputStringConsumer
                 messageOutputStringConsumer, () -> {
+                    attempts[0]++;
+
                     /*
                      * Obtain a two-element 'short' array that contains the intended Grid cellMatrix axes sizes from
                      * User input.
@@ -140,32 +287,33 @@ public final class GreenVsRed {
                     grid[0] = new Grid(cellMatrixAxesSizes[0], cellMatrixAxesSizes[1]);
                 });
 
+        //Populate and commit the JFR Event, if a recording requires it.
+        gridConstructionEvent.end();
+        if (gridConstructionEvent.shouldCommit()) {
+            gridConstructionEvent.cellMatrixSizeAxisX = grid[0].getCellMatrixSizeAxisX();
+            gridConstructionEvent.cellMatrixSizeAxisY = grid[0].getCellMatrixSizeAxisY();
+            gridConstructionEvent.attempts = attempts[0];
+            gridConstructionEvent.commit();
+        }
+
         //Return the constructed initial-state Grid instance
         return grid[0];
     }
 
     /**
      * Internal utility function.
-     * Changes the colors of all the Cells in a Grids cellMatrix via User input.
+     * Changes the colors of all the Cells in a Grids cellMatrix via User input. The cellMatrix may be provided either
+     * row by row or run-length encoded.
      *
      * @param grid A Grid instance. The Colors of the Cells in its cellMatrix will be changed to the ones defined by
      *             User input.
      *
      * */
     private static void setGridCellMatrixCellColorsFromUserInput(final Grid grid) {
-        //Loop through the cellMatrixRows of the Grids cellMatrix.
-        for (short y = 0; y < grid.getCellMatrixSizeAxisY(); y++) {
-            //Obtain a List of all the Cell Colors that the User intended for the current cellMatrixRow.
-            final List<Cell.Color> cellColors =
-                    inputArgumentsReader.readCellMatrixRowCellColorsUntilAcceptableEntry(
-                            //Provide the horizontal size of the Grids cellMatrix.
-                            grid.getCellMatrixSizeAxisX());
-
-            //Loop through all of the Cells in the current cellMatrixRow and set their Colors, as defined by the User.
-            for (short x = 0; x < grid.getCellMatrixSizeAxisX(); x++) {
-                grid.setCellColor(x, y, cellColors.get(x));
-            }
-        }
+        //Read the whole cellMatrix, as defined by the User, and store it in the Grid at once.
+        grid.populateFromPackedCellMatrix(inputArgumentsReader.readCellMatrixUntilAcceptableEntry(
+                //Provide the dimensions of the Grids cellMatrix.
+                grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()));
     }
 
     /**
@@ -230,34 +378,12 @@ public final class GreenVsRed {
     }
 
     /**
-     * Internal utility function.
-     * Checks if the targeted Cell in a Grids cellMatrix has a GREEN Color.
-     *
-     * @param grid A Grid instance. Its cellMatrix will be used, in order to obtain the targeted Cell.
-     *
-     * @param cellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
-     *
-     * @param cellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
-     *
-     * @return A boolean, which indicates whether the targeted Cell in a Grids cellMatrix has a GREEN Color.
-     *
-     * */
-    private static boolean gridCellMatrixCellIsGreen(final Grid grid,
-                                                     final short cellCoordinateX,
-                                                     final short cellCoordinateY) {
-        return grid
-                .getCell(cellCoordinateX, cellCoordinateY)
-                .getColor()
-                .isGreen();
-    }
-
-    /**
-     * Internal utility function.
+     * Package-level utility function, which is shared with the GreenVsRedBatchProcessor.
      * Calculates the amount of times a targeted Cell within a Grids cellMatrix will have a GREEN Color, up to a
      * certain targetGridGeneration (including its initial state in the Grids cellMatrix; the ZERO Generation).
      *
-     * @param grid A Grid instance. It will be used to initialize a GridGenerationStepper, so that the
-     *             next generation states of its cellMatrix can be calculated.
+     * @param grid A Grid instance. It will be snapshot into a GridCellQuery, which is answered by a
+     *             GridEvolutionEngine.
      *
      * @param targetCellCoordinates A 'short' Number type array, which holds the horizontal & vertical coordinates of
      *                             the targeted Cell in the Grids cellMatrix.
@@ -268,39 +394,18 @@ public final class GreenVsRed {
      * GREEN Color, up to the targetGridGeneration (including the ZERO generation).
      *
      * */
-    private static long getTargetCellGreenColorChangesUpToTargetGeneration(final Grid grid,
-                                                                           final short[] targetCellCoordinates,
-                                                                           final TargetGridGeneration targetGridGeneration) {
-        /*
-         * Since the ZERO generation target Cell Color is included in this functions calculation, check to see if it
-         * has a GREEN Color, in order to determine this counters initial state.
-         * */
-        long targetCellGreenColorChanges =
-                gridCellMatrixCellIsGreen(grid, targetCellCoordinates[0], targetCellCoordinates[1]) ? 1 : 0;
-
-        //Initialize a new GridGenerationStepper via the provided Grid instance.
-        final GridGenerationStepper gridGenerationStepper = new GridGenerationStepper(grid);
-
-        //Loop up to the targetGridGeneration.
-        for (long x = 0; x < targetGridGeneration.longValue(); x++) {
-            //Progress to the next generation of the provided Grid.
-            gridGenerationStepper.stepToNext();
-
-            //Determine if the targeted Cell has a GREEN Color in the next generation of the provided Grid.
-            if (gridGenerationStepper.getGrid().getCell(
-                    targetCellCoordinates[0], targetCellCoordinates[1])
-                    .getColor().isGreen())
-                /*
-                 * If the targeted Cell has a GREEN Color in the next generation of the provided Grid, increment the
-                 * counter.
-                 * */
-                targetCellGreenColorChanges++;
-        }
+    static long getTargetCellGreenColorChangesUpToTargetGeneration(final Grid grid,
+                                                                   final short[] targetCellCoordinates,
+                                                                   final TargetGridGeneration targetGridGeneration) {
+        //Snapshot the query, so that the Grid cannot be modified while the query is being answered.
+        final GridCellQuery gridCellQuery = new GridCellQuery(
+                grid, targetCellCoordinates[0], targetCellCoordinates[1], targetGridGeneration);
 
         /*
-        * Return the amount of times the targeted Cell had a GREEN Color up to the
-        * TargetGridGeneration (including the ZERO Generation).
+        * Answer the query via the GridEvolutionEngine, which is the cheapest for it (or the one, which is named by
+        * the 'green_vs_red.engine' system property).
         */
-        return targetCellGreenColorChanges;
+        return gridEvolutionEngineSelector.select(gridCellQuery)
+                .getTargetCellGreenColorChangesUpToTargetGeneration(gridCellQuery);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+package com.nnikolov.green_vs_red;
+
+import com.nnikolov.green_vs_red.engine.CancellableGridCellQuery;
+import com.nnikolov.green_vs_red.engine.GridCellQuery;
+import com.nnikolov.green_vs_red.engine.GridCellQueryResult;
+import com.nnikolov.green_vs_red.input.BatchCase;
+import com.nnikolov.green_vs_red.input.BatchCaseReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Processes a batch input file, which holds many concatenated cases, without any interaction with a User, and writes
+ * one result line per case to an output file, in the order of the cases within the input file.
+ *
+ * The result line of a valid case is the amount of times its targeted Cell had a GREEN Color, up to its
+ * TargetGridGeneration (exactly as the interactive application outputs it). The result line of a malformed case is
+ * an error record: "ERROR: <message>".
+ *
+ * The cases are read sequentially, but they are processed in parallel on a fixed pool of worker threads. At most
+ * a bounded amount of cases are in flight at once, so that the memory use does not depend on the size of the batch.
+ *
+ * With the system property: -Dgreen_vs_red.case.timeout=<milliseconds>; each case is given a deadline. The result line
+ * of a case, whose deadline expires, is a partial record: "PARTIAL: <count> up to generation <reached generation>".
+ * Such a case is still answered by the GridEvolutionEngine, which is selected for it, via a CancellableGridCellQuery.
+ *
+ * */
+final class GreenVsRedBatchProcessor {
+
+    /**
+     * The prefix of the result line of a malformed case.
+     *
+     * */
+    static final String errorRecordPrefix = "ERROR: ";
+
+    /**
+     * The prefix of the result line of a case, whose deadline has expired before its TargetGridGeneration.
+     *
+     * */
+    static final String partialRecordPrefix = "PARTIAL: ";
+
+    /**
+     * The amount of milliseconds, which each case may take, as selected via the 'green_vs_red.case.timeout' system
+     * property (0 by default, i.e. no deadline).
+     *
+     * */
+    private static final long caseTimeoutMillis = Long.getLong("green_vs_red.case.timeout", 0);
+
+    /**
+     * The amount of cases that may be in flight per worker thread.
+     *
+     * */
+    private static final int inFlightCasesPerWorkerThread = 4;
+
+    /**
+     * Process a batch input file and write the results of its cases to an output file.
+     *
+     * @param inputPath The Path of the batch input file.
+     *
+     * @param outputPath The Path of the output file. An existing file will be overwritten.
+     *
+     * @param workerThreadsCount The amount of worker threads, which process the cases in parallel.
+     *
+     * @return The amount of processed cases.
+     *
+     * @throws IOException If the batch input file cannot be read or the output file cannot be written.
+     *
+     * */
+    static long process(final Path inputPath, final Path outputPath, final int workerThreadsCount)
+            throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(workerThreadsCount);
+
+        //The results of the cases in flight, in the order of the cases within the input file.
+        final Deque<Future<String>> inFlightCaseResults = new ArrayDeque<>();
+
+        long processedCasesCount = 0;
+
+        try (final BufferedReader bufferedReader = Files.newBufferedReader(inputPath, StandardCharsets.UTF_8);
+             final BufferedWriter bufferedWriter = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            final BatchCaseReader batchCaseReader = new BatchCaseReader(bufferedReader);
+
+            BatchCase batchCase;
+
+            while ((batchCase = batchCaseReader.readNextCase()) != null) {
+                final BatchCase submittedBatchCase = batchCase;
+
+                inFlightCaseResults.addLast(executorService.submit(() -> processCase(submittedBatchCase)));
+
+                //Write the oldest result once the limit of the cases in flight is reached.
+                if (inFlightCaseResults.size() >= workerThreadsCount * inFlightCasesPerWorkerThread)
+                    writeResultLine(bufferedWriter, inFlightCaseResults.removeFirst());
+
+                processedCasesCount++;
+            }
+
+            //Write the results of all of the remaining cases.
+            while (!inFlightCaseResults.isEmpty())
+                writeResultLine(bufferedWriter, inFlightCaseResults.removeFirst());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return processedCasesCount;
+    }
+
+    /**
+     * Internal utility function.
+     * Calculate the result line of a single case.
+     *
+     * @param batchCase A valid or malformed BatchCase.
+     *
+     * @return The result line of the case.
+     *
+     * */
+    private static String processCase(final BatchCase batchCase) {
+        if (!batchCase.isValid())
+            return errorRecordPrefix + batchCase.getErrorMessage();
+
+        if (caseTimeoutMillis <= 0)
+            return Long.toString(GreenVsRed.getTargetCellGreenColorChangesUpToTargetGeneration(
+                    batchCase.getGrid(),
+                    new short[]{batchCase.getTargetCellCoordinateX(), batchCase.getTargetCellCoordinateY()},
+                    batchCase.getTargetGridGeneration()));
+
+        //Bound the time, which is spent on the case, and output a partial result once its deadline expires.
+        final GridCellQueryResult gridCellQueryResult = new CancellableGridCellQuery(
+                new GridCellQuery(batchCase.getGrid(), batchCase.getTargetCellCoordinateX(),
+                        batchCase.getTargetCellCoordinateY(), batchCase.getTargetGridGeneration()),
+                null, Long.MAX_VALUE, caseTimeoutMillis).call();
+
+        if (gridCellQueryResult.isComplete())
+            return Long.toString(gridCellQueryResult.getTargetCellGreenColorChanges());
+
+        return partialRecordPrefix + gridCellQueryResult.getTargetCellGreenColorChanges() +
+                " up to generation " + gridCellQueryResult.getReachedGeneration();
+    }
+
+    /**
+     * Internal utility function.
+     * Wait for the result of a case and write it as a line to the output file. An unexpected failure of the case is
+     * written as an error record, so that it does not stop the rest of the batch.
+     *
+     * */
+    private static void writeResultLine(final BufferedWriter bufferedWriter,
+                                        final Future<String> caseResult) throws IOException {
+        String resultLine;
+
+        try {
+            resultLine = caseResult.get();
+        } catch (final ExecutionException ex) {
+            resultLine = errorRecordPrefix + ex.getCause();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("The batch processing was interrupted.", ex);
+        }
+
+        bufferedWriter.write(resultLine);
+        bufferedWriter.newLine();
+    }
+}
@@ -0,0 +1,206 @@
+package com.nnikolov.green_vs_red;
+
+import com.nnikolov.green_vs_red.engine.BitSlicedBatchGridCellQueryEngine;
+import com.nnikolov.green_vs_red.engine.GridCellQuery;
+import com.nnikolov.green_vs_red.engine.GridEvolutionEngineSelector;
+import com.nnikolov.green_vs_red.exception.IncompatibleGridCellMatrixShapeException;
+import com.nnikolov.green_vs_red.exception.InvalidTargetGridGeneration;
+import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.CellMatrixGridCompatibilityValidator;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * An embeddable entry point of this application, which answers a query from primitive arguments, without any
+ * interaction with a User (i.e. without System.in, System.out or the InputArgumentsReader).
+ *
+ * The cellMatrix is passed as a bit-packed cell buffer, in the layout of the PackedCellMatrix class: each row consists
+ * of PackedCellMatrix.getRowWordsCount(cellMatrixSizeAxisX) 'long' words, where the Cell x is stored at the bit
+ * (x % 64) of the word (x / 64) and a set bit means a GREEN Color. The rows are stored one after another.
+ *
+ * An instance holds no mutable state besides its thread-safe PackedCellMatrixPool (its GridEvolutionEngineSelector
+ * and its engines are stateless), and this class holds no static state, therefore a single instance can be shared by
+ * any amount of threads. Each query is answered by the cheapest engine of the selector for it.
+ *
+ * The cellMatrices of each query (its input, its snapshot and the generations of the pool-aware engines) are
+ * acquired from the PackedCellMatrixPool of the solver and released back to it once the query is answered, so that
+ * back-to-back queries recycle their cellMatrix buffers.
+ *
+ * Many queries of same-sized (small) Grids can be answered at once via 'solveBatch', which evolves up to 64 of them
+ * simultaneously in the lanes of a BitSlicedBatchGridCellQueryEngine.
+ *
+ * */
+public final class GreenVsRedSolver {
+
+    /**
+     * The GridEvolutionEngineSelector, which picks the engine that answers each query.
+     *
+     * */
+    private final GridEvolutionEngineSelector gridEvolutionEngineSelector;
+
+    /**
+     * The PackedCellMatrixPool, which the cellMatrices of each query are acquired from.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Standard constructor.
+     * Answers the queries via all of the discovered GridEvolutionEngines (see GridEvolutionEngineSelector), with
+     * cellMatrices from its own PackedCellMatrixPool, which retains the default amount of words.
+     *
+     * */
+    public GreenVsRedSolver() {
+        this(GridEvolutionEngineSelector.fromServiceLoader(), new PackedCellMatrixPool());
+    }
+
+    /**
+     * Advanced constructor.
+     * Answers the queries via the engines of a given GridEvolutionEngineSelector, with cellMatrices from a given
+     * PackedCellMatrixPool (which may be shared with other solvers).
+     *
+     * @param gridEvolutionEngineSelector The GridEvolutionEngineSelector, which will pick the engine that answers each
+     *                                    query.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the cellMatrices of each query will be acquired
+     *                             from.
+     *
+     * */
+    public GreenVsRedSolver(final GridEvolutionEngineSelector gridEvolutionEngineSelector,
+                            final PackedCellMatrixPool packedCellMatrixPool) {
+        this.gridEvolutionEngineSelector = gridEvolutionEngineSelector;
+        this.packedCellMatrixPool = packedCellMatrixPool;
+    }
+
+    /**
+     * Calculate the amount of times a targeted Cell within a bit-packed cellMatrix will have a GREEN Color, up to a
+     * targeted generation (including the ZERO generation).
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * @param packedCellMatrixRows The bit-packed rows of the cellMatrix, as described above. It is not modified, and
+     *                             the bits beyond the horizontal size of the cellMatrix are ignored.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell.
+     *
+     * @param targetGridGeneration The targeted final generation.
+     *
+     * @return The amount of times the targeted Cell had a GREEN Color, up to the targeted generation.
+     *
+     * @throws IncompatibleGridCellMatrixShapeException If the dimensions are not compatible with a Grid.
+     *
+     * @throws IllegalArgumentException If the length of the cell buffer does not match the dimensions.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the targeted Cell is not within the cellMatrix.
+     *
+     * @throws InvalidTargetGridGeneration If the targeted generation is not positive.
+     *
+     * */
+    public long solve(final short cellMatrixSizeAxisX,
+                      final short cellMatrixSizeAxisY,
+                      final long[] packedCellMatrixRows,
+                      final short targetCellCoordinateX,
+                      final short targetCellCoordinateY,
+                      final long targetGridGeneration) {
+        if (!CellMatrixGridCompatibilityValidator.isCompatibleShape(cellMatrixSizeAxisX, cellMatrixSizeAxisY))
+            throw new IncompatibleGridCellMatrixShapeException(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+
+        final int wordsCount = PackedCellMatrix.getRowWordsCount(cellMatrixSizeAxisX) * cellMatrixSizeAxisY;
+
+        if (packedCellMatrixRows.length != wordsCount)
+            throw new IllegalArgumentException("The cell buffer holds: " + packedCellMatrixRows.length +
+                    " words, instead of the: " + wordsCount + " words of a (" + cellMatrixSizeAxisX + ", " +
+                    cellMatrixSizeAxisY + ") cellMatrix.");
+
+        final TargetGridGeneration validTargetGridGeneration = new TargetGridGeneration(targetGridGeneration);
+
+        //Copy the cell buffer into a pooled cellMatrix, which is adopted by a Grid.
+        final PackedCellMatrix packedCellMatrix =
+                packedCellMatrixPool.acquire(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        packedCellMatrix.readRowWordsFrom(LongBuffer.wrap(packedCellMatrixRows));
+
+        //Release the cellMatrices of the query back to the pool, once it is answered.
+        try (final Grid grid = new Grid(packedCellMatrix);
+             final GridCellQuery gridCellQuery = new GridCellQuery(grid, targetCellCoordinateX, targetCellCoordinateY,
+                     validTargetGridGeneration, packedCellMatrixPool)) {
+            //Answer the query via the cheapest engine for it.
+            return gridEvolutionEngineSelector.selectCheapest(gridCellQuery)
+                    .getTargetCellGreenColorChangesUpToTargetGeneration(gridCellQuery);
+        }
+    }
+
+    /**
+     * Calculate the amount of times the targeted Cell of each of many same-sized bit-packed cellMatrices will have a
+     * GREEN Color, up to its targeted generation (including the ZERO generation).
+     *
+     * The queries are answered in batches of up to BitSlicedBatchGridCellQueryEngine.MAX_LANES_COUNT queries, each of
+     * which is evolved at once in the lanes of a BitSlicedBatchGridCellQueryEngine, without a Grid instance per query.
+     * A batch is progressed up to the largest targeted generation within it, therefore this suits many small Grids
+     * with similar targeted generations best.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrices.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrices.
+     *
+     * @param packedCellMatrixRows The bit-packed rows of each cellMatrix, as described above. They are not modified.
+     *
+     * @param targetCellCoordinatesX The horizontal coordinate of the targeted Cell of each query.
+     *
+     * @param targetCellCoordinatesY The vertical coordinate of the targeted Cell of each query.
+     *
+     * @param targetGridGenerations The targeted final generation of each query.
+     *
+     * @return The amounts of times the targeted Cells had a GREEN Color, in the order of the queries.
+     *
+     * @throws IncompatibleGridCellMatrixShapeException If the dimensions are not compatible with a Grid.
+     *
+     * @throws IllegalArgumentException If the arrays differ in length, the length of a cell buffer does not match the
+     * dimensions or a targeted Cell is not within the cellMatrices.
+     *
+     * @throws InvalidTargetGridGeneration If a targeted generation is not positive.
+     *
+     * */
+    public long[] solveBatch(final short cellMatrixSizeAxisX,
+                             final short cellMatrixSizeAxisY,
+                             final long[][] packedCellMatrixRows,
+                             final short[] targetCellCoordinatesX,
+                             final short[] targetCellCoordinatesY,
+                             final long[] targetGridGenerations) {
+        if (!CellMatrixGridCompatibilityValidator.isCompatibleShape(cellMatrixSizeAxisX, cellMatrixSizeAxisY))
+            throw new IncompatibleGridCellMatrixShapeException(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+
+        final int queriesCount = packedCellMatrixRows.length;
+
+        if (targetCellCoordinatesX.length != queriesCount || targetCellCoordinatesY.length != queriesCount ||
+                targetGridGenerations.length != queriesCount)
+            throw new IllegalArgumentException("The arrays of the queries differ in length.");
+
+        final long[] targetCellGreenColorChanges = new long[queriesCount];
+
+        //Answer the queries one batch of lanes at a time.
+        for (int from = 0; from < queriesCount; from += BitSlicedBatchGridCellQueryEngine.MAX_LANES_COUNT) {
+            final int to = Math.min(queriesCount, from + BitSlicedBatchGridCellQueryEngine.MAX_LANES_COUNT);
+
+            final BitSlicedBatchGridCellQueryEngine bitSlicedBatchGridCellQueryEngine =
+                    new BitSlicedBatchGridCellQueryEngine(cellMatrixSizeAxisX, cellMatrixSizeAxisY,
+                            Arrays.copyOfRange(packedCellMatrixRows, from, to),
+                            Arrays.copyOfRange(targetCellCoordinatesX, from, to),
+                            Arrays.copyOfRange(targetCellCoordinatesY, from, to),
+                            Arrays.copyOfRange(targetGridGenerations, from, to));
+
+            System.arraycopy(bitSlicedBatchGridCellQueryEngine.getTargetCellGreenColorChangesUpToTargetGenerations(),
+                    0, targetCellGreenColorChanges, from, to - from);
+        }
+
+        return targetCellGreenColorChanges;
+    }
+}
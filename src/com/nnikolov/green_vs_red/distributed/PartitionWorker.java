@@ -0,0 +1,121 @@
+package com.nnikolov.green_vs_red.distributed;
+
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.util.GridGenerationStepBuffers;
+import com.nnikolov.green_vs_red.util.GridGenerationStepper;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * A worker JVM of a partitioned simulation, which is started by a PartitionedSimulationDriver. It owns a contiguous
+ * range of rows of the Grids cellMatrix and progresses them through all of the generations.
+ *
+ * The partition is stored with one extra halo row above and below it. Before each generation, the boundary rows of
+ * the partition are sent to the neighbouring workers and their boundary rows are received into the halo rows, so
+ * that every Cell of the partition sees all of its neighbours. The halo rows of the partitions at the top and the
+ * bottom of the cellMatrix remain RED, exactly like the Cells outside of the cellMatrix.
+ *
+ * Usage: PartitionWorker <driver port>
+ *
+ * */
+public final class PartitionWorker {
+
+    public static void main(final String[] args) throws IOException {
+        final InetAddress loopbackAddress = InetAddress.getLoopbackAddress();
+
+        try (final Socket driverSocket = new Socket(loopbackAddress, Integer.parseInt(args[0]));
+             final ServerSocket haloServerSocket = new ServerSocket(0, 1, loopbackAddress)) {
+            haloServerSocket.setSoTimeout(PartitionedSimulationProtocol.connectionTimeoutMillis);
+
+            final DataInputStream driverInputStream =
+                    PartitionedSimulationProtocol.openDataInputStream(driverSocket);
+            final DataOutputStream driverOutputStream =
+                    PartitionedSimulationProtocol.openDataOutputStream(driverSocket);
+
+            //Announce the port, which the upper neighbour should connect to.
+            driverOutputStream.writeInt(haloServerSocket.getLocalPort());
+            driverOutputStream.flush();
+
+            //Receive the partition assignment.
+            final short cellMatrixSizeAxisX = driverInputStream.readShort(),
+                    partitionRowsCount = driverInputStream.readShort();
+            final long generationsCount = driverInputStream.readLong();
+            final short targetCellCoordinateX = driverInputStream.readShort(),
+                    targetCellCoordinateY = driverInputStream.readShort();
+            final boolean hasUpperNeighbour = driverInputStream.readBoolean();
+            final int lowerNeighbourPort = driverInputStream.readInt();
+
+            //Receive the rows of the partition, between the two halo rows.
+            PackedCellMatrix current = new HeapPackedCellMatrix(cellMatrixSizeAxisX, (short) (partitionRowsCount + 2)),
+                    next = new HeapPackedCellMatrix(cellMatrixSizeAxisX, (short) (partitionRowsCount + 2));
+
+            for (int y = 1; y <= partitionRowsCount; y++)
+                PartitionedSimulationProtocol.readRow(driverInputStream, current, y);
+
+            //Connect to the lower neighbour first, so that the chain of workers cannot wait on each other.
+            try (final Socket lowerNeighbourSocket =
+                         lowerNeighbourPort == 0 ? null : new Socket(loopbackAddress, lowerNeighbourPort);
+                 final Socket upperNeighbourSocket = hasUpperNeighbour ? haloServerSocket.accept() : null) {
+                final DataInputStream lowerInputStream = lowerNeighbourSocket == null ? null :
+                        PartitionedSimulationProtocol.openDataInputStream(lowerNeighbourSocket);
+                final DataOutputStream lowerOutputStream = lowerNeighbourSocket == null ? null :
+                        PartitionedSimulationProtocol.openDataOutputStream(lowerNeighbourSocket);
+                final DataInputStream upperInputStream = upperNeighbourSocket == null ? null :
+                        PartitionedSimulationProtocol.openDataInputStream(upperNeighbourSocket);
+                final DataOutputStream upperOutputStream = upperNeighbourSocket == null ? null :
+                        PartitionedSimulationProtocol.openDataOutputStream(upperNeighbourSocket);
+
+                final boolean holdsTargetCell = targetCellCoordinateY >= 0;
+
+                //The row buffers, which are shared by all of the generations.
+                final GridGenerationStepBuffers gridGenerationStepBuffers =
+                        new GridGenerationStepBuffers(current.getCellMatrixSizeAxisX());
+
+                //Include the ZERO generation Color of the targeted Cell.
+                long targetCellGreenColorChanges =
+                        holdsTargetCell && current.isGreen(targetCellCoordinateX, targetCellCoordinateY + 1) ? 1 : 0;
+
+                for (long generation = 1; generation <= generationsCount; generation++) {
+                    //Send the boundary rows to the neighbours, before waiting for theirs.
+                    if (upperOutputStream != null) {
+                        PartitionedSimulationProtocol.writeRow(upperOutputStream, current, 1);
+                        upperOutputStream.flush();
+                    }
+
+                    if (lowerOutputStream != null) {
+                        PartitionedSimulationProtocol.writeRow(lowerOutputStream, current, partitionRowsCount);
+                        lowerOutputStream.flush();
+                    }
+
+                    //Receive the halo rows.
+                    if (upperInputStream != null)
+                        PartitionedSimulationProtocol.readRow(upperInputStream, current, 0);
+
+                    if (lowerInputStream != null)
+                        PartitionedSimulationProtocol.readRow(lowerInputStream, current, partitionRowsCount + 1);
+
+                    //Progress the rows of the partition and swap the cellMatrices.
+                    GridGenerationStepper.stepPackedCellMatrixRows(current, next, 1, partitionRowsCount,
+                            gridGenerationStepBuffers);
+
+                    final PackedCellMatrix previous = current;
+                    current = next;
+                    next = previous;
+
+                    if (holdsTargetCell && current.isGreen(targetCellCoordinateX, targetCellCoordinateY + 1))
+                        targetCellGreenColorChanges++;
+                }
+
+                //Report the result to the driver.
+                driverOutputStream.writeLong(targetCellGreenColorChanges);
+                driverOutputStream.flush();
+            }
+        }
+    }
+}
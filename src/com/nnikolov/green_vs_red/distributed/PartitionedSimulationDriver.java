@@ -0,0 +1,164 @@
+package com.nnikolov.green_vs_red.distributed;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lightweight driver of a partitioned simulation, which calculates the amount of times a targeted Cell within a
+ * Grids cellMatrix will have a GREEN Color, up to a certain TargetGridGeneration (including the ZERO generation), by
+ * splitting the cellMatrix into row partitions, which are progressed by separate worker JVMs (PartitionWorkers).
+ *
+ * The driver starts the worker JVMs with the same Java runtime and class path, hands each of them its rows and
+ * connects every worker to its lower neighbour. The workers then exchange one-row halos with their neighbours over
+ * loopback sockets, once per generation, without any involvement of the driver. Finally, the worker, which holds the
+ * targeted Cell, reports the result to the driver.
+ *
+ * This allows a simulation to use more heap and more cores than a single JVM. The protocol is described in the
+ * PartitionedSimulationProtocol class.
+ *
+ * */
+public final class PartitionedSimulationDriver {
+
+    /**
+     * Calculates the amount of times a targeted Cell will have a GREEN Color, up to the TargetGridGeneration
+     * (including the ZERO generation), via a partitioned simulation.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @param workersCount The amount of worker JVMs. It is limited to the vertical size of the Grids cellMatrix.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration (including the ZERO generation).
+     *
+     * @throws IOException If a worker JVM cannot be started or if it fails during the simulation.
+     *
+     * */
+    public static long getTargetCellGreenColorChangesUpToTargetGeneration(final Grid grid,
+                                                                          final short targetCellCoordinateX,
+                                                                          final short targetCellCoordinateY,
+                                                                          final TargetGridGeneration
+                                                                                  targetGridGeneration,
+                                                                          final int workersCount) throws IOException {
+        final PackedCellMatrix packedCellMatrix = grid.getPackedCellMatrix();
+        final short cellMatrixSizeAxisY = packedCellMatrix.getCellMatrixSizeAxisY();
+
+        //Every worker owns at least one row.
+        final int partitionsCount = Math.max(1, Math.min(workersCount, cellMatrixSizeAxisY));
+
+        final List<Process> workerProcesses = new ArrayList<>();
+        final List<Socket> workerSockets = new ArrayList<>();
+
+        try (final ServerSocket driverServerSocket =
+                     new ServerSocket(0, partitionsCount, InetAddress.getLoopbackAddress())) {
+            driverServerSocket.setSoTimeout(PartitionedSimulationProtocol.connectionTimeoutMillis);
+
+            //Start the worker JVMs with the same Java runtime and class path as this one.
+            for (int partitionIndex = 0; partitionIndex < partitionsCount; partitionIndex++)
+                workerProcesses.add(new ProcessBuilder(
+                        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"),
+                        PartitionWorker.class.getName(),
+                        Integer.toString(driverServerSocket.getLocalPort()))
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+
+            //The workers are assigned to the partitions in the order of their connection.
+            final int[] haloPorts = new int[partitionsCount];
+            final List<DataInputStream> workerInputStreams = new ArrayList<>();
+
+            for (int partitionIndex = 0; partitionIndex < partitionsCount; partitionIndex++) {
+                final Socket workerSocket = driverServerSocket.accept();
+                workerSockets.add(workerSocket);
+
+                workerInputStreams.add(PartitionedSimulationProtocol.openDataInputStream(workerSocket));
+                haloPorts[partitionIndex] = workerInputStreams.get(partitionIndex).readInt();
+            }
+
+            //Hand each worker its partition assignment and rows.
+            int ownerPartitionIndex = 0;
+
+            for (int partitionIndex = 0; partitionIndex < partitionsCount; partitionIndex++) {
+                final int firstRow = getPartitionFirstRow(partitionIndex, partitionsCount, cellMatrixSizeAxisY),
+                        lastRow = getPartitionFirstRow(partitionIndex + 1, partitionsCount, cellMatrixSizeAxisY) - 1;
+
+                final boolean holdsTargetCell = targetCellCoordinateY >= firstRow && targetCellCoordinateY <= lastRow;
+
+                if (holdsTargetCell)
+                    ownerPartitionIndex = partitionIndex;
+
+                final DataOutputStream workerOutputStream =
+                        PartitionedSimulationProtocol.openDataOutputStream(workerSockets.get(partitionIndex));
+
+                workerOutputStream.writeShort(packedCellMatrix.getCellMatrixSizeAxisX());
+                workerOutputStream.writeShort(lastRow - firstRow + 1);
+                workerOutputStream.writeLong(targetGridGeneration.longValue());
+                workerOutputStream.writeShort(targetCellCoordinateX);
+                workerOutputStream.writeShort(holdsTargetCell ? targetCellCoordinateY - firstRow : -1);
+                workerOutputStream.writeBoolean(partitionIndex > 0);
+                workerOutputStream.writeInt(partitionIndex < partitionsCount - 1 ? haloPorts[partitionIndex + 1] : 0);
+
+                for (int y = firstRow; y <= lastRow; y++)
+                    PartitionedSimulationProtocol.writeRow(workerOutputStream, packedCellMatrix, y);
+
+                workerOutputStream.flush();
+            }
+
+            //The generations may take arbitrarily long, hence the results are awaited without a timeout.
+            for (final Socket workerSocket : workerSockets)
+                workerSocket.setSoTimeout(0);
+
+            long targetCellGreenColorChanges = 0;
+
+            for (int partitionIndex = 0; partitionIndex < partitionsCount; partitionIndex++) {
+                final long workerResult = workerInputStreams.get(partitionIndex).readLong();
+
+                if (partitionIndex == ownerPartitionIndex)
+                    targetCellGreenColorChanges = workerResult;
+            }
+
+            return targetCellGreenColorChanges;
+        } finally {
+            for (final Socket workerSocket : workerSockets)
+                workerSocket.close();
+
+            //A worker, which has not exited yet, has failed and cannot complete its simulation any longer.
+            for (final Process workerProcess : workerProcesses)
+                try {
+                    if (!workerProcess.waitFor(1, TimeUnit.SECONDS))
+                        workerProcess.destroyForcibly();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    workerProcess.destroyForcibly();
+                }
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Get the first row of a partition, when the rows are split as evenly as possible.
+     *
+     * */
+    private static int getPartitionFirstRow(final int partitionIndex, final int partitionsCount,
+                                            final short cellMatrixSizeAxisY) {
+        return (int) ((long) partitionIndex * cellMatrixSizeAxisY / partitionsCount);
+    }
+}
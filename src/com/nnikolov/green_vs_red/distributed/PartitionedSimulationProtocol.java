@@ -0,0 +1,82 @@
+package com.nnikolov.green_vs_red.distributed;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Utility class, which holds the constants and the wire helpers, that are shared by the PartitionedSimulationDriver
+ * and its PartitionWorkers.
+ *
+ * All of the messages are sent over loopback TCP sockets, as big-endian primitives (via DataOutputStreams):
+ *
+ *      - Worker to driver, on connection: the port of the halo ServerSocket of the worker ('int').
+ *
+ *      - Driver to worker, the partition assignment: the horizontal size of the cellMatrix ('short'), the amount of
+ *      rows of the partition ('short'), the amount of generations ('long'), the horizontal & the partition-relative
+ *      vertical coordinates of the targeted Cell ('short' each, the latter is -1 if the partition does not hold the
+ *      targeted Cell), whether the partition has an upper neighbour ('boolean'), the halo port of the lower
+ *      neighbour ('int', 0 if none), followed by the bit-packed rows of the partition ('long' words).
+ *
+ *      - Worker to worker, once per generation: the bit-packed boundary row, which is the halo row of the neighbour.
+ *
+ *      - Worker to driver, after the last generation: the amount of times the targeted Cell had a GREEN Color ('long',
+ *      0 if the partition does not hold the targeted Cell).
+ *
+ * */
+final class PartitionedSimulationProtocol {
+
+    /**
+     * The amount of milliseconds, which the driver and the workers wait for a connection or a message.
+     *
+     * */
+    static final int connectionTimeoutMillis = 60_000;
+
+    /**
+     * Internal utility function.
+     * Configure a connected Socket and wrap its InputStream.
+     *
+     * */
+    static DataInputStream openDataInputStream(final Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(connectionTimeoutMillis);
+
+        return new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    /**
+     * Internal utility function.
+     * Wrap the OutputStream of a connected Socket.
+     *
+     * */
+    static DataOutputStream openDataOutputStream(final Socket socket) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Internal utility function.
+     * Write all of the words of a cellMatrix row to a stream.
+     *
+     * */
+    static void writeRow(final DataOutputStream dataOutputStream, final PackedCellMatrix packedCellMatrix,
+                         final int cellCoordinateY) throws IOException {
+        for (int rowWordIndex = 0; rowWordIndex < packedCellMatrix.getRowWordsCount(); rowWordIndex++)
+            dataOutputStream.writeLong(packedCellMatrix.getRowWord(cellCoordinateY, rowWordIndex));
+    }
+
+    /**
+     * Internal utility function.
+     * Read all of the words of a cellMatrix row from a stream.
+     *
+     * */
+    static void readRow(final DataInputStream dataInputStream, final PackedCellMatrix packedCellMatrix,
+                        final int cellCoordinateY) throws IOException {
+        for (int rowWordIndex = 0; rowWordIndex < packedCellMatrix.getRowWordsCount(); rowWordIndex++)
+            packedCellMatrix.setRowWord(cellCoordinateY, rowWordIndex, dataInputStream.readLong());
+    }
+}
@@ -0,0 +1,306 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationProgressionRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A query engine, which answers a batch of up to 64 queries of same-sized Grids at once, without a Grid or a
+ * GridGenerationStepper instance per query.
+ *
+ * The cellMatrices of the batch are transposed ("bit-sliced"), so that each 'long' word holds the same Cell of all of
+ * the Grids: the bit L of the word of a Cell holds its Color within the Grid of the lane L. All of the Grids are then
+ * progressed simultaneously, with bitwise adder logic instead of per-Cell neighbour counts. For each Cell, the
+ * GREEN Cells of its 3x3 block are summed per lane into four bit planes (a count of 0 to 9, which includes the Cell
+ * itself), and the next generation Colors of all of the lanes are selected from those planes, as per the
+ * GridGenerationProgressionRule.
+ *
+ * Every lane has its own targeted Cell and TargetGridGeneration. The batch is progressed up to the largest of them,
+ * and each lane stops counting once it has reached its own.
+ *
+ * */
+public final class BitSlicedBatchGridCellQueryEngine {
+
+    /**
+     * The largest amount of queries in a batch (one per bit of a word).
+     *
+     * */
+    public static final int MAX_LANES_COUNT = Long.SIZE;
+
+    /**
+     * The 3x3 block GREEN Cell counts (including the Cell itself), at which a RED Cell turns GREEN.
+     *
+     * */
+    private static final int[] redCellTurnsGreenBlockCounts = getBlockCounts(false);
+
+    /**
+     * The 3x3 block GREEN Cell counts (including the Cell itself), at which a GREEN Cell stays GREEN.
+     *
+     * */
+    private static final int[] greenCellStaysGreenBlockCounts = getBlockCounts(true);
+
+    /**
+     * The dimensions of the cellMatrices of the batch.
+     *
+     * */
+    private final short cellMatrixSizeAxisX, cellMatrixSizeAxisY;
+
+    /**
+     * The amount of queries in the batch.
+     *
+     * */
+    private final int lanesCount;
+
+    /**
+     * The buffer index of the targeted Cell of each lane.
+     *
+     * */
+    private final int[] targetCellBufferIndices;
+
+    /**
+     * The TargetGridGeneration of each lane.
+     *
+     * */
+    private final long[] targetGridGenerations;
+
+    /**
+     * The horizontal size of the buffers, including a one-Cell border on each side. The border words, which are
+     * outside of the cellMatrices, always stay ZERO (RED in all of the lanes).
+     *
+     * */
+    private final int bufferStride;
+
+    /**
+     * Two bit-sliced buffers, which hold the current and the next generation of all of the lanes.
+     *
+     * */
+    private long[] currentGenerationBuffer, nextGenerationBuffer;
+
+    /**
+     * Standard constructor, which transposes the bit-packed cellMatrices of a batch into its lanes.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrices.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrices.
+     *
+     * @param packedCellMatrixRows The bit-packed rows of each cellMatrix, in the layout of the PackedCellMatrix class
+     *                             (see GreenVsRedSolver). They are not modified, and the bits beyond the horizontal
+     *                             size of the cellMatrices are ignored.
+     *
+     * @param targetCellCoordinatesX The horizontal coordinate of the targeted Cell of each query.
+     *
+     * @param targetCellCoordinatesY The vertical coordinate of the targeted Cell of each query.
+     *
+     * @param targetGridGenerations The targeted final generation of each query.
+     *
+     * @throws IllegalArgumentException If the batch is empty, holds more than MAX_LANES_COUNT queries, its arrays
+     * differ in length, a cell buffer does not match the dimensions or a targeted Cell is not within the cellMatrices.
+     *
+     * @throws com.nnikolov.green_vs_red.exception.InvalidTargetGridGeneration If a targeted generation is not
+     * positive.
+     *
+     * */
+    public BitSlicedBatchGridCellQueryEngine(final short cellMatrixSizeAxisX,
+                                             final short cellMatrixSizeAxisY,
+                                             final long[][] packedCellMatrixRows,
+                                             final short[] targetCellCoordinatesX,
+                                             final short[] targetCellCoordinatesY,
+                                             final long[] targetGridGenerations) {
+        lanesCount = packedCellMatrixRows.length;
+
+        if (lanesCount == 0 || lanesCount > MAX_LANES_COUNT)
+            throw new IllegalArgumentException("The batch holds: " + lanesCount + " queries, instead of 1 to " +
+                    MAX_LANES_COUNT + " queries.");
+
+        if (targetCellCoordinatesX.length != lanesCount || targetCellCoordinatesY.length != lanesCount ||
+                targetGridGenerations.length != lanesCount)
+            throw new IllegalArgumentException("The arrays of the batch differ in length.");
+
+        this.cellMatrixSizeAxisX = cellMatrixSizeAxisX;
+        this.cellMatrixSizeAxisY = cellMatrixSizeAxisY;
+        this.targetCellBufferIndices = new int[lanesCount];
+        this.targetGridGenerations = new long[lanesCount];
+
+        //Initialise the buffers with a one-Cell border on each side.
+        bufferStride = cellMatrixSizeAxisX + 2;
+        currentGenerationBuffer = new long[bufferStride * (cellMatrixSizeAxisY + 2)];
+        nextGenerationBuffer = new long[currentGenerationBuffer.length];
+
+        final int rowWordsCount = PackedCellMatrix.getRowWordsCount(cellMatrixSizeAxisX);
+
+        for (int lane = 0; lane < lanesCount; lane++) {
+            if (packedCellMatrixRows[lane].length != rowWordsCount * cellMatrixSizeAxisY)
+                throw new IllegalArgumentException("The cell buffer of the query: " + lane + " holds: " +
+                        packedCellMatrixRows[lane].length + " words, instead of the: " +
+                        rowWordsCount * cellMatrixSizeAxisY + " words of a (" + cellMatrixSizeAxisX + ", " +
+                        cellMatrixSizeAxisY + ") cellMatrix.");
+
+            if (targetCellCoordinatesX[lane] < 0 || targetCellCoordinatesX[lane] >= cellMatrixSizeAxisX ||
+                    targetCellCoordinatesY[lane] < 0 || targetCellCoordinatesY[lane] >= cellMatrixSizeAxisY)
+                throw new IllegalArgumentException("The targeted cell coordinates (" + targetCellCoordinatesX[lane] +
+                        ", " + targetCellCoordinatesY[lane] + ") of the query: " + lane +
+                        " are invalid for this batch.");
+
+            targetCellBufferIndices[lane] = getBufferIndex(targetCellCoordinatesX[lane], targetCellCoordinatesY[lane]);
+            this.targetGridGenerations[lane] = new TargetGridGeneration(targetGridGenerations[lane]).longValue();
+
+            transposeIntoLane(packedCellMatrixRows[lane], rowWordsCount, lane);
+        }
+    }
+
+    /**
+     * Calculates the amount of times the targeted Cell of each query will have a GREEN Color, up to its
+     * TargetGridGeneration (including the ZERO generation).
+     *
+     * NOTE: The buffers are progressed by this function, therefore it should be called only once per instance.
+     *
+     * @return The amounts of times the targeted Cells had a GREEN Color, in the order of the queries.
+     *
+     * */
+    public long[] getTargetCellGreenColorChangesUpToTargetGenerations() {
+        final long[] targetCellGreenColorChanges = new long[lanesCount];
+        long largestTargetGridGeneration = 0;
+
+        //Include the ZERO generation Colors of the targeted Cells.
+        for (int lane = 0; lane < lanesCount; lane++) {
+            targetCellGreenColorChanges[lane] = currentGenerationBuffer[targetCellBufferIndices[lane]] >>> lane & 1;
+            largestTargetGridGeneration = Math.max(largestTargetGridGeneration, targetGridGenerations[lane]);
+        }
+
+        for (long generation = 1; generation <= largestTargetGridGeneration; generation++) {
+            stepToNext();
+
+            for (int lane = 0; lane < lanesCount; lane++)
+                if (generation <= targetGridGenerations[lane])
+                    targetCellGreenColorChanges[lane] +=
+                            currentGenerationBuffer[targetCellBufferIndices[lane]] >>> lane & 1;
+        }
+
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Internal utility function.
+     * Set the bit of a lane within the words of the GREEN Cells of a bit-packed cellMatrix.
+     *
+     * */
+    private void transposeIntoLane(final long[] packedCellMatrixRows, final int rowWordsCount, final int lane) {
+        for (int y = 0; y < cellMatrixSizeAxisY; y++)
+            for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++) {
+                long word = packedCellMatrixRows[y * rowWordsCount + rowWordIndex];
+
+                //Visit only the set bits of the word.
+                while (word != 0) {
+                    final int x = rowWordIndex * PackedCellMatrix.CELLS_PER_WORD + Long.numberOfTrailingZeros(word);
+
+                    if (x < cellMatrixSizeAxisX)
+                        currentGenerationBuffer[getBufferIndex(x, y)] |= 1L << lane;
+
+                    word &= word - 1;
+                }
+            }
+    }
+
+    /**
+     * Internal utility function.
+     * Progress all of the lanes to their next generation and swap the buffers.
+     *
+     * The vertical 3-Cell sums of the columns (two bit planes each: a weight of 1 and of 2) are rolled along each
+     * row, so that each of them is calculated once per row.
+     *
+     * */
+    private void stepToNext() {
+        final long[] current = currentGenerationBuffer, next = nextGenerationBuffer;
+        final int stride = bufferStride;
+
+        for (int y = 0; y < cellMatrixSizeAxisY; y++) {
+            //The left border column is RED in all of the lanes.
+            long leftOnes = 0, leftTwos = 0;
+
+            int index = getBufferIndex(0, y);
+            long centreOnes = current[index - stride] ^ current[index] ^ current[index + stride];
+            long centreTwos = majority(current[index - stride], current[index], current[index + stride]);
+
+            for (int x = 0; x < cellMatrixSizeAxisX; x++, index++) {
+                final long above = current[index + 1 - stride], middle = current[index + 1],
+                        below = current[index + 1 + stride];
+                final long rightOnes = above ^ middle ^ below, rightTwos = majority(above, middle, below);
+
+                //Sum the three columns into the bit planes of a count of 0 to 9.
+                final long onesCarry = majority(leftOnes, centreOnes, rightOnes);
+                final long twos = leftTwos ^ centreTwos ^ rightTwos,
+                        twosCarry = majority(leftTwos, centreTwos, rightTwos);
+
+                final long bit0 = leftOnes ^ centreOnes ^ rightOnes, bit1 = twos ^ onesCarry,
+                        bit2 = twosCarry ^ (twos & onesCarry), bit3 = twosCarry & twos & onesCarry;
+
+                final long cell = current[index];
+
+                next[index] = ~cell & matchesAnyBlockCount(redCellTurnsGreenBlockCounts, bit0, bit1, bit2, bit3) |
+                        cell & matchesAnyBlockCount(greenCellStaysGreenBlockCounts, bit0, bit1, bit2, bit3);
+
+                leftOnes = centreOnes;
+                leftTwos = centreTwos;
+                centreOnes = rightOnes;
+                centreTwos = rightTwos;
+            }
+        }
+
+        currentGenerationBuffer = next;
+        nextGenerationBuffer = current;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the index of a cellMatrix Cell within the buffers.
+     *
+     * */
+    private int getBufferIndex(final int cellCoordinateX, final int cellCoordinateY) {
+        return (cellCoordinateY + 1) * bufferStride + (cellCoordinateX + 1);
+    }
+
+    /**
+     * Internal utility function.
+     * Get the lanes, in which at least two of three words have a set bit (the carry of a full adder).
+     *
+     * */
+    private static long majority(final long a, final long b, final long c) {
+        return a & b | c & (a ^ b);
+    }
+
+    /**
+     * Internal utility function.
+     * Get the lanes, whose count (given as four bit planes) equals any of the provided counts.
+     *
+     * */
+    private static long matchesAnyBlockCount(final int[] blockCounts,
+                                             final long bit0, final long bit1, final long bit2, final long bit3) {
+        long lanes = 0;
+
+        for (final int blockCount : blockCounts)
+            lanes |= ((blockCount & 1) != 0 ? bit0 : ~bit0) & ((blockCount & 2) != 0 ? bit1 : ~bit1) &
+                    ((blockCount & 4) != 0 ? bit2 : ~bit2) & ((blockCount & 8) != 0 ? bit3 : ~bit3);
+
+        return lanes;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the 3x3 block GREEN Cell counts, at which a RED (or a GREEN) Cell has a GREEN Color in the next generation.
+     * The count of a GREEN Cell includes the Cell itself, therefore it is one more than its GREEN neighbours count.
+     *
+     * */
+    private static int[] getBlockCounts(final boolean cellIsGreen) {
+        final List<Integer> blockCounts = new ArrayList<>();
+
+        for (int greenNeighboursCount = 0; greenNeighboursCount <= GridGenerationProgressionRule.MAX_NEIGHBOURS_COUNT;
+             greenNeighboursCount++)
+            if (GridGenerationProgressionRule.nextGenerationCellIsGreen(cellIsGreen, greenNeighboursCount))
+                blockCounts.add(greenNeighboursCount + (cellIsGreen ? 1 : 0));
+
+        return blockCounts.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
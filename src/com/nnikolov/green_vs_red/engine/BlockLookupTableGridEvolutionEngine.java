@@ -0,0 +1,198 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.util.GridGenerationProgressionRule;
+
+import java.util.Arrays;
+
+/**
+ * A GridEvolutionEngine, which progresses the whole Grid without counting the neighbours of individual Cells. Instead,
+ * a precomputed lookup table maps every 4x4 block of Cells (a 16-bit key) to the next generation Colors of its inner
+ * 2x2 Cells (a 4-bit result), as per the GridGenerationProgressionRule.
+ *
+ * The Grids cellMatrix is kept in a bit-packed form. Each generation, the cellMatrix is covered by 2x2 output blocks,
+ * whose 4x4 keys are extracted straight out of four bit-packed rows (shifted by one Cell, so that the Cells to the
+ * left of the cellMatrix are available as RED Cells). The results of the blocks, which lie beyond the cellMatrix on
+ * its right or bottom edge, are masked out.
+ *
+ * The bits of a key are ordered row by row: the Cell at the row R (0 - 3) and the column C (0 - 3) of a block is
+ * stored at the bit R * 4 + C. The bits of a result are ordered likewise: (R - 1) * 2 + (C - 1).
+ *
+ * */
+public final class BlockLookupTableGridEvolutionEngine implements GridEvolutionEngine {
+
+    /**
+     * The cost of a single Cell generation update, relative to the dense stepping engine. Calibrated at about 6.5
+     * times the former 0.05 (measured ratios: 4.71 - 7.20). It is also used by the MirrorSymmetricGridEvolutionEngine,
+     * which progresses its region with this engine.
+     *
+     * */
+    static final double relativeCellUpdateCost = 0.32;
+
+    /**
+     * The lookup table of the inner 2x2 next generation results of all of the 65,536 4x4 blocks.
+     *
+     * */
+    private static final byte[] blockLookupTable = createBlockLookupTable();
+
+    @Override
+    public String getName() {
+        return "block-lookup-table";
+    }
+
+    @Override
+    public double estimateCost(final GridCellQuery gridCellQuery) {
+        return relativeCellUpdateCost * gridCellQuery.getFullProgressionCellUpdatesCount();
+    }
+
+    @Override
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery,
+                                                                   final GridGenerationMonitor gridGenerationMonitor) {
+        final short targetCellCoordinateX = gridCellQuery.getTargetCellCoordinateX(),
+                targetCellCoordinateY = gridCellQuery.getTargetCellCoordinateY();
+
+        //Obtain the two cellMatrices from the pool of the query, if it has one.
+        PackedCellMatrix current = gridCellQuery.acquirePackedCellMatrix(),
+                next = gridCellQuery.acquirePackedCellMatrix();
+
+        gridCellQuery.getGrid().copyPackedCellMatrixTo(current);
+
+        //Four bit-packed rows, which are shifted by one Cell to the left (with an extra word for the carried bits).
+        final long[][] shiftedRows = new long[4][current.getRowWordsCount() + 1];
+
+        //Include the ZERO generation Color of the targeted Cell.
+        long targetCellGreenColorChanges = current.isGreen(targetCellCoordinateX, targetCellCoordinateY) ? 1 : 0;
+
+        for (long generation = 1; generation <= gridCellQuery.getTargetGridGeneration().longValue(); generation++) {
+            if (!gridGenerationMonitor.onGeneration(generation - 1, targetCellGreenColorChanges))
+                break;
+
+            stepToNext(current, next, shiftedRows);
+
+            final PackedCellMatrix previous = current;
+            current = next;
+            next = previous;
+
+            if (current.isGreen(targetCellCoordinateX, targetCellCoordinateY))
+                targetCellGreenColorChanges++;
+        }
+
+        //Release the cellMatrices back to the pool of the query, if it has one.
+        current.close();
+        next.close();
+
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Package-level utility function, which is also used by the MirrorSymmetricGridEvolutionEngine.
+     * Progress a bit-packed cellMatrix to its next generation, one 2x2 block at a time.
+     *
+     * */
+    static void stepToNext(final PackedCellMatrix current, final PackedCellMatrix next, final long[][] shiftedRows) {
+        final int cellMatrixSizeAxisY = current.getCellMatrixSizeAxisY(), rowWordsCount = current.getRowWordsCount();
+
+        for (int blockY = 0; blockY < cellMatrixSizeAxisY; blockY += 2) {
+            //Load the four rows of the blocks (from the row above to the row below the pair of output rows).
+            for (int blockRow = 0; blockRow < 4; blockRow++)
+                loadShiftedRow(current, blockY - 1 + blockRow, shiftedRows[blockRow]);
+
+            final long[] row0 = shiftedRows[0], row1 = shiftedRows[1], row2 = shiftedRows[2], row3 = shiftedRows[3];
+
+            for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++) {
+                long upperWord = 0, lowerWord = 0;
+
+                //The shifted bit B holds the Cell B - 1, hence the block of the output Cell X starts at the bit X.
+                for (int bit = 0; bit < PackedCellMatrix.CELLS_PER_WORD; bit += 2) {
+                    final int key = getNibble(row0, rowWordIndex, bit) |
+                            getNibble(row1, rowWordIndex, bit) << 4 |
+                            getNibble(row2, rowWordIndex, bit) << 8 |
+                            getNibble(row3, rowWordIndex, bit) << 12;
+                    final int result = blockLookupTable[key];
+
+                    upperWord |= (long) (result & 3) << bit;
+                    lowerWord |= (long) (result >>> 2) << bit;
+                }
+
+                //The results beyond the right edge of the cellMatrix are masked out by 'setRowWord'.
+                next.setRowWord(blockY, rowWordIndex, upperWord);
+
+                if (blockY + 1 < cellMatrixSizeAxisY)
+                    next.setRowWord(blockY + 1, rowWordIndex, lowerWord);
+            }
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Load a row of a bit-packed cellMatrix, shifted by one Cell to the left (the shifted bit B holds the Cell B - 1).
+     * A row beyond the cellMatrix is loaded as RED Cells.
+     *
+     * */
+    private static void loadShiftedRow(final PackedCellMatrix packedCellMatrix, final int cellCoordinateY,
+                                       final long[] shiftedRow) {
+        final int rowWordsCount = packedCellMatrix.getRowWordsCount();
+
+        if (cellCoordinateY < 0 || cellCoordinateY >= packedCellMatrix.getCellMatrixSizeAxisY()) {
+            Arrays.fill(shiftedRow, 0L);
+
+            return;
+        }
+
+        long carriedBit = 0;
+
+        for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++) {
+            final long word = packedCellMatrix.getRowWord(cellCoordinateY, rowWordIndex);
+
+            shiftedRow[rowWordIndex] = word << 1 | carriedBit;
+            carriedBit = word >>> 63;
+        }
+
+        shiftedRow[rowWordsCount] = carriedBit;
+    }
+
+    /**
+     * Internal utility function.
+     * Get four consecutive bits of a shifted row, starting at an even bit of one of its words.
+     *
+     * */
+    private static int getNibble(final long[] shiftedRow, final int rowWordIndex, final int bit) {
+        //Only a nibble, which starts at the bit 62, spans two words.
+        final long nibble = bit == 62 ?
+                shiftedRow[rowWordIndex] >>> 62 | shiftedRow[rowWordIndex + 1] << 2 :
+                shiftedRow[rowWordIndex] >>> bit;
+
+        return (int) nibble & 0xF;
+    }
+
+    /**
+     * Internal utility function.
+     * Calculate the inner 2x2 next generation results of all of the 4x4 blocks.
+     *
+     * */
+    private static byte[] createBlockLookupTable() {
+        final byte[] lookupTable = new byte[1 << 16];
+
+        for (int key = 0; key < lookupTable.length; key++) {
+            int result = 0;
+
+            for (int row = 1; row <= 2; row++)
+                for (int column = 1; column <= 2; column++) {
+                    int greenNeighboursCount = 0;
+
+                    for (int neighbourRow = row - 1; neighbourRow <= row + 1; neighbourRow++)
+                        for (int neighbourColumn = column - 1; neighbourColumn <= column + 1; neighbourColumn++)
+                            if (neighbourRow != row || neighbourColumn != column)
+                                greenNeighboursCount += key >>> neighbourRow * 4 + neighbourColumn & 1;
+
+                    if (GridGenerationProgressionRule.nextGenerationCellIsGreen(
+                            (key >>> row * 4 + column & 1) == 1, greenNeighboursCount))
+                        result |= 1 << (row - 1) * 2 + (column - 1);
+                }
+
+            lookupTable[key] = (byte) result;
+        }
+
+        return lookupTable;
+    }
+}
@@ -0,0 +1,239 @@
+package com.nnikolov.green_vs_red.engine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A handle of a GridCellQuery, which can report its progress, be cancelled and be stopped by a deadline. The query is
+ * answered by the GridEvolutionEngine, which is selected for it (exactly like a query without a handle), while a
+ * GridGenerationMonitor observes the engine between two generations.
+ *
+ * The query is run by calling 'call' (either directly or by submitting the handle to an ExecutorService), while
+ * 'cancel' may be called from any other thread. Between two generations (or two blocks of generations, depending on
+ * the engine), the query checks whether:
+ *
+ *      - It was cancelled, or the thread, which runs it, was interrupted. In that case, it returns a CANCELLED
+ *      partial result.
+ *
+ *      - Its deadline (measured from the start of 'call') has expired. In that case, it returns a DEADLINE_EXPIRED
+ *      partial result.
+ *
+ *      - The progress interval has elapsed since its last progress report. In that case, it passes a new
+ *      GridCellQueryProgress to its GridCellQueryProgressListener.
+ *
+ * A partial result holds the GREEN Color count of the targeted Cell up to the reached generation, therefore a
+ * service can bound the time, which is spent on an untrusted TargetGridGeneration, and still return useful data.
+ *
+ * */
+public final class CancellableGridCellQuery implements Callable<GridCellQueryResult> {
+
+    /**
+     * The GridEvolutionEngineSelector, which picks the engine that answers each query.
+     *
+     * */
+    private static final GridEvolutionEngineSelector gridEvolutionEngineSelector =
+            GridEvolutionEngineSelector.fromServiceLoader();
+
+    /**
+     * The query, which is answered.
+     *
+     * */
+    private final GridCellQuery gridCellQuery;
+
+    /**
+     * The listener, which receives the progress reports of the query. NULL if there is none.
+     *
+     * */
+    private final GridCellQueryProgressListener gridCellQueryProgressListener;
+
+    /**
+     * The minimal amount of nanoseconds between two progress reports.
+     *
+     * */
+    private final long progressIntervalNanos;
+
+    /**
+     * The amount of nanoseconds after the start of the query, at which its deadline expires. Long.MAX_VALUE if the
+     * query has no deadline.
+     *
+     * */
+    private final long timeoutNanos;
+
+    /**
+     * Whether the query was cancelled.
+     *
+     * */
+    private volatile boolean cancelled;
+
+    /**
+     * Standard constructor.
+     * Accepts a query without progress reports and without a deadline.
+     *
+     * @param gridCellQuery The query, which will be answered.
+     *
+     * */
+    public CancellableGridCellQuery(final GridCellQuery gridCellQuery) {
+        this(gridCellQuery, null, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Advanced constructor.
+     * Accepts a query, a listener of its progress reports and its deadline.
+     *
+     * @param gridCellQuery The query, which will be answered.
+     *
+     * @param gridCellQueryProgressListener The listener, which will receive the progress reports of the query, or
+     *                                      NULL if there is none.
+     *
+     * @param progressIntervalMillis The minimal amount of milliseconds between two progress reports.
+     *
+     * @param timeoutMillis The amount of milliseconds after the start of the query, at which its deadline expires,
+     *                      or Long.MAX_VALUE if the query has no deadline.
+     *
+     * */
+    public CancellableGridCellQuery(final GridCellQuery gridCellQuery,
+                                    final GridCellQueryProgressListener gridCellQueryProgressListener,
+                                    final long progressIntervalMillis,
+                                    final long timeoutMillis) {
+        this.gridCellQuery = gridCellQuery;
+        this.gridCellQueryProgressListener = gridCellQueryProgressListener;
+        this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressIntervalMillis);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Run the query on the calling thread, until it completes, is cancelled or its deadline expires.
+     *
+     * @return The complete or partial result of the query.
+     *
+     * */
+    @Override
+    public GridCellQueryResult call() {
+        final long targetGridGeneration = gridCellQuery.getTargetGridGeneration().longValue();
+        final QueryGenerationMonitor queryGenerationMonitor = new QueryGenerationMonitor(targetGridGeneration);
+
+        //Answer the query via the selected engine, which stops once the monitor reports a cancellation or a deadline.
+        final long targetCellGreenColorChanges = gridEvolutionEngineSelector.select(gridCellQuery)
+                .getTargetCellGreenColorChangesUpToTargetGeneration(gridCellQuery, queryGenerationMonitor);
+
+        //Report the final progress of the query.
+        if (gridCellQueryProgressListener != null)
+            gridCellQueryProgressListener.onProgress(new GridCellQueryProgress(queryGenerationMonitor.reachedGeneration,
+                    targetGridGeneration, System.nanoTime() - queryGenerationMonitor.startNanos));
+
+        return new GridCellQueryResult(targetCellGreenColorChanges, queryGenerationMonitor.reachedGeneration,
+                queryGenerationMonitor.status);
+    }
+
+    /**
+     * Cancel the query. A running query stops before its next generation and returns a CANCELLED partial result. A
+     * query, which has not started yet, returns a CANCELLED result of its ZERO generation.
+     *
+     * */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Check if the query was cancelled.
+     *
+     * @return A boolean, which indicates whether the query was cancelled.
+     *
+     * */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Get the query, which is answered.
+     *
+     * @return The GridCellQuery of this handle.
+     *
+     * */
+    public GridCellQuery getGridCellQuery() {
+        return gridCellQuery;
+    }
+
+    /**
+     * The GridGenerationMonitor of a single run of the query, which checks for a cancellation and for the deadline,
+     * and passes the progress reports to the GridCellQueryProgressListener.
+     *
+     * */
+    private final class QueryGenerationMonitor implements GridGenerationMonitor {
+
+        /**
+         * The TargetGridGeneration of the query.
+         *
+         * */
+        private final long targetGridGeneration;
+
+        /**
+         * The System.nanoTime at the start of the query.
+         *
+         * */
+        private final long startNanos = System.nanoTime();
+
+        /**
+         * The System.nanoTime of the last progress report.
+         *
+         * */
+        private long lastProgressNanos = startNanos;
+
+        /**
+         * The generation, up to which the query was answered. The TargetGridGeneration, unless the engine was stopped.
+         *
+         * */
+        private long reachedGeneration;
+
+        /**
+         * The status of the query. COMPLETED, unless the engine was stopped.
+         *
+         * */
+        private GridCellQueryResult.Status status = GridCellQueryResult.Status.COMPLETED;
+
+        /**
+         * Standard constructor.
+         *
+         * @param targetGridGeneration The TargetGridGeneration of the query.
+         *
+         * */
+        private QueryGenerationMonitor(final long targetGridGeneration) {
+            this.targetGridGeneration = targetGridGeneration;
+            this.reachedGeneration = targetGridGeneration;
+        }
+
+        @Override
+        public boolean onGeneration(final long generation, final long targetCellGreenColorChanges) {
+            final long nowNanos = System.nanoTime();
+
+            //Stop between two generations, if the query was cancelled or its deadline has expired.
+            if (cancelled || Thread.currentThread().isInterrupted())
+                return stop(generation, GridCellQueryResult.Status.CANCELLED);
+
+            if (nowNanos - startNanos >= timeoutNanos)
+                return stop(generation, GridCellQueryResult.Status.DEADLINE_EXPIRED);
+
+            //Report the progress, once the progress interval has elapsed.
+            if (gridCellQueryProgressListener != null && nowNanos - lastProgressNanos >= progressIntervalNanos) {
+                gridCellQueryProgressListener.onProgress(new GridCellQueryProgress(
+                        generation, targetGridGeneration, nowNanos - startNanos));
+
+                lastProgressNanos = nowNanos;
+            }
+
+            return true;
+        }
+
+        /**
+         * Internal utility function.
+         * Record the generation, at which the engine is stopped, and the status of the query.
+         *
+         * */
+        private boolean stop(final long generation, final GridCellQueryResult.Status status) {
+            this.reachedGeneration = generation;
+            this.status = status;
+
+            return false;
+        }
+    }
+}
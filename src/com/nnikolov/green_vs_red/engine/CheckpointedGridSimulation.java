@@ -0,0 +1,124 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.exception.MalformedSimulationCheckpointFileException;
+import com.nnikolov.green_vs_red.io.SimulationCheckpoint;
+import com.nnikolov.green_vs_red.io.SimulationCheckpointFile;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationStepper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class, which answers a query by progressing the whole Grid, while periodically persisting its state to a
+ * simulation checkpoint file (see SimulationCheckpointFile), so that a very long simulation survives a restart.
+ *
+ * When a simulation starts, an existing checkpoint file is resumed, as long as it was written by the same query
+ * (the same initial cellMatrix, targeted Cell and TargetGridGeneration). Otherwise, or if the checkpoint file is
+ * malformed, the simulation starts over from the ZERO generation. The checkpoint file is deleted once the simulation
+ * completes.
+ *
+ * */
+public final class CheckpointedGridSimulation {
+
+    /**
+     * Count the generations (including the ZERO one), up to a TargetGridGeneration, in which a Cell has a GREEN Color,
+     * while checkpointing the simulation.
+     *
+     * @param grid The Grid, which holds the initial generation.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell.
+     *
+     * @param targetGridGeneration The last generation, which is progressed to.
+     *
+     * @param checkpointPath The Path of the simulation checkpoint file.
+     *
+     * @param checkpointIntervalMillis The minimal amount of milliseconds between two checkpoints.
+     *
+     * @return The amount of generations, in which the targeted Cell has a GREEN Color.
+     *
+     * @throws IOException If the checkpoint file cannot be read or written.
+     *
+     * */
+    public static long getTargetCellGreenColorChangesUpToTargetGeneration(final Grid grid,
+                                                                          final short targetCellCoordinateX,
+                                                                          final short targetCellCoordinateY,
+                                                                          final TargetGridGeneration
+                                                                                  targetGridGeneration,
+                                                                          final Path checkpointPath,
+                                                                          final long checkpointIntervalMillis)
+            throws IOException {
+        final long checkpointIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkpointIntervalMillis);
+        final long inputFingerprint = SimulationCheckpoint.computeInputFingerprint(grid.getPackedCellMatrix(),
+                targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration);
+
+        //Resume a checkpoint of the same query, if there is one.
+        final SimulationCheckpoint resumedSimulationCheckpoint = readCheckpointOfQuery(checkpointPath,
+                inputFingerprint);
+
+        final Grid initialGrid = resumedSimulationCheckpoint != null ?
+                new Grid(resumedSimulationCheckpoint.getPackedCellMatrix()) : grid;
+
+        long generation = resumedSimulationCheckpoint != null ? resumedSimulationCheckpoint.getGeneration() : 0;
+
+        try (final GridGenerationStepper gridGenerationStepper =
+                     new GridGenerationStepper(initialGrid, PackedCellMatrix.Storage.getPreferred())) {
+            //Include the ZERO generation Color of the targeted Cell, unless it is already counted by the checkpoint.
+            long targetCellGreenColorChanges = resumedSimulationCheckpoint != null ?
+                    resumedSimulationCheckpoint.getTargetCellGreenColorChanges() :
+                    gridGenerationStepper.isCellGreen(targetCellCoordinateX, targetCellCoordinateY) ? 1 : 0;
+
+            long lastCheckpointNanos = System.nanoTime();
+
+            while (generation < targetGridGeneration.longValue()) {
+                gridGenerationStepper.stepToNext();
+                generation++;
+
+                if (gridGenerationStepper.isCellGreen(targetCellCoordinateX, targetCellCoordinateY))
+                    targetCellGreenColorChanges++;
+
+                //Persist the state of the simulation, once the checkpoint interval has elapsed.
+                if (System.nanoTime() - lastCheckpointNanos >= checkpointIntervalNanos) {
+                    SimulationCheckpointFile.write(checkpointPath, new SimulationCheckpoint(inputFingerprint,
+                            generation, targetCellGreenColorChanges,
+                            gridGenerationStepper.getGrid().getPackedCellMatrix()));
+
+                    lastCheckpointNanos = System.nanoTime();
+                }
+            }
+
+            //The simulation is complete, hence its checkpoint is no longer needed.
+            Files.deleteIfExists(checkpointPath);
+
+            return targetCellGreenColorChanges;
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Read the checkpoint file, if it exists and was written by the query with the provided input fingerprint.
+     *
+     * @return The SimulationCheckpoint of the query or NULL, if there is none.
+     *
+     * */
+    private static SimulationCheckpoint readCheckpointOfQuery(final Path checkpointPath,
+                                                              final long inputFingerprint) throws IOException {
+        final SimulationCheckpoint simulationCheckpoint;
+
+        try {
+            simulationCheckpoint = SimulationCheckpointFile.read(checkpointPath);
+        } catch (final MalformedSimulationCheckpointFileException ex) {
+            //A malformed checkpoint cannot be resumed, the simulation starts over and overwrites it.
+            return null;
+        }
+
+        return simulationCheckpoint != null && simulationCheckpoint.getInputFingerprint() == inputFingerprint ?
+                simulationCheckpoint : null;
+    }
+}
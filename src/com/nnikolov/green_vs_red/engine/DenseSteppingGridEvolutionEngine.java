@@ -0,0 +1,89 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.GridGenerationStatistics;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.util.GridGenerationStepper;
+
+import java.util.function.Consumer;
+
+/**
+ * A GridEvolutionEngine, which progresses the whole Grid one generation at a time via a GridGenerationStepper. Its
+ * generations are kept by the preferred PackedCellMatrix.Storage option of this application, hence it is the only
+ * engine that answers queries when the DIRECT (off-heap) Storage is preferred.
+ *
+ * Optionally, the population statistics of every generation (see GridGenerationStatistics) are passed to a Consumer,
+ * e.g. a GridGenerationStatisticsCsvWriter.
+ *
+ * */
+public final class DenseSteppingGridEvolutionEngine implements GridEvolutionEngine {
+
+    /**
+     * The Consumer, which receives the population statistics of every generation of a query. NULL if there is none.
+     *
+     * */
+    private final Consumer<GridGenerationStatistics> gridGenerationStatisticsConsumer;
+
+    /**
+     * Standard constructor.
+     * The population statistics of the generations are not recorded.
+     *
+     * */
+    public DenseSteppingGridEvolutionEngine() {
+        this(null);
+    }
+
+    /**
+     * Statistics recording constructor.
+     *
+     * @param gridGenerationStatisticsConsumer The Consumer, which will receive the population statistics of every
+     *                                         generation of a query (including the ZERO one), in order.
+     *
+     * */
+    public DenseSteppingGridEvolutionEngine(final Consumer<GridGenerationStatistics> gridGenerationStatisticsConsumer) {
+        this.gridGenerationStatisticsConsumer = gridGenerationStatisticsConsumer;
+    }
+
+    @Override
+    public String getName() {
+        return "dense";
+    }
+
+    @Override
+    public double estimateCost(final GridCellQuery gridCellQuery) {
+        return gridCellQuery.getFullProgressionCellUpdatesCount();
+    }
+
+    @Override
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery,
+                                                                   final GridGenerationMonitor gridGenerationMonitor) {
+        final short targetCellCoordinateX = gridCellQuery.getTargetCellCoordinateX(),
+                targetCellCoordinateY = gridCellQuery.getTargetCellCoordinateY();
+
+        //Step the generations on cellMatrices from the pool of the query, if it has one.
+        try (final GridGenerationStepper gridGenerationStepper = gridCellQuery.getPackedCellMatrixPool() != null ?
+                new GridGenerationStepper(gridCellQuery.getGrid(), gridCellQuery.getPackedCellMatrixPool()) :
+                new GridGenerationStepper(gridCellQuery.getGrid(), PackedCellMatrix.Storage.getPreferred())) {
+            //Include the ZERO generation Color of the targeted Cell.
+            long targetCellGreenColorChanges =
+                    gridGenerationStepper.isCellGreen(targetCellCoordinateX, targetCellCoordinateY) ? 1 : 0;
+
+            if (gridGenerationStatisticsConsumer != null)
+                gridGenerationStatisticsConsumer.accept(gridGenerationStepper.getGridGenerationStatistics());
+
+            for (long generation = 0; generation < gridCellQuery.getTargetGridGeneration().longValue(); generation++) {
+                if (!gridGenerationMonitor.onGeneration(generation, targetCellGreenColorChanges))
+                    break;
+
+                gridGenerationStepper.stepToNext();
+
+                if (gridGenerationStatisticsConsumer != null)
+                    gridGenerationStatisticsConsumer.accept(gridGenerationStepper.getGridGenerationStatistics());
+
+                if (gridGenerationStepper.isCellGreen(targetCellCoordinateX, targetCellCoordinateY))
+                    targetCellGreenColorChanges++;
+            }
+
+            return targetCellGreenColorChanges;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+
+/**
+ * An immutable query, which asks how many times a targeted Cell within a Grids cellMatrix will have a GREEN Color,
+ * up to a certain TargetGridGeneration (including the ZERO generation). It is answered by a GridEvolutionEngine.
+ *
+ * The query holds its own snapshot of the Grid, therefore later changes of the Grid do not affect it.
+ *
+ * A query may be given a PackedCellMatrixPool. In that case, its snapshot is acquired from the pool, the engines,
+ * which answer it, acquire their cellMatrices from the pool as well (see acquirePackedCellMatrix), and closing the
+ * query releases its snapshot back to the pool.
+ *
+ * */
+public final class GridCellQuery implements AutoCloseable {
+
+    /**
+     * A snapshot of the queried Grid.
+     *
+     * */
+    private final Grid grid;
+
+    /**
+     * The PackedCellMatrix of the snapshot of the queried Grid.
+     *
+     * */
+    private final PackedCellMatrix packedCellMatrix;
+
+    /**
+     * The PackedCellMatrixPool of the query. NULL if it has none.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * The coordinates of the targeted Cell within the Grids cellMatrix.
+     *
+     * */
+    private final short targetCellCoordinateX, targetCellCoordinateY;
+
+    /**
+     * The TargetGridGeneration, up to which the targeted Cell is tracked.
+     *
+     * */
+    private final TargetGridGeneration targetGridGeneration;
+
+    /**
+     * The fraction of the Cells of the Grids cellMatrix, which have a GREEN Color.
+     *
+     * */
+    private final double greenCellsDensity;
+
+    /**
+     * Standard constructor.
+     * The snapshot of the Grid is allocated on the Java heap.
+     *
+     * @param grid An existing Grid instance. It is copied.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the targeted Cell is not within the bounds of the
+     * Grids cellMatrix, an Exception will be thrown.
+     *
+     * */
+    public GridCellQuery(final Grid grid,
+                         final short targetCellCoordinateX,
+                         final short targetCellCoordinateY,
+                         final TargetGridGeneration targetGridGeneration) {
+        this(grid, targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration, null);
+    }
+
+    /**
+     * Pooled constructor.
+     * The snapshot of the Grid is acquired from a PackedCellMatrixPool, and it is released back to it once the query
+     * is closed.
+     *
+     * @param grid An existing Grid instance. It is copied.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool of the query, or NULL if it should have none.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the targeted Cell is not within the bounds of the
+     * Grids cellMatrix, an Exception will be thrown.
+     *
+     * */
+    public GridCellQuery(final Grid grid,
+                         final short targetCellCoordinateX,
+                         final short targetCellCoordinateY,
+                         final TargetGridGeneration targetGridGeneration,
+                         final PackedCellMatrixPool packedCellMatrixPool) {
+        //Assert that the targeted Cell is within the bounds of the Grids cellMatrix.
+        grid.getCell(targetCellCoordinateX, targetCellCoordinateY);
+
+        //Copy the Grids cellMatrix into a pooled or a new snapshot cellMatrix.
+        packedCellMatrix = packedCellMatrixPool != null ?
+                packedCellMatrixPool.acquire(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()) :
+                new HeapPackedCellMatrix(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY());
+        grid.copyPackedCellMatrixTo(packedCellMatrix);
+
+        this.grid = new Grid(packedCellMatrix);
+        this.packedCellMatrixPool = packedCellMatrixPool;
+        this.targetCellCoordinateX = targetCellCoordinateX;
+        this.targetCellCoordinateY = targetCellCoordinateY;
+        this.targetGridGeneration = targetGridGeneration;
+        this.greenCellsDensity = (double) packedCellMatrix.getGreenCellsCount() /
+                (packedCellMatrix.getCellMatrixSizeAxisX() * packedCellMatrix.getCellMatrixSizeAxisY());
+    }
+
+    /**
+     * Get the snapshot of the queried Grid.
+     *
+     * NOTE: The snapshot is shared by all of the GridEvolutionEngines, which answer this query, therefore they must
+     * not modify it.
+     *
+     * @return The snapshot of the queried Grid.
+     *
+     * */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Get the horizontal size of the queried Grids cellMatrix.
+     *
+     * @return The horizontal size of the queried Grids cellMatrix.
+     *
+     * */
+    public short getCellMatrixSizeAxisX() {
+        return grid.getCellMatrixSizeAxisX();
+    }
+
+    /**
+     * Get the vertical size of the queried Grids cellMatrix.
+     *
+     * @return The vertical size of the queried Grids cellMatrix.
+     *
+     * */
+    public short getCellMatrixSizeAxisY() {
+        return grid.getCellMatrixSizeAxisY();
+    }
+
+    /**
+     * Get the horizontal coordinate of the targeted Cell.
+     *
+     * @return The horizontal coordinate of the targeted Cell.
+     *
+     * */
+    public short getTargetCellCoordinateX() {
+        return targetCellCoordinateX;
+    }
+
+    /**
+     * Get the vertical coordinate of the targeted Cell.
+     *
+     * @return The vertical coordinate of the targeted Cell.
+     *
+     * */
+    public short getTargetCellCoordinateY() {
+        return targetCellCoordinateY;
+    }
+
+    /**
+     * Get the TargetGridGeneration, up to which the targeted Cell is tracked.
+     *
+     * @return The TargetGridGeneration of the query.
+     *
+     * */
+    public TargetGridGeneration getTargetGridGeneration() {
+        return targetGridGeneration;
+    }
+
+    /**
+     * Get the fraction of the Cells of the queried Grids cellMatrix, which have a GREEN Color, in the ZERO
+     * generation.
+     *
+     * @return A number between 0 and 1.
+     *
+     * */
+    public double getGreenCellsDensity() {
+        return greenCellsDensity;
+    }
+
+    /**
+     * Get the amount of Cell generation updates, which a full progression of the Grid up to the TargetGridGeneration
+     * requires (X * Y * N). The cost estimations of the GridEvolutionEngines are relative to it.
+     *
+     * @return The amount of Cell generation updates of a full progression.
+     *
+     * */
+    public double getFullProgressionCellUpdatesCount() {
+        return (double) getCellMatrixSizeAxisX() * getCellMatrixSizeAxisY() * targetGridGeneration.longValue();
+    }
+
+    /**
+     * Package-level utility function.
+     * Get the PackedCellMatrix of the snapshot of the queried Grid, without copying it. It must not be modified.
+     *
+     * @return The PackedCellMatrix of the snapshot.
+     *
+     * */
+    PackedCellMatrix getPackedCellMatrix() {
+        return packedCellMatrix;
+    }
+
+    /**
+     * Get the PackedCellMatrixPool of the query.
+     *
+     * @return The PackedCellMatrixPool of the query, or NULL if it has none.
+     *
+     * */
+    public PackedCellMatrixPool getPackedCellMatrixPool() {
+        return packedCellMatrixPool;
+    }
+
+    /**
+     * Obtain a cellMatrix on the Java heap, which has the dimensions of the queried Grid and is filled with RED Color
+     * Cells. It is acquired from the PackedCellMatrixPool of the query, if it has one, therefore it should be closed
+     * by the engine, once it is no longer needed.
+     *
+     * @return A PackedCellMatrix with the dimensions of the queried Grid.
+     *
+     * */
+    public PackedCellMatrix acquirePackedCellMatrix() {
+        return packedCellMatrixPool != null ?
+                packedCellMatrixPool.acquire(getCellMatrixSizeAxisX(), getCellMatrixSizeAxisY()) :
+                new HeapPackedCellMatrix(getCellMatrixSizeAxisX(), getCellMatrixSizeAxisY());
+    }
+
+    /**
+     * Release the snapshot of the queried Grid back to the PackedCellMatrixPool of the query, if it has one. The query
+     * must not be answered afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        packedCellMatrix.close();
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getCellMatrixSizeAxisX() + ", " + getCellMatrixSizeAxisY() + ") Grid, Cell (" +
+                targetCellCoordinateX + ", " + targetCellCoordinateY + "), " + targetGridGeneration.longValue() +
+                " generations";
+    }
+}
@@ -0,0 +1,108 @@
+package com.nnikolov.green_vs_red.engine;
+
+/**
+ * An immutable report of the progress of a CancellableGridCellQuery, which is passed to its
+ * GridCellQueryProgressListener.
+ *
+ * */
+public final class GridCellQueryProgress {
+
+    /**
+     * The amount of generations, which have been progressed so far.
+     *
+     * */
+    private final long progressedGenerations;
+
+    /**
+     * The TargetGridGeneration of the query.
+     *
+     * */
+    private final long targetGridGeneration;
+
+    /**
+     * The amount of nanoseconds, which have elapsed since the query has started.
+     *
+     * */
+    private final long elapsedNanos;
+
+    /**
+     * Lone constructor.
+     *
+     * @param progressedGenerations The amount of generations, which have been progressed so far.
+     *
+     * @param targetGridGeneration The TargetGridGeneration of the query.
+     *
+     * @param elapsedNanos The amount of nanoseconds, which have elapsed since the query has started.
+     *
+     * */
+    public GridCellQueryProgress(final long progressedGenerations, final long targetGridGeneration,
+                                 final long elapsedNanos) {
+        this.progressedGenerations = progressedGenerations;
+        this.targetGridGeneration = targetGridGeneration;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the amount of generations, which have been progressed so far.
+     *
+     * @return The amount of progressed generations.
+     *
+     * */
+    public long getProgressedGenerations() {
+        return progressedGenerations;
+    }
+
+    /**
+     * Get the TargetGridGeneration of the query.
+     *
+     * @return The TargetGridGeneration of the query.
+     *
+     * */
+    public long getTargetGridGeneration() {
+        return targetGridGeneration;
+    }
+
+    /**
+     * Get the amount of nanoseconds, which have elapsed since the query has started.
+     *
+     * @return The elapsed nanoseconds.
+     *
+     * */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the average rate, at which the generations have been progressed so far.
+     *
+     * @return The amount of generations per second, or 0 if no time has elapsed yet.
+     *
+     * */
+    public double getGenerationsPerSecond() {
+        return elapsedNanos > 0 ? progressedGenerations * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * Get the estimated amount of nanoseconds, which remain until the TargetGridGeneration is reached, at the current
+     * average rate.
+     *
+     * @return The estimated remaining nanoseconds, or Long.MAX_VALUE if no generation has been progressed yet.
+     *
+     * */
+    public long getEstimatedRemainingNanos() {
+        if (progressedGenerations == 0)
+            return Long.MAX_VALUE;
+
+        return (long) ((double) elapsedNanos / progressedGenerations * (targetGridGeneration - progressedGenerations));
+    }
+
+    @Override
+    public String toString() {
+        return "GridCellQueryProgress{" +
+                "progressedGenerations=" + progressedGenerations +
+                ", targetGridGeneration=" + targetGridGeneration +
+                ", generationsPerSecond=" + getGenerationsPerSecond() +
+                ", estimatedRemainingNanos=" + getEstimatedRemainingNanos() +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.nnikolov.green_vs_red.engine;
+
+/**
+ * A callback, which receives the periodic progress reports of a CancellableGridCellQuery. It is called on the thread,
+ * which runs the query, therefore it should return quickly.
+ *
+ * */
+@FunctionalInterface
+public interface GridCellQueryProgressListener {
+
+    /**
+     * Receive a progress report.
+     *
+     * @param gridCellQueryProgress The current progress of the query.
+     *
+     * */
+    void onProgress(GridCellQueryProgress gridCellQueryProgress);
+}
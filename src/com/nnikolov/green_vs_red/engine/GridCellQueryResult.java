@@ -0,0 +1,108 @@
+package com.nnikolov.green_vs_red.engine;
+
+/**
+ * The immutable result of a CancellableGridCellQuery. A query, which was stopped before its TargetGridGeneration,
+ * returns a partial result, which covers the generations up to the reached one.
+ *
+ * */
+public final class GridCellQueryResult {
+
+    /**
+     * The amount of generations (including the ZERO one), up to the reached generation, in which the targeted Cell
+     * had a GREEN Color.
+     *
+     * */
+    private final long targetCellGreenColorChanges;
+
+    /**
+     * The last generation, which was progressed to.
+     *
+     * */
+    private final long reachedGeneration;
+
+    /**
+     * The Status, which describes how the query ended.
+     *
+     * */
+    private final Status status;
+
+    /**
+     * Lone constructor.
+     *
+     * @param targetCellGreenColorChanges The amount of generations, up to the reached generation, in which the
+     *                                    targeted Cell had a GREEN Color.
+     *
+     * @param reachedGeneration The last generation, which was progressed to.
+     *
+     * @param status The Status, which describes how the query ended.
+     *
+     * */
+    public GridCellQueryResult(final long targetCellGreenColorChanges, final long reachedGeneration,
+                               final Status status) {
+        this.targetCellGreenColorChanges = targetCellGreenColorChanges;
+        this.reachedGeneration = reachedGeneration;
+        this.status = status;
+    }
+
+    /**
+     * Get the amount of generations (including the ZERO one), up to the reached generation, in which the targeted
+     * Cell had a GREEN Color.
+     *
+     * @return The amount of generations, in which the targeted Cell had a GREEN Color.
+     *
+     * */
+    public long getTargetCellGreenColorChanges() {
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Get the last generation, which was progressed to.
+     *
+     * @return The reached generation.
+     *
+     * */
+    public long getReachedGeneration() {
+        return reachedGeneration;
+    }
+
+    /**
+     * Get the Status, which describes how the query ended.
+     *
+     * @return The Status of the query.
+     *
+     * */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Check if the query has reached its TargetGridGeneration.
+     *
+     * @return A boolean, which indicates whether the result is complete.
+     *
+     * */
+    public boolean isComplete() {
+        return status == Status.COMPLETED;
+    }
+
+    @Override
+    public String toString() {
+        return "GridCellQueryResult{" +
+                "targetCellGreenColorChanges=" + targetCellGreenColorChanges +
+                ", reachedGeneration=" + reachedGeneration +
+                ", status=" + status +
+                '}';
+    }
+
+    /**
+     * Query ending Status enumeration nested type. A query is either COMPLETED (its TargetGridGeneration was
+     * reached), CANCELLED (via its handle or by interrupting the thread, which ran it) or stopped, because its
+     * deadline has expired (DEADLINE_EXPIRED).
+     *
+     * */
+    public enum Status {
+        COMPLETED,
+        CANCELLED,
+        DEADLINE_EXPIRED
+    }
+}
@@ -0,0 +1,76 @@
+package com.nnikolov.green_vs_red.engine;
+
+/**
+ * A service provider interface of the engines, which answer a GridCellQuery, i.e. calculate the amount of times a
+ * targeted Cell within a Grids cellMatrix will have a GREEN Color, up to a certain TargetGridGeneration (including the
+ * ZERO generation).
+ *
+ * The implementations are discovered via a java.util.ServiceLoader, therefore they must be public, have a public
+ * no-argument constructor and be listed in: META-INF/services/com.nnikolov.green_vs_red.engine.GridEvolutionEngine
+ *
+ * All of the implementations must return identical answers for the same GridCellQuery, they may only differ in their
+ * performance. A GridEvolutionEngineSelector picks the implementation with the lowest estimated cost per query.
+ *
+ * The implementations must be stateless (or thread-safe), as a single instance may answer many queries at once.
+ *
+ * The implementations report their progress to a GridGenerationMonitor between two generations, so that a
+ * CancellableGridCellQuery can report the progress of, cancel or bound the time of whichever engine is selected.
+ *
+ * */
+public interface GridEvolutionEngine {
+
+    /**
+     * Get the unique name of this engine, via which it can be selected explicitly.
+     *
+     * @return The unique, lower-case name of this engine.
+     *
+     * */
+    String getName();
+
+    /**
+     * Estimate the cost of answering a GridCellQuery with this engine. The estimation is expressed in the equivalent
+     * amount of Cell generation updates of the dense stepping engine, so that the estimations of all of the engines
+     * are comparable.
+     *
+     * The relative cost factors of the engines were calibrated against the dense stepping engine (whose factor is
+     * 1.0): on random Grids of 999x999, 400x400 and 200x200 Cells (with 2%, 5% and 50% GREEN Color Cells, and a
+     * mirror-symmetric one), and 60 to 1000 generations, the time per estimated Cell generation update of each
+     * engine was divided by that of the dense stepping engine. Each time was the best of several runs on a warmed up
+     * JVM. The factor of an engine is the median of its ratios (unless noted otherwise by the engine).
+     *
+     * @param gridCellQuery The GridCellQuery, which would be answered.
+     *
+     * @return The estimated cost, or Double.POSITIVE_INFINITY if this engine cannot (or should not) answer the query.
+     *
+     * */
+    double estimateCost(GridCellQuery gridCellQuery);
+
+    /**
+     * Answer a GridCellQuery.
+     *
+     * @param gridCellQuery The GridCellQuery, which will be answered. It will not be modified.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration (including the ZERO generation).
+     *
+     * */
+    default long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery) {
+        return getTargetCellGreenColorChangesUpToTargetGeneration(gridCellQuery, GridGenerationMonitor.UNBOUNDED);
+    }
+
+    /**
+     * Answer a GridCellQuery, while reporting the progress to a GridGenerationMonitor between two generations. The
+     * monitor may stop the engine before the TargetGridGeneration.
+     *
+     * @param gridCellQuery The GridCellQuery, which will be answered. It will not be modified.
+     *
+     * @param gridGenerationMonitor The GridGenerationMonitor, which receives the progress and may stop the engine.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration, or up to the generation at which the monitor stopped the engine (including the ZERO
+     * generation).
+     *
+     * */
+    long getTargetCellGreenColorChangesUpToTargetGeneration(GridCellQuery gridCellQuery,
+                                                            GridGenerationMonitor gridGenerationMonitor);
+}
@@ -0,0 +1,423 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.GreenVsRedSolver;
+import com.nnikolov.green_vs_red.distributed.PartitionedSimulationDriver;
+import com.nnikolov.green_vs_red.model.Cell;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationProgressionRule;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A command-line tool, which checks that all of the discovered GridEvolutionEngines, and every other entry point,
+ * which answers queries (GreenVsRedSolver.solve and solveBatch, the IncrementalGridQuerySession, the
+ * GridGenerationHistoryIndex and the PartitionedSimulationDriver), return the answers of an independent reference.
+ *
+ * The reference progresses a plain boolean cellMatrix one Cell at a time, straight from the
+ * GridGenerationProgressionRule, hence it shares no stepping kernel with any of the verified entry points.
+ *
+ * It answers randomly generated GridCellQueries (with random dimensions, densities, targeted Cells and
+ * TargetGridGenerations), preceded by queries of edge shapes (a single column, horizontal sizes around the 64 Cells
+ * of a word) with corner targeted Cells, and reports every disagreement. The partial answers of the engines, which
+ * are stopped halfway by a GridGenerationMonitor, are verified as well.
+ *
+ * Usage: GridEvolutionEngineDifferentialVerifier [queries count] [seed] [largest horizontal size] [largest generation]
+ *        [partitioned queries count]
+ *
+ * The exit status is 0 if all of the entry points agree with the reference on all of the queries, otherwise it is 1.
+ *
+ * */
+public final class GridEvolutionEngineDifferentialVerifier {
+
+    /**
+     * The dimensions of the edge shape Grids, which are verified before the random ones.
+     *
+     * */
+    private static final short[][] edgeCellMatrixSizes = {
+            {1, 1}, {1, 2}, {1, 37}, {1, 999}, {2, 2}, {63, 63}, {63, 64}, {64, 64}, {64, 65}, {65, 65}, {65, 130}
+    };
+
+    /**
+     * The amount of worker JVMs of each partitioned query.
+     *
+     * */
+    private static final int partitionWorkersCount = 3;
+
+    public static void main(final String[] args) {
+        final int queriesCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        final int largestCellMatrixSizeAxisX = args.length > 2 ? Integer.parseInt(args[2]) : 80;
+        final int largestTargetGridGeneration = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+        final int partitionedQueriesCount = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+
+        final List<GridEvolutionEngine> gridEvolutionEngines =
+                GridEvolutionEngineSelector.fromServiceLoader().getGridEvolutionEngines();
+        final GreenVsRedSolver greenVsRedSolver = new GreenVsRedSolver();
+        final Random random = new Random(seed);
+
+        //The edge shape queries come first, so that they are also answered by the partitioned simulation.
+        final List<GridCellQuery> gridCellQueries = createEdgeShapeGridCellQueries(random, largestTargetGridGeneration);
+
+        for (int queryIndex = 0; queryIndex < queriesCount; queryIndex++)
+            gridCellQueries.add(
+                    createRandomGridCellQuery(random, largestCellMatrixSizeAxisX, largestTargetGridGeneration));
+
+        System.out.println("Verifying the engines: " + getNames(gridEvolutionEngines) + " and the other entry points " +
+                "via " + gridCellQueries.size() + " queries (seed: " + seed + ").");
+
+        long disagreementsCount = 0;
+
+        for (int queryIndex = 0; queryIndex < gridCellQueries.size(); queryIndex++) {
+            final GridCellQuery gridCellQuery = gridCellQueries.get(queryIndex);
+
+            final List<String> disagreements = findDisagreements(gridCellQuery, gridEvolutionEngines);
+            disagreements.addAll(findEntryPointDisagreements(gridCellQuery, greenVsRedSolver, random));
+
+            if (queryIndex < partitionedQueriesCount)
+                disagreements.addAll(findPartitionedSimulationDisagreements(gridCellQuery));
+
+            for (final String disagreement : disagreements) {
+                System.out.println(disagreement);
+                disagreementsCount++;
+            }
+        }
+
+        System.out.println(disagreementsCount == 0 ? "All of the engines and entry points agree with the reference." :
+                disagreementsCount + " disagreements were found.");
+
+        System.exit(disagreementsCount == 0 ? 0 : 1);
+    }
+
+    /**
+     * Answer a GridCellQuery with every engine and describe each answer, which differs from that of the reference.
+     * Every engine also answers the query once more, while a GridGenerationMonitor stops it halfway, and its partial
+     * answer is compared with the reference up to the generation, at which it was stopped.
+     *
+     * @param gridCellQuery The GridCellQuery, which will be answered.
+     *
+     * @param gridEvolutionEngines The engines, which will answer the query.
+     *
+     * @return A List of the descriptions of the disagreements, which is empty if all of the engines agree.
+     *
+     * */
+    public static List<String> findDisagreements(final GridCellQuery gridCellQuery,
+                                                 final List<GridEvolutionEngine> gridEvolutionEngines) {
+        final List<String> disagreements = new ArrayList<>();
+
+        final long referenceAnswer = getReferenceTargetCellGreenColorChanges(gridCellQuery.getGrid(),
+                gridCellQuery.getTargetCellCoordinateX(), gridCellQuery.getTargetCellCoordinateY(),
+                gridCellQuery.getTargetGridGeneration().longValue());
+
+        for (final GridEvolutionEngine gridEvolutionEngine : gridEvolutionEngines)
+            addDisagreement(disagreements, gridCellQuery.toString(), gridEvolutionEngine.getName(), referenceAnswer,
+                    gridEvolutionEngine.getTargetCellGreenColorChangesUpToTargetGeneration(gridCellQuery));
+
+        final long targetGridGeneration = gridCellQuery.getTargetGridGeneration().longValue(),
+                stopGeneration = targetGridGeneration / 2;
+
+        for (final GridEvolutionEngine gridEvolutionEngine : gridEvolutionEngines) {
+            //An engine may only be stopped between two of its steps, hence at a later generation than requested.
+            final long[] reachedGeneration = {targetGridGeneration};
+
+            final long partialAnswer = gridEvolutionEngine.getTargetCellGreenColorChangesUpToTargetGeneration(
+                    gridCellQuery, (generation, targetCellGreenColorChanges) -> {
+                        if (generation < stopGeneration)
+                            return true;
+
+                        reachedGeneration[0] = generation;
+
+                        return false;
+                    });
+
+            addDisagreement(disagreements, gridCellQuery + " (stopped at generation " + reachedGeneration[0] + ")",
+                    gridEvolutionEngine.getName(), getReferenceTargetCellGreenColorChanges(gridCellQuery.getGrid(),
+                            gridCellQuery.getTargetCellCoordinateX(), gridCellQuery.getTargetCellCoordinateY(),
+                            reachedGeneration[0]), partialAnswer);
+        }
+
+        return disagreements;
+    }
+
+    /**
+     * Calculate the amount of times a targeted Cell will have a GREEN Color, up to a targeted generation (including
+     * the ZERO generation), by counting the GREEN neighbours of every Cell of a plain boolean cellMatrix. It is slow,
+     * but it is independent of the bit-packed stepping kernels of the verified entry points.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell.
+     *
+     * @param targetGridGeneration The targeted final generation.
+     *
+     * @return The amount of times the targeted Cell had a GREEN Color, up to the targeted generation.
+     *
+     * */
+    public static long getReferenceTargetCellGreenColorChanges(final Grid grid,
+                                                               final short targetCellCoordinateX,
+                                                               final short targetCellCoordinateY,
+                                                               final long targetGridGeneration) {
+        final int cellMatrixSizeAxisX = grid.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = grid.getCellMatrixSizeAxisY();
+
+        boolean[][] current = new boolean[cellMatrixSizeAxisY][cellMatrixSizeAxisX],
+                next = new boolean[cellMatrixSizeAxisY][cellMatrixSizeAxisX];
+
+        for (short y = 0; y < cellMatrixSizeAxisY; y++)
+            for (short x = 0; x < cellMatrixSizeAxisX; x++)
+                current[y][x] = grid.getCell(x, y).getColor().isGreen();
+
+        //Include the ZERO generation Color of the targeted Cell.
+        long targetCellGreenColorChanges = current[targetCellCoordinateY][targetCellCoordinateX] ? 1 : 0;
+
+        for (long generation = 1; generation <= targetGridGeneration; generation++) {
+            for (int y = 0; y < cellMatrixSizeAxisY; y++)
+                for (int x = 0; x < cellMatrixSizeAxisX; x++) {
+                    int greenNeighboursCount = 0;
+
+                    //Count the GREEN neighbours within the bounds of the cellMatrix.
+                    for (int neighbourY = Math.max(0, y - 1);
+                         neighbourY <= Math.min(cellMatrixSizeAxisY - 1, y + 1); neighbourY++)
+                        for (int neighbourX = Math.max(0, x - 1);
+                             neighbourX <= Math.min(cellMatrixSizeAxisX - 1, x + 1); neighbourX++)
+                            if ((neighbourX != x || neighbourY != y) && current[neighbourY][neighbourX])
+                                greenNeighboursCount++;
+
+                    next[y][x] = GridGenerationProgressionRule.nextGenerationCellIsGreen(current[y][x],
+                            greenNeighboursCount);
+                }
+
+            final boolean[][] previous = current;
+            current = next;
+            next = previous;
+
+            if (current[targetCellCoordinateY][targetCellCoordinateX])
+                targetCellGreenColorChanges++;
+        }
+
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Internal utility function.
+     * Answer a GridCellQuery via the GreenVsRedSolver (both a single query and a batch, which also targets the corner
+     * Cells), a GridGenerationHistoryIndex (also at an intermediate generation) and an IncrementalGridQuerySession
+     * (also after a Cell of the Grid is flipped), and describe each answer, which differs from that of the reference.
+     *
+     * */
+    private static List<String> findEntryPointDisagreements(final GridCellQuery gridCellQuery,
+                                                            final GreenVsRedSolver greenVsRedSolver,
+                                                            final Random random) {
+        final List<String> disagreements = new ArrayList<>();
+
+        final Grid grid = gridCellQuery.getGrid();
+        final short cellMatrixSizeAxisX = gridCellQuery.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = gridCellQuery.getCellMatrixSizeAxisY(),
+                targetCellCoordinateX = gridCellQuery.getTargetCellCoordinateX(),
+                targetCellCoordinateY = gridCellQuery.getTargetCellCoordinateY();
+        final long targetGridGeneration = gridCellQuery.getTargetGridGeneration().longValue();
+        final String description = gridCellQuery.toString();
+
+        final long referenceAnswer = getReferenceTargetCellGreenColorChanges(grid,
+                targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration);
+
+        //The GreenVsRedSolver, with the bit-packed rows of the Grid.
+        final PackedCellMatrix packedCellMatrix = grid.getPackedCellMatrix();
+        final long[] packedCellMatrixRows = new long[packedCellMatrix.getWordsCount()];
+        packedCellMatrix.writeRowWordsTo(LongBuffer.wrap(packedCellMatrixRows));
+
+        addDisagreement(disagreements, description, "solver", referenceAnswer,
+                greenVsRedSolver.solve(cellMatrixSizeAxisX, cellMatrixSizeAxisY, packedCellMatrixRows,
+                        targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration));
+
+        //A batch, whose lanes target the queried Cell and the opposite corner Cells, up to different generations.
+        final short[] batchTargetCellCoordinatesX = {targetCellCoordinateX, 0, (short) (cellMatrixSizeAxisX - 1)},
+                batchTargetCellCoordinatesY = {targetCellCoordinateY, 0, (short) (cellMatrixSizeAxisY - 1)};
+        final long[] batchTargetGridGenerations =
+                {targetGridGeneration, targetGridGeneration, 1 + random.nextInt((int) targetGridGeneration)};
+
+        final long[] batchAnswers = greenVsRedSolver.solveBatch(cellMatrixSizeAxisX, cellMatrixSizeAxisY,
+                new long[][] {packedCellMatrixRows, packedCellMatrixRows, packedCellMatrixRows},
+                batchTargetCellCoordinatesX, batchTargetCellCoordinatesY, batchTargetGridGenerations);
+
+        for (int lane = 0; lane < batchAnswers.length; lane++)
+            addDisagreement(disagreements, "(" + cellMatrixSizeAxisX + ", " + cellMatrixSizeAxisY + ") Grid, Cell (" +
+                            batchTargetCellCoordinatesX[lane] + ", " + batchTargetCellCoordinatesY[lane] + "), " +
+                            batchTargetGridGenerations[lane] + " generations", "solver batch",
+                    getReferenceTargetCellGreenColorChanges(grid, batchTargetCellCoordinatesX[lane],
+                            batchTargetCellCoordinatesY[lane], batchTargetGridGenerations[lane]),
+                    batchAnswers[lane]);
+
+        //The GridGenerationHistoryIndex, at the targeted and at an intermediate generation.
+        final GridGenerationHistoryIndex gridGenerationHistoryIndex =
+                new GridGenerationHistoryIndex(grid, gridCellQuery.getTargetGridGeneration());
+        final long intermediateGeneration = random.nextInt((int) targetGridGeneration + 1);
+
+        addDisagreement(disagreements, description, "history index", referenceAnswer,
+                gridGenerationHistoryIndex.getCellGreenColorChangesUpToGeneration(
+                        targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration));
+        addDisagreement(disagreements, description + " (up to generation " + intermediateGeneration + ")",
+                "history index",
+                getReferenceTargetCellGreenColorChanges(grid, targetCellCoordinateX, targetCellCoordinateY,
+                        intermediateGeneration),
+                gridGenerationHistoryIndex.getCellGreenColorChangesUpToGeneration(
+                        targetCellCoordinateX, targetCellCoordinateY, intermediateGeneration));
+
+        //The IncrementalGridQuerySession, before and after a random Cell is flipped.
+        final IncrementalGridQuerySession incrementalGridQuerySession =
+                new IncrementalGridQuerySession(grid, gridCellQuery.getTargetGridGeneration());
+
+        addDisagreement(disagreements, description, "incremental session", referenceAnswer,
+                incrementalGridQuerySession.getCellGreenColorChangesUpToTargetGeneration(
+                        targetCellCoordinateX, targetCellCoordinateY));
+
+        final short flippedCellCoordinateX = (short) random.nextInt(cellMatrixSizeAxisX),
+                flippedCellCoordinateY = (short) random.nextInt(cellMatrixSizeAxisY);
+        final Cell.Color flippedColor = grid.getCell(flippedCellCoordinateX, flippedCellCoordinateY).getColor()
+                .isGreen() ? Cell.Color.RED : Cell.Color.GREEN;
+
+        final Grid flippedGrid = new Grid(grid.getPackedCellMatrix());
+        flippedGrid.setCellColor(flippedCellCoordinateX, flippedCellCoordinateY, flippedColor);
+        incrementalGridQuerySession.setCellColor(flippedCellCoordinateX, flippedCellCoordinateY, flippedColor);
+
+        addDisagreement(disagreements, description + " (after flipping the Cell (" + flippedCellCoordinateX + ", " +
+                        flippedCellCoordinateY + "))", "incremental session",
+                getReferenceTargetCellGreenColorChanges(flippedGrid, targetCellCoordinateX, targetCellCoordinateY,
+                        targetGridGeneration),
+                incrementalGridQuerySession.getCellGreenColorChangesUpToTargetGeneration(
+                        targetCellCoordinateX, targetCellCoordinateY));
+
+        return disagreements;
+    }
+
+    /**
+     * Internal utility function.
+     * Answer a GridCellQuery via a PartitionedSimulationDriver, and describe its answer (or its failure), if it
+     * differs from that of the reference.
+     *
+     * */
+    private static List<String> findPartitionedSimulationDisagreements(final GridCellQuery gridCellQuery) {
+        final List<String> disagreements = new ArrayList<>();
+
+        final long referenceAnswer = getReferenceTargetCellGreenColorChanges(gridCellQuery.getGrid(),
+                gridCellQuery.getTargetCellCoordinateX(), gridCellQuery.getTargetCellCoordinateY(),
+                gridCellQuery.getTargetGridGeneration().longValue());
+
+        try {
+            addDisagreement(disagreements, gridCellQuery.toString(), "partitioned simulation", referenceAnswer,
+                    PartitionedSimulationDriver.getTargetCellGreenColorChangesUpToTargetGeneration(
+                            gridCellQuery.getGrid(), gridCellQuery.getTargetCellCoordinateX(),
+                            gridCellQuery.getTargetCellCoordinateY(), gridCellQuery.getTargetGridGeneration(),
+                            partitionWorkersCount));
+        } catch (final IOException ex) {
+            disagreements.add("Failure on the query: " + gridCellQuery + "; partitioned simulation: " +
+                    ex.getMessage());
+        }
+
+        return disagreements;
+    }
+
+    /**
+     * Internal utility function.
+     * Describe an answer of an entry point, if it differs from that of the reference.
+     *
+     * */
+    private static void addDisagreement(final List<String> disagreements, final String description,
+                                        final String name, final long referenceAnswer, final long answer) {
+        if (answer != referenceAnswer)
+            disagreements.add("Disagreement on the query: " + description + "; reference: " + referenceAnswer +
+                    ", " + name + ": " + answer + ".");
+    }
+
+    /**
+     * Internal utility function.
+     * Create a GridCellQuery for every edge shape, which targets one of its corner Cells.
+     *
+     * */
+    private static List<GridCellQuery> createEdgeShapeGridCellQueries(final Random random,
+                                                                      final int largestTargetGridGeneration) {
+        final List<GridCellQuery> gridCellQueries = new ArrayList<>();
+
+        for (int shapeIndex = 0; shapeIndex < edgeCellMatrixSizes.length; shapeIndex++) {
+            final short cellMatrixSizeAxisX = edgeCellMatrixSizes[shapeIndex][0],
+                    cellMatrixSizeAxisY = edgeCellMatrixSizes[shapeIndex][1];
+
+            //Cycle through the four corners of the cellMatrices.
+            gridCellQueries.add(new GridCellQuery(createRandomGrid(random, cellMatrixSizeAxisX, cellMatrixSizeAxisY),
+                    (short) (shapeIndex % 2 == 0 ? 0 : cellMatrixSizeAxisX - 1),
+                    (short) (shapeIndex / 2 % 2 == 0 ? 0 : cellMatrixSizeAxisY - 1),
+                    new TargetGridGeneration(1L + random.nextInt(largestTargetGridGeneration))));
+        }
+
+        return gridCellQueries;
+    }
+
+    /**
+     * Internal utility function.
+     * Create a GridCellQuery with a random Grid (of a random density), targeted Cell and TargetGridGeneration.
+     *
+     * */
+    private static GridCellQuery createRandomGridCellQuery(final Random random,
+                                                           final int largestCellMatrixSizeAxisX,
+                                                           final int largestTargetGridGeneration) {
+        //The dimensions conform to the shape constraint: 0 < X <= Y < 1000.
+        final short cellMatrixSizeAxisX = (short) (1 + random.nextInt(largestCellMatrixSizeAxisX)),
+                cellMatrixSizeAxisY = (short) Math.min(999, cellMatrixSizeAxisX + random.nextInt(
+                        largestCellMatrixSizeAxisX));
+
+        return new GridCellQuery(createRandomGrid(random, cellMatrixSizeAxisX, cellMatrixSizeAxisY),
+                (short) random.nextInt(cellMatrixSizeAxisX), (short) random.nextInt(cellMatrixSizeAxisY),
+                new TargetGridGeneration(1L + random.nextInt(largestTargetGridGeneration)));
+    }
+
+    /**
+     * Internal utility function.
+     * Create a Grid of a random density, some of which are mirrored about their middle axes.
+     *
+     * */
+    private static Grid createRandomGrid(final Random random,
+                                         final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        final Grid grid = new Grid(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        final double greenCellsDensity = random.nextDouble();
+
+        for (short y = 0; y < cellMatrixSizeAxisY; y++)
+            for (short x = 0; x < cellMatrixSizeAxisX; x++)
+                if (random.nextDouble() < greenCellsDensity)
+                    grid.setCellColor(x, y, Cell.Color.GREEN);
+
+        //Mirror some of the Grids about their middle axes, so that the mirror-symmetric engine is exercised too.
+        final boolean mirroredAboutVerticalAxis = random.nextInt(4) == 0,
+                mirroredAboutHorizontalAxis = random.nextInt(4) == 0;
+
+        for (short y = 0; y < cellMatrixSizeAxisY; y++)
+            for (short x = 0; x < cellMatrixSizeAxisX; x++) {
+                final short sourceX = mirroredAboutVerticalAxis ? (short) Math.min(x, cellMatrixSizeAxisX - 1 - x) : x,
+                        sourceY = mirroredAboutHorizontalAxis ? (short) Math.min(y, cellMatrixSizeAxisY - 1 - y) : y;
+
+                grid.setCellColor(x, y, grid.getCell(sourceX, sourceY).getColor());
+            }
+
+        return grid;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the names of a List of engines.
+     *
+     * */
+    private static List<String> getNames(final List<GridEvolutionEngine> gridEvolutionEngines) {
+        final List<String> names = new ArrayList<>();
+
+        for (final GridEvolutionEngine gridEvolutionEngine : gridEvolutionEngines)
+            names.add(gridEvolutionEngine.getName());
+
+        return names;
+    }
+}
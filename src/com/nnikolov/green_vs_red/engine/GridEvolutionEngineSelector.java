@@ -0,0 +1,146 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.exception.UnknownGridEvolutionEngineException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Picks a GridEvolutionEngine per GridCellQuery. By default, the engine with the lowest estimated cost for the query
+ * is picked (the estimations depend on the dimensions of the Grids cellMatrix, its density of GREEN Color Cells and
+ * the TargetGridGeneration).
+ *
+ * The choice can be overridden with the name of an engine, either per selection or for the whole application via
+ * the 'green_vs_red.engine' system property (e.g. -Dgreen_vs_red.engine=dense).
+ *
+ * */
+public final class GridEvolutionEngineSelector {
+
+    /**
+     * The system property, which may hold the name of the engine that overrides the automatic selection.
+     *
+     * */
+    public static final String ENGINE_OVERRIDE_PROPERTY = "green_vs_red.engine";
+
+    /**
+     * The available engines, ordered by their names.
+     *
+     * */
+    private final List<GridEvolutionEngine> gridEvolutionEngines;
+
+    /**
+     * Standard constructor, which selects among a given list of engines.
+     *
+     * @param gridEvolutionEngines The available engines.
+     *
+     * */
+    public GridEvolutionEngineSelector(final List<GridEvolutionEngine> gridEvolutionEngines) {
+        final List<GridEvolutionEngine> sortedGridEvolutionEngines = new ArrayList<>(gridEvolutionEngines);
+        sortedGridEvolutionEngines.sort(Comparator.comparing(GridEvolutionEngine::getName));
+
+        this.gridEvolutionEngines = Collections.unmodifiableList(sortedGridEvolutionEngines);
+    }
+
+    /**
+     * Construct a GridEvolutionEngineSelector, which selects among all of the engines that are discovered via a
+     * ServiceLoader. If none are discovered (e.g. the service configuration file is missing from the class path), the
+     * built-in engines are used.
+     *
+     * @return A new GridEvolutionEngineSelector.
+     *
+     * */
+    public static GridEvolutionEngineSelector fromServiceLoader() {
+        final List<GridEvolutionEngine> gridEvolutionEngines = new ArrayList<>();
+
+        ServiceLoader.load(GridEvolutionEngine.class).forEach(gridEvolutionEngines::add);
+
+        if (gridEvolutionEngines.isEmpty()) {
+            gridEvolutionEngines.add(new BlockLookupTableGridEvolutionEngine());
+            gridEvolutionEngines.add(new DenseSteppingGridEvolutionEngine());
+            gridEvolutionEngines.add(new LightConeGridEvolutionEngine());
+            gridEvolutionEngines.add(new MirrorSymmetricGridEvolutionEngine());
+            gridEvolutionEngines.add(new SparseGridEvolutionEngine());
+            gridEvolutionEngines.add(new TemporallyBlockedGridEvolutionEngine());
+        }
+
+        return new GridEvolutionEngineSelector(gridEvolutionEngines);
+    }
+
+    /**
+     * Get all of the available engines.
+     *
+     * @return An unmodifiable List of the available engines, ordered by their names.
+     *
+     * */
+    public List<GridEvolutionEngine> getGridEvolutionEngines() {
+        return gridEvolutionEngines;
+    }
+
+    /**
+     * Select the engine for a GridCellQuery, honouring the 'green_vs_red.engine' system property, if it is set.
+     *
+     * @param gridCellQuery The GridCellQuery, which will be answered.
+     *
+     * @return The selected engine.
+     *
+     * @throws UnknownGridEvolutionEngineException If the system property does not name an available engine, or if
+     * no available engine can answer the query.
+     *
+     * */
+    public GridEvolutionEngine select(final GridCellQuery gridCellQuery) {
+        final String engineOverrideName = System.getProperty(ENGINE_OVERRIDE_PROPERTY);
+
+        return engineOverrideName == null ? selectCheapest(gridCellQuery) : getByName(engineOverrideName);
+    }
+
+    /**
+     * Select the engine with the lowest estimated cost for a GridCellQuery. Ties are resolved by the name order.
+     *
+     * @param gridCellQuery The GridCellQuery, which will be answered.
+     *
+     * @return The engine with the lowest estimated cost.
+     *
+     * @throws UnknownGridEvolutionEngineException If no available engine can answer the query.
+     *
+     * */
+    public GridEvolutionEngine selectCheapest(final GridCellQuery gridCellQuery) {
+        GridEvolutionEngine cheapestGridEvolutionEngine = null;
+        double cheapestCost = Double.POSITIVE_INFINITY;
+
+        for (final GridEvolutionEngine gridEvolutionEngine : gridEvolutionEngines) {
+            final double cost = gridEvolutionEngine.estimateCost(gridCellQuery);
+
+            if (cost < cheapestCost) {
+                cheapestGridEvolutionEngine = gridEvolutionEngine;
+                cheapestCost = cost;
+            }
+        }
+
+        if (cheapestGridEvolutionEngine == null)
+            throw new UnknownGridEvolutionEngineException(null,
+                    "There is no Grid evolution engine, which can answer the query: " + gridCellQuery + ".");
+
+        return cheapestGridEvolutionEngine;
+    }
+
+    /**
+     * Get an available engine via its name.
+     *
+     * @param engineName The case-insensitive name of the engine.
+     *
+     * @return The engine with the provided name.
+     *
+     * @throws UnknownGridEvolutionEngineException If no available engine has the provided name.
+     *
+     * */
+    public GridEvolutionEngine getByName(final String engineName) {
+        for (final GridEvolutionEngine gridEvolutionEngine : gridEvolutionEngines)
+            if (gridEvolutionEngine.getName().equalsIgnoreCase(engineName.trim()))
+                return gridEvolutionEngine;
+
+        throw new UnknownGridEvolutionEngineException(engineName);
+    }
+}
@@ -0,0 +1,306 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.exception.InvalidTargetGridGeneration;
+import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationStepBuffers;
+import com.nnikolov.green_vs_red.util.GridGenerationStepper;
+
+import java.util.Arrays;
+
+/**
+ * An immutable index of the whole generation history of a Grid, up to a TargetGridGeneration, which answers how many
+ * times any Cell has a GREEN Color up to any generation, without progressing the Grid again.
+ *
+ * The Grid is progressed once. Instead of every generation, the index only keeps the generations, in which each Cell
+ * flips its Color, in a compressed sparse row form:
+ *
+ *      - The flips of the Cell with the index (y * cellMatrixSizeAxisX + x) are stored, in ascending order, in
+ *      'flipGenerations', from 'flipOffsets[cellIndex]' (inclusive) to 'flipOffsets[cellIndex + 1]' (exclusive).
+ *
+ *      - For each flip, 'greenGenerationsBeforeFlip' holds the prefix sum of the GREEN generations of the Cell, which
+ *      precede the flip.
+ *
+ * A query binary searches the flips of its Cell for the last flip up to its generation and adds the GREEN
+ * generations after that flip to its prefix sum, hence it takes O(log F) time, where F is the amount of flips of the
+ * Cell. The memory use is proportional to the total amount of flips (8 bytes per flip, and another 8 bytes per flip
+ * while the index is built), which is far smaller than the history itself for Grids, which settle or contain only a
+ * few oscillating regions.
+ *
+ * */
+public final class GridGenerationHistoryIndex {
+
+    /**
+     * The maximal amount of flips, which can be stored in an index.
+     *
+     * */
+    private static final int maxFlipsCount = Integer.MAX_VALUE - 8;
+
+    /**
+     * The initial generation of the Grids cellMatrix.
+     *
+     * */
+    private final PackedCellMatrix initialPackedCellMatrix;
+
+    /**
+     * The last indexed generation.
+     *
+     * */
+    private final int targetGridGeneration;
+
+    /**
+     * The offsets of the flips of each Cell within 'flipGenerations' (one more than the amount of Cells).
+     *
+     * */
+    private final int[] flipOffsets;
+
+    /**
+     * The generations, in which the Cells flip their Color, grouped by Cell.
+     *
+     * */
+    private final int[] flipGenerations;
+
+    /**
+     * The amount of GREEN generations of a Cell, which precede each of its flips.
+     *
+     * */
+    private final int[] greenGenerationsBeforeFlip;
+
+    /**
+     * Lone constructor.
+     * Progresses a deep-copy of a Grid up to a TargetGridGeneration and indexes the flips of all of its Cells.
+     *
+     * @param grid The Grid, which holds the initial generation.
+     *
+     * @param targetGridGeneration The last generation, which will be indexed.
+     *
+     * @throws InvalidTargetGridGeneration If the TargetGridGeneration cannot be indexed.
+     *
+     * @throws IllegalStateException If the history of the Grid has too many flips to be indexed.
+     *
+     * */
+    public GridGenerationHistoryIndex(final Grid grid, final TargetGridGeneration targetGridGeneration) {
+        if (targetGridGeneration.longValue() >= Integer.MAX_VALUE)
+            throw new InvalidTargetGridGeneration(targetGridGeneration.longValue(),
+                    "The target grid generation: " + targetGridGeneration.longValue() + " is too large to be indexed.");
+
+        final short cellMatrixSizeAxisX = grid.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = grid.getCellMatrixSizeAxisY();
+        final int cellsCount = cellMatrixSizeAxisX * cellMatrixSizeAxisY;
+
+        this.initialPackedCellMatrix = grid.getPackedCellMatrix();
+        this.targetGridGeneration = targetGridGeneration.intValue();
+
+        //The flips are recorded in generation order as (cellIndex, generation) pairs, packed into 'long' values.
+        long[] flips = new long[Math.max(cellsCount, 16)];
+        int flipsCount = 0;
+
+        final int[] cellFlipsCounts = new int[cellsCount];
+
+        PackedCellMatrix current = new HeapPackedCellMatrix(initialPackedCellMatrix),
+                next = new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+
+        //The row buffers, which are shared by all of the generations.
+        final GridGenerationStepBuffers gridGenerationStepBuffers = new GridGenerationStepBuffers(cellMatrixSizeAxisX);
+
+        for (int generation = 1; generation <= this.targetGridGeneration; generation++) {
+            GridGenerationStepper.stepPackedCellMatrixRows(current, next, 0, cellMatrixSizeAxisY - 1,
+                    gridGenerationStepBuffers);
+
+            //Find the flipped Cells via the differences between the words of the two generations.
+            for (int y = 0; y < cellMatrixSizeAxisY; y++)
+                for (int rowWordIndex = 0; rowWordIndex < current.getRowWordsCount(); rowWordIndex++) {
+                    long flippedBits = current.getRowWord(y, rowWordIndex) ^ next.getRowWord(y, rowWordIndex);
+
+                    while (flippedBits != 0) {
+                        final int cellIndex = y * cellMatrixSizeAxisX + rowWordIndex * PackedCellMatrix.CELLS_PER_WORD +
+                                Long.numberOfTrailingZeros(flippedBits);
+
+                        if (flipsCount == flips.length) {
+                            if (flips.length == maxFlipsCount)
+                                throw new IllegalStateException("The history of the grid has more than " +
+                                        maxFlipsCount + " cell flips and cannot be indexed.");
+
+                            flips = Arrays.copyOf(flips, (int) Math.min(flips.length * 2L, maxFlipsCount));
+                        }
+
+                        flips[flipsCount++] = (long) cellIndex << 32 | generation;
+                        cellFlipsCounts[cellIndex]++;
+
+                        //Clear the lowest flipped bit.
+                        flippedBits &= flippedBits - 1;
+                    }
+                }
+
+            final PackedCellMatrix previous = current;
+            current = next;
+            next = previous;
+        }
+
+        //Group the flips by Cell (a stable counting sort keeps the generations of each Cell in ascending order).
+        flipOffsets = new int[cellsCount + 1];
+
+        for (int cellIndex = 0; cellIndex < cellsCount; cellIndex++)
+            flipOffsets[cellIndex + 1] = flipOffsets[cellIndex] + cellFlipsCounts[cellIndex];
+
+        flipGenerations = new int[flipsCount];
+
+        final int[] cellFlipsPositions = Arrays.copyOf(flipOffsets, cellsCount);
+
+        for (int flipIndex = 0; flipIndex < flipsCount; flipIndex++)
+            flipGenerations[cellFlipsPositions[(int) (flips[flipIndex] >>> 32)]++] = (int) flips[flipIndex];
+
+        //Compute the prefix sums of the GREEN generations before each flip.
+        greenGenerationsBeforeFlip = new int[flipsCount];
+
+        for (int cellIndex = 0; cellIndex < cellsCount; cellIndex++) {
+            boolean isGreen = initialPackedCellMatrix.isGreen(cellIndex % cellMatrixSizeAxisX,
+                    cellIndex / cellMatrixSizeAxisX);
+            int greenGenerations = 0, previousFlipGeneration = 0;
+
+            for (int flipIndex = flipOffsets[cellIndex]; flipIndex < flipOffsets[cellIndex + 1]; flipIndex++) {
+                if (isGreen)
+                    greenGenerations += flipGenerations[flipIndex] - previousFlipGeneration;
+
+                greenGenerationsBeforeFlip[flipIndex] = greenGenerations;
+                previousFlipGeneration = flipGenerations[flipIndex];
+                isGreen = !isGreen;
+            }
+        }
+    }
+
+    /**
+     * Count the generations (including the ZERO one), up to a generation, in which a Cell has a GREEN Color.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @param generation The last counted generation, between ZERO and the indexed TargetGridGeneration.
+     *
+     * @return The amount of generations, in which the Cell has a GREEN Color.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the provided Cell coordinates are invalid.
+     *
+     * @throws InvalidTargetGridGeneration If the generation is not indexed.
+     *
+     * */
+    public long getCellGreenColorChangesUpToGeneration(final short cellCoordinateX, final short cellCoordinateY,
+                                                       final long generation) {
+        final int cellIndex = getCellIndex(cellCoordinateX, cellCoordinateY);
+
+        assertGenerationIsIndexed(generation);
+
+        //The amount of flips of the Cell, up to the generation (inclusive).
+        final int flipsCount = getFlipsCountUpToGeneration(cellIndex, generation);
+        final boolean isGreen = initialPackedCellMatrix.isGreen(cellCoordinateX, cellCoordinateY) ^
+                (flipsCount & 1) == 1;
+
+        if (flipsCount == 0)
+            return isGreen ? generation + 1 : 0;
+
+        //Add the GREEN generations after the last flip to the prefix sum of the GREEN generations before it.
+        final int lastFlipIndex = flipOffsets[cellIndex] + flipsCount - 1;
+
+        return greenGenerationsBeforeFlip[lastFlipIndex] +
+                (isGreen ? generation - flipGenerations[lastFlipIndex] + 1 : 0);
+    }
+
+    /**
+     * Check if a Cell has a GREEN Color in a generation.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @param generation The generation, between ZERO and the indexed TargetGridGeneration.
+     *
+     * @return A boolean, which indicates whether the Cell has a GREEN Color.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the provided Cell coordinates are invalid.
+     *
+     * @throws InvalidTargetGridGeneration If the generation is not indexed.
+     *
+     * */
+    public boolean isCellGreen(final short cellCoordinateX, final short cellCoordinateY, final long generation) {
+        final int cellIndex = getCellIndex(cellCoordinateX, cellCoordinateY);
+
+        assertGenerationIsIndexed(generation);
+
+        return initialPackedCellMatrix.isGreen(cellCoordinateX, cellCoordinateY) ^
+                (getFlipsCountUpToGeneration(cellIndex, generation) & 1) == 1;
+    }
+
+    /**
+     * Get the last indexed generation.
+     *
+     * @return The indexed TargetGridGeneration.
+     *
+     * */
+    public int getTargetGridGeneration() {
+        return targetGridGeneration;
+    }
+
+    /**
+     * Get the total amount of Cell flips, which are stored in the index.
+     *
+     * @return The amount of stored flips.
+     *
+     * */
+    public int getFlipsCount() {
+        return flipGenerations.length;
+    }
+
+    /**
+     * Internal utility function.
+     * Binary search the flips of a Cell for the amount of flips up to a generation (inclusive).
+     *
+     * */
+    private int getFlipsCountUpToGeneration(final int cellIndex, final long generation) {
+        int low = flipOffsets[cellIndex], high = flipOffsets[cellIndex + 1];
+
+        //Find the first flip after the generation.
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (flipGenerations[middle] <= generation)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low - flipOffsets[cellIndex];
+    }
+
+    /**
+     * Internal utility function.
+     * Get the index of a Cell within the index, after asserting that it is within the bounds of the Grids
+     * cellMatrix, else throw an Exception.
+     *
+     * */
+    private int getCellIndex(final short cellCoordinateX, final short cellCoordinateY) {
+        final short cellMatrixSizeAxisX = initialPackedCellMatrix.getCellMatrixSizeAxisX();
+
+        if (cellCoordinateX < 0 || cellCoordinateX >= cellMatrixSizeAxisX ||
+                cellCoordinateY < 0 || cellCoordinateY >= initialPackedCellMatrix.getCellMatrixSizeAxisY())
+            throw new InvalidGridCellMatrixCellCoordinatesException(
+                    new Grid(new HeapPackedCellMatrix(initialPackedCellMatrix)), cellCoordinateX, cellCoordinateY);
+
+        return cellCoordinateY * cellMatrixSizeAxisX + cellCoordinateX;
+    }
+
+    /**
+     * Internal utility function.
+     * Assert that a generation is between ZERO and the indexed TargetGridGeneration, else throw an Exception.
+     *
+     * */
+    private void assertGenerationIsIndexed(final long generation) {
+        if (generation < 0 || generation > targetGridGeneration)
+            throw new InvalidTargetGridGeneration(generation,
+                    "The generation: " + generation + " is not within the indexed generations: 0 - " +
+                            targetGridGeneration + ".");
+    }
+}
@@ -0,0 +1,34 @@
+package com.nnikolov.green_vs_red.engine;
+
+/**
+ * A callback, via which a GridEvolutionEngine reports its progress between two generations of a GridCellQuery, and
+ * which may stop the engine before the TargetGridGeneration (e.g. once the query was cancelled or its deadline has
+ * expired). It is called on the thread, which answers the query, therefore it should return quickly.
+ *
+ * An engine, which progresses several generations at once (e.g. a block of generations of the temporal blocking
+ * engine), calls it only between two such steps.
+ *
+ * */
+@FunctionalInterface
+public interface GridGenerationMonitor {
+
+    /**
+     * A GridGenerationMonitor, which never stops an engine.
+     *
+     * */
+    GridGenerationMonitor UNBOUNDED = (generation, targetCellGreenColorChanges) -> true;
+
+    /**
+     * Receive the progress of an engine, before it progresses beyond a generation.
+     *
+     * @param generation The generation, which the engine has reached.
+     *
+     * @param targetCellGreenColorChanges How many times the targeted Cell had a GREEN Color, up to the reached
+     *                                    generation (including the ZERO generation).
+     *
+     * @return A boolean, which indicates whether the engine should progress further. If FALSE, the engine stops and
+     * returns the provided targetCellGreenColorChanges.
+     *
+     * */
+    boolean onGeneration(long generation, long targetCellGreenColorChanges);
+}
@@ -0,0 +1,280 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
+import com.nnikolov.green_vs_red.model.Cell;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationStepBuffers;
+import com.nnikolov.green_vs_red.util.GridGenerationStepper;
+
+/**
+ * A session, which answers repeated queries about a Grid, whose initial generation is edited a few Cells at a time.
+ *
+ * The session progresses the whole Grid once, up to its TargetGridGeneration, and caches every generation in a
+ * bit-packed form. Afterwards, the Color of any Cell of the initial generation can be set, and only the region that is
+ * affected by the edits is progressed again:
+ *
+ *      - The edited Cells are enclosed by a dirty rectangle of the initial generation.
+ *
+ *      - The Cells of the next generation, which may be affected, lie within the dirty rectangle, grown by one Cell
+ *      in every direction (and clipped to the cellMatrix). Only these Cells are progressed again.
+ *
+ *      - The recalculated Cells are reconciled against the cached generation: the dirty rectangle of the next
+ *      generation encloses only the Cells, which have actually changed their Color. Once no Cell has changed, all of
+ *      the later cached generations are still valid and the reconciliation stops early.
+ *
+ * The edits are reconciled lazily, right before the next query, hence a batch of edits is reconciled at once.
+ *
+ * NOTE: The cache holds TargetGridGeneration + 1 bit-packed cellMatrices on the Java heap (up to 125,000 bytes each).
+ * A session is not thread-safe.
+ *
+ * */
+public final class IncrementalGridQuerySession {
+
+    /**
+     * The cached generations of the Grids cellMatrix, indexed by their generation (the ZERO generation is the initial
+     * one).
+     *
+     * */
+    private final PackedCellMatrix[] generations;
+
+    /**
+     * The dirty rectangle of the edits of the initial generation, which are not reconciled yet (inclusive bounds).
+     * The rectangle is empty if its minimal horizontal coordinate exceeds its maximal one.
+     *
+     * */
+    private int dirtyMinX = Integer.MAX_VALUE, dirtyMaxX = Integer.MIN_VALUE,
+            dirtyMinY = Integer.MAX_VALUE, dirtyMaxY = Integer.MIN_VALUE;
+
+    /**
+     * The amount of Cell updates, which were performed by the last reconciliation.
+     *
+     * */
+    private long lastReconciliationCellUpdatesCount;
+
+    /**
+     * Standard constructor.
+     * Progresses a deep-copy of a Grid up to a TargetGridGeneration and caches all of its generations.
+     *
+     * @param grid The Grid, which holds the initial generation.
+     *
+     * @param targetGridGeneration The last generation, which will be cached.
+     *
+     * @throws IllegalArgumentException If the TargetGridGeneration cannot be cached.
+     *
+     * */
+    public IncrementalGridQuerySession(final Grid grid, final TargetGridGeneration targetGridGeneration) {
+        if (targetGridGeneration.longValue() >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The target grid generation: " + targetGridGeneration.longValue() +
+                    " is too large to be cached.");
+
+        generations = new PackedCellMatrix[targetGridGeneration.intValue() + 1];
+        generations[0] = grid.getPackedCellMatrix();
+
+        //Progress the whole cellMatrix, one generation at a time (the row buffers are shared by all of them).
+        final GridGenerationStepBuffers gridGenerationStepBuffers =
+                new GridGenerationStepBuffers(grid.getCellMatrixSizeAxisX());
+
+        for (int generation = 1; generation < generations.length; generation++) {
+            generations[generation] =
+                    new HeapPackedCellMatrix(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY());
+
+            GridGenerationStepper.stepPackedCellMatrixRows(generations[generation - 1], generations[generation],
+                    0, grid.getCellMatrixSizeAxisY() - 1, gridGenerationStepBuffers);
+        }
+
+        lastReconciliationCellUpdatesCount = (long) grid.getCellMatrixSizeAxisX() * grid.getCellMatrixSizeAxisY() *
+                (generations.length - 1);
+    }
+
+    /**
+     * Set the Color of a Cell of the initial generation. The later generations are reconciled before the next query.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @param color The Color, which needs to be set to the Cell.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the provided Cell coordinates are invalid.
+     *
+     * */
+    public void setCellColor(final short cellCoordinateX, final short cellCoordinateY, final Cell.Color color) {
+        assertCellCoordinatesAreInBounds(cellCoordinateX, cellCoordinateY);
+
+        //An edit, which does not change the Color of the Cell, does not affect the later generations.
+        if (generations[0].isGreen(cellCoordinateX, cellCoordinateY) == color.isGreen())
+            return;
+
+        generations[0].setGreen(cellCoordinateX, cellCoordinateY, color.isGreen());
+
+        //Grow the dirty rectangle, so that it encloses the edited Cell.
+        dirtyMinX = Math.min(dirtyMinX, cellCoordinateX);
+        dirtyMaxX = Math.max(dirtyMaxX, cellCoordinateX);
+        dirtyMinY = Math.min(dirtyMinY, cellCoordinateY);
+        dirtyMaxY = Math.max(dirtyMaxY, cellCoordinateY);
+    }
+
+    /**
+     * Count the generations (including the ZERO one), up to the TargetGridGeneration, in which a Cell has a GREEN
+     * Color.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @return The amount of generations, in which the Cell has a GREEN Color.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the provided Cell coordinates are invalid.
+     *
+     * */
+    public long getCellGreenColorChangesUpToTargetGeneration(final short cellCoordinateX,
+                                                             final short cellCoordinateY) {
+        assertCellCoordinatesAreInBounds(cellCoordinateX, cellCoordinateY);
+
+        reconcile();
+
+        long cellGreenColorChanges = 0;
+
+        for (final PackedCellMatrix packedCellMatrix : generations)
+            if (packedCellMatrix.isGreen(cellCoordinateX, cellCoordinateY))
+                cellGreenColorChanges++;
+
+        return cellGreenColorChanges;
+    }
+
+    /**
+     * Check if a Cell has a GREEN Color in a cached generation.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @param generation The generation, between ZERO and the TargetGridGeneration.
+     *
+     * @return A boolean, which indicates whether the Cell has a GREEN Color.
+     *
+     * @throws InvalidGridCellMatrixCellCoordinatesException If the provided Cell coordinates are invalid.
+     *
+     * @throws IndexOutOfBoundsException If the generation is not cached.
+     *
+     * */
+    public boolean isCellGreen(final short cellCoordinateX, final short cellCoordinateY, final int generation) {
+        assertCellCoordinatesAreInBounds(cellCoordinateX, cellCoordinateY);
+
+        reconcile();
+
+        return generations[generation].isGreen(cellCoordinateX, cellCoordinateY);
+    }
+
+    /**
+     * Get a deep-copy of a cached generation as a Grid.
+     *
+     * @param generation The generation, between ZERO and the TargetGridGeneration.
+     *
+     * @return A deep-copy of the cached generation as a Grid.
+     *
+     * @throws IndexOutOfBoundsException If the generation is not cached.
+     *
+     * */
+    public Grid getGrid(final int generation) {
+        reconcile();
+
+        return new Grid(new HeapPackedCellMatrix(generations[generation]));
+    }
+
+    /**
+     * Get the last cached generation.
+     *
+     * @return The TargetGridGeneration of the session.
+     *
+     * */
+    public int getTargetGridGeneration() {
+        return generations.length - 1;
+    }
+
+    /**
+     * Get the amount of Cell updates, which were performed by the last reconciliation of edits (or by the initial
+     * progression, if no edits were reconciled yet).
+     *
+     * @return The amount of Cell updates.
+     *
+     * */
+    public long getLastReconciliationCellUpdatesCount() {
+        return lastReconciliationCellUpdatesCount;
+    }
+
+    /**
+     * Internal utility function.
+     * Progress the dirty rectangle of the edits through all of the cached generations, until no Cell changes.
+     *
+     * */
+    private void reconcile() {
+        if (dirtyMinX > dirtyMaxX)
+            return;
+
+        final int cellMatrixSizeAxisX = generations[0].getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = generations[0].getCellMatrixSizeAxisY();
+
+        int minX = dirtyMinX, maxX = dirtyMaxX, minY = dirtyMinY, maxY = dirtyMaxY;
+
+        lastReconciliationCellUpdatesCount = 0;
+
+        for (int generation = 1; generation < generations.length; generation++) {
+            final PackedCellMatrix previous = generations[generation - 1], current = generations[generation];
+
+            //The affected region grows by one Cell in every direction.
+            minX = Math.max(minX - 1, 0);
+            maxX = Math.min(maxX + 1, cellMatrixSizeAxisX - 1);
+            minY = Math.max(minY - 1, 0);
+            maxY = Math.min(maxY + 1, cellMatrixSizeAxisY - 1);
+
+            lastReconciliationCellUpdatesCount += (long) (maxX - minX + 1) * (maxY - minY + 1);
+
+            //The rectangle, which encloses the Cells that have actually changed within this generation.
+            int changedMinX = Integer.MAX_VALUE, changedMaxX = Integer.MIN_VALUE,
+                    changedMinY = Integer.MAX_VALUE, changedMaxY = Integer.MIN_VALUE;
+
+            for (int y = minY; y <= maxY; y++)
+                for (int x = minX; x <= maxX; x++) {
+                    final boolean isGreen = GridGenerationStepper.isNextGenerationCellGreen(previous, x, y);
+
+                    if (current.isGreen(x, y) != isGreen) {
+                        current.setGreen(x, y, isGreen);
+
+                        changedMinX = Math.min(changedMinX, x);
+                        changedMaxX = Math.max(changedMaxX, x);
+                        changedMinY = Math.min(changedMinY, y);
+                        changedMaxY = Math.max(changedMaxY, y);
+                    }
+                }
+
+            //The rest of the cached generations are unaffected.
+            if (changedMinX > changedMaxX)
+                break;
+
+            minX = changedMinX;
+            maxX = changedMaxX;
+            minY = changedMinY;
+            maxY = changedMaxY;
+        }
+
+        //Empty the dirty rectangle.
+        dirtyMinX = dirtyMinY = Integer.MAX_VALUE;
+        dirtyMaxX = dirtyMaxY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Internal utility function.
+     * Assert that Cell coordinates are within the bounds of the Grids cellMatrix, else throw an Exception.
+     *
+     * */
+    private void assertCellCoordinatesAreInBounds(final short cellCoordinateX, final short cellCoordinateY) {
+        if (cellCoordinateX < 0 || cellCoordinateX >= generations[0].getCellMatrixSizeAxisX() ||
+                cellCoordinateY < 0 || cellCoordinateY >= generations[0].getCellMatrixSizeAxisY())
+            throw new InvalidGridCellMatrixCellCoordinatesException(
+                    new Grid(new HeapPackedCellMatrix(generations[0])), cellCoordinateX, cellCoordinateY);
+    }
+}
@@ -0,0 +1,312 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationProgressionRule;
+
+/**
+ * A query engine, which calculates the amount of times a targeted Cell within a Grids cellMatrix will have a GREEN
+ * Color, up to a certain TargetGridGeneration (including the ZERO generation), without progressing the whole Grid.
+ *
+ * The Color of a Cell at generation N depends only on the Cells, which are within a Chebyshev distance of N from it
+ * in the ZERO generation. Therefore, at generation G, only the Cells within a distance of (N - G) from the targeted
+ * Cell have to be calculated. The simulated region (the "light cone" of the targeted Cell) starts as a square with a
+ * side of (2N + 1), clipped to the bounds of the Grids cellMatrix, and shrinks by one Cell on each side per
+ * generation, down to the targeted Cell itself at generation N.
+ *
+ * For a small N, relative to the size of the Grids cellMatrix, this requires O(N^3) work instead of the O(N * X * Y)
+ * work of a GridGenerationStepper. For a large N, the region is clipped to the whole cellMatrix for most of the
+ * generations, therefore the work is never larger than that of a full progression.
+ *
+ * The region buffers (and the cellMatrix, which the region is copied out of) can be acquired from a
+ * PackedCellMatrixPool, in which case the region buffers are released back to it once the engine is closed.
+ *
+ * */
+public final class LightConeGridCellQueryEngine implements AutoCloseable {
+
+    /**
+     * The dimensions of the cellMatrix of the Grid, which is queried.
+     *
+     * */
+    private final short cellMatrixSizeAxisX, cellMatrixSizeAxisY;
+
+    /**
+     * The coordinates of the targeted Cell within the Grids cellMatrix.
+     *
+     * */
+    private final short targetCellCoordinateX, targetCellCoordinateY;
+
+    /**
+     * The TargetGridGeneration, up to which the targeted Cell is tracked.
+     *
+     * */
+    private final long targetGridGeneration;
+
+    /**
+     * The bounds (inclusive) of the ZERO generation region within the Grids cellMatrix.
+     *
+     * */
+    private final int regionMinX, regionMaxX, regionMinY, regionMaxY;
+
+    /**
+     * The horizontal size of the region buffers, including a one-Cell border on each side. The border Cells, which
+     * are outside of the Grids cellMatrix, always keep a RED colorCode.
+     *
+     * */
+    private final int bufferStride;
+
+    /**
+     * Two region buffers of colorCodes, which hold the current and the next generation of the region.
+     *
+     * */
+    private byte[] currentGenerationBuffer, nextGenerationBuffer;
+
+    /**
+     * The PackedCellMatrixPool, which the region buffers were acquired from. NULL if they were allocated.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Determines whether the region buffers were already released.
+     *
+     * */
+    private boolean closed;
+
+    /**
+     * Standard constructor, which copies the ZERO generation region of the targeted Cell out of an existing Grid.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * */
+    public LightConeGridCellQueryEngine(final Grid grid,
+                                        final short targetCellCoordinateX,
+                                        final short targetCellCoordinateY,
+                                        final TargetGridGeneration targetGridGeneration) {
+        this(grid, targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration, null);
+    }
+
+    /**
+     * Pooled constructor, which copies the ZERO generation region of the targeted Cell out of an existing Grid into
+     * region buffers, that are acquired from a PackedCellMatrixPool. They are released back to the pool once the
+     * engine is closed.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the region buffers will be acquired from. If NULL,
+     *                             they are allocated.
+     *
+     * */
+    public LightConeGridCellQueryEngine(final Grid grid,
+                                        final short targetCellCoordinateX,
+                                        final short targetCellCoordinateY,
+                                        final TargetGridGeneration targetGridGeneration,
+                                        final PackedCellMatrixPool packedCellMatrixPool) {
+        this.packedCellMatrixPool = packedCellMatrixPool;
+        this.cellMatrixSizeAxisX = grid.getCellMatrixSizeAxisX();
+        this.cellMatrixSizeAxisY = grid.getCellMatrixSizeAxisY();
+        this.targetCellCoordinateX = targetCellCoordinateX;
+        this.targetCellCoordinateY = targetCellCoordinateY;
+        this.targetGridGeneration = targetGridGeneration.longValue();
+
+        //Determine the bounds of the ZERO generation region, clipped to the bounds of the Grids cellMatrix.
+        regionMinX = getRegionMin(targetCellCoordinateX, this.targetGridGeneration);
+        regionMaxX = getRegionMax(targetCellCoordinateX, this.targetGridGeneration, cellMatrixSizeAxisX);
+        regionMinY = getRegionMin(targetCellCoordinateY, this.targetGridGeneration);
+        regionMaxY = getRegionMax(targetCellCoordinateY, this.targetGridGeneration, cellMatrixSizeAxisY);
+
+        //Initialise the region buffers with a one-Cell border on each side.
+        bufferStride = regionMaxX - regionMinX + 3;
+        final int bufferLength = bufferStride * (regionMaxY - regionMinY + 3);
+        currentGenerationBuffer = acquireBuffer(bufferLength);
+        nextGenerationBuffer = acquireBuffer(bufferLength);
+
+        //Copy the ZERO generation region out of a copy of the Grids cellMatrix, which is released afterwards.
+        try (final PackedCellMatrix packedCellMatrix = packedCellMatrixPool != null ?
+                packedCellMatrixPool.acquire(cellMatrixSizeAxisX, cellMatrixSizeAxisY) :
+                new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY)) {
+            grid.copyPackedCellMatrixTo(packedCellMatrix);
+
+            for (int y = regionMinY; y <= regionMaxY; y++)
+                for (int x = regionMinX; x <= regionMaxX; x++)
+                    if (packedCellMatrix.isGreen(x, y))
+                        currentGenerationBuffer[getBufferIndex(x, y)] = 1;
+        }
+    }
+
+    /**
+     * Calculates the amount of times the targeted Cell will have a GREEN Color, up to the TargetGridGeneration
+     * (including the ZERO generation).
+     *
+     * NOTE: The region buffers are progressed by this function, therefore it should be called only once per instance.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration (including the ZERO generation).
+     *
+     * */
+    public long getTargetCellGreenColorChangesUpToTargetGeneration() {
+        return getTargetCellGreenColorChangesUpToTargetGeneration(GridGenerationMonitor.UNBOUNDED);
+    }
+
+    /**
+     * Calculates the amount of times the targeted Cell will have a GREEN Color, up to the TargetGridGeneration
+     * (including the ZERO generation), while reporting the progress to a GridGenerationMonitor between two generations.
+     *
+     * NOTE: The region buffers are progressed by this function, therefore it should be called only once per instance.
+     *
+     * @param gridGenerationMonitor The GridGenerationMonitor, which receives the progress and may stop the engine.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration, or up to the generation at which the monitor stopped the engine (including the ZERO
+     * generation).
+     *
+     * */
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridGenerationMonitor gridGenerationMonitor) {
+        final int targetCellBufferIndex = getBufferIndex(targetCellCoordinateX, targetCellCoordinateY);
+
+        //Include the ZERO generation Color of the targeted Cell.
+        long targetCellGreenColorChanges = currentGenerationBuffer[targetCellBufferIndex];
+
+        for (long generation = 1; generation <= targetGridGeneration; generation++) {
+            //The targeted Cell itself is always within the shrunk region, hence its count is exact at any generation.
+            if (!gridGenerationMonitor.onGeneration(generation - 1, targetCellGreenColorChanges))
+                break;
+
+            //The distance from the targeted Cell, which still affects it at the current generation.
+            final long remainingGenerations = targetGridGeneration - generation;
+
+            //Progress only the Cells of the shrunk region.
+            stepRegion(
+                    Math.max(regionMinX, getRegionMin(targetCellCoordinateX, remainingGenerations)),
+                    Math.min(regionMaxX, getRegionMax(targetCellCoordinateX, remainingGenerations,
+                            cellMatrixSizeAxisX)),
+                    Math.max(regionMinY, getRegionMin(targetCellCoordinateY, remainingGenerations)),
+                    Math.min(regionMaxY, getRegionMax(targetCellCoordinateY, remainingGenerations,
+                            cellMatrixSizeAxisY)));
+
+            targetCellGreenColorChanges += currentGenerationBuffer[targetCellBufferIndex];
+        }
+
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Release the region buffers back to the PackedCellMatrixPool, if they were acquired from one. The engine must
+     * not be used afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        if (closed || packedCellMatrixPool == null)
+            return;
+
+        closed = true;
+
+        packedCellMatrixPool.releaseBytes(currentGenerationBuffer);
+        packedCellMatrixPool.releaseBytes(nextGenerationBuffer);
+    }
+
+    /**
+     * Determine whether querying a targeted Cell via a LightConeGridCellQueryEngine prunes any Cells of the Grids
+     * cellMatrix, i.e. whether the ZERO generation region is smaller than the whole cellMatrix.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the Grids cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @return A boolean, which indicates whether the ZERO generation region is smaller than the whole cellMatrix.
+     *
+     * */
+    public static boolean prunesCellMatrix(final short cellMatrixSizeAxisX,
+                                           final short cellMatrixSizeAxisY,
+                                           final TargetGridGeneration targetGridGeneration) {
+        final int largestCellMatrixAxisSize = Math.max(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+
+        //The first comparison guards the second one against an overflow for very large TargetGridGenerations.
+        return targetGridGeneration.longValue() < largestCellMatrixAxisSize &&
+                2 * targetGridGeneration.longValue() + 1 < largestCellMatrixAxisSize;
+    }
+
+    /**
+     * Internal utility function.
+     * Progresses the Cells within the provided region bounds to their next generation and swaps the region buffers.
+     * All neighbours of the provided region are either within the previous (larger) region or outside of the Grids
+     * cellMatrix, hence no bounds checks are needed.
+     *
+     * */
+    private void stepRegion(final int minX, final int maxX, final int minY, final int maxY) {
+        final byte[] current = currentGenerationBuffer, next = nextGenerationBuffer;
+        final int stride = bufferStride;
+
+        for (int y = minY; y <= maxY; y++) {
+            int index = getBufferIndex(minX, y);
+
+            for (int x = minX; x <= maxX; x++, index++) {
+                final int greenNeighboursCount =
+                        current[index - stride - 1] + current[index - stride] + current[index - stride + 1] +
+                        current[index - 1] + current[index + 1] +
+                        current[index + stride - 1] + current[index + stride] + current[index + stride + 1];
+
+                next[index] = GridGenerationProgressionRule.nextGenerationCellColorCode(
+                        current[index], greenNeighboursCount);
+            }
+        }
+
+        currentGenerationBuffer = next;
+        nextGenerationBuffer = current;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the index of a Grid cellMatrix Cell within the region buffers.
+     *
+     * */
+    private int getBufferIndex(final int cellCoordinateX, final int cellCoordinateY) {
+        return (cellCoordinateY - regionMinY + 1) * bufferStride + (cellCoordinateX - regionMinX + 1);
+    }
+
+    /**
+     * Internal utility function.
+     * Get the lower region bound on an axis for a given distance from the targeted Cell.
+     *
+     * */
+    private static int getRegionMin(final short targetCellCoordinate, final long distance) {
+        return (int) Math.max(0, targetCellCoordinate - distance);
+    }
+
+    /**
+     * Internal utility function.
+     * Get the upper region bound on an axis for a given distance from the targeted Cell.
+     *
+     * */
+    private static int getRegionMax(final short targetCellCoordinate, final long distance,
+                                    final short cellMatrixAxisSize) {
+        return (int) Math.min(cellMatrixAxisSize - 1, targetCellCoordinate + Math.min(distance, cellMatrixAxisSize));
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain a ZERO (RED) region buffer, from the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private byte[] acquireBuffer(final int length) {
+        return packedCellMatrixPool != null ? packedCellMatrixPool.acquireBytes(length) : new byte[length];
+    }
+}
@@ -0,0 +1,55 @@
+package com.nnikolov.green_vs_red.engine;
+
+/**
+ * A GridEvolutionEngine, which answers a query via a LightConeGridCellQueryEngine. It is only used when the light cone
+ * of the targeted Cell prunes a part of the Grids cellMatrix.
+ *
+ * */
+public final class LightConeGridEvolutionEngine implements GridEvolutionEngine {
+
+    /**
+     * The cost of a single Cell generation update, relative to the dense stepping engine. Calibrated at about 6
+     * times the former 0.2 (measured ratios: 1.58 - 7.38); the per-generation overhead of shrinking the cone weighs
+     * more on the small cones of the few generations, than on the large ones.
+     *
+     * */
+    private static final double relativeCellUpdateCost = 1.25;
+
+    @Override
+    public String getName() {
+        return "light-cone";
+    }
+
+    @Override
+    public double estimateCost(final GridCellQuery gridCellQuery) {
+        final short cellMatrixSizeAxisX = gridCellQuery.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = gridCellQuery.getCellMatrixSizeAxisY();
+        final long targetGridGeneration = gridCellQuery.getTargetGridGeneration().longValue();
+
+        if (!LightConeGridCellQueryEngine.prunesCellMatrix(
+                cellMatrixSizeAxisX, cellMatrixSizeAxisY, gridCellQuery.getTargetGridGeneration()))
+            return Double.POSITIVE_INFINITY;
+
+        //Sum the areas of the shrinking region (at most a square with a side of 2D + 1 at a distance D).
+        double cellUpdatesCount = 0;
+
+        for (long distance = 0; distance < targetGridGeneration; distance++)
+            cellUpdatesCount += (double) Math.min(2 * distance + 1, cellMatrixSizeAxisX) *
+                    Math.min(2 * distance + 1, cellMatrixSizeAxisY);
+
+        return relativeCellUpdateCost * cellUpdatesCount;
+    }
+
+    @Override
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery,
+                                                                   final GridGenerationMonitor gridGenerationMonitor) {
+        //Release the region buffers back to the pool of the query, if it has one.
+        try (final LightConeGridCellQueryEngine lightConeGridCellQueryEngine = new LightConeGridCellQueryEngine(
+                gridCellQuery.getGrid(), gridCellQuery.getTargetCellCoordinateX(),
+                gridCellQuery.getTargetCellCoordinateY(), gridCellQuery.getTargetGridGeneration(),
+                gridCellQuery.getPackedCellMatrixPool())) {
+            return lightConeGridCellQueryEngine
+                    .getTargetCellGreenColorChangesUpToTargetGeneration(gridGenerationMonitor);
+        }
+    }
+}
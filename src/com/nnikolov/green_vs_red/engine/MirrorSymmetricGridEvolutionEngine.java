@@ -0,0 +1,189 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+import com.nnikolov.green_vs_red.util.CellMatrixMirrorSymmetry;
+
+/**
+ * A GridEvolutionEngine for Grids, whose cellMatrix is symmetric about its vertical middle axis, its horizontal middle
+ * axis or both of them (see CellMatrixMirrorSymmetry). Such a symmetry is preserved by every next generation,
+ * therefore only the fundamental region of the cellMatrix (its left half, its upper half or its upper left quarter,
+ * including the middle column or row of an odd size) is progressed, with the block lookup table of the
+ * BlockLookupTableGridEvolutionEngine.
+ *
+ * The mirrored boundary of the region is kept in an extra ghost column (to its right) and an extra ghost row (below
+ * it), which are refilled before every generation with the Cells, that the mirror axis maps them to. A targeted Cell
+ * beyond the region is mapped to its mirror Cell within it.
+ *
+ * The engine is unusable (has an infinite cost) for a Grid without any mirror symmetry. Since it keeps the region on
+ * the Java heap, it is not used when the DIRECT (off-heap) Storage is preferred either.
+ *
+ * */
+public final class MirrorSymmetricGridEvolutionEngine implements GridEvolutionEngine {
+
+    @Override
+    public String getName() {
+        return "mirror-symmetric";
+    }
+
+    @Override
+    public double estimateCost(final GridCellQuery gridCellQuery) {
+        if (PackedCellMatrix.Storage.getPreferred() != PackedCellMatrix.Storage.HEAP)
+            return Double.POSITIVE_INFINITY;
+
+        final boolean verticalAxis = isVerticalAxisUsable(gridCellQuery),
+                horizontalAxis = isHorizontalAxisUsable(gridCellQuery);
+
+        if (!verticalAxis && !horizontalAxis)
+            return Double.POSITIVE_INFINITY;
+
+        //Only the region and its ghost column and row are progressed.
+        return BlockLookupTableGridEvolutionEngine.relativeCellUpdateCost *
+                getRegionMatrixSize(gridCellQuery.getCellMatrixSizeAxisX(), verticalAxis) *
+                getRegionMatrixSize(gridCellQuery.getCellMatrixSizeAxisY(), horizontalAxis) *
+                gridCellQuery.getTargetGridGeneration().longValue();
+    }
+
+    @Override
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery,
+                                                                   final GridGenerationMonitor gridGenerationMonitor) {
+        final short cellMatrixSizeAxisX = gridCellQuery.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = gridCellQuery.getCellMatrixSizeAxisY();
+        final boolean verticalAxis = isVerticalAxisUsable(gridCellQuery),
+                horizontalAxis = isHorizontalAxisUsable(gridCellQuery);
+
+        //The size of the region along each axis, which excludes its ghost column and row.
+        final int regionSizeAxisX = getRegionSize(cellMatrixSizeAxisX, verticalAxis),
+                regionSizeAxisY = getRegionSize(cellMatrixSizeAxisY, horizontalAxis);
+
+        //The column and the row of the region, which are mirrored into its ghost column and row.
+        final int ghostSourceCoordinateX = cellMatrixSizeAxisX - 1 - regionSizeAxisX,
+                ghostSourceCoordinateY = cellMatrixSizeAxisY - 1 - regionSizeAxisY;
+
+        //Map the targeted Cell into the region.
+        final int targetCellCoordinateX = gridCellQuery.getTargetCellCoordinateX() < regionSizeAxisX ?
+                gridCellQuery.getTargetCellCoordinateX() :
+                cellMatrixSizeAxisX - 1 - gridCellQuery.getTargetCellCoordinateX();
+        final int targetCellCoordinateY = gridCellQuery.getTargetCellCoordinateY() < regionSizeAxisY ?
+                gridCellQuery.getTargetCellCoordinateY() :
+                cellMatrixSizeAxisY - 1 - gridCellQuery.getTargetCellCoordinateY();
+
+        final short regionMatrixSizeAxisX = getRegionMatrixSize(cellMatrixSizeAxisX, verticalAxis),
+                regionMatrixSizeAxisY = getRegionMatrixSize(cellMatrixSizeAxisY, horizontalAxis);
+
+        PackedCellMatrix current = acquireRegionMatrix(gridCellQuery, regionMatrixSizeAxisX, regionMatrixSizeAxisY),
+                next = acquireRegionMatrix(gridCellQuery, regionMatrixSizeAxisX, regionMatrixSizeAxisY);
+
+        //Copy the region out of the snapshot of the queried Grid (its ghost column and row are refilled below).
+        final PackedCellMatrix snapshot = gridCellQuery.getPackedCellMatrix();
+
+        for (int y = 0; y < regionSizeAxisY; y++)
+            for (int rowWordIndex = 0; rowWordIndex < current.getRowWordsCount(); rowWordIndex++)
+                current.setRowWord(y, rowWordIndex, snapshot.getRowWord(y, rowWordIndex));
+
+        //Four bit-packed rows, which are shifted by one Cell to the left (with an extra word for the carried bits).
+        final long[][] shiftedRows = new long[4][current.getRowWordsCount() + 1];
+
+        //Include the ZERO generation Color of the targeted Cell.
+        long targetCellGreenColorChanges = current.isGreen(targetCellCoordinateX, targetCellCoordinateY) ? 1 : 0;
+
+        for (long generation = 1; generation <= gridCellQuery.getTargetGridGeneration().longValue(); generation++) {
+            if (!gridGenerationMonitor.onGeneration(generation - 1, targetCellGreenColorChanges))
+                break;
+
+            fillGhostCells(current, verticalAxis, horizontalAxis, regionSizeAxisX, regionSizeAxisY,
+                    ghostSourceCoordinateX, ghostSourceCoordinateY);
+
+            BlockLookupTableGridEvolutionEngine.stepToNext(current, next, shiftedRows);
+
+            final PackedCellMatrix previous = current;
+            current = next;
+            next = previous;
+
+            if (current.isGreen(targetCellCoordinateX, targetCellCoordinateY))
+                targetCellGreenColorChanges++;
+        }
+
+        //Release the cellMatrices back to the pool of the query, if it has one.
+        current.close();
+        next.close();
+
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Internal utility function.
+     * Determine whether the vertical middle axis of the queried Grid can be used, i.e. whether the Grid is at least
+     * two Cells wide and its cellMatrix is symmetric about that axis.
+     *
+     * */
+    private static boolean isVerticalAxisUsable(final GridCellQuery gridCellQuery) {
+        return gridCellQuery.getCellMatrixSizeAxisX() >= 2 &&
+                CellMatrixMirrorSymmetry.isSymmetricAboutVerticalAxis(gridCellQuery.getPackedCellMatrix());
+    }
+
+    /**
+     * Internal utility function.
+     * Determine whether the horizontal middle axis of the queried Grid can be used, i.e. whether the Grid is at least
+     * two Cells tall and its cellMatrix is symmetric about that axis.
+     *
+     * */
+    private static boolean isHorizontalAxisUsable(final GridCellQuery gridCellQuery) {
+        return gridCellQuery.getCellMatrixSizeAxisY() >= 2 &&
+                CellMatrixMirrorSymmetry.isSymmetricAboutHorizontalAxis(gridCellQuery.getPackedCellMatrix());
+    }
+
+    /**
+     * Internal utility function.
+     * Get the size of the region along an axis (including the middle column or row of an odd size).
+     *
+     * */
+    private static int getRegionSize(final short cellMatrixSize, final boolean mirrored) {
+        return mirrored ? (cellMatrixSize + 1) / 2 : cellMatrixSize;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the size of the cellMatrix of the region along an axis (including its ghost column or row).
+     *
+     * */
+    private static short getRegionMatrixSize(final short cellMatrixSize, final boolean mirrored) {
+        return (short) (mirrored ? getRegionSize(cellMatrixSize, true) + 1 : cellMatrixSize);
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain a cellMatrix for the region, from the PackedCellMatrixPool of the query, if it has one.
+     *
+     * */
+    private static PackedCellMatrix acquireRegionMatrix(final GridCellQuery gridCellQuery,
+                                                        final short regionMatrixSizeAxisX,
+                                                        final short regionMatrixSizeAxisY) {
+        final PackedCellMatrixPool packedCellMatrixPool = gridCellQuery.getPackedCellMatrixPool();
+
+        return packedCellMatrixPool != null ?
+                packedCellMatrixPool.acquire(regionMatrixSizeAxisX, regionMatrixSizeAxisY) :
+                new HeapPackedCellMatrix(regionMatrixSizeAxisX, regionMatrixSizeAxisY);
+    }
+
+    /**
+     * Internal utility function.
+     * Refill the ghost column and the ghost row of the region with the Cells, which they mirror. The ghost row is
+     * filled after the ghost column, so that its ghost Cell mirrors the Cell across both of the axes.
+     *
+     * */
+    private static void fillGhostCells(final PackedCellMatrix region,
+                                       final boolean verticalAxis, final boolean horizontalAxis,
+                                       final int regionSizeAxisX, final int regionSizeAxisY,
+                                       final int ghostSourceCoordinateX, final int ghostSourceCoordinateY) {
+        if (verticalAxis)
+            for (int y = 0; y < regionSizeAxisY; y++)
+                region.setGreen(regionSizeAxisX, y, region.isGreen(ghostSourceCoordinateX, y));
+
+        if (horizontalAxis)
+            for (int rowWordIndex = 0; rowWordIndex < region.getRowWordsCount(); rowWordIndex++)
+                region.setRowWord(regionSizeAxisY, rowWordIndex,
+                        region.getRowWord(ghostSourceCoordinateY, rowWordIndex));
+    }
+}
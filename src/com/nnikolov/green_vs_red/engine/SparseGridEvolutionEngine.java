@@ -0,0 +1,136 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+import com.nnikolov.green_vs_red.util.GridGenerationProgressionRule;
+import com.nnikolov.green_vs_red.util.OpenAddressingIntCounterMap;
+import com.nnikolov.green_vs_red.util.OpenAddressingIntHashSet;
+
+/**
+ * A GridEvolutionEngine for sparse Grids, which tracks only the GREEN Color Cells. They are stored as Cell indexes
+ * (y * X + x) in a primitive OpenAddressingIntHashSet.
+ *
+ * A Cell needs at least 2 GREEN Color neighbours in order to have a GREEN Color in the next generation, regardless
+ * of its own Color, therefore only the neighbours of GREEN Color Cells can be GREEN in the next generation. Each
+ * generation, every GREEN Color Cell increments the counters of its neighbours in an OpenAddressingIntCounterMap and
+ * only the counted Cells are checked against the rules. The work per generation is therefore proportional to the
+ * amount of GREEN Color Cells, rather than to the size of the Grids cellMatrix.
+ *
+ * Once no GREEN Color Cells remain, the Grid cannot change any more and the remaining generations are skipped.
+ *
+ * The hash tables are acquired from the PackedCellMatrixPool of the query, if it has one, and released back to it once
+ * the query is answered. Only the hash tables, which fit within the bound of the retained words of the pool, are
+ * recycled; larger ones (of very large GREEN Color populations) are left to the garbage collector.
+ *
+ * */
+public final class SparseGridEvolutionEngine implements GridEvolutionEngine {
+
+    /**
+     * The cost of processing a single GREEN Color Cell for a generation, relative to a Cell generation update of
+     * the dense stepping engine. Calibrated at 5% GREEN Color Cells, where the engine competes with the block lookup
+     * table, at about 3.8 times the former 2.5; at 2% GREEN Color Cells the measured ratio was 0.89, as the hash
+     * tables still fit within the caches.
+     *
+     * */
+    private static final double relativeGreenCellUpdateCost = 9.5;
+
+    /**
+     * The largest density of GREEN Color Cells, for which this engine is used. Beyond it, the hash tables outgrow the
+     * caches and the cost per GREEN Color Cell rises steeply.
+     *
+     * */
+    private static final double maxGreenCellsDensity = 0.1;
+
+    @Override
+    public String getName() {
+        return "sparse";
+    }
+
+    @Override
+    public double estimateCost(final GridCellQuery gridCellQuery) {
+        if (gridCellQuery.getGreenCellsDensity() > maxGreenCellsDensity)
+            return Double.POSITIVE_INFINITY;
+
+        //The density of the ZERO generation is assumed for all of the generations.
+        return relativeGreenCellUpdateCost * gridCellQuery.getGreenCellsDensity() *
+                gridCellQuery.getFullProgressionCellUpdatesCount();
+    }
+
+    @Override
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery,
+                                                                   final GridGenerationMonitor gridGenerationMonitor) {
+        //Read the snapshot of the queried Grid in place, rather than an O(X * Y) copy of it.
+        final PackedCellMatrix packedCellMatrix = gridCellQuery.getPackedCellMatrix();
+
+        final int cellMatrixSizeAxisX = packedCellMatrix.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = packedCellMatrix.getCellMatrixSizeAxisY();
+        final int targetCellIndex = gridCellQuery.getTargetCellCoordinateY() * cellMatrixSizeAxisX +
+                gridCellQuery.getTargetCellCoordinateX();
+        final long targetGridGeneration = gridCellQuery.getTargetGridGeneration().longValue();
+
+        //Collect the GREEN Color Cells of the ZERO generation, one bit-packed word at a time.
+        final int greenCellsCount = (int) packedCellMatrix.getGreenCellsCount();
+
+        //Acquire the hash tables from the pool of the query, if it has one, and release them once they are done.
+        final PackedCellMatrixPool packedCellMatrixPool = gridCellQuery.getPackedCellMatrixPool();
+
+        try (final OpenAddressingIntHashSet firstGreenCells =
+                     new OpenAddressingIntHashSet(greenCellsCount, packedCellMatrixPool);
+             final OpenAddressingIntHashSet secondGreenCells =
+                     new OpenAddressingIntHashSet(greenCellsCount, packedCellMatrixPool);
+             final OpenAddressingIntCounterMap greenNeighboursCounts = new OpenAddressingIntCounterMap(
+                     GridGenerationProgressionRule.MAX_NEIGHBOURS_COUNT * greenCellsCount, packedCellMatrixPool)) {
+            OpenAddressingIntHashSet currentGreenCells = firstGreenCells, nextGreenCells = secondGreenCells;
+
+            for (int y = 0; y < cellMatrixSizeAxisY; y++)
+                for (int rowWordIndex = 0; rowWordIndex < packedCellMatrix.getRowWordsCount(); rowWordIndex++)
+                    for (long word = packedCellMatrix.getRowWord(y, rowWordIndex); word != 0; word &= word - 1)
+                        currentGreenCells.add(y * cellMatrixSizeAxisX +
+                                rowWordIndex * PackedCellMatrix.CELLS_PER_WORD + Long.numberOfTrailingZeros(word));
+
+            //Include the ZERO generation Color of the targeted Cell.
+            long targetCellGreenColorChanges = currentGreenCells.contains(targetCellIndex) ? 1 : 0;
+
+            for (long generation = 1; generation <= targetGridGeneration && currentGreenCells.size() > 0;
+                 generation++) {
+                if (!gridGenerationMonitor.onGeneration(generation - 1, targetCellGreenColorChanges))
+                    break;
+
+                //Count the GREEN Color neighbours of every Cell, which has any.
+                greenNeighboursCounts.clear();
+
+                for (int index = 0; index < currentGreenCells.size(); index++) {
+                    final int cellIndex = currentGreenCells.get(index);
+                    final int x = cellIndex % cellMatrixSizeAxisX, y = cellIndex / cellMatrixSizeAxisX;
+
+                    for (int neighbourY = Math.max(y - 1, 0);
+                         neighbourY <= Math.min(y + 1, cellMatrixSizeAxisY - 1); neighbourY++)
+                        for (int neighbourX = Math.max(x - 1, 0);
+                             neighbourX <= Math.min(x + 1, cellMatrixSizeAxisX - 1); neighbourX++)
+                            if (neighbourX != x || neighbourY != y)
+                                greenNeighboursCounts.increment(neighbourY * cellMatrixSizeAxisX + neighbourX);
+                }
+
+                //Only the counted Cells may have a GREEN Color in the next generation.
+                nextGreenCells.clear();
+
+                for (int index = 0; index < greenNeighboursCounts.size(); index++) {
+                    final int cellIndex = greenNeighboursCounts.getKey(index);
+
+                    if (GridGenerationProgressionRule.nextGenerationCellIsGreen(
+                            currentGreenCells.contains(cellIndex), greenNeighboursCounts.getCount(index)))
+                        nextGreenCells.add(cellIndex);
+                }
+
+                final OpenAddressingIntHashSet previousGreenCells = currentGreenCells;
+                currentGreenCells = nextGreenCells;
+                nextGreenCells = previousGreenCells;
+
+                if (currentGreenCells.contains(targetCellIndex))
+                    targetCellGreenColorChanges++;
+            }
+
+            return targetCellGreenColorChanges;
+        }
+    }
+}
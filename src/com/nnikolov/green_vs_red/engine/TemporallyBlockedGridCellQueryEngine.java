@@ -0,0 +1,470 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.GridGenerationProgressionRule;
+
+import java.util.Arrays;
+
+/**
+ * A query engine, which calculates the amount of times a targeted Cell within a Grids cellMatrix will have a GREEN
+ * Color, up to a certain TargetGridGeneration (including the ZERO generation), by progressing the whole Grid several
+ * generations at a time, one cache-resident tile after another (temporal blocking).
+ *
+ * The Grids cellMatrix is kept in a bit-packed form and is split into tiles. For a block of T generations, each tile
+ * is loaded together with a halo of depth T into a small buffer, which is progressed T times and then only the tile
+ * itself is written back. Since every generation only depends on the immediate neighbours of a Cell, the correctly
+ * progressed region shrinks by one Cell per generation on every side, which borders on Cells that were not loaded
+ * (a trapezoid), therefore the tile itself is exact after T generations. The sides, which border on the edge of the
+ * cellMatrix, do not shrink, as the Cells beyond it are always RED.
+ *
+ * This way, the cellMatrix is streamed through the memory once per T generations instead of once per generation, at
+ * the cost of recalculating the halos of neighbouring tiles. Each generation of a tile buffer is progressed via the
+ * same peeled kernel as GridGenerationStepper.stepPackedCellMatrixRows (the per-column sums of three rows, then the
+ * 3x3 sums made from them), within the one-Cell RED border of the buffer, so that it needs no bounds checks.
+ *
+ * The bit-packed cellMatrices and the tile buffers can be acquired from a PackedCellMatrixPool, in which case they are
+ * released back to it once the engine is closed.
+ *
+ * */
+public final class TemporallyBlockedGridCellQueryEngine implements AutoCloseable {
+
+    /**
+     * The default horizontal size of a tile (a multiple of the Cells per bit-packed word).
+     *
+     * */
+    public static final int DEFAULT_TILE_SIZE_AXIS_X = 8 * PackedCellMatrix.CELLS_PER_WORD;
+
+    /**
+     * The default vertical size of a tile.
+     *
+     * */
+    public static final int DEFAULT_TILE_SIZE_AXIS_Y = 128;
+
+    /**
+     * The default amount of generations, which a tile is progressed by at once.
+     *
+     * */
+    public static final int DEFAULT_BLOCK_DEPTH = 8;
+
+    /**
+     * The coordinates of the targeted Cell within the Grids cellMatrix.
+     *
+     * */
+    private final short targetCellCoordinateX, targetCellCoordinateY;
+
+    /**
+     * The TargetGridGeneration, up to which the targeted Cell is tracked.
+     *
+     * */
+    private final long targetGridGeneration;
+
+    /**
+     * The dimensions of a tile and the amount of generations, which a tile is progressed by at once.
+     *
+     * */
+    private final int tileSizeAxisX, tileSizeAxisY, blockDepth;
+
+    /**
+     * Two bit-packed cellMatrices, which hold the current and the next generation block of the whole Grid.
+     *
+     * */
+    private PackedCellMatrix currentCellMatrix, nextCellMatrix;
+
+    /**
+     * Two tile buffers of colorCodes, which hold a tile and its halo, including a one-Cell border on each side.
+     *
+     * */
+    private final byte[] currentTileBuffer, nextTileBuffer;
+
+    /**
+     * The per-column sums of three rows of a tile buffer (see GridGenerationStepper.stepPackedCellMatrixRows).
+     *
+     * */
+    private final byte[] columnSums;
+
+    /**
+     * The PackedCellMatrixPool, which the tile buffers were acquired from. NULL if they were allocated.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Determines whether the cellMatrices and the tile buffers were already released.
+     *
+     * */
+    private boolean closed;
+
+    /**
+     * Standard constructor, which uses the default tile sizes and block depth.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * */
+    public TemporallyBlockedGridCellQueryEngine(final Grid grid,
+                                                final short targetCellCoordinateX,
+                                                final short targetCellCoordinateY,
+                                                final TargetGridGeneration targetGridGeneration) {
+        this(grid, targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration,
+                DEFAULT_TILE_SIZE_AXIS_X, DEFAULT_TILE_SIZE_AXIS_Y, DEFAULT_BLOCK_DEPTH);
+    }
+
+    /**
+     * Pooled constructor, which uses the default tile sizes and block depth, and acquires the cellMatrices and the
+     * tile buffers from a PackedCellMatrixPool. They are released back to the pool once the engine is closed.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the cellMatrices and the tile buffers will be
+     *                             acquired from. If NULL, they are allocated.
+     *
+     * */
+    public TemporallyBlockedGridCellQueryEngine(final Grid grid,
+                                                final short targetCellCoordinateX,
+                                                final short targetCellCoordinateY,
+                                                final TargetGridGeneration targetGridGeneration,
+                                                final PackedCellMatrixPool packedCellMatrixPool) {
+        this(grid, targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration,
+                DEFAULT_TILE_SIZE_AXIS_X, DEFAULT_TILE_SIZE_AXIS_Y, DEFAULT_BLOCK_DEPTH, packedCellMatrixPool);
+    }
+
+    /**
+     * Advanced constructor, which allows the tile sizes and the block depth to be tuned.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @param tileSizeAxisX The horizontal size of a tile. It is rounded up to a multiple of the Cells per
+     *                      bit-packed word, so that the tiles can be written back one word at a time.
+     *
+     * @param tileSizeAxisY The vertical size of a tile.
+     *
+     * @param blockDepth The amount of generations, which a tile is progressed by at once (the depth of its halo).
+     *
+     * @throws IllegalArgumentException If a tile size or the block depth is not positive.
+     *
+     * */
+    public TemporallyBlockedGridCellQueryEngine(final Grid grid,
+                                                final short targetCellCoordinateX,
+                                                final short targetCellCoordinateY,
+                                                final TargetGridGeneration targetGridGeneration,
+                                                final int tileSizeAxisX,
+                                                final int tileSizeAxisY,
+                                                final int blockDepth) {
+        this(grid, targetCellCoordinateX, targetCellCoordinateY, targetGridGeneration,
+                tileSizeAxisX, tileSizeAxisY, blockDepth, null);
+    }
+
+    /**
+     * Advanced pooled constructor, which allows the tile sizes and the block depth to be tuned, and acquires the
+     * cellMatrices and the tile buffers from a PackedCellMatrixPool. They are released back to the pool once the
+     * engine is closed.
+     *
+     * @param grid An existing Grid instance. It will not be modified.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell in the Grids cellMatrix.
+     *
+     * @param targetGridGeneration The targeted final Grid generation.
+     *
+     * @param tileSizeAxisX The horizontal size of a tile. It is rounded up to a multiple of the Cells per
+     *                      bit-packed word, so that the tiles can be written back one word at a time.
+     *
+     * @param tileSizeAxisY The vertical size of a tile.
+     *
+     * @param blockDepth The amount of generations, which a tile is progressed by at once (the depth of its halo).
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the cellMatrices and the tile buffers will be
+     *                             acquired from. If NULL, they are allocated.
+     *
+     * @throws IllegalArgumentException If a tile size or the block depth is not positive.
+     *
+     * */
+    public TemporallyBlockedGridCellQueryEngine(final Grid grid,
+                                                final short targetCellCoordinateX,
+                                                final short targetCellCoordinateY,
+                                                final TargetGridGeneration targetGridGeneration,
+                                                final int tileSizeAxisX,
+                                                final int tileSizeAxisY,
+                                                final int blockDepth,
+                                                final PackedCellMatrixPool packedCellMatrixPool) {
+        if (tileSizeAxisX <= 0 || tileSizeAxisY <= 0 || blockDepth <= 0)
+            throw new IllegalArgumentException("The tile sizes and the block depth must be positive.");
+
+        this.targetCellCoordinateX = targetCellCoordinateX;
+        this.targetCellCoordinateY = targetCellCoordinateY;
+        this.targetGridGeneration = targetGridGeneration.longValue();
+
+        //Round the horizontal tile size up to whole words and clip the tile to the size of the Grids cellMatrix.
+        this.tileSizeAxisX = Math.min(
+                (tileSizeAxisX + PackedCellMatrix.CELLS_PER_WORD - 1) / PackedCellMatrix.CELLS_PER_WORD *
+                        PackedCellMatrix.CELLS_PER_WORD,
+                PackedCellMatrix.getRowWordsCount(grid.getCellMatrixSizeAxisX()) * PackedCellMatrix.CELLS_PER_WORD);
+        this.tileSizeAxisY = Math.min(tileSizeAxisY, grid.getCellMatrixSizeAxisY());
+
+        //A halo, which is deeper than the Grids cellMatrix, would not add any Cells.
+        this.blockDepth = Math.min(blockDepth,
+                Math.max(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()));
+
+        this.packedCellMatrixPool = packedCellMatrixPool;
+
+        currentCellMatrix = acquireCellMatrix(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY());
+        nextCellMatrix = acquireCellMatrix(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY());
+        grid.copyPackedCellMatrixTo(currentCellMatrix);
+
+        //The tile buffers are sized for the largest tile with a full halo and a one-Cell border.
+        final int tileBufferLength = (this.tileSizeAxisX + 2 * this.blockDepth + 2) *
+                (this.tileSizeAxisY + 2 * this.blockDepth + 2);
+        currentTileBuffer = acquireTileBuffer(tileBufferLength);
+        nextTileBuffer = acquireTileBuffer(tileBufferLength);
+        columnSums = acquireTileBuffer(this.tileSizeAxisX + 2 * this.blockDepth + 2);
+    }
+
+    /**
+     * Calculates the amount of times the targeted Cell will have a GREEN Color, up to the TargetGridGeneration
+     * (including the ZERO generation).
+     *
+     * NOTE: The Grids cellMatrix is progressed by this function, therefore it should be called only once per
+     * instance.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration (including the ZERO generation).
+     *
+     * */
+    public long getTargetCellGreenColorChangesUpToTargetGeneration() {
+        return getTargetCellGreenColorChangesUpToTargetGeneration(GridGenerationMonitor.UNBOUNDED);
+    }
+
+    /**
+     * Calculates the amount of times the targeted Cell will have a GREEN Color, up to the TargetGridGeneration
+     * (including the ZERO generation), while reporting the progress to a GridGenerationMonitor between two blocks
+     * of generations.
+     *
+     * NOTE: The Grids cellMatrix is progressed by this function, therefore it should be called only once per
+     * instance.
+     *
+     * @param gridGenerationMonitor The GridGenerationMonitor, which receives the progress and may stop the engine.
+     *
+     * @return A 'long' Number type, which indicates how many times the targeted Cell had a GREEN Color, up to the
+     * TargetGridGeneration, or up to the generation at which the monitor stopped the engine (including the ZERO
+     * generation).
+     *
+     * */
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridGenerationMonitor gridGenerationMonitor) {
+        //Include the ZERO generation Color of the targeted Cell.
+        long targetCellGreenColorChanges = currentCellMatrix.isGreen(targetCellCoordinateX, targetCellCoordinateY) ?
+                1 : 0;
+
+        final short cellMatrixSizeAxisX = currentCellMatrix.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = currentCellMatrix.getCellMatrixSizeAxisY();
+
+        for (long generation = 0; generation < targetGridGeneration; ) {
+            if (!gridGenerationMonitor.onGeneration(generation, targetCellGreenColorChanges))
+                break;
+
+            //The last block may be shallower than the others.
+            final int depth = (int) Math.min(blockDepth, targetGridGeneration - generation);
+
+            for (int tileMinY = 0; tileMinY < cellMatrixSizeAxisY; tileMinY += tileSizeAxisY)
+                for (int tileMinX = 0; tileMinX < cellMatrixSizeAxisX; tileMinX += tileSizeAxisX)
+                    targetCellGreenColorChanges += progressTile(tileMinX, tileMinY,
+                            Math.min(tileMinX + tileSizeAxisX, cellMatrixSizeAxisX) - 1,
+                            Math.min(tileMinY + tileSizeAxisY, cellMatrixSizeAxisY) - 1, depth);
+
+            //Swap the bit-packed cellMatrices, so that the progressed block becomes the current one.
+            final PackedCellMatrix progressedCellMatrix = nextCellMatrix;
+            nextCellMatrix = currentCellMatrix;
+            currentCellMatrix = progressedCellMatrix;
+
+            generation += depth;
+        }
+
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Release the cellMatrices and the tile buffers back to the PackedCellMatrixPool, if they were acquired from one.
+     * The engine must not be used afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+
+        currentCellMatrix.close();
+        nextCellMatrix.close();
+
+        if (packedCellMatrixPool != null) {
+            packedCellMatrixPool.releaseBytes(currentTileBuffer);
+            packedCellMatrixPool.releaseBytes(nextTileBuffer);
+            packedCellMatrixPool.releaseBytes(columnSums);
+        }
+    }
+
+    /**
+     * Determine whether a Grids cellMatrix spans more than a single default tile, i.e. whether it may not stay
+     * cache-resident during a generation, so that temporal blocking pays off.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the Grids cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the Grids cellMatrix.
+     *
+     * @return A boolean, which indicates whether the Grids cellMatrix spans more than a single default tile.
+     *
+     * */
+    public static boolean spansSeveralTiles(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        return cellMatrixSizeAxisX > DEFAULT_TILE_SIZE_AXIS_X || cellMatrixSizeAxisY > DEFAULT_TILE_SIZE_AXIS_Y;
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain a bit-packed cellMatrix, from the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private PackedCellMatrix acquireCellMatrix(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        return packedCellMatrixPool != null ?
+                packedCellMatrixPool.acquire(cellMatrixSizeAxisX, cellMatrixSizeAxisY) :
+                new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain a tile buffer, from the PackedCellMatrixPool, if there is one. It is cleared before each tile anyway.
+     *
+     * */
+    private byte[] acquireTileBuffer(final int length) {
+        return packedCellMatrixPool != null ? packedCellMatrixPool.acquireBytes(length) : new byte[length];
+    }
+
+    /**
+     * Internal utility function.
+     * Load a tile with a halo of a given depth, progress it by that many generations and write the tile back into
+     * the next bit-packed cellMatrix.
+     *
+     * @return The amount of times the targeted Cell had a GREEN Color within the progressed generations, if the tile
+     * holds it, otherwise 0.
+     *
+     * */
+    private long progressTile(final int tileMinX, final int tileMinY, final int tileMaxX, final int tileMaxY,
+                              final int depth) {
+        final short cellMatrixSizeAxisX = currentCellMatrix.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = currentCellMatrix.getCellMatrixSizeAxisY();
+
+        //Determine the bounds of the loaded region (the tile and its halo), clipped to the Grids cellMatrix.
+        final int regionMinX = Math.max(0, tileMinX - depth), regionMaxX = Math.min(cellMatrixSizeAxisX - 1,
+                tileMaxX + depth), regionMinY = Math.max(0, tileMinY - depth),
+                regionMaxY = Math.min(cellMatrixSizeAxisY - 1, tileMaxY + depth);
+
+        //The buffers include a one-Cell RED border on each side, for the Cells beyond the Grids cellMatrix.
+        final int stride = regionMaxX - regionMinX + 3;
+        final int bufferLength = stride * (regionMaxY - regionMinY + 3);
+
+        byte[] current = currentTileBuffer, next = nextTileBuffer;
+        Arrays.fill(current, 0, bufferLength, (byte) 0);
+        Arrays.fill(next, 0, bufferLength, (byte) 0);
+
+        //Load the region out of the current bit-packed cellMatrix, one word at a time.
+        for (int y = regionMinY; y <= regionMaxY; y++) {
+            //The index of the Cell x of the row is (rowIndex + x).
+            final int rowIndex = (y - regionMinY + 1) * stride + 1 - regionMinX;
+
+            for (int rowWordIndex = regionMinX >>> 6; rowWordIndex <= regionMaxX >>> 6; rowWordIndex++) {
+                final long word = currentCellMatrix.getRowWord(y, rowWordIndex);
+                final int wordStartX = Math.max(regionMinX, rowWordIndex * PackedCellMatrix.CELLS_PER_WORD),
+                        wordEndX = Math.min(regionMaxX, (rowWordIndex + 1) * PackedCellMatrix.CELLS_PER_WORD - 1);
+
+                for (int x = wordStartX; x <= wordEndX; x++)
+                    current[rowIndex + x] = (byte) (word >>> x & 1L);
+            }
+        }
+
+        final boolean holdsTargetCell = targetCellCoordinateX >= tileMinX && targetCellCoordinateX <= tileMaxX &&
+                targetCellCoordinateY >= tileMinY && targetCellCoordinateY <= tileMaxY;
+        final int targetCellIndex = (targetCellCoordinateY - regionMinY + 1) * stride +
+                (targetCellCoordinateX - regionMinX + 1);
+
+        long targetCellGreenColorChanges = 0;
+
+        for (int step = 1; step <= depth; step++) {
+            /*
+             * The correctly progressed region shrinks by one Cell per generation on every side, which borders on
+             * Cells that were not loaded.
+             * */
+            final int minX = regionMinX == 0 ? 0 : regionMinX + step,
+                    maxX = regionMaxX == cellMatrixSizeAxisX - 1 ? regionMaxX : regionMaxX - step,
+                    minY = regionMinY == 0 ? 0 : regionMinY + step,
+                    maxY = regionMaxY == cellMatrixSizeAxisY - 1 ? regionMaxY : regionMaxY - step;
+
+            //The buffer columns of the progressed Cells, and of their neighbours on each side.
+            final int firstColumn = minX - regionMinX + 1, lastColumn = maxX - regionMinX + 1;
+
+            //Progress each row via the peeled kernel of the GridGenerationStepper.
+            for (int y = minY; y <= maxY; y++) {
+                final int rowIndex = (y - regionMinY + 1) * stride,
+                        aboveRowIndex = rowIndex - stride, belowRowIndex = rowIndex + stride;
+
+                //Sum the colorCodes of each column of the three rows.
+                for (int column = firstColumn - 1; column <= lastColumn + 1; column++)
+                    columnSums[column] = (byte) (current[aboveRowIndex + column] + current[rowIndex + column] +
+                            current[belowRowIndex + column]);
+
+                //Progress each Cell from the 3x3 sums, excluding the Cell itself.
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    final int cellColorCode = current[rowIndex + column];
+                    final int greenNeighboursCount = columnSums[column - 1] + columnSums[column] +
+                            columnSums[column + 1] - cellColorCode;
+
+                    next[rowIndex + column] = GridGenerationProgressionRule.nextGenerationCellColorCode(
+                            cellColorCode, greenNeighboursCount);
+                }
+            }
+
+            final byte[] previous = current;
+            current = next;
+            next = previous;
+
+            if (holdsTargetCell)
+                targetCellGreenColorChanges += current[targetCellIndex];
+        }
+
+        //Write the tile back, one word at a time (the tiles start at word boundaries).
+        for (int y = tileMinY; y <= tileMaxY; y++)
+            for (int wordStartX = tileMinX; wordStartX <= tileMaxX; wordStartX += PackedCellMatrix.CELLS_PER_WORD) {
+                final int wordEndX = Math.min(wordStartX + PackedCellMatrix.CELLS_PER_WORD - 1, tileMaxX);
+
+                int index = (y - regionMinY + 1) * stride + (wordStartX - regionMinX + 1);
+                long word = 0;
+
+                for (int x = wordStartX; x <= wordEndX; x++, index++)
+                    word |= (long) current[index] << x;
+
+                nextCellMatrix.setRowWord(y, wordStartX >>> 6, word);
+            }
+
+        return targetCellGreenColorChanges;
+    }
+}
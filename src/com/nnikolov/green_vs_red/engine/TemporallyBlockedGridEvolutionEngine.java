@@ -0,0 +1,59 @@
+package com.nnikolov.green_vs_red.engine;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+/**
+ * A GridEvolutionEngine, which answers a query via a TemporallyBlockedGridCellQueryEngine with its default tile
+ * sizes and block depth. Since it keeps the Grid on the Java heap, it is not used when the DIRECT (off-heap) Storage
+ * is preferred.
+ *
+ * */
+public final class TemporallyBlockedGridEvolutionEngine implements GridEvolutionEngine {
+
+    /**
+     * The cost of a single Cell generation update, relative to the dense stepping engine. Calibrated at about 3
+     * times the former 0.25 (measured ratios: 2.35 - 3.56), since the tiles share the peeled column-sum kernel of
+     * the dense stepping engine and gain from the cache locality only, rather than from a cheaper kernel.
+     *
+     * */
+    private static final double relativeCellUpdateCost = 0.75;
+
+    @Override
+    public String getName() {
+        return "temporal-blocking";
+    }
+
+    @Override
+    public double estimateCost(final GridCellQuery gridCellQuery) {
+        if (PackedCellMatrix.Storage.getPreferred() != PackedCellMatrix.Storage.HEAP)
+            return Double.POSITIVE_INFINITY;
+
+        //Every tile recalculates the halos of its neighbours.
+        final double haloOverhead =
+                (1.0 + 2.0 * TemporallyBlockedGridCellQueryEngine.DEFAULT_BLOCK_DEPTH /
+                        Math.min(TemporallyBlockedGridCellQueryEngine.DEFAULT_TILE_SIZE_AXIS_X,
+                                gridCellQuery.getCellMatrixSizeAxisX())) *
+                (1.0 + 2.0 * TemporallyBlockedGridCellQueryEngine.DEFAULT_BLOCK_DEPTH /
+                        Math.min(TemporallyBlockedGridCellQueryEngine.DEFAULT_TILE_SIZE_AXIS_Y,
+                                gridCellQuery.getCellMatrixSizeAxisY()));
+
+        //A Grid, which fits within a single tile, has no halos.
+        return relativeCellUpdateCost * gridCellQuery.getFullProgressionCellUpdatesCount() *
+                (TemporallyBlockedGridCellQueryEngine.spansSeveralTiles(
+                        gridCellQuery.getCellMatrixSizeAxisX(), gridCellQuery.getCellMatrixSizeAxisY()) ?
+                        haloOverhead : 1.0);
+    }
+
+    @Override
+    public long getTargetCellGreenColorChangesUpToTargetGeneration(final GridCellQuery gridCellQuery,
+                                                                   final GridGenerationMonitor gridGenerationMonitor) {
+        //Release the cellMatrices and the tile buffers back to the pool of the query, if it has one.
+        try (final TemporallyBlockedGridCellQueryEngine temporallyBlockedGridCellQueryEngine =
+                     new TemporallyBlockedGridCellQueryEngine(gridCellQuery.getGrid(),
+                             gridCellQuery.getTargetCellCoordinateX(), gridCellQuery.getTargetCellCoordinateY(),
+                             gridCellQuery.getTargetGridGeneration(), gridCellQuery.getPackedCellMatrixPool())) {
+            return temporallyBlockedGridCellQueryEngine
+                    .getTargetCellGreenColorChangesUpToTargetGeneration(gridGenerationMonitor);
+        }
+    }
+}
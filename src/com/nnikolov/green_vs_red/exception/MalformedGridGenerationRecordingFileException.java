@@ -0,0 +1,57 @@
+package com.nnikolov.green_vs_red.exception;
+
+import java.nio.file.Path;
+
+/**
+ * A RuntimeException indicating that a Grid generation recording file cannot be replayed, due to the fact that its
+ * header, its frames or its keyframe index do not correspond to the Grid generation recording file format.
+ * Stores the Path of the malformed file.
+ *
+ * */
+public final class MalformedGridGenerationRecordingFileException extends RuntimeException {
+
+    /**
+     * The Path of the malformed Grid generation recording file.
+     *
+     * */
+    private final Path path;
+
+    /**
+     * Default initialization constructor that accepts the Path of a malformed Grid generation recording file.
+     * Includes a generic error message.
+     *
+     * @param path The Path of the malformed Grid generation recording file.
+     *
+     * */
+    public MalformedGridGenerationRecordingFileException(final Path path) {
+        super("The file: " + path + " is not a valid Grid generation recording file.");
+
+        this.path = path;
+    }
+
+    /**
+     * Advanced initialization constructor that accepts the Path of a malformed Grid generation recording file.
+     * Includes the possibility of adding a custom error message to the Exception.
+     *
+     * @param path The Path of the malformed Grid generation recording file.
+     *
+     * @param message A custom error message that can more accurately describe the issue
+     *                that occurred.
+     *
+     * */
+    public MalformedGridGenerationRecordingFileException(final Path path, final String message) {
+        super(message);
+
+        this.path = path;
+    }
+
+    /**
+     * Get the Path of the malformed Grid generation recording file.
+     *
+     * @return The Path of the malformed Grid generation recording file.
+     *
+     * */
+    public Path getPath() {
+        return path;
+    }
+}
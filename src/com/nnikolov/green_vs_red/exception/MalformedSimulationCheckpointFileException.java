@@ -0,0 +1,57 @@
+package com.nnikolov.green_vs_red.exception;
+
+import java.nio.file.Path;
+
+/**
+ * A RuntimeException indicating that a simulation checkpoint file cannot be loaded, due to the fact that its header or
+ * its contents do not correspond to the simulation checkpoint file format.
+ * Stores the Path of the malformed file.
+ *
+ * */
+public final class MalformedSimulationCheckpointFileException extends RuntimeException {
+
+    /**
+     * The Path of the malformed simulation checkpoint file.
+     *
+     * */
+    private final Path path;
+
+    /**
+     * Default initialization constructor that accepts the Path of a malformed simulation checkpoint file.
+     * Includes a generic error message.
+     *
+     * @param path The Path of the malformed simulation checkpoint file.
+     *
+     * */
+    public MalformedSimulationCheckpointFileException(final Path path) {
+        super("The file: " + path + " is not a valid simulation checkpoint file.");
+
+        this.path = path;
+    }
+
+    /**
+     * Advanced initialization constructor that accepts the Path of a malformed simulation checkpoint file.
+     * Includes the possibility of adding a custom error message to the Exception.
+     *
+     * @param path The Path of the malformed simulation checkpoint file.
+     *
+     * @param message A custom error message that can more accurately describe the issue
+     *                that occurred.
+     *
+     * */
+    public MalformedSimulationCheckpointFileException(final Path path, final String message) {
+        super(message);
+
+        this.path = path;
+    }
+
+    /**
+     * Get the Path of the malformed simulation checkpoint file.
+     *
+     * @return The Path of the malformed simulation checkpoint file.
+     *
+     * */
+    public Path getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,55 @@
+package com.nnikolov.green_vs_red.exception;
+
+/**
+ * A RuntimeException indicating that a GridEvolutionEngine has been requested via a name, which does not belong to
+ * any of the discovered GridEvolutionEngines.
+ * Stores the requested name.
+ *
+ * */
+public final class UnknownGridEvolutionEngineException extends RuntimeException {
+
+    /**
+     * The requested name of a GridEvolutionEngine.
+     *
+     * */
+    private final String engineName;
+
+    /**
+     * Default initialization constructor that accepts the requested name of a GridEvolutionEngine.
+     * Includes a generic error message.
+     *
+     * @param engineName The requested name of a GridEvolutionEngine.
+     *
+     * */
+    public UnknownGridEvolutionEngineException(final String engineName) {
+        super("There is no Grid evolution engine with the name: " + engineName + ".");
+
+        this.engineName = engineName;
+    }
+
+    /**
+     * Advanced initialization constructor that accepts the requested name of a GridEvolutionEngine.
+     * Includes the possibility of adding a custom error message to the Exception.
+     *
+     * @param engineName The requested name of a GridEvolutionEngine.
+     *
+     * @param message A custom error message that can more accurately describe the issue
+     *                that occurred.
+     *
+     * */
+    public UnknownGridEvolutionEngineException(final String engineName, final String message) {
+        super(message);
+
+        this.engineName = engineName;
+    }
+
+    /**
+     * Get the requested name of a GridEvolutionEngine.
+     *
+     * @return The requested name of a GridEvolutionEngine.
+     *
+     * */
+    public String getEngineName() {
+        return engineName;
+    }
+}
@@ -0,0 +1,44 @@
+package com.nnikolov.green_vs_red.exception.string;
+
+/**
+ * A RuntimeException indicating that a run-length encoded cellMatrix inputString is malformed due to the fact that
+ * it does not correspond to the format: [N]T[N]T...!; where each T is one of the tags 'r' (RED Cells), 'g' (GREEN
+ * Cells) or '$' (end of a cellMatrix row), each optional N is a positive run count for the following tag and '!'
+ * ends the cellMatrix; or due to the fact that the encoded Cells do not fit within the expected cellMatrix.
+ *
+ * */
+public final class MalformedCellMatrixRunLengthEncodingStringException extends MalformedInputStringException {
+
+    /**
+     * Default initialization constructor that accepts a malformed run-length encoded cellMatrix inputString, which
+     * will be passed to the superclass.
+     *
+     * Includes a generic error message.
+     *
+     * @param inputString The malformed run-length encoded cellMatrix inputString.
+     *
+     * */
+    public MalformedCellMatrixRunLengthEncodingStringException(final String inputString) {
+        super(inputString, "The provided run-length encoded Grid input string is malformed." +
+                " Please make sure that it is formatted as follows: [N]T[N]T...!; where each T is 'r' (RED Cells)," +
+                " 'g' (GREEN Cells) or '$' (end of a row), each optional N is a positive run count and '!' ends the" +
+                " Grid. The encoded Cells must fit within the size of your Grid.");
+    }
+
+    /**
+     * Advanced initialization constructor that accepts a malformed run-length encoded cellMatrix inputString, which
+     * will be passed to the superclass.
+     *
+     * Includes the possibility of adding a custom error message to the Exception, which will also be passed to the
+     * superclass.
+     *
+     * @param inputString The malformed run-length encoded cellMatrix inputString.
+     *
+     * @param message A custom error message that can more accurately describe the issue
+     *                that occurred.
+     *
+     * */
+    public MalformedCellMatrixRunLengthEncodingStringException(final String inputString, final String message) {
+        super(inputString, message);
+    }
+}
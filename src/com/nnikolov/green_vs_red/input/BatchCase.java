@@ -0,0 +1,171 @@
+package com.nnikolov.green_vs_red.input;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+
+/**
+ * Represents a single case, which was read from a batch input file by a BatchCaseReader.
+ *
+ * A case is either valid, in which case it holds an initial-state Grid, the coordinates of the targeted Cell and the
+ * TargetGridGeneration, or malformed, in which case it only holds the error message that describes the issue.
+ *
+ * */
+public final class BatchCase {
+
+    /**
+     * The index of this case within the batch input (counting from 0).
+     *
+     * */
+    private final long caseIndex;
+
+    /**
+     * The initial-state Grid of a valid case. NULL for a malformed case.
+     *
+     * */
+    private final Grid grid;
+
+    /**
+     * The coordinates of the targeted Cell of a valid case.
+     *
+     * */
+    private final short targetCellCoordinateX, targetCellCoordinateY;
+
+    /**
+     * The TargetGridGeneration of a valid case. NULL for a malformed case.
+     *
+     * */
+    private final TargetGridGeneration targetGridGeneration;
+
+    /**
+     * The error message of a malformed case. NULL for a valid case.
+     *
+     * */
+    private final String errorMessage;
+
+    /**
+     * Internal constructor. Instances are created via the 'valid' and 'malformed' factory functions.
+     *
+     * */
+    private BatchCase(final long caseIndex,
+                      final Grid grid,
+                      final short targetCellCoordinateX,
+                      final short targetCellCoordinateY,
+                      final TargetGridGeneration targetGridGeneration,
+                      final String errorMessage) {
+        this.caseIndex = caseIndex;
+        this.grid = grid;
+        this.targetCellCoordinateX = targetCellCoordinateX;
+        this.targetCellCoordinateY = targetCellCoordinateY;
+        this.targetGridGeneration = targetGridGeneration;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Create a valid BatchCase.
+     *
+     * @param caseIndex The index of the case within the batch input.
+     *
+     * @param grid The initial-state Grid of the case.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell.
+     *
+     * @param targetGridGeneration The TargetGridGeneration of the case.
+     *
+     * @return A valid BatchCase.
+     *
+     * */
+    static BatchCase valid(final long caseIndex,
+                           final Grid grid,
+                           final short targetCellCoordinateX,
+                           final short targetCellCoordinateY,
+                           final TargetGridGeneration targetGridGeneration) {
+        return new BatchCase(caseIndex, grid, targetCellCoordinateX, targetCellCoordinateY,
+                targetGridGeneration, null);
+    }
+
+    /**
+     * Create a malformed BatchCase.
+     *
+     * @param caseIndex The index of the case within the batch input.
+     *
+     * @param errorMessage The error message, which describes why the case is malformed.
+     *
+     * @return A malformed BatchCase.
+     *
+     * */
+    static BatchCase malformed(final long caseIndex, final String errorMessage) {
+        return new BatchCase(caseIndex, null, (short) -1, (short) -1, null, errorMessage);
+    }
+
+    /**
+     * Check whether this case is valid.
+     *
+     * @return A boolean, which indicates whether this case is valid.
+     *
+     * */
+    public boolean isValid() {
+        return errorMessage == null;
+    }
+
+    /**
+     * Get the index of this case within the batch input.
+     *
+     * @return The index of this case within the batch input (counting from 0).
+     *
+     * */
+    public long getCaseIndex() {
+        return caseIndex;
+    }
+
+    /**
+     * Get the initial-state Grid of a valid case.
+     *
+     * @return The initial-state Grid of a valid case, or NULL for a malformed case.
+     *
+     * */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Get the horizontal coordinate of the targeted Cell of a valid case.
+     *
+     * @return The horizontal coordinate of the targeted Cell.
+     *
+     * */
+    public short getTargetCellCoordinateX() {
+        return targetCellCoordinateX;
+    }
+
+    /**
+     * Get the vertical coordinate of the targeted Cell of a valid case.
+     *
+     * @return The vertical coordinate of the targeted Cell.
+     *
+     * */
+    public short getTargetCellCoordinateY() {
+        return targetCellCoordinateY;
+    }
+
+    /**
+     * Get the TargetGridGeneration of a valid case.
+     *
+     * @return The TargetGridGeneration of a valid case, or NULL for a malformed case.
+     *
+     * */
+    public TargetGridGeneration getTargetGridGeneration() {
+        return targetGridGeneration;
+    }
+
+    /**
+     * Get the error message of a malformed case.
+     *
+     * @return The error message of a malformed case, or NULL for a valid case.
+     *
+     * */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
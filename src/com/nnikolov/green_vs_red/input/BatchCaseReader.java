@@ -0,0 +1,233 @@
+package com.nnikolov.green_vs_red.input;
+
+import com.nnikolov.green_vs_red.exception.IncompatibleGridCellMatrixShapeException;
+import com.nnikolov.green_vs_red.exception.InvalidCellColorCodeException;
+import com.nnikolov.green_vs_red.exception.InvalidTargetGridGeneration;
+import com.nnikolov.green_vs_red.exception.grid.GridException;
+import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
+import com.nnikolov.green_vs_red.exception.string.MalformedCellMatrixRunLengthEncodingStringException;
+import com.nnikolov.green_vs_red.exception.string.MalformedInputStringException;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+import com.nnikolov.green_vs_red.util.CellMatrixGridCompatibilityValidator;
+import com.nnikolov.green_vs_red.util.StringUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * This class reads many concatenated cases from a batch input, without any interaction with a User. Each case
+ * consists of the same inputStrings as the interactive application expects (the cellMatrix dimensions, the cellMatrix
+ * rows or a run-length encoded cellMatrix and the Cell generation tracking data). Empty lines between cases are
+ * ignored.
+ *
+ * Instead of asking for a malformed inputString again, a malformed case is returned as a BatchCase that holds the
+ * error message and the remaining inputStrings of the case are skipped:
+ *
+ *      - If the cellMatrix dimensions are malformed, the amount of the remaining inputStrings is unknown, hence all
+ *      inputStrings up to the next empty line are skipped.
+ *
+ *      - Otherwise, the remaining cellMatrix rows (or the rest of the run-length encoded cellMatrix, up to its '!')
+ *      and the Cell generation tracking inputString are skipped.
+ *
+ * */
+public final class BatchCaseReader {
+
+    /**
+     * The BufferedReader, which holds the batch input.
+     *
+     * */
+    private final BufferedReader bufferedReader;
+
+    /**
+     * The index of the next case.
+     *
+     * */
+    private long nextCaseIndex;
+
+    /**
+     * Lone constructor.
+     *
+     * @param bufferedReader The BufferedReader, which holds the batch input.
+     *
+     * */
+    public BatchCaseReader(final BufferedReader bufferedReader) {
+        this.bufferedReader = bufferedReader;
+    }
+
+    /**
+     * Read the next case from the batch input.
+     *
+     * @return The next BatchCase (either valid or malformed) or NULL, if the end of the batch input is reached.
+     *
+     * @throws IOException If the batch input cannot be read.
+     *
+     * */
+    public BatchCase readNextCase() throws IOException {
+        //Skip any empty lines before the case.
+        String inputString;
+
+        do {
+            inputString = bufferedReader.readLine();
+
+            if (inputString == null)
+                return null;
+        } while (inputString.trim().isEmpty());
+
+        final long caseIndex = nextCaseIndex++;
+
+        //Parse the cellMatrix dimensions.
+        final short cellMatrixSizeAxisX, cellMatrixSizeAxisY;
+
+        try {
+            InputStringFormatValidator.assertCellMatrixDimensionsStringValidity(inputString);
+
+            final String[] splitCellMatrixDimensionsString =
+                    StringUtil.splitStringByGenericApplicationInputDelimiter(inputString);
+
+            cellMatrixSizeAxisX = StringUtil.stringToShort(splitCellMatrixDimensionsString[0]);
+            cellMatrixSizeAxisY = StringUtil.stringToShort(splitCellMatrixDimensionsString[1]);
+
+            if (!CellMatrixGridCompatibilityValidator.isCompatibleShape(cellMatrixSizeAxisX, cellMatrixSizeAxisY))
+                throw new IncompatibleGridCellMatrixShapeException(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        } catch (final MalformedInputStringException | IncompatibleGridCellMatrixShapeException ex) {
+            //The extent of the case is unknown, skip up to the next empty line.
+            skipUpToEmptyLine();
+
+            return BatchCase.malformed(caseIndex, ex.getMessage());
+        }
+
+        //Parse the cellMatrix, either row by row or run-length encoded.
+        final PackedCellMatrix packedCellMatrix =
+                new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        String errorMessage = readCellMatrix(packedCellMatrix);
+
+        //Parse the Cell generation tracking data, even if the case is already known to be malformed.
+        final String gridCellMatrixCellGenerationTrackingString = bufferedReader.readLine();
+
+        if (errorMessage != null)
+            return BatchCase.malformed(caseIndex, errorMessage);
+
+        if (gridCellMatrixCellGenerationTrackingString == null)
+            return BatchCase.malformed(caseIndex, "The batch input ended before the Grid Cell generation" +
+                    " tracking input string of the case.");
+
+        try {
+            InputStringFormatValidator.assertGridCellMatrixCellGenerationTrackingStringValidity(
+                    gridCellMatrixCellGenerationTrackingString);
+
+            final String[] splitGridCellMatrixCellGenerationTrackingString =
+                    StringUtil.splitStringByGenericApplicationInputDelimiter(
+                            gridCellMatrixCellGenerationTrackingString);
+
+            final short targetCellCoordinateX =
+                    StringUtil.stringToShort(splitGridCellMatrixCellGenerationTrackingString[0]),
+                    targetCellCoordinateY =
+                            StringUtil.stringToShort(splitGridCellMatrixCellGenerationTrackingString[1]);
+
+            final TargetGridGeneration targetGridGeneration = new TargetGridGeneration(
+                    StringUtil.stringToLong(splitGridCellMatrixCellGenerationTrackingString[2]));
+
+            final Grid grid = new Grid(packedCellMatrix);
+
+            //Checks if the targeted Cell can be in the Grids cellMatrix.
+            if (targetCellCoordinateX < 0 || targetCellCoordinateX >= cellMatrixSizeAxisX ||
+                    targetCellCoordinateY < 0 || targetCellCoordinateY >= cellMatrixSizeAxisY)
+                throw new InvalidGridCellMatrixCellCoordinatesException(
+                        grid, targetCellCoordinateX, targetCellCoordinateY);
+
+            return BatchCase.valid(caseIndex, grid, targetCellCoordinateX, targetCellCoordinateY,
+                    targetGridGeneration);
+        } catch (final MalformedInputStringException | InvalidTargetGridGeneration | GridException ex) {
+            return BatchCase.malformed(caseIndex, ex.getMessage());
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Read a whole cellMatrix into a PackedCellMatrix. If the cellMatrix is malformed, its remaining inputStrings are
+     * skipped.
+     *
+     * @param packedCellMatrix A PackedCellMatrix filled with RED Color Cells, which will hold the read Cells.
+     *
+     * @return The error message, which describes why the cellMatrix is malformed, or NULL, if it is valid.
+     *
+     * @throws IOException If the batch input cannot be read.
+     *
+     * */
+    private String readCellMatrix(final PackedCellMatrix packedCellMatrix) throws IOException {
+        final String firstInputString = bufferedReader.readLine();
+
+        if (firstInputString == null)
+            return "The batch input ended before the Grid input strings of the case.";
+
+        String errorMessage = null;
+
+        if (RunLengthEncodedCellMatrixDecoder.isRunLengthEncodedString(firstInputString)) {
+            final RunLengthEncodedCellMatrixDecoder runLengthEncodedCellMatrixDecoder =
+                    new RunLengthEncodedCellMatrixDecoder(packedCellMatrix);
+
+            String inputString = firstInputString;
+
+            while (true) {
+                try {
+                    runLengthEncodedCellMatrixDecoder.decode(inputString);
+                } catch (final MalformedCellMatrixRunLengthEncodingStringException ex) {
+                    //Skip the rest of the run-length encoded cellMatrix.
+                    errorMessage = ex.getMessage();
+
+                    while (inputString != null && inputString.indexOf('!') < 0)
+                        inputString = bufferedReader.readLine();
+
+                    return errorMessage;
+                }
+
+                if (runLengthEncodedCellMatrixDecoder.isComplete())
+                    return null;
+
+                inputString = bufferedReader.readLine();
+
+                if (inputString == null)
+                    return "The batch input ended before the end of the run-length encoded Grid input string.";
+            }
+        }
+
+        //Read the cellMatrix row by row. All of the rows are consumed, even after a malformed one.
+        String cellMatrixRowString = firstInputString;
+
+        for (short y = 0; y < packedCellMatrix.getCellMatrixSizeAxisY(); y++) {
+            if (y > 0)
+                cellMatrixRowString = bufferedReader.readLine();
+
+            if (cellMatrixRowString == null)
+                return "The batch input ended before all of the Grid row input strings of the case.";
+
+            if (errorMessage == null)
+                try {
+                    InputArgumentsReader.assertAndSetPackedCellMatrixRowFromCellMatrixRowString(
+                            packedCellMatrix, y, cellMatrixRowString);
+                } catch (final MalformedInputStringException | InvalidCellColorCodeException ex) {
+                    errorMessage = ex.getMessage();
+                }
+        }
+
+        return errorMessage;
+    }
+
+    /**
+     * Internal utility function.
+     * Skip all inputStrings up to (and including) the next empty line or the end of the batch input.
+     *
+     * @throws IOException If the batch input cannot be read.
+     *
+     * */
+    private void skipUpToEmptyLine() throws IOException {
+        String inputString;
+
+        do {
+            inputString = bufferedReader.readLine();
+        } while (inputString != null && !inputString.trim().isEmpty());
+    }
+}
@@ -1,6 +1,11 @@
 package com.nnikolov.green_vs_red.input;
 
+import com.nnikolov.green_vs_red.exception.InvalidCellColorCodeException;
+import com.nnikolov.green_vs_red.exception.string.MalformedCellMatrixRowStringException;
+import com.nnikolov.green_vs_red.jfr.InputArgumentsReadEvent;
 import com.nnikolov.green_vs_red.model.Cell;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
 import com.nnikolov.green_vs_red.model.TargetGridGeneration;
 import com.nnikolov.green_vs_red.util.VariableActionUtil;
 import com.nnikolov.green_vs_red.util.StringUtil;
@@ -32,6 +37,10 @@ public final class InputArgumentsReader {
      * any Exceptions.
      * */
     private final Function<Consumer<String>, String> readInputStringAndProcessUntilAllExceptionsAreCleared;
+    /**
+     * Stores the Scanner, which reads inputStrings from the provided InputStream.
+     * */
+    private final Scanner inputScanner;
     /**
      * Stores a String Consumer where Exception messages from any of the functions in this class will be sent.
      * */
@@ -49,7 +58,7 @@ public final class InputArgumentsReader {
     public InputArgumentsReader(final InputStream inputStream,
                                 final Consumer<String> messageOutputStringConsumer) {
         //Initialize a new Scanner via the provided inputStream.
-        final Scanner inputScanner = new Scanner(inputStream);
+        this.inputScanner = new Scanner(inputStream);
 
         //Store the String Consumer in a class variable.
         this.messageOutputStringConsumer = messageOutputStringConsumer;
@@ -95,22 +104,27 @@ public final class InputArgumentsReader {
      *
      * */
     public Short[] readCellMatrixAxesSizesUntilAcceptableEntry() {
+        //Begin a JFR Event, which is only committed if a recording that has enabled it is active.
+        final InputArgumentsReadEvent inputArgumentsReadEvent = new InputArgumentsReadEvent();
+        inputArgumentsReadEvent.begin();
+
         /*
         * Initialize the two-element 'short' Number type array, which will store the axes sizes of a potential
         * rectangular cellMatrix.
         * */
         final Short[] cellMatrixAxesSizes = new Short[2];
 
+        /*
+         * Keep reading input string, until one with a valid format is received, as documented
+         * in the InputStringFormatValidator class.
+         * */
+        final String cellMatrixAxesSizesString = readInputStringAndProcessUntilAllExceptionsAreCleared.apply(
+                InputStringFormatValidator::assertCellMatrixDimensionsStringValidity);
+
         //Initialize an array that will hold the String representations of the target cellMatrix axes sizes.
         final String[] splitCellMatrixAxesSizesString =
-                //Split a provided inputString via the generic application delimiter.
-                StringUtil.splitStringByGenericApplicationInputDelimiter(
-                        /*
-                         * Keep reading input string, until one with a valid format is received, as documented
-                         * in the InputStringFormatValidator class.
-                         * */
-                        readInputStringAndProcessUntilAllExceptionsAreCleared.apply(
-                                InputStringFormatValidator::assertCellMatrixDimensionsStringValidity));
+                //Split the inputString via the generic application delimiter.
+                StringUtil.splitStringByGenericApplicationInputDelimiter(cellMatrixAxesSizesString);
 
         /*
         * Populate the cellMatrixAxesSizes array with the parsed 'short' Number types from the
@@ -119,6 +133,10 @@ public final class InputArgumentsReader {
         populateFirstTwoIndexesOfArrWithParsedShortsFromStringArr.accept(
                 cellMatrixAxesSizes, splitCellMatrixAxesSizesString);
 
+        //Commit the JFR Event, if a recording requires it.
+        commitInputArgumentsReadEvent(inputArgumentsReadEvent, "cellMatrixAxesSizes",
+                cellMatrixAxesSizesString.length());
+
         /*
         * Return the two-element 'short' Number type array that includes the axes sizes of a potential rectangular
         * cellMatrix.
@@ -138,6 +156,10 @@ public final class InputArgumentsReader {
      *
      * */
     public List<Cell.Color> readCellMatrixRowCellColorsUntilAcceptableEntry(final short expectedCellMatrixRowLength) {
+        //Begin a JFR Event, which is only committed if a recording that has enabled it is active.
+        final InputArgumentsReadEvent inputArgumentsReadEvent = new InputArgumentsReadEvent();
+        inputArgumentsReadEvent.begin();
+
         //Initialize a List of Cell.Colors with a length of expectedCellMatrixRowLength.
         final List<Cell.Color> cellMatrixRowCellColors = new ArrayList<>(expectedCellMatrixRowLength);
 
@@ -167,10 +189,96 @@ public final class InputArgumentsReader {
                                 Cell.Color.fromCode(StringUtil.charToShort(cellMatrixRowCellColorCode)));
         });
 
+        //Commit the JFR Event, if a recording requires it.
+        commitInputArgumentsReadEvent(inputArgumentsReadEvent, "cellMatrixRow", cellMatrixRowCellColors.size());
+
         //Return a List of Cell.Colors with a length of expectedCellMatrixRowLength, which were parsed from User input.
         return cellMatrixRowCellColors;
     }
 
+    /**
+     * Reads a whole cellMatrix with the provided dimensions from the provided InputStream and stores it in a
+     * PackedCellMatrix. The cellMatrix may be provided in one of two ways:
+     *
+     *      - As one inputString per cellMatrix row, where each character is a Cell Color colorCode, as read by the
+     *      'readCellMatrixRowCellColorsUntilAcceptableEntry' function.
+     *
+     *      - As a run-length encoded cellMatrix, which may span any amount of inputStrings, as described in the
+     *      RunLengthEncodedCellMatrixDecoder class. It is recognised by the run-length encoding tags in its first
+     *      inputString and it is decoded straight into the PackedCellMatrix, run by run.
+     *
+     * If a run-length encoded cellMatrix is malformed, the whole cellMatrix has to be provided again. This function
+     * will loop indefinitely until a proper cellMatrix is received.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the expected cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the expected cellMatrix.
+     *
+     * @return A PackedCellMatrix, which holds the Cell Colors that were read.
+     *
+     * */
+    public PackedCellMatrix readCellMatrixUntilAcceptableEntry(final short cellMatrixSizeAxisX,
+                                                               final short cellMatrixSizeAxisY) {
+        //Begin a JFR Event, which is only committed if a recording that has enabled it is active.
+        final InputArgumentsReadEvent inputArgumentsReadEvent = new InputArgumentsReadEvent();
+        inputArgumentsReadEvent.begin();
+
+        final PackedCellMatrix packedCellMatrix =
+                new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+
+        //Initialise a one-element array, which will hold the total length of the accepted inputStrings.
+        final int[] inputStringLength = new int[1];
+
+        //Loop until every Exception is cleared and a whole cellMatrix is read.
+        VariableActionUtil.loopAndOutputErrorMessagesUntilAllActionExceptionsAreCleared.accept(
+                //Pass the provided to the class String consumer for Exception message output.
+                messageOutputStringConsumer, () -> {
+                    //Clear the PackedCellMatrix at the start of each potential iteration.
+                    packedCellMatrix.clear();
+
+                    /*
+                     * Obtain either a run-length encoded inputString or a valid format cellMatrixRowString. The
+                     * latter is stored as the first cellMatrix row right away.
+                     * */
+                    final String firstInputString =
+                            readInputStringAndProcessUntilAllExceptionsAreCleared.apply((inputStr) -> {
+                                if (!RunLengthEncodedCellMatrixDecoder.isRunLengthEncodedString(inputStr))
+                                    assertAndSetPackedCellMatrixRowFromCellMatrixRowString(
+                                            packedCellMatrix, (short) 0, inputStr);
+                            });
+
+                    inputStringLength[0] = firstInputString.length();
+
+                    if (RunLengthEncodedCellMatrixDecoder.isRunLengthEncodedString(firstInputString)) {
+                        //Decode the run-length encoded inputStrings, until the end of the cellMatrix is reached.
+                        final RunLengthEncodedCellMatrixDecoder runLengthEncodedCellMatrixDecoder =
+                                new RunLengthEncodedCellMatrixDecoder(packedCellMatrix);
+
+                        runLengthEncodedCellMatrixDecoder.decode(firstInputString);
+
+                        while (!runLengthEncodedCellMatrixDecoder.isComplete()) {
+                            final String inputString = inputScanner.nextLine();
+
+                            inputStringLength[0] += inputString.length();
+                            runLengthEncodedCellMatrixDecoder.decode(inputString);
+                        }
+                    } else
+                        //Read and store the remaining cellMatrixRowStrings.
+                        for (short y = 1; y < cellMatrixSizeAxisY; y++) {
+                            final short cellCoordinateY = y;
+
+                            inputStringLength[0] += readInputStringAndProcessUntilAllExceptionsAreCleared.apply(
+                                    (inputStr) -> assertAndSetPackedCellMatrixRowFromCellMatrixRowString(
+                                            packedCellMatrix, cellCoordinateY, inputStr)).length();
+                        }
+                });
+
+        //Commit the JFR Event, if a recording requires it.
+        commitInputArgumentsReadEvent(inputArgumentsReadEvent, "cellMatrix", inputStringLength[0]);
+
+        return packedCellMatrix;
+    }
+
     /**
      * Reads 'short' Number type cellMatrix Cell coordinates and a 'long' Number type for a TargetGridGeneration
      * instance. This function will loop indefinitely until a properly formatted inputString
@@ -184,6 +292,13 @@ public final class InputArgumentsReader {
      *
      * */
     public Number[] readGridCellMatrixCellGenerationTrackingDataUntilAcceptableEntry() {
+        //Begin a JFR Event, which is only committed if a recording that has enabled it is active.
+        final InputArgumentsReadEvent inputArgumentsReadEvent = new InputArgumentsReadEvent();
+        inputArgumentsReadEvent.begin();
+
+        //Initialise a one-element array, which will hold the length of the accepted inputString.
+        final int[] inputStringLength = new int[1];
+
         /*
         * Initialise a Number array, which will hold two 'short' cellMatrix Cell coordinates in the first two indexes
         * and a TargetGridGeneration in the third index.
@@ -198,20 +313,24 @@ public final class InputArgumentsReader {
                 //Pass the provided to the class String consumer for Exception message output.
                 messageOutputStringConsumer, () -> {
 
+            /*
+             * Keep reading input string, until one with a valid format is received, as documented
+             * in the InputStringFormatValidator class.
+             * */
+            final String gridCellMatrixCellGenerationTrackingString =
+                    readInputStringAndProcessUntilAllExceptionsAreCleared.apply(
+                            InputStringFormatValidator::assertGridCellMatrixCellGenerationTrackingStringValidity);
+
+            inputStringLength[0] = gridCellMatrixCellGenerationTrackingString.length();
+
             /*
             * Initialize an array that will hold the String representations of the target cellMatrix Cell coordinates
             * and the TargetGridGenerationNumber.
             * */
             final String[] splitGridCellMatrixCellGenerationTrackingString =
-                    //Split a provided inputString via the generic application delimiter.
+                    //Split the inputString via the generic application delimiter.
                     StringUtil.splitStringByGenericApplicationInputDelimiter(
-                            /*
-                             * Keep reading input string, until one with a valid format is received, as documented
-                             * in the InputStringFormatValidator class.
-                             * */
-                            readInputStringAndProcessUntilAllExceptionsAreCleared.apply(
-                                    InputStringFormatValidator::
-                                            assertGridCellMatrixCellGenerationTrackingStringValidity));
+                            gridCellMatrixCellGenerationTrackingString);
 
             /*
              * Populate the first two indexes of the gridCellMatrixCellGenerationTrackingData array with the parsed
@@ -230,9 +349,66 @@ public final class InputArgumentsReader {
 
         });
 
+        //Commit the JFR Event, if a recording requires it.
+        commitInputArgumentsReadEvent(inputArgumentsReadEvent, "gridCellMatrixCellGenerationTracking",
+                inputStringLength[0]);
+
         return gridCellMatrixCellGenerationTrackingData;
     }
 
+    /**
+     * Package-level utility function, which is shared with the BatchCaseReader.
+     * Asserts the format of a cellMatrixRowString and stores its Cell Colors in a row of a PackedCellMatrix.
+     *
+     * @param packedCellMatrix The PackedCellMatrix, which will hold the Cell Colors.
+     *
+     * @param cellCoordinateY The vertical coordinate of the cellMatrix row.
+     *
+     * @param cellMatrixRowString The cellMatrixRowString, which is expected to have one colorCode per Cell of the
+     *                            PackedCellMatrix row.
+     *
+     * @throws MalformedCellMatrixRowStringException If the cellMatrixRowString does not have a valid format, an
+     * Exception will be thrown.
+     *
+     * @throws InvalidCellColorCodeException If any character of the cellMatrixRowString does not represent a valid
+     * colorCode, an Exception will be thrown.
+     *
+     * */
+    static void assertAndSetPackedCellMatrixRowFromCellMatrixRowString(
+            final PackedCellMatrix packedCellMatrix,
+            final short cellCoordinateY,
+            final String cellMatrixRowString) {
+        InputStringFormatValidator.assertCellMatrixRowStringValidity(
+                cellMatrixRowString, packedCellMatrix.getCellMatrixSizeAxisX());
+
+        for (int x = 0; x < cellMatrixRowString.length(); x++)
+            packedCellMatrix.setGreen(x, cellCoordinateY,
+                    Cell.Color.fromCode(StringUtil.charToShort(cellMatrixRowString.charAt(x))).isGreen());
+    }
+
+    /**
+     * Internal utility function.
+     * Ends a JFR InputArgumentsReadEvent and commits it with the provided data, if an active recording requires it.
+     *
+     * @param inputArgumentsReadEvent A begun InputArgumentsReadEvent.
+     *
+     * @param inputArgumentsType The kind of the input argument, which was read.
+     *
+     * @param inputStringLength The length of the accepted inputString.
+     *
+     * */
+    private static void commitInputArgumentsReadEvent(final InputArgumentsReadEvent inputArgumentsReadEvent,
+                                                      final String inputArgumentsType,
+                                                      final int inputStringLength) {
+        inputArgumentsReadEvent.end();
+
+        if (inputArgumentsReadEvent.shouldCommit()) {
+            inputArgumentsReadEvent.inputArgumentsType = inputArgumentsType;
+            inputArgumentsReadEvent.inputStringLength = inputStringLength;
+            inputArgumentsReadEvent.commit();
+        }
+    }
+
     /**
      * Utility wrap-around code-block that populates the first two indexes of a passed Object array with 'short' Number
      * types that are parsed from a passed String array.
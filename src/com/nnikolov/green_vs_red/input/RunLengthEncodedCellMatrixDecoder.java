@@ -0,0 +1,173 @@
+package com.nnikolov.green_vs_red.input;
+
+import com.nnikolov.green_vs_red.exception.string.MalformedCellMatrixRunLengthEncodingStringException;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+/**
+ * A streaming decoder of run-length encoded cellMatrices, which writes the decoded Cells straight into a
+ * PackedCellMatrix. The encoded cellMatrix may be split over any amount of inputStrings, which are decoded one at a
+ * time, so the work and the memory that are needed scale with the amount of runs, not with the amount of Cells.
+ *
+ * The run-length encoding follows the format: [N]T[N]T...!; where:
+ *
+ *      - 'r' represents N RED Color Cells.
+ *      - 'g' represents N GREEN Color Cells.
+ *      - '$' ends the current cellMatrix row and moves N rows down (leaving N - 1 RED Color rows).
+ *      - '!' ends the cellMatrix.
+ *      - N is an optional positive run count, which defaults to 1.
+ *
+ * Omitted Cells at the end of a row and omitted rows at the end of the cellMatrix have a RED Color. Whitespace is
+ * ignored. For example, the 3x3 cellMatrix 000 / 111 / 000 is encoded as: $3g!
+ *
+ * */
+final class RunLengthEncodedCellMatrixDecoder {
+
+    /**
+     * The PackedCellMatrix, which the decoded Cells are written to.
+     *
+     * */
+    private final PackedCellMatrix packedCellMatrix;
+
+    /**
+     * The coordinates of the next decoded Cell.
+     *
+     * */
+    private int cellCoordinateX, cellCoordinateY;
+
+    /**
+     * The run count, which is currently being read. 0 when no run count has been read for the next tag.
+     *
+     * */
+    private long runCount;
+
+    /**
+     * Indicates whether the end of the cellMatrix ('!') has been decoded.
+     *
+     * */
+    private boolean complete;
+
+    /**
+     * Lone constructor.
+     *
+     * @param packedCellMatrix A PackedCellMatrix filled with RED Color Cells, which the decoded Cells will be
+     *                         written to.
+     *
+     * */
+    RunLengthEncodedCellMatrixDecoder(final PackedCellMatrix packedCellMatrix) {
+        this.packedCellMatrix = packedCellMatrix;
+    }
+
+    /**
+     * Check whether an inputString is (the start of) a run-length encoded cellMatrix, rather than a cellMatrix row
+     * with one colorCode per character.
+     *
+     * @param inputString The inputString, which will be checked.
+     *
+     * @return A boolean, which indicates whether the inputString contains any run-length encoding tags.
+     *
+     * */
+    static boolean isRunLengthEncodedString(final String inputString) {
+        for (int index = 0; index < inputString.length(); index++)
+            if (isTag(inputString.charAt(index)))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Decode the next inputString of the encoded cellMatrix.
+     *
+     * @param inputString The next part of the encoded cellMatrix.
+     *
+     * @throws MalformedCellMatrixRunLengthEncodingStringException If the inputString does not follow the run-length
+     * encoding format, if it follows the end of the cellMatrix or if the encoded Cells exceed the cellMatrix.
+     *
+     * */
+    void decode(final String inputString) {
+        for (int index = 0; index < inputString.length(); index++) {
+            final char character = inputString.charAt(index);
+
+            if (Character.isWhitespace(character))
+                continue;
+
+            //No further characters are allowed after the end of the cellMatrix.
+            if (complete)
+                throw new MalformedCellMatrixRunLengthEncodingStringException(inputString);
+
+            if (character >= '0' && character <= '9') {
+                runCount = runCount * 10 + (character - '0');
+
+                //A run count cannot exceed the size of the cellMatrix (this also prevents an overflow).
+                if (runCount == 0 || runCount > Short.MAX_VALUE)
+                    throw new MalformedCellMatrixRunLengthEncodingStringException(inputString);
+
+                continue;
+            }
+
+            if (!isTag(character))
+                throw new MalformedCellMatrixRunLengthEncodingStringException(inputString);
+
+            decodeRun(character, runCount == 0 ? 1 : (int) runCount, inputString);
+            runCount = 0;
+        }
+    }
+
+    /**
+     * Check whether the end of the cellMatrix ('!') has been decoded.
+     *
+     * @return A boolean, which indicates whether the whole cellMatrix has been decoded.
+     *
+     * */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Internal utility function.
+     * Decode a single run of a tag.
+     *
+     * */
+    private void decodeRun(final char tag, final int count, final String inputString) {
+        switch (tag) {
+            case 'r':
+            case 'g':
+                //A run of Cells must fit within the current cellMatrix row.
+                if (cellCoordinateY >= packedCellMatrix.getCellMatrixSizeAxisY() ||
+                        cellCoordinateX + count > packedCellMatrix.getCellMatrixSizeAxisX())
+                    throw new MalformedCellMatrixRunLengthEncodingStringException(inputString,
+                            "The run-length encoded Grid input string: " + inputString +
+                                    " encodes more Cells than the size of your Grid allows.");
+
+                if (tag == 'g')
+                    packedCellMatrix.setGreenRun(cellCoordinateX, cellCoordinateY, count);
+
+                cellCoordinateX += count;
+                break;
+            case '$':
+                cellCoordinateX = 0;
+                cellCoordinateY += count;
+
+                //A trailing end of row after the last cellMatrix row is allowed.
+                if (cellCoordinateY > packedCellMatrix.getCellMatrixSizeAxisY())
+                    throw new MalformedCellMatrixRunLengthEncodingStringException(inputString,
+                            "The run-length encoded Grid input string: " + inputString +
+                                    " encodes more rows than the size of your Grid allows.");
+                break;
+            default:
+                //A run count cannot precede the end of the cellMatrix.
+                if (runCount != 0)
+                    throw new MalformedCellMatrixRunLengthEncodingStringException(inputString);
+
+                complete = true;
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Check whether a character is a run-length encoding tag.
+     *
+     * */
+    private static boolean isTag(final char character) {
+        return character == 'r' || character == 'g' || character == '$' || character == '!';
+    }
+}
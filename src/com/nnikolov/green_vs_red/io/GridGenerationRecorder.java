@@ -0,0 +1,330 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.util.GridGenerationStepper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Streams consecutive generations of a Grids cellMatrix to a file in the Grid generation recording file format, as
+ * described in the GridGenerationRecordingFormat class.
+ *
+ * Only every keyframeInterval-th generation is written in full. Every other generation is written as the XOR of the
+ * words, which have changed since the previous generation (or of all of the words, if most of them have changed),
+ * therefore a settled Grid costs only a few bytes per generation. The keyframe index is written once the recorder is
+ * closed, hence a recording, which was not closed, cannot be replayed.
+ *
+ * */
+public final class GridGenerationRecorder implements AutoCloseable {
+
+    /**
+     * The FileChannel of the recording file.
+     *
+     * */
+    private final FileChannel fileChannel;
+
+    /**
+     * The amount of generations between two keyframes.
+     *
+     * */
+    private final int keyframeInterval;
+
+    /**
+     * The Deflater, which compresses the payloads. NULL if compression is disabled.
+     *
+     * */
+    private final Deflater deflater;
+
+    /**
+     * The previous recorded generation.
+     *
+     * */
+    private final PackedCellMatrix previousGeneration;
+
+    /**
+     * The cellMatrix, which receives the current generation of a recorded GridGenerationStepper.
+     *
+     * */
+    private final PackedCellMatrix steppedGeneration;
+
+    /**
+     * The raw payload of the current frame (large enough for both a KEYFRAME and the largest DELTA payload).
+     *
+     * */
+    private final ByteBuffer rawPayload;
+
+    /**
+     * The compressed payload of the current frame.
+     *
+     * */
+    private byte[] deflatedPayload;
+
+    /**
+     * The file offsets of the KEYFRAME frames.
+     *
+     * */
+    private long[] keyframeOffsets = new long[16];
+
+    /**
+     * The amount of recorded generations.
+     *
+     * */
+    private long generationsCount;
+
+    /**
+     * Lone constructor. Creates the recording file (an existing file will be overwritten) and writes its header.
+     *
+     * @param path The Path of the recording file.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the recorded cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the recorded cellMatrix.
+     *
+     * @param keyframeInterval The amount of generations between two keyframes. A shorter interval makes seeking
+     *                         faster, while a longer one makes the recording smaller.
+     *
+     * @param compress Whether the payloads should be compressed.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * @throws IllegalArgumentException If the keyframe interval is not positive.
+     *
+     * */
+    public GridGenerationRecorder(final Path path,
+                                  final short cellMatrixSizeAxisX,
+                                  final short cellMatrixSizeAxisY,
+                                  final int keyframeInterval,
+                                  final boolean compress) throws IOException {
+        if (keyframeInterval <= 0)
+            throw new IllegalArgumentException("The keyframe interval: " + keyframeInterval + " is not positive.");
+
+        this.keyframeInterval = keyframeInterval;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.previousGeneration = new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        this.steppedGeneration = new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        this.rawPayload = ByteBuffer.allocate(previousGeneration.getWordsCount() *
+                GridGenerationRecordingFormat.DELTA_ENTRY_SIZE).order(PackedBinaryGridFileFormat.BYTE_ORDER);
+        this.deflatedPayload = new byte[rawPayload.capacity()];
+
+        fileChannel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        //Initialise the header, as described in the GridGenerationRecordingFormat class.
+        writeFully(ByteBuffer
+                .allocate(GridGenerationRecordingFormat.HEADER_SIZE)
+                .order(PackedBinaryGridFileFormat.BYTE_ORDER)
+                .putInt(GridGenerationRecordingFormat.MAGIC)
+                .putShort(GridGenerationRecordingFormat.VERSION)
+                .putShort((short) 0)
+                .putShort(cellMatrixSizeAxisX)
+                .putShort(cellMatrixSizeAxisY)
+                .putInt(keyframeInterval)
+                .flip());
+    }
+
+    /**
+     * Record a whole simulation: progress a deep-copy of a Grid up to a generation and record every generation,
+     * including the ZERO one.
+     *
+     * @param path The Path of the recording file.
+     *
+     * @param grid The Grid, which holds the initial generation.
+     *
+     * @param lastGeneration The last recorded generation.
+     *
+     * @param keyframeInterval The amount of generations between two keyframes.
+     *
+     * @param compress Whether the payloads should be compressed.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    public static void recordSimulation(final Path path, final Grid grid, final long lastGeneration,
+                                        final int keyframeInterval, final boolean compress) throws IOException {
+        try (final GridGenerationRecorder gridGenerationRecorder = new GridGenerationRecorder(path,
+                grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY(), keyframeInterval, compress);
+             final GridGenerationStepper gridGenerationStepper = new GridGenerationStepper(grid)) {
+            gridGenerationRecorder.record(gridGenerationStepper);
+
+            for (long generation = 1; generation <= lastGeneration; generation++) {
+                gridGenerationStepper.stepToNext();
+                gridGenerationRecorder.record(gridGenerationStepper);
+            }
+        }
+    }
+
+    /**
+     * Record the current generation of a GridGenerationStepper as the next generation of the recording.
+     *
+     * @param gridGenerationStepper The GridGenerationStepper, whose current generation will be recorded.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    public void record(final GridGenerationStepper gridGenerationStepper) throws IOException {
+        gridGenerationStepper.copyCurrentGenerationTo(steppedGeneration);
+
+        record(steppedGeneration);
+    }
+
+    /**
+     * Record a cellMatrix as the next generation of the recording.
+     *
+     * @param packedCellMatrix The cellMatrix of the next generation. It must have the dimensions of the recording.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * @throws IllegalArgumentException If the cellMatrix does not have the dimensions of the recording.
+     *
+     * */
+    public void record(final PackedCellMatrix packedCellMatrix) throws IOException {
+        if (packedCellMatrix.getCellMatrixSizeAxisX() != previousGeneration.getCellMatrixSizeAxisX() ||
+                packedCellMatrix.getCellMatrixSizeAxisY() != previousGeneration.getCellMatrixSizeAxisY())
+            throw new IllegalArgumentException(
+                    "The recorded cellMatrix does not have the dimensions of the recording.");
+
+        final boolean isKeyframe = generationsCount % keyframeInterval == 0;
+        final int rowWordsCount = packedCellMatrix.getRowWordsCount(),
+                keyframeSize = packedCellMatrix.getWordsCount() * Long.BYTES;
+
+        byte frameType = isKeyframe ? GridGenerationRecordingFormat.KEYFRAME : GridGenerationRecordingFormat.DELTA;
+
+        rawPayload.clear();
+
+        //Fill the raw payload with either all of the words or only with the changed ones.
+        for (int y = 0; y < packedCellMatrix.getCellMatrixSizeAxisY(); y++)
+            for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++) {
+                final long word = packedCellMatrix.getRowWord(y, rowWordIndex);
+
+                if (isKeyframe)
+                    rawPayload.putLong(word);
+                else if (word != previousGeneration.getRowWord(y, rowWordIndex))
+                    rawPayload.putInt(y * rowWordsCount + rowWordIndex)
+                            .putLong(word ^ previousGeneration.getRowWord(y, rowWordIndex));
+            }
+
+        //Replace a DELTA payload, which is larger than a KEYFRAME one, with the XOR of every pair of words.
+        if (!isKeyframe && rawPayload.position() > keyframeSize) {
+            frameType = GridGenerationRecordingFormat.DENSE_DELTA;
+
+            rawPayload.clear();
+
+            for (int y = 0; y < packedCellMatrix.getCellMatrixSizeAxisY(); y++)
+                for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++)
+                    rawPayload.putLong(packedCellMatrix.getRowWord(y, rowWordIndex) ^
+                            previousGeneration.getRowWord(y, rowWordIndex));
+        }
+
+        rawPayload.flip();
+
+        if (isKeyframe) {
+            if (generationsCount / keyframeInterval == keyframeOffsets.length)
+                keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeOffsets.length * 2);
+
+            keyframeOffsets[(int) (generationsCount / keyframeInterval)] = fileChannel.position();
+        }
+
+        writeFrame(frameType);
+
+        previousGeneration.populateFromPackedCellMatrix(packedCellMatrix);
+        generationsCount++;
+    }
+
+    /**
+     * Get the amount of recorded generations.
+     *
+     * @return The amount of recorded generations.
+     *
+     * */
+    public long getGenerationsCount() {
+        return generationsCount;
+    }
+
+    /**
+     * Write the keyframe index and the trailer and close the recording file.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    @Override
+    public void close() throws IOException {
+        try (final FileChannel closedFileChannel = fileChannel) {
+            final int keyframesCount = (int) ((generationsCount + keyframeInterval - 1) / keyframeInterval);
+            final long keyframeIndexOffset = closedFileChannel.position();
+
+            final ByteBuffer keyframeIndex = ByteBuffer.allocate(keyframesCount * Long.BYTES +
+                    GridGenerationRecordingFormat.TRAILER_SIZE).order(PackedBinaryGridFileFormat.BYTE_ORDER);
+
+            for (int keyframe = 0; keyframe < keyframesCount; keyframe++)
+                keyframeIndex.putLong(keyframeOffsets[keyframe]);
+
+            writeFully(keyframeIndex
+                    .putLong(keyframeIndexOffset)
+                    .putLong(generationsCount)
+                    .putInt(GridGenerationRecordingFormat.MAGIC)
+                    .flip());
+        } finally {
+            if (deflater != null)
+                deflater.end();
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Write the raw payload as a frame of a given type, compressed if that reduces its size.
+     *
+     * */
+    private void writeFrame(final byte frameType) throws IOException {
+        final int rawSize = rawPayload.remaining();
+
+        ByteBuffer storedPayload = rawPayload;
+        byte storedFrameType = frameType;
+
+        if (deflater != null && rawSize > 0) {
+            deflater.reset();
+            deflater.setInput(rawPayload.array(), 0, rawSize);
+            deflater.finish();
+
+            int deflatedSize = 0;
+
+            while (!deflater.finished()) {
+                if (deflatedSize == deflatedPayload.length)
+                    deflatedPayload = Arrays.copyOf(deflatedPayload, deflatedPayload.length * 2);
+
+                deflatedSize += deflater.deflate(deflatedPayload, deflatedSize, deflatedPayload.length - deflatedSize);
+            }
+
+            if (deflatedSize < rawSize) {
+                storedPayload = ByteBuffer.wrap(deflatedPayload, 0, deflatedSize);
+                storedFrameType |= GridGenerationRecordingFormat.DEFLATED;
+            }
+        }
+
+        writeFully(ByteBuffer
+                .allocate(GridGenerationRecordingFormat.FRAME_HEADER_SIZE)
+                .order(PackedBinaryGridFileFormat.BYTE_ORDER)
+                .put(storedFrameType)
+                .putInt(storedPayload.remaining())
+                .putInt(rawSize)
+                .flip());
+        writeFully(storedPayload);
+    }
+
+    /**
+     * Internal utility function.
+     * Write all of the remaining bytes of a ByteBuffer to the recording file.
+     *
+     * */
+    private void writeFully(final ByteBuffer byteBuffer) throws IOException {
+        while (byteBuffer.hasRemaining())
+            fileChannel.write(byteBuffer);
+    }
+}
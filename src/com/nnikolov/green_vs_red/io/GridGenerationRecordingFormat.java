@@ -0,0 +1,102 @@
+package com.nnikolov.green_vs_red.io;
+
+/**
+ * Describes the Grid generation recording file format of this application, which stores consecutive generations of a
+ * Grids cellMatrix as periodic keyframes and XOR deltas, so that a simulation can be replayed without progressing it
+ * again.
+ *
+ * All of the values are stored in a little-endian byte order. The layout of a file is:
+ *
+ *      - A 16-byte header:
+ *          - magic ('int'): 0x48525647 ("GVRH" in little-endian ASCII).
+ *          - version ('short'): The version of the format, currently 1.
+ *          - reserved ('short'): Always 0.
+ *          - cellMatrixSizeAxisX ('short'): The horizontal size of the cellMatrix.
+ *          - cellMatrixSizeAxisY ('short'): The vertical size of the cellMatrix.
+ *          - keyframeInterval ('int'): Every generation, whose index is a multiple of it, is stored as a keyframe.
+ *
+ *      - One frame per generation, in the order of the generations. Each frame consists of:
+ *          - type ('byte'): KEYFRAME, DELTA or DENSE_DELTA, combined with the DEFLATED flag if the payload is
+ *          compressed.
+ *          - storedSize ('int'): The size of the stored (possibly compressed) payload in bytes.
+ *          - rawSize ('int'): The size of the uncompressed payload in bytes.
+ *          - payload: A KEYFRAME payload holds all of the bit-packed cellMatrix rows, one after another (as described
+ *          in the PackedCellMatrix class). A DELTA payload holds the words, which differ from the previous
+ *          generation, as (wordIndex ('int'), XOR of the two words ('long')) pairs in ascending wordIndex order, where
+ *          wordIndex = y * rowWordsCount + rowWordIndex. Hence a generation without any flipped Cells has an empty
+ *          DELTA payload. A DENSE_DELTA payload holds the XOR of every pair of words, in the layout of a KEYFRAME
+ *          payload. It replaces a DELTA payload, once more than 2/3 of the words have changed.
+ *
+ *      - A keyframe index: the file offset ('long') of every KEYFRAME frame, in the order of the generations.
+ *
+ *      - A 20-byte trailer:
+ *          - keyframeIndexOffset ('long'): The file offset of the keyframe index.
+ *          - generationsCount ('long'): The amount of recorded generations.
+ *          - magic ('int'): The magic number again, which marks a completely written file.
+ *
+ * A payload is only stored compressed (via the DEFLATE algorithm), if compression is enabled and actually reduces its
+ * size.
+ *
+ * */
+public final class GridGenerationRecordingFormat {
+
+    /**
+     * The magic number, which every Grid generation recording file starts and ends with.
+     *
+     * */
+    public static final int MAGIC = 0x48525647;
+
+    /**
+     * The current version of the Grid generation recording file format.
+     *
+     * */
+    public static final short VERSION = 1;
+
+    /**
+     * The size of the header of a Grid generation recording file in bytes.
+     *
+     * */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of the header of a frame in bytes.
+     *
+     * */
+    public static final int FRAME_HEADER_SIZE = 9;
+
+    /**
+     * The size of the trailer of a Grid generation recording file in bytes.
+     *
+     * */
+    public static final int TRAILER_SIZE = 20;
+
+    /**
+     * The size of a single (wordIndex, XOR word) pair of a DELTA payload in bytes.
+     *
+     * */
+    public static final int DELTA_ENTRY_SIZE = Integer.BYTES + Long.BYTES;
+
+    /**
+     * The type of a frame, which holds a whole generation.
+     *
+     * */
+    public static final byte KEYFRAME = 0;
+
+    /**
+     * The type of a frame, which holds the differences from the previous generation.
+     *
+     * */
+    public static final byte DELTA = 1;
+
+    /**
+     * The type of a frame, which holds the differences from the previous generation for every word.
+     *
+     * */
+    public static final byte DENSE_DELTA = 2;
+
+    /**
+     * The flag of a frame type, which indicates that its payload is compressed.
+     *
+     * */
+    public static final byte DEFLATED = (byte) 0x80;
+}
@@ -0,0 +1,340 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.exception.MalformedGridGenerationRecordingFileException;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.util.CellMatrixGridCompatibilityValidator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Replays a file in the Grid generation recording file format, as described in the GridGenerationRecordingFormat
+ * class, by seeking to any of its recorded generations.
+ *
+ * A seek starts from the closest KEYFRAME frame at or before the requested generation (found via the keyframe
+ * index) and applies the DELTA frames, which follow it. When the requested generation lies after the current one
+ * and within the same keyframe interval, the replay simply continues from the current generation, so that a
+ * sequential replay reads every frame only once.
+ *
+ * */
+public final class GridGenerationReplayer implements AutoCloseable {
+
+    /**
+     * The Path of the recording file. Used only for error reporting.
+     *
+     * */
+    private final Path path;
+
+    /**
+     * The FileChannel of the recording file.
+     *
+     * */
+    private final FileChannel fileChannel;
+
+    /**
+     * The amount of generations between two keyframes.
+     *
+     * */
+    private final int keyframeInterval;
+
+    /**
+     * The amount of recorded generations.
+     *
+     * */
+    private final long generationsCount;
+
+    /**
+     * The file offsets of the KEYFRAME frames.
+     *
+     * */
+    private final long[] keyframeOffsets;
+
+    /**
+     * The Inflater, which decompresses the compressed payloads.
+     *
+     * */
+    private final Inflater inflater = new Inflater();
+
+    /**
+     * The current generation of the replay.
+     *
+     * */
+    private final PackedCellMatrix currentGenerationCellMatrix;
+
+    /**
+     * The index of the current generation of the replay, or -1 before the first seek.
+     *
+     * */
+    private long currentGeneration = -1;
+
+    /**
+     * The file offset of the frame, which follows the one of the current generation.
+     *
+     * */
+    private long nextFrameOffset;
+
+    /**
+     * Lone constructor. Opens a recording file and reads its header and its keyframe index.
+     *
+     * @param path The Path of the recording file.
+     *
+     * @throws IOException If the file cannot be read.
+     *
+     * @throws MalformedGridGenerationRecordingFileException If the file does not correspond to the Grid generation
+     * recording file format (e.g. if its recorder was not closed).
+     *
+     * */
+    public GridGenerationReplayer(final Path path) throws IOException {
+        this.path = path;
+
+        fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            //Read and validate the header.
+            final ByteBuffer header = readFully(0, GridGenerationRecordingFormat.HEADER_SIZE);
+
+            if (header.getInt() != GridGenerationRecordingFormat.MAGIC ||
+                    header.getShort() != GridGenerationRecordingFormat.VERSION)
+                throw new MalformedGridGenerationRecordingFileException(path);
+
+            header.getShort();
+
+            final short cellMatrixSizeAxisX = header.getShort(), cellMatrixSizeAxisY = header.getShort();
+            keyframeInterval = header.getInt();
+
+            if (!CellMatrixGridCompatibilityValidator.isCompatibleShape(cellMatrixSizeAxisX, cellMatrixSizeAxisY) ||
+                    keyframeInterval <= 0)
+                throw new MalformedGridGenerationRecordingFileException(path);
+
+            //Read the trailer and the keyframe index, which it points to.
+            if (fileChannel.size() <
+                    GridGenerationRecordingFormat.HEADER_SIZE + GridGenerationRecordingFormat.TRAILER_SIZE)
+                throw new MalformedGridGenerationRecordingFileException(path,
+                        "The Grid generation recording file: " + path + " is truncated or was not closed.");
+
+            final ByteBuffer trailer = readFully(fileChannel.size() - GridGenerationRecordingFormat.TRAILER_SIZE,
+                    GridGenerationRecordingFormat.TRAILER_SIZE);
+
+            final long keyframeIndexOffset = trailer.getLong();
+            generationsCount = trailer.getLong();
+
+            final long keyframesCount = (generationsCount + keyframeInterval - 1) / keyframeInterval;
+
+            if (trailer.getInt() != GridGenerationRecordingFormat.MAGIC || generationsCount < 0 ||
+                    keyframeIndexOffset + keyframesCount * Long.BYTES !=
+                            fileChannel.size() - GridGenerationRecordingFormat.TRAILER_SIZE)
+                throw new MalformedGridGenerationRecordingFileException(path,
+                        "The Grid generation recording file: " + path + " is truncated or was not closed.");
+
+            keyframeOffsets = new long[(int) keyframesCount];
+            readFully(keyframeIndexOffset, keyframeOffsets.length * Long.BYTES).asLongBuffer().get(keyframeOffsets);
+
+            currentGenerationCellMatrix = new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        } catch (final RuntimeException | IOException ex) {
+            fileChannel.close();
+
+            throw ex;
+        }
+    }
+
+    /**
+     * Get the amount of recorded generations.
+     *
+     * @return The amount of recorded generations (the last one is generationsCount - 1).
+     *
+     * */
+    public long getGenerationsCount() {
+        return generationsCount;
+    }
+
+    /**
+     * Seek to a recorded generation and return it as a Grid.
+     *
+     * @param generation The index of the recorded generation.
+     *
+     * @return A Grid, which holds a copy of the recorded generation.
+     *
+     * @throws IOException If the file cannot be read.
+     *
+     * @throws IndexOutOfBoundsException If the generation was not recorded.
+     *
+     * @throws MalformedGridGenerationRecordingFileException If a frame of the file is malformed.
+     *
+     * */
+    public Grid getGeneration(final long generation) throws IOException {
+        seek(generation);
+
+        return new Grid(new HeapPackedCellMatrix(currentGenerationCellMatrix));
+    }
+
+    /**
+     * Seek to a recorded generation and check if a Cell has a GREEN Color in it.
+     *
+     * NOTE: The validity of the Cell coordinates is not checked.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @param generation The index of the recorded generation.
+     *
+     * @return A boolean, which indicates whether the Cell has a GREEN Color.
+     *
+     * @throws IOException If the file cannot be read.
+     *
+     * @throws IndexOutOfBoundsException If the generation was not recorded.
+     *
+     * @throws MalformedGridGenerationRecordingFileException If a frame of the file is malformed.
+     *
+     * */
+    public boolean isCellGreen(final short cellCoordinateX, final short cellCoordinateY,
+                               final long generation) throws IOException {
+        seek(generation);
+
+        return currentGenerationCellMatrix.isGreen(cellCoordinateX, cellCoordinateY);
+    }
+
+    /**
+     * Close the recording file.
+     *
+     * @throws IOException If the file cannot be closed.
+     *
+     * */
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        fileChannel.close();
+    }
+
+    /**
+     * Internal utility function.
+     * Bring the current generation of the replay to a recorded generation.
+     *
+     * */
+    private void seek(final long generation) throws IOException {
+        if (generation < 0 || generation >= generationsCount)
+            throw new IndexOutOfBoundsException("The generation: " + generation + " was not recorded.");
+
+        final long keyframeGeneration = generation - generation % keyframeInterval;
+
+        //Restart from the keyframe, unless the replay can continue from the current generation.
+        if (currentGeneration > generation || currentGeneration < keyframeGeneration) {
+            currentGeneration = keyframeGeneration - 1;
+            nextFrameOffset = keyframeOffsets[(int) (keyframeGeneration / keyframeInterval)];
+        }
+
+        while (currentGeneration < generation)
+            readNextFrame();
+    }
+
+    /**
+     * Internal utility function.
+     * Read the next frame and apply it to the current generation of the replay.
+     *
+     * */
+    private void readNextFrame() throws IOException {
+        final ByteBuffer frameHeader = readFully(nextFrameOffset, GridGenerationRecordingFormat.FRAME_HEADER_SIZE);
+
+        final byte storedFrameType = frameHeader.get();
+        final int storedSize = frameHeader.getInt(), rawSize = frameHeader.getInt();
+        final boolean isKeyframe = (currentGeneration + 1) % keyframeInterval == 0;
+        final byte frameType = (byte) (storedFrameType & ~GridGenerationRecordingFormat.DEFLATED);
+        final boolean isDense = frameType != GridGenerationRecordingFormat.DELTA;
+
+        //A keyframe generation must have a KEYFRAME frame, while any other one must have a (DENSE_)DELTA frame.
+        final boolean hasExpectedFrameType = isKeyframe ? frameType == GridGenerationRecordingFormat.KEYFRAME :
+                (frameType == GridGenerationRecordingFormat.DELTA ||
+                        frameType == GridGenerationRecordingFormat.DENSE_DELTA);
+
+        if (!hasExpectedFrameType || storedSize < 0 ||
+                (isDense ? rawSize != currentGenerationCellMatrix.getWordsCount() * Long.BYTES :
+                        rawSize % GridGenerationRecordingFormat.DELTA_ENTRY_SIZE != 0))
+            throw new MalformedGridGenerationRecordingFileException(path,
+                    "The frame of the generation: " + (currentGeneration + 1) + " of the Grid generation recording" +
+                            " file: " + path + " is malformed.");
+
+        ByteBuffer payload = readFully(nextFrameOffset + GridGenerationRecordingFormat.FRAME_HEADER_SIZE, storedSize);
+
+        if ((storedFrameType & GridGenerationRecordingFormat.DEFLATED) != 0)
+            payload = inflate(payload, rawSize);
+        else if (storedSize != rawSize)
+            throw new MalformedGridGenerationRecordingFileException(path);
+
+        if (isKeyframe)
+            currentGenerationCellMatrix.readRowWordsFrom(payload.asLongBuffer());
+        else if (isDense)
+            //Flip the Cells of every word.
+            for (int y = 0, rowWordsCount = currentGenerationCellMatrix.getRowWordsCount();
+                 y < currentGenerationCellMatrix.getCellMatrixSizeAxisY(); y++)
+                for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++)
+                    currentGenerationCellMatrix.setRowWord(y, rowWordIndex,
+                            currentGenerationCellMatrix.getRowWord(y, rowWordIndex) ^ payload.getLong());
+        else
+            //Flip the Cells, which have changed since the previous generation.
+            while (payload.hasRemaining()) {
+                final int wordIndex = payload.getInt();
+                final long flippedBits = payload.getLong();
+
+                if (wordIndex < 0 || wordIndex >= currentGenerationCellMatrix.getWordsCount())
+                    throw new MalformedGridGenerationRecordingFileException(path);
+
+                final int y = wordIndex / currentGenerationCellMatrix.getRowWordsCount(),
+                        rowWordIndex = wordIndex % currentGenerationCellMatrix.getRowWordsCount();
+
+                currentGenerationCellMatrix.setRowWord(y, rowWordIndex,
+                        currentGenerationCellMatrix.getRowWord(y, rowWordIndex) ^ flippedBits);
+            }
+
+        currentGeneration++;
+        nextFrameOffset += GridGenerationRecordingFormat.FRAME_HEADER_SIZE + storedSize;
+    }
+
+    /**
+     * Internal utility function.
+     * Decompress a payload, which has a known raw size.
+     *
+     * */
+    private ByteBuffer inflate(final ByteBuffer payload, final int rawSize) {
+        final byte[] rawPayload = new byte[rawSize];
+
+        inflater.reset();
+        inflater.setInput(payload.array(), 0, payload.remaining());
+
+        try {
+            int inflatedSize = 0;
+
+            while (inflatedSize < rawSize && !inflater.finished() && !inflater.needsInput())
+                inflatedSize += inflater.inflate(rawPayload, inflatedSize, rawSize - inflatedSize);
+
+            if (inflatedSize != rawSize)
+                throw new MalformedGridGenerationRecordingFileException(path);
+        } catch (final DataFormatException ex) {
+            throw new MalformedGridGenerationRecordingFileException(path, ex.getMessage());
+        }
+
+        return ByteBuffer.wrap(rawPayload).order(PackedBinaryGridFileFormat.BYTE_ORDER);
+    }
+
+    /**
+     * Internal utility function.
+     * Read an exact amount of bytes from a position of the recording file into a new, flipped ByteBuffer.
+     *
+     * */
+    private ByteBuffer readFully(final long position, final int size) throws IOException {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(size).order(PackedBinaryGridFileFormat.BYTE_ORDER);
+
+        while (byteBuffer.hasRemaining())
+            if (fileChannel.read(byteBuffer, position + byteBuffer.position()) < 0)
+                throw new MalformedGridGenerationRecordingFileException(path,
+                        "The Grid generation recording file: " + path + " is truncated.");
+
+        return byteBuffer.flip();
+    }
+}
@@ -0,0 +1,95 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.model.GridGenerationStatistics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Streams GridGenerationStatistics to a CSV file, one line per generation, in the order they are accepted. The file
+ * starts with the header line:
+ *
+ *      generation,green_cells,changed_cells,min_x,min_y,max_x,max_y
+ *
+ * The bounding box columns are left empty for a generation without GREEN Color Cells.
+ *
+ * As a Consumer, the writer can be attached directly to a simulation. An IOException, which occurs while a line is
+ * written, is rethrown as an UncheckedIOException.
+ *
+ * */
+public final class GridGenerationStatisticsCsvWriter implements Consumer<GridGenerationStatistics>, AutoCloseable {
+
+    /**
+     * The header line of the CSV file.
+     *
+     * */
+    public static final String HEADER = "generation,green_cells,changed_cells,min_x,min_y,max_x,max_y";
+
+    /**
+     * The BufferedWriter of the CSV file.
+     *
+     * */
+    private final BufferedWriter bufferedWriter;
+
+    /**
+     * Lone constructor. Creates the CSV file (an existing file will be overwritten) and writes its header line.
+     *
+     * @param path The Path of the CSV file.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    public GridGenerationStatisticsCsvWriter(final Path path) throws IOException {
+        bufferedWriter = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+
+        bufferedWriter.write(HEADER);
+        bufferedWriter.newLine();
+    }
+
+    /**
+     * Write the statistics of a generation as a CSV line.
+     *
+     * @param gridGenerationStatistics The statistics of a generation.
+     *
+     * @throws UncheckedIOException If the line cannot be written.
+     *
+     * */
+    @Override
+    public void accept(final GridGenerationStatistics gridGenerationStatistics) {
+        final StringBuilder line = new StringBuilder()
+                .append(gridGenerationStatistics.getGeneration()).append(',')
+                .append(gridGenerationStatistics.getGreenCellsCount()).append(',')
+                .append(gridGenerationStatistics.getChangedCellsCount()).append(',');
+
+        if (!gridGenerationStatistics.isGreenCellsBoundingBoxEmpty())
+            line.append(gridGenerationStatistics.getGreenCellsMinX()).append(',')
+                    .append(gridGenerationStatistics.getGreenCellsMinY()).append(',')
+                    .append(gridGenerationStatistics.getGreenCellsMaxX()).append(',')
+                    .append(gridGenerationStatistics.getGreenCellsMaxY());
+        else
+            line.append(",,,");
+
+        try {
+            bufferedWriter.write(line.toString());
+            bufferedWriter.newLine();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Flush and close the CSV file.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    @Override
+    public void close() throws IOException {
+        bufferedWriter.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.model.DirectPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32C;
+
+/**
+ * Describes the packed binary Grid file format of this application, which stores the cellMatrix of a Grid with one
+ * bit per Cell, so that it can be loaded in bulk without parsing.
+ *
+ * All of the values are stored in a little-endian byte order. The layout of a file is:
+ *
+ *      - A 24-byte header:
+ *          - magic ('int'): 0x42525647 ("GVRB" in little-endian ASCII).
+ *          - version ('short'): The version of the format, currently 1.
+ *          - reserved ('short'): Always 0.
+ *          - cellMatrixSizeAxisX ('short'): The horizontal size of the cellMatrix.
+ *          - cellMatrixSizeAxisY ('short'): The vertical size of the cellMatrix.
+ *          - rowWordsCount ('int'): The amount of 'long' words per cellMatrix row.
+ *          - checksum ('int'): The CRC32C checksum of the payload.
+ *          - reserved ('int'): Always 0.
+ *
+ *      - A payload of (rowWordsCount * cellMatrixSizeAxisY) 'long' words, which hold the bit-packed cellMatrix rows
+ *      one after another, as described in the PackedCellMatrix class.
+ *
+ * */
+public final class PackedBinaryGridFileFormat {
+
+    /**
+     * The magic number, which every packed binary Grid file starts with.
+     *
+     * */
+    public static final int MAGIC = 0x42525647;
+
+    /**
+     * The current version of the packed binary Grid file format.
+     *
+     * */
+    public static final short VERSION = 1;
+
+    /**
+     * The size of the header of a packed binary Grid file in bytes.
+     *
+     * */
+    public static final int HEADER_SIZE = 24;
+
+    /**
+     * The byte order of all values within a packed binary Grid file.
+     *
+     * */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Get the size of the payload, which stores a PackedCellMatrix with given dimensions, in bytes.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * @return The size of the payload in bytes.
+     *
+     * */
+    public static int getPayloadSize(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        return PackedCellMatrix.getRowWordsCount(cellMatrixSizeAxisX) * cellMatrixSizeAxisY * Long.BYTES;
+    }
+
+    /**
+     * Compute the CRC32C checksum of the remaining bytes of a payload ByteBuffer. The position of the ByteBuffer is
+     * not changed.
+     *
+     * @param payload A ByteBuffer, which holds the payload.
+     *
+     * @return The CRC32C checksum of the payload.
+     *
+     * */
+    public static int computeChecksum(final ByteBuffer payload) {
+        final CRC32C crc32C = new CRC32C();
+        crc32C.update(payload.duplicate());
+
+        return (int) crc32C.getValue();
+    }
+
+    /**
+     * Compute the CRC32C checksum of the payload, which is held in the native memory of a DirectPackedCellMatrix
+     * (e.g. a memory-mapped payload), without copying it onto the Java heap.
+     *
+     * @param packedCellMatrix A DirectPackedCellMatrix, which holds the payload.
+     *
+     * @return The CRC32C checksum of the payload.
+     *
+     * */
+    public static int computeChecksum(final DirectPackedCellMatrix packedCellMatrix) {
+        final CRC32C crc32C = new CRC32C();
+        packedCellMatrix.updateChecksum(crc32C);
+
+        return (int) crc32C.getValue();
+    }
+}
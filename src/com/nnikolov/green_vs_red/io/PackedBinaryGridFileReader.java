@@ -0,0 +1,188 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.exception.MalformedPackedBinaryGridFileException;
+import com.nnikolov.green_vs_red.model.DirectPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.HeapPackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.util.CellMatrixGridCompatibilityValidator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class, which loads a Grid from a file in the packed binary Grid file format, as described in the
+ * PackedBinaryGridFileFormat class.
+ *
+ * The payload of the file is read with a single bulk channel read and is copied straight into the storage of the
+ * loaded Grid, without any parsing of individual Cells. Alternatively, the payload may be memory-mapped, so that the
+ * loaded Grid shares its memory with the file, outside of the Java heap.
+ *
+ * */
+public final class PackedBinaryGridFileReader {
+
+    /**
+     * Load a Grid from a packed binary Grid file.
+     *
+     * @param path The Path of the packed binary Grid file.
+     *
+     * @return A Grid, whose cellMatrix is equal to the one stored in the file.
+     *
+     * @throws IOException If the file cannot be read.
+     *
+     * @throws MalformedPackedBinaryGridFileException If the file does not correspond to the packed binary Grid file
+     * format or if its checksum does not match its payload.
+     *
+     * */
+    public static Grid read(final Path path) throws IOException {
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Grid(readPackedCellMatrix(fileChannel, path));
+        }
+    }
+
+    /**
+     * Load a Grid from a packed binary Grid file by memory-mapping its payload. The loaded Grid has a DIRECT Storage
+     * and should be closed once it is no longer needed. The mapping is read-only, therefore any attempt to change the
+     * Cells of the loaded Grid throws a ReadOnlyBufferException (a copy of the Grid can be changed freely).
+     *
+     * @param path The Path of the packed binary Grid file.
+     *
+     * @return A Grid, whose cellMatrix is mapped from the file.
+     *
+     * @throws IOException If the file cannot be read or mapped.
+     *
+     * @throws MalformedPackedBinaryGridFileException If the file does not correspond to the packed binary Grid file
+     * format or if its checksum does not match its payload.
+     *
+     * */
+    public static Grid readMapped(final Path path) throws IOException {
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //Read and validate the header.
+            final ByteBuffer header = readFully(fileChannel, PackedBinaryGridFileFormat.HEADER_SIZE, path);
+
+            final short[] cellMatrixAxesSizes = readAndValidateHeader(header, path);
+            final int checksum = header.getInt();
+
+            final int payloadSize =
+                    PackedBinaryGridFileFormat.getPayloadSize(cellMatrixAxesSizes[0], cellMatrixAxesSizes[1]);
+
+            if (fileChannel.size() < PackedBinaryGridFileFormat.HEADER_SIZE + (long) payloadSize)
+                throw new MalformedPackedBinaryGridFileException(path,
+                        "The packed binary Grid file: " + path + " is truncated.");
+
+            //Map the payload straight into the storage of a new PackedCellMatrix.
+            final DirectPackedCellMatrix packedCellMatrix = DirectPackedCellMatrix.map(fileChannel,
+                    PackedBinaryGridFileFormat.HEADER_SIZE, cellMatrixAxesSizes[0], cellMatrixAxesSizes[1],
+                    FileChannel.MapMode.READ_ONLY);
+
+            //Verify the checksum of the payload in place, without copying it onto the Java heap.
+            if (PackedBinaryGridFileFormat.computeChecksum(packedCellMatrix) != checksum)
+                throw new MalformedPackedBinaryGridFileException(path,
+                        "The checksum of the packed binary Grid file: " + path + " does not match its contents.");
+
+            //The bits, which are beyond the horizontal size of the cellMatrix, cannot be cleared in a read-only mapping.
+            final int lastRowWordIndex = packedCellMatrix.getRowWordsCount() - 1;
+            final long lastRowWordMask = packedCellMatrix.getLastRowWordMask();
+
+            for (int y = 0; y < cellMatrixAxesSizes[1]; y++)
+                if ((packedCellMatrix.getRowWord(y, lastRowWordIndex) & ~lastRowWordMask) != 0)
+                    throw new MalformedPackedBinaryGridFileException(path,
+                            "The packed binary Grid file: " + path + " has Cells beyond its cellMatrix dimensions.");
+
+            return new Grid(packedCellMatrix);
+        }
+    }
+
+    /**
+     * Read a PackedCellMatrix in the packed binary Grid file format (header and payload) from a channel.
+     *
+     * @param readableByteChannel The channel, which the PackedCellMatrix will be read from.
+     *
+     * @param path The Path of the file, which is read by the channel. Used only for error reporting.
+     *
+     * @return The PackedCellMatrix, which was read from the channel.
+     *
+     * @throws IOException If the channel cannot be read from.
+     *
+     * @throws MalformedPackedBinaryGridFileException If the read bytes do not correspond to the packed binary Grid
+     * file format or if the checksum does not match the payload.
+     *
+     * */
+    public static PackedCellMatrix readPackedCellMatrix(final ReadableByteChannel readableByteChannel,
+                                                        final Path path) throws IOException {
+        //Read and validate the header.
+        final ByteBuffer header = readFully(readableByteChannel, PackedBinaryGridFileFormat.HEADER_SIZE, path);
+
+        final short[] cellMatrixAxesSizes = readAndValidateHeader(header, path);
+        final short cellMatrixSizeAxisX = cellMatrixAxesSizes[0], cellMatrixSizeAxisY = cellMatrixAxesSizes[1];
+
+        final int checksum = header.getInt();
+
+        //Read the whole payload via a single bulk read and verify its checksum.
+        final ByteBuffer payload = readFully(readableByteChannel,
+                PackedBinaryGridFileFormat.getPayloadSize(cellMatrixSizeAxisX, cellMatrixSizeAxisY), path);
+
+        if (PackedBinaryGridFileFormat.computeChecksum(payload) != checksum)
+            throw new MalformedPackedBinaryGridFileException(path,
+                    "The checksum of the packed binary Grid file: " + path + " does not match its contents.");
+
+        //Copy the payload straight into the storage of a new PackedCellMatrix.
+        final PackedCellMatrix packedCellMatrix =
+                new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        packedCellMatrix.readRowWordsFrom(payload.asLongBuffer());
+
+        return packedCellMatrix;
+    }
+
+    /**
+     * Internal utility function.
+     * Validate all of the fields of a header, which precede its checksum.
+     *
+     * @return A two-element array, which holds the horizontal & vertical sizes of the cellMatrix.
+     *
+     * */
+    private static short[] readAndValidateHeader(final ByteBuffer header, final Path path) {
+        if (header.getInt() != PackedBinaryGridFileFormat.MAGIC)
+            throw new MalformedPackedBinaryGridFileException(path);
+
+        final short version = header.getShort();
+
+        if (version != PackedBinaryGridFileFormat.VERSION)
+            throw new MalformedPackedBinaryGridFileException(path,
+                    "The packed binary Grid file: " + path + " has an unsupported version: " + version + ".");
+
+        header.getShort();
+
+        final short cellMatrixSizeAxisX = header.getShort(), cellMatrixSizeAxisY = header.getShort();
+
+        if (!CellMatrixGridCompatibilityValidator.isCompatibleShape(cellMatrixSizeAxisX, cellMatrixSizeAxisY) ||
+                header.getInt() != PackedCellMatrix.getRowWordsCount(cellMatrixSizeAxisX))
+            throw new MalformedPackedBinaryGridFileException(path,
+                    "The packed binary Grid file: " + path + " has invalid cellMatrix dimensions: (" +
+                            cellMatrixSizeAxisX + ", " + cellMatrixSizeAxisY + ").");
+
+        return new short[]{cellMatrixSizeAxisX, cellMatrixSizeAxisY};
+    }
+
+    /**
+     * Internal utility function.
+     * Read an exact amount of bytes from a channel into a new, flipped ByteBuffer.
+     *
+     * */
+    private static ByteBuffer readFully(final ReadableByteChannel readableByteChannel,
+                                        final int size,
+                                        final Path path) throws IOException {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(size).order(PackedBinaryGridFileFormat.BYTE_ORDER);
+
+        while (byteBuffer.hasRemaining())
+            if (readableByteChannel.read(byteBuffer) < 0)
+                throw new MalformedPackedBinaryGridFileException(path,
+                        "The packed binary Grid file: " + path + " is truncated.");
+
+        return byteBuffer.flip();
+    }
+}
@@ -0,0 +1,86 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class, which writes the cellMatrix of a Grid in the packed binary Grid file format, as described in the
+ * PackedBinaryGridFileFormat class.
+ *
+ * */
+public final class PackedBinaryGridFileWriter {
+
+    /**
+     * Write the cellMatrix of a Grid to a packed binary Grid file. An existing file will be overwritten.
+     *
+     * @param path The Path of the packed binary Grid file.
+     *
+     * @param grid The Grid, whose cellMatrix will be written.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    public static void write(final Path path, final Grid grid) throws IOException {
+        try (final FileChannel fileChannel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writePackedCellMatrix(fileChannel, grid.getPackedCellMatrix());
+        }
+    }
+
+    /**
+     * Write a PackedCellMatrix in the packed binary Grid file format (header and payload) to a channel.
+     *
+     * @param writableByteChannel The channel, which the PackedCellMatrix will be written to.
+     *
+     * @param packedCellMatrix The PackedCellMatrix, which will be written.
+     *
+     * @throws IOException If the channel cannot be written to.
+     *
+     * */
+    public static void writePackedCellMatrix(final WritableByteChannel writableByteChannel,
+                                             final PackedCellMatrix packedCellMatrix) throws IOException {
+        final short cellMatrixSizeAxisX = packedCellMatrix.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = packedCellMatrix.getCellMatrixSizeAxisY();
+
+        //Bulk-write the bit-packed cellMatrix rows into the payload.
+        final ByteBuffer payload = ByteBuffer
+                .allocate(PackedBinaryGridFileFormat.getPayloadSize(cellMatrixSizeAxisX, cellMatrixSizeAxisY))
+                .order(PackedBinaryGridFileFormat.BYTE_ORDER);
+        packedCellMatrix.writeRowWordsTo(payload.asLongBuffer());
+
+        //Initialise the header, as described in the PackedBinaryGridFileFormat class.
+        final ByteBuffer header = ByteBuffer
+                .allocate(PackedBinaryGridFileFormat.HEADER_SIZE)
+                .order(PackedBinaryGridFileFormat.BYTE_ORDER)
+                .putInt(PackedBinaryGridFileFormat.MAGIC)
+                .putShort(PackedBinaryGridFileFormat.VERSION)
+                .putShort((short) 0)
+                .putShort(cellMatrixSizeAxisX)
+                .putShort(cellMatrixSizeAxisY)
+                .putInt(packedCellMatrix.getRowWordsCount())
+                .putInt(PackedBinaryGridFileFormat.computeChecksum(payload))
+                .putInt(0)
+                .flip();
+
+        writeFully(writableByteChannel, header);
+        writeFully(writableByteChannel, payload);
+    }
+
+    /**
+     * Internal utility function.
+     * Write all of the remaining bytes of a ByteBuffer to a channel.
+     *
+     * */
+    private static void writeFully(final WritableByteChannel writableByteChannel,
+                                   final ByteBuffer byteBuffer) throws IOException {
+        while (byteBuffer.hasRemaining())
+            writableByteChannel.write(byteBuffer);
+    }
+}
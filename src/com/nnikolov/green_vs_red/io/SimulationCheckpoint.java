@@ -0,0 +1,156 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.TargetGridGeneration;
+
+/**
+ * An immutable snapshot of a long simulation, which can be persisted via the SimulationCheckpointFile class and
+ * resumed later. It holds:
+ *
+ *      - The fingerprint of the input of the simulation (the initial cellMatrix, the targeted Cell and the
+ *      TargetGridGeneration), so that a checkpoint is only resumed by the same query.
+ *
+ *      - The index of the generation, which the snapshot was taken at.
+ *
+ *      - The amount of generations (including the ZERO one), up to that generation, in which the targeted Cell had a
+ *      GREEN Color.
+ *
+ *      - The bit-packed cellMatrix of that generation.
+ *
+ * */
+public final class SimulationCheckpoint {
+
+    /**
+     * The fingerprint of the input of the simulation.
+     *
+     * */
+    private final long inputFingerprint;
+
+    /**
+     * The index of the generation, which the snapshot was taken at.
+     *
+     * */
+    private final long generation;
+
+    /**
+     * The amount of generations up to the snapshot, in which the targeted Cell had a GREEN Color.
+     *
+     * */
+    private final long targetCellGreenColorChanges;
+
+    /**
+     * The bit-packed cellMatrix of the generation, which the snapshot was taken at.
+     *
+     * */
+    private final PackedCellMatrix packedCellMatrix;
+
+    /**
+     * Lone constructor.
+     *
+     * NOTE: The provided PackedCellMatrix is adopted by the SimulationCheckpoint, therefore it should not be
+     * modified afterwards by its provider.
+     *
+     * @param inputFingerprint The fingerprint of the input of the simulation (see computeInputFingerprint).
+     *
+     * @param generation The index of the generation, which the snapshot was taken at.
+     *
+     * @param targetCellGreenColorChanges The amount of generations up to the snapshot, in which the targeted Cell had
+     *                                    a GREEN Color.
+     *
+     * @param packedCellMatrix The bit-packed cellMatrix of the generation, which the snapshot was taken at.
+     *
+     * */
+    public SimulationCheckpoint(final long inputFingerprint, final long generation,
+                                final long targetCellGreenColorChanges, final PackedCellMatrix packedCellMatrix) {
+        this.inputFingerprint = inputFingerprint;
+        this.generation = generation;
+        this.targetCellGreenColorChanges = targetCellGreenColorChanges;
+        this.packedCellMatrix = packedCellMatrix;
+    }
+
+    /**
+     * Compute the 64-bit fingerprint of the input of a simulation.
+     *
+     * @param packedCellMatrix The initial cellMatrix of the simulation.
+     *
+     * @param targetCellCoordinateX The horizontal coordinate of the targeted Cell.
+     *
+     * @param targetCellCoordinateY The vertical coordinate of the targeted Cell.
+     *
+     * @param targetGridGeneration The TargetGridGeneration of the simulation.
+     *
+     * @return The fingerprint of the input.
+     *
+     * */
+    public static long computeInputFingerprint(final PackedCellMatrix packedCellMatrix,
+                                               final short targetCellCoordinateX, final short targetCellCoordinateY,
+                                               final TargetGridGeneration targetGridGeneration) {
+        long fingerprint = mix((long) packedCellMatrix.getCellMatrixSizeAxisX() << 48 |
+                (long) packedCellMatrix.getCellMatrixSizeAxisY() << 32 |
+                (long) targetCellCoordinateX << 16 |
+                targetCellCoordinateY);
+
+        fingerprint = mix(fingerprint ^ targetGridGeneration.longValue());
+
+        //Mix every word of the bit-packed cellMatrix, in order.
+        for (int y = 0; y < packedCellMatrix.getCellMatrixSizeAxisY(); y++)
+            for (int rowWordIndex = 0; rowWordIndex < packedCellMatrix.getRowWordsCount(); rowWordIndex++)
+                fingerprint = mix(fingerprint ^ packedCellMatrix.getRowWord(y, rowWordIndex));
+
+        return fingerprint;
+    }
+
+    /**
+     * Get the fingerprint of the input of the simulation.
+     *
+     * @return The fingerprint of the input of the simulation.
+     *
+     * */
+    public long getInputFingerprint() {
+        return inputFingerprint;
+    }
+
+    /**
+     * Get the index of the generation, which the snapshot was taken at.
+     *
+     * @return The index of the generation.
+     *
+     * */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the amount of generations up to the snapshot, in which the targeted Cell had a GREEN Color.
+     *
+     * @return The amount of generations, in which the targeted Cell had a GREEN Color.
+     *
+     * */
+    public long getTargetCellGreenColorChanges() {
+        return targetCellGreenColorChanges;
+    }
+
+    /**
+     * Get the bit-packed cellMatrix of the generation, which the snapshot was taken at.
+     *
+     * NOTE: The returned PackedCellMatrix is not a copy, therefore it should not be modified.
+     *
+     * @return The bit-packed cellMatrix of the snapshot.
+     *
+     * */
+    public PackedCellMatrix getPackedCellMatrix() {
+        return packedCellMatrix;
+    }
+
+    /**
+     * Internal utility function.
+     * Mix the bits of a 64-bit value (the finalizer of the SplitMix64 generator).
+     *
+     * */
+    private static long mix(long value) {
+        value = (value ^ value >>> 30) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ value >>> 27) * 0x94D049BB133111EBL;
+
+        return value ^ value >>> 31;
+    }
+}
@@ -0,0 +1,185 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.exception.MalformedPackedBinaryGridFileException;
+import com.nnikolov.green_vs_red.exception.MalformedSimulationCheckpointFileException;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Utility class, which persists and loads a SimulationCheckpoint in the simulation checkpoint file format.
+ *
+ * All of the values are stored in a little-endian byte order. The layout of a file is:
+ *
+ *      - A 40-byte header:
+ *          - magic ('int'): 0x43525647 ("GVRC" in little-endian ASCII).
+ *          - version ('short'): The version of the format, currently 1.
+ *          - reserved ('short'): Always 0.
+ *          - inputFingerprint ('long'): The fingerprint of the input of the simulation.
+ *          - generation ('long'): The index of the generation, which the snapshot was taken at.
+ *          - targetCellGreenColorChanges ('long'): The GREEN Color count of the targeted Cell, up to the generation.
+ *          - checksum ('int'): The CRC32C checksum of all of the preceding header bytes.
+ *          - reserved ('int'): Always 0.
+ *
+ *      - The cellMatrix of the snapshot, in the packed binary Grid file format (see PackedBinaryGridFileFormat),
+ *      which is checksummed on its own.
+ *
+ * A checkpoint file is never written in place: it is written to a temporary file next to it (<path>.tmp), which is
+ * flushed to the storage device and then atomically moved over the previous checkpoint. Therefore, a crash during a
+ * write leaves the previous checkpoint intact.
+ *
+ * */
+public final class SimulationCheckpointFile {
+
+    /**
+     * The magic number, which every simulation checkpoint file starts with.
+     *
+     * */
+    public static final int MAGIC = 0x43525647;
+
+    /**
+     * The current version of the simulation checkpoint file format.
+     *
+     * */
+    public static final short VERSION = 1;
+
+    /**
+     * The size of the header of a simulation checkpoint file in bytes.
+     *
+     * */
+    public static final int HEADER_SIZE = 40;
+
+    /**
+     * The amount of header bytes, which are covered by the header checksum.
+     *
+     * */
+    private static final int checksummedHeaderSize = 32;
+
+    /**
+     * Atomically replace a simulation checkpoint file with a new SimulationCheckpoint.
+     *
+     * @param path The Path of the simulation checkpoint file.
+     *
+     * @param simulationCheckpoint The SimulationCheckpoint, which will be written.
+     *
+     * @throws IOException If the file cannot be written.
+     *
+     * */
+    public static void write(final Path path, final SimulationCheckpoint simulationCheckpoint) throws IOException {
+        final Path absolutePath = path.toAbsolutePath();
+
+        //A temporary file, which was left behind by an interrupted write, is simply overwritten.
+        final Path temporaryPath = absolutePath.resolveSibling(absolutePath.getFileName() + ".tmp");
+
+        try {
+            try (final FileChannel fileChannel = FileChannel.open(temporaryPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                //Initialise the header, as described above.
+                final ByteBuffer header = ByteBuffer
+                        .allocate(HEADER_SIZE)
+                        .order(PackedBinaryGridFileFormat.BYTE_ORDER)
+                        .putInt(MAGIC)
+                        .putShort(VERSION)
+                        .putShort((short) 0)
+                        .putLong(simulationCheckpoint.getInputFingerprint())
+                        .putLong(simulationCheckpoint.getGeneration())
+                        .putLong(simulationCheckpoint.getTargetCellGreenColorChanges());
+                header.putInt(computeHeaderChecksum(header)).putInt(0).flip();
+
+                while (header.hasRemaining())
+                    fileChannel.write(header);
+
+                //Reuse the packed binary Grid file format for the cellMatrix of the snapshot.
+                PackedBinaryGridFileWriter.writePackedCellMatrix(
+                        fileChannel, simulationCheckpoint.getPackedCellMatrix());
+
+                //Make sure that the whole file is on the storage device, before it replaces the previous checkpoint.
+                fileChannel.force(true);
+            }
+
+            Files.move(temporaryPath, absolutePath,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Load a SimulationCheckpoint from a simulation checkpoint file.
+     *
+     * @param path The Path of the simulation checkpoint file.
+     *
+     * @return The loaded SimulationCheckpoint or NULL, if the file does not exist.
+     *
+     * @throws IOException If the file cannot be read.
+     *
+     * @throws MalformedSimulationCheckpointFileException If the file does not correspond to the simulation checkpoint
+     * file format or if any of its checksums does not match its contents.
+     *
+     * */
+    public static SimulationCheckpoint read(final Path path) throws IOException {
+        final FileChannel fileChannel;
+
+        try {
+            fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+
+        try (final FileChannel openedFileChannel = fileChannel) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(PackedBinaryGridFileFormat.BYTE_ORDER);
+
+            while (header.hasRemaining())
+                if (openedFileChannel.read(header) < 0)
+                    throw new MalformedSimulationCheckpointFileException(path,
+                            "The simulation checkpoint file: " + path + " is truncated.");
+
+            header.flip();
+
+            if (header.getInt() != MAGIC || header.getShort() != VERSION)
+                throw new MalformedSimulationCheckpointFileException(path);
+
+            header.getShort();
+
+            final long inputFingerprint = header.getLong(), generation = header.getLong(),
+                    targetCellGreenColorChanges = header.getLong();
+
+            if (header.getInt() != computeHeaderChecksum(header.duplicate().position(checksummedHeaderSize)))
+                throw new MalformedSimulationCheckpointFileException(path,
+                        "The header checksum of the simulation checkpoint file: " + path +
+                                " does not match its contents.");
+
+            //Read the cellMatrix of the snapshot, which is validated by the packed binary Grid file reader.
+            final PackedCellMatrix packedCellMatrix;
+
+            try {
+                packedCellMatrix = PackedBinaryGridFileReader.readPackedCellMatrix(openedFileChannel, path);
+            } catch (final MalformedPackedBinaryGridFileException ex) {
+                throw new MalformedSimulationCheckpointFileException(path, ex.getMessage());
+            }
+
+            return new SimulationCheckpoint(inputFingerprint, generation, targetCellGreenColorChanges,
+                    packedCellMatrix);
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Compute the CRC32C checksum of the first header bytes, up to the position of a header ByteBuffer.
+     *
+     * */
+    private static int computeHeaderChecksum(final ByteBuffer header) {
+        final CRC32C crc32C = new CRC32C();
+        crc32C.update(header.duplicate().flip());
+
+        return (int) crc32C.getValue();
+    }
+}
@@ -0,0 +1,81 @@
+package com.nnikolov.green_vs_red.io;
+
+import com.nnikolov.green_vs_red.input.InputArgumentsReader;
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.util.VariableActionUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A command-line tool, which converts the textual Grid input of this application (the cellMatrix dimensions String,
+ * followed by one String per cellMatrix row) into a packed binary Grid file, as described in the
+ * PackedBinaryGridFileFormat class. The cellMatrix may also be run-length encoded. Any further input (e.g. a Cell
+ * generation tracking String) is ignored.
+ *
+ * Usage: TextToPackedBinaryGridFileConverter <text input file | -> <packed binary Grid file>
+ *
+ * When the text input file is '-', the textual Grid input is read from the standard input. Malformed input Strings
+ * are reported to the standard error output and skipped, in the same manner as in the interactive application.
+ *
+ * */
+public final class TextToPackedBinaryGridFileConverter {
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TextToPackedBinaryGridFileConverter" +
+                    " <text input file | -> <packed binary Grid file>");
+            System.exit(1);
+        }
+
+        final Path packedBinaryGridFilePath = Paths.get(args[1]);
+
+        //Read the textual Grid input either from the standard input or from the provided file.
+        final Grid grid;
+
+        if (args[0].equals("-"))
+            grid = readGrid(System.in);
+        else
+            try (final InputStream inputStream = Files.newInputStream(Paths.get(args[0]))) {
+                grid = readGrid(inputStream);
+            }
+
+        PackedBinaryGridFileWriter.write(packedBinaryGridFilePath, grid);
+
+        System.err.println("Converted a (" + grid.getCellMatrixSizeAxisX() + ", " + grid.getCellMatrixSizeAxisY() +
+                ") Grid into: " + packedBinaryGridFilePath);
+    }
+
+    /**
+     * Internal utility function.
+     * Read a Grid via the textual Grid input from an InputStream.
+     *
+     * @param inputStream The InputStream, which holds the textual Grid input.
+     *
+     * @return A Grid, whose cellMatrix is defined by the textual Grid input.
+     *
+     * */
+    private static Grid readGrid(final InputStream inputStream) {
+        final InputArgumentsReader inputArgumentsReader = new InputArgumentsReader(inputStream, System.err::println);
+
+        //Loop until a valid initial-state Grid instance is constructed via the textual Grid input.
+        final Grid[] grid = new Grid[1];
+
+        VariableActionUtil.loopAndOutputErrorMessagesUntilAllActionExceptionsAreCleared.accept(
+                System.err::println, () -> {
+                    final Short[] cellMatrixAxesSizes =
+                            inputArgumentsReader.readCellMatrixAxesSizesUntilAcceptableEntry();
+
+                    grid[0] = new Grid(cellMatrixAxesSizes[0], cellMatrixAxesSizes[1]);
+                });
+
+        //Set the Cell Colors of the whole cellMatrix, which may be provided row by row or run-length encoded.
+        grid[0].populateFromPackedCellMatrix(inputArgumentsReader.readCellMatrixUntilAcceptableEntry(
+                grid[0].getCellMatrixSizeAxisX(), grid[0].getCellMatrixSizeAxisY()));
+
+        return grid[0];
+    }
+}
@@ -0,0 +1,42 @@
+package com.nnikolov.green_vs_red.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR Event, which is emitted once an initial-state Grid has been constructed from User input. Its duration
+ * includes the reading of the cellMatrix axes sizes and all of the rejected attempts that preceded the successful one.
+ *
+ * */
+@Name("com.nnikolov.green_vs_red.GridConstruction")
+@Label("Grid Construction")
+@Category({"GreenVsRed", "Input"})
+@Description("The construction of an initial-state Grid from User input.")
+@StackTrace(false)
+public final class GridConstructionEvent extends Event {
+
+    /**
+     * The horizontal size of the constructed Grids cellMatrix.
+     *
+     * */
+    @Label("Cell Matrix Size Axis X")
+    public short cellMatrixSizeAxisX;
+
+    /**
+     * The vertical size of the constructed Grids cellMatrix.
+     *
+     * */
+    @Label("Cell Matrix Size Axis Y")
+    public short cellMatrixSizeAxisY;
+
+    /**
+     * The amount of attempts, which were needed until acceptable cellMatrix axes sizes were provided.
+     *
+     * */
+    @Label("Attempts")
+    public int attempts;
+}
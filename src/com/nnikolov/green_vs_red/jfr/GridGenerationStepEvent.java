@@ -0,0 +1,58 @@
+package com.nnikolov.green_vs_red.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR Event, which is emitted every time a GridGenerationStepper steps up its internal Grid to its next generation.
+ *
+ * When no JFR recording is active, the Event is disabled and its instances are never committed, therefore it adds
+ * no measurable overhead to the Grid generation progression.
+ *
+ * */
+@Name("com.nnikolov.green_vs_red.GridGenerationStep")
+@Label("Grid Generation Step")
+@Category({"GreenVsRed", "Simulation"})
+@Description("The progression of a Grid cellMatrix to its next generation.")
+@StackTrace(false)
+public final class GridGenerationStepEvent extends Event {
+
+    /**
+     * The horizontal size of the stepped Grids cellMatrix.
+     *
+     * */
+    @Label("Cell Matrix Size Axis X")
+    public short cellMatrixSizeAxisX;
+
+    /**
+     * The vertical size of the stepped Grids cellMatrix.
+     *
+     * */
+    @Label("Cell Matrix Size Axis Y")
+    public short cellMatrixSizeAxisY;
+
+    /**
+     * The index of the Grid generation, which was produced by the step (the ZERO generation is never stepped to).
+     *
+     * */
+    @Label("Generation")
+    public long generation;
+
+    /**
+     * The amount of Cells within the Grids cellMatrix, which have changed their Color during the step.
+     *
+     * */
+    @Label("Changed Cells")
+    public long changedCells;
+
+    /**
+     * The amount of GREEN Color Cells within the Grids cellMatrix after the step.
+     *
+     * */
+    @Label("Green Cells")
+    public long greenCells;
+}
@@ -0,0 +1,35 @@
+package com.nnikolov.green_vs_red.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR Event, which is emitted by every read function of an InputArgumentsReader. Its duration includes the waiting
+ * for User input and all of the rejected input Strings that preceded the accepted one.
+ *
+ * */
+@Name("com.nnikolov.green_vs_red.InputArgumentsRead")
+@Label("Input Arguments Read")
+@Category({"GreenVsRed", "Input"})
+@Description("The reading of a single application-defined input argument from User input.")
+@StackTrace(false)
+public final class InputArgumentsReadEvent extends Event {
+
+    /**
+     * The kind of the input argument, which was read (e.g. cellMatrixAxesSizes, cellMatrixRow).
+     *
+     * */
+    @Label("Input Arguments Type")
+    public String inputArgumentsType;
+
+    /**
+     * The length of the accepted inputString.
+     *
+     * */
+    @Label("Input String Length")
+    public int inputStringLength;
+}
@@ -0,0 +1,201 @@
+package com.nnikolov.green_vs_red.model;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.Checksum;
+
+/**
+ * A PackedCellMatrix, whose words are kept in native memory outside of the Java heap (the DIRECT Storage option).
+ * The words are stored as little-endian 'long' values (the same layout as the payload of a packed binary Grid file)
+ * and are accessed via a VarHandle.
+ *
+ * The native memory is either a freshly allocated direct buffer or a region of a memory-mapped file. Since it is not
+ * scanned by the garbage collector, many large cellMatrices can be held at once without growing the GC pause times.
+ *
+ * A DirectPackedCellMatrix must be closed explicitly by its owner. Closing an allocated DirectPackedCellMatrix frees
+ * its native memory right away (via the Cleaner of its direct buffer), instead of whenever the garbage collector
+ * happens to reclaim the buffer. A memory-mapped region is not unmapped by closing it; it is unmapped once the
+ * garbage collector reclaims the mapped buffer. Any further access to a closed DirectPackedCellMatrix throws an
+ * IndexOutOfBoundsException, instead of touching memory it no longer owns.
+ *
+ * Since the native memory may be freed, no view of it is ever handed out, and the closed state is published via a
+ * volatile field before the memory is freed. A DirectPackedCellMatrix must still not be closed while another thread
+ * is in the middle of accessing it (its owner closes it once the other threads are done with it).
+ *
+ * */
+public final class DirectPackedCellMatrix extends PackedCellMatrix {
+
+    /**
+     * The VarHandle, which reads and writes the little-endian 'long' words of the native memory.
+     *
+     * */
+    private static final VarHandle wordVarHandle =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The empty buffer, which replaces the native memory of a closed DirectPackedCellMatrix.
+     *
+     * */
+    private static final ByteBuffer closedBuffer = ByteBuffer.allocateDirect(0);
+
+    /**
+     * The 'invokeCleaner' method of the sun.misc.Unsafe instance (from the jdk.unsupported module), which frees the
+     * native memory of a direct buffer via its Cleaner. NULL if it is not accessible (in which case the native memory
+     * is freed by the garbage collector).
+     *
+     * */
+    private static final MethodHandle invokeCleanerMethodHandle = getInvokeCleanerMethodHandle();
+
+    /**
+     * The native memory, which holds the bit-packed cellMatrix rows, one after another. It is volatile, so that every
+     * thread observes the closedBuffer, which replaces it, before the native memory is freed.
+     *
+     * */
+    private volatile ByteBuffer buffer;
+
+    /**
+     * Whether the native memory was allocated by this DirectPackedCellMatrix (rather than mapped from a file), hence
+     * whether it is freed once it is closed.
+     *
+     * */
+    private final boolean ownsNativeMemory;
+
+    /**
+     * Internal constructor, which adopts a direct buffer with enough room for all of the words of the cellMatrix.
+     *
+     * */
+    private DirectPackedCellMatrix(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY,
+                                   final ByteBuffer buffer, final boolean ownsNativeMemory) {
+        super(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        this.buffer = buffer;
+        this.ownsNativeMemory = ownsNativeMemory;
+    }
+
+    /**
+     * Allocate a new DirectPackedCellMatrix in native memory, filled with RED Color Cells.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * @return A new DirectPackedCellMatrix, which should be closed by its owner.
+     *
+     * */
+    public static DirectPackedCellMatrix allocate(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        return new DirectPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY, ByteBuffer.allocateDirect(
+                getRowWordsCount(cellMatrixSizeAxisX) * cellMatrixSizeAxisY * Long.BYTES), true);
+    }
+
+    /**
+     * Map a region of a file into a new DirectPackedCellMatrix, so that the cellMatrix shares its memory with the
+     * file. The region must hold the bit-packed cellMatrix rows as little-endian 'long' words, one after another.
+     *
+     * NOTE: The bits, which are beyond the horizontal size of the cellMatrix, are not cleared by this function.
+     *
+     * @param fileChannel An open FileChannel of the file.
+     *
+     * @param position The position of the region within the file, in bytes.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * @param mapMode The MapMode of the region. With READ_ONLY, any change of the Cells throws an exception; with
+     *                READ_WRITE, the changes are written through to the file; with PRIVATE, they are not.
+     *
+     * @return A new DirectPackedCellMatrix, which should be closed by its owner.
+     *
+     * @throws IOException If the region cannot be mapped.
+     *
+     * */
+    public static DirectPackedCellMatrix map(final FileChannel fileChannel, final long position,
+                                             final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY,
+                                             final FileChannel.MapMode mapMode) throws IOException {
+        return new DirectPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY, fileChannel.map(mapMode,
+                position, (long) getRowWordsCount(cellMatrixSizeAxisX) * cellMatrixSizeAxisY * Long.BYTES), false);
+    }
+
+    /**
+     * Update a Checksum with all of the bytes of the native memory, which holds the bit-packed cellMatrix rows, in
+     * place (without copying them onto the Java heap). The native memory is only accessed during this call.
+     *
+     * @param checksum The Checksum, which will be updated.
+     *
+     * @throws IllegalStateException If this DirectPackedCellMatrix is closed.
+     *
+     * */
+    public void updateChecksum(final Checksum checksum) {
+        final ByteBuffer currentBuffer = buffer;
+
+        if (currentBuffer == closedBuffer)
+            throw new IllegalStateException("The DirectPackedCellMatrix is closed.");
+
+        checksum.update(currentBuffer.duplicate());
+    }
+
+    @Override
+    long getWord(final int wordIndex) {
+        return (long) wordVarHandle.get(buffer, wordIndex << 3);
+    }
+
+    @Override
+    void setWord(final int wordIndex, final long word) {
+        wordVarHandle.set(buffer, wordIndex << 3, word);
+    }
+
+    @Override
+    public Storage getStorage() {
+        return Storage.DIRECT;
+    }
+
+    /**
+     * Release the native memory of this DirectPackedCellMatrix. An allocated buffer is freed at once (only upon the
+     * first call), while a mapped region is left to the garbage collector.
+     *
+     * */
+    @Override
+    public void close() {
+        final ByteBuffer releasedBuffer = buffer;
+
+        if (releasedBuffer == closedBuffer)
+            return;
+
+        //Publish the closed state (via the volatile field) before the native memory is freed.
+        buffer = closedBuffer;
+
+        if (!ownsNativeMemory || invokeCleanerMethodHandle == null)
+            return;
+
+        try {
+            invokeCleanerMethodHandle.invokeExact(releasedBuffer);
+        } catch (final Throwable throwable) {
+            //The buffer could not be freed at once, hence its native memory is left to the garbage collector.
+        }
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain the 'invokeCleaner' method of the sun.misc.Unsafe instance, bound to it, or NULL if it is not accessible.
+     *
+     * */
+    private static MethodHandle getInvokeCleanerMethodHandle() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafeField.setAccessible(true);
+
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafeField.get(null));
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+}
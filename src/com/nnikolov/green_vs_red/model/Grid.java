@@ -4,6 +4,7 @@ import com.nnikolov.green_vs_red.util.CellMatrixGridCompatibilityValidator;
 import com.nnikolov.green_vs_red.exception.IncompatibleGridCellMatrixShapeException;
 import com.nnikolov.green_vs_red.exception.grid.InvalidGridCellMatrixCellCoordinatesException;
 import com.nnikolov.green_vs_red.util.RectangularCellMatrixUtil;
+import com.nnikolov.green_vs_red.util.ZobristHash;
 
 import java.util.List;
 
@@ -12,22 +13,43 @@ import java.util.List;
  * 0 < X <= Y < 1000
  *
  * The cellMatrix, which is stored in this Grid is with an unmodifiable shape & size and cannot be directly
- * accessed (instead, its copy may be obtained through the 'getCellMatrix' method). Additionally, the individual
- * Cells within the matrix can only be received as copies through the 'getCell' method.
+ * accessed (instead, its copy may be obtained through the 'getCellMatrix' or the 'getPackedCellMatrix' methods).
+ * Additionally, the individual Cells within the matrix can only be received as copies through the 'getCell' method.
  *
- * Cells can be directly added to the cellMatrix via the 'addCell' method or the Color of existing Cells
- * can be modified through the 'setCellColorMethod'.
+ * Internally, the cellMatrix is stored in a bit-packed form (a PackedCellMatrix), therefore the Cells of a Grid are
+ * only materialised as Cell instances when they are requested. The PackedCellMatrix may be kept either on the Java
+ * heap or in native memory outside of it (see PackedCellMatrix.Storage). A Grid should be closed once it is no longer
+ * needed, so that the native memory of a DIRECT Storage Grid is released.
  *
- * Instances of Cells stored in this Grid may be replaced via the 'replaceCell' method.
+ * The Color of existing Cells can be modified through the 'setCellColor' method or they may be replaced via the
+ * 'replaceCell' method.
+ *
+ * A Grid maintains the Zobrist hash of its cellMatrix (see ZobristHash), which is updated by a single XOR whenever a
+ * Cell flips its Color, so that it can be fingerprinted in constant time via the 'getZobristHash' method. The hash of
+ * an adopted or populated cellMatrix is only computed once it is first requested, so that the Grids, which are never
+ * fingerprinted (e.g. the snapshots of the queries), do not pay for a full pass over their cellMatrix.
  *
  * */
-public final class Grid {
+public final class Grid implements AutoCloseable {
+
+    /**
+     * A PackedCellMatrix stores the cellMatrix, which is used by this Grid.
+     *
+     * */
+    private final PackedCellMatrix packedCellMatrix;
+
+    /**
+     * The Zobrist hash of this Grids cellMatrix (see ZobristHash), which is updated whenever a Cell flips its Color.
+     *
+     * */
+    private long zobristHash;
 
     /**
-     * A 2D List stores the cellMatrix, which is used by this Grid.
+     * Determines whether the Zobrist hash is up to date. Until it is first requested, the hash of an adopted or
+     * populated cellMatrix is not computed (and the flips of its Cells are not XOR-ed into it).
      *
      * */
-    private final List<List<Cell>> cellMatrix;
+    private boolean zobristHashComputed;
 
     /**
      * Standard constructor, which initialises a new Grid via two 'short' type axes sizes.
@@ -42,34 +64,76 @@ public final class Grid {
      *
      * */
     public Grid(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        this(cellMatrixSizeAxisX, cellMatrixSizeAxisY, PackedCellMatrix.Storage.HEAP);
+    }
+
+    /**
+     * Storage specific constructor, which initialises a new Grid via two 'short' type axes sizes, whose cellMatrix is
+     * kept by a given Storage option. The constructed Grid will be filled with Cells that only have a RED Color.
+     *
+     * @param cellMatrixSizeAxisX A 'short' type, which represents the horizontal size of the Grids cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY A 'short' type, which represents the vertical size of the Grids cellMatrix.
+     *
+     * @param storage The Storage option, which will keep the Grids cellMatrix.
+     *
+     * @throws IncompatibleGridCellMatrixShapeException If the provided cellMatrix axes sizes do not produce a
+     * cellMatrix that conforms the shape constraint: 0 < X <= Y < 1000, an Exception will be thrown.
+     *
+     * */
+    public Grid(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY,
+                final PackedCellMatrix.Storage storage) {
         /*
         * Assert that the  intended cellMatrix conforms to the shape constrain: 0 < X <= Y < 1000, else
         * throw an Exception.
         * */
         assertRectangularCellMatrixGridCompatibility(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
 
+        //Initialise the cellMatrix with fixed vertical & horizontal dimensions, filled with RED Color Cells.
+        packedCellMatrix = storage.allocate(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+
+        //The hash of an all-RED cellMatrix is ZERO.
+        zobristHashComputed = true;
+    }
+
+    /**
+     * Adopting constructor, which initialises a new Grid directly via an existing PackedCellMatrix, without copying
+     * it. This allows the Cells of a Grid to be loaded in bulk (e.g. from a file).
+     *
+     * NOTE: The provided PackedCellMatrix becomes the storage of the Grid, therefore it should not be modified
+     * afterwards by its provider.
+     *
+     * @param packedCellMatrix An existing PackedCellMatrix, which will be adopted by the Grid.
+     *
+     * @throws IncompatibleGridCellMatrixShapeException If the provided PackedCellMatrix does not conform to the
+     * shape constraint: 0 < X <= Y < 1000, an Exception will be thrown.
+     *
+     * */
+    public Grid(final PackedCellMatrix packedCellMatrix) {
         /*
-        * Initialise the 2D cellMatrix with fixed vertical & horizontal dimensions.
-        * */
-        cellMatrix = RectangularCellMatrixUtil.createUnmodifiableShapeRectangularCellMatrix.apply(
-                new RectangularCellMatrixUtil.RectangularCellMatrixDimensions(
-                        cellMatrixSizeAxisX, cellMatrixSizeAxisY) /*Define the dimension of the cellMatrix*/,
-                (cellMatrixRow, VoidArg0) ->
-                        /*Define the pattern, which should be used to generate the rows of the cellMatrix*/
-                        RectangularCellMatrixUtil.fillRectangularCellMatrixRowArrWithCustomInstances.accept(
-                                //Fill each row with cells that have a RED Color
-                                cellMatrixRow, (VoidArg1) -> new Cell(Cell.Color.RED)));
+         * Assert that the provided cellMatrix conforms to the shape constrain: 0 < X <= Y < 1000, else
+         * throw an Exception.
+         * */
+        assertRectangularCellMatrixGridCompatibility(
+                packedCellMatrix.getCellMatrixSizeAxisX(), packedCellMatrix.getCellMatrixSizeAxisY());
+
+        this.packedCellMatrix = packedCellMatrix;
+
+        //The adopted cellMatrix is only hashed once its hash is first requested.
+        zobristHashComputed = false;
     }
 
     /**
-     * Copy constructor.
+     * Copy constructor. The copy keeps its cellMatrix with the same Storage option as the existing Grid.
      *
      * @param grid An existing Grid instance.
      *
      * */
     public Grid(final Grid grid) {
         //Receive a deep copy of the existing Grid's cellMatrix and assign it to this one.
-        cellMatrix = grid.getCellMatrix();
+        packedCellMatrix = grid.packedCellMatrix.getStorage().copyOf(grid.packedCellMatrix);
+        zobristHash = grid.zobristHash;
+        zobristHashComputed = grid.zobristHashComputed;
     }
 
     /**
@@ -93,8 +157,8 @@ public final class Grid {
         * */
         assertCellCoordinatesAreInBounds(cellCoordinateX, cellCoordinateY);
 
-        //Get a reference to the List, which contains the targeted existing Cell and replace it with the new one.
-        getCellMatrixRowReference(cellCoordinateY).set(cellCoordinateX, new Cell(cell));
+        //Store the Color of the new Cell at the coordinates of the existing one.
+        setCellGreen(cellCoordinateX, cellCoordinateY, cell.getColor().isGreen());
     }
 
     /**
@@ -117,8 +181,8 @@ public final class Grid {
          * */
         assertCellCoordinatesAreInBounds(cellCoordinateX, cellCoordinateY);
 
-        //Get the targeted existing Cell and replace its Color with the provided one.
-        getCellMatrixRowReference(cellCoordinateY).get(cellCoordinateX).setColor(color);
+        //Replace the Color of the targeted existing Cell with the provided one.
+        setCellGreen(cellCoordinateX, cellCoordinateY, color.isGreen());
     }
 
     /**
@@ -139,10 +203,8 @@ public final class Grid {
          * */
         assertCellCoordinatesAreInBounds(cellCoordinateX, cellCoordinateY);
 
-        //Return a deep copy ot the existing Cell from the Grids cellMatrix.
-        return new Cell(
-                cellMatrix.get(cellCoordinateY)
-                        .get(cellCoordinateX));
+        //Return a new Cell, which has the Color of the existing Cell from the Grids cellMatrix.
+        return new Cell(getCellColor(cellCoordinateX, cellCoordinateY));
     }
 
     /**
@@ -167,7 +229,64 @@ public final class Grid {
                         /*Define the pattern, which should be used to generate the rows of the cellMatrix*/
                         RectangularCellMatrixUtil.fillRectangularCellMatrixRowArrWithCustomInstances.accept(
                                 //Each Row of the new cellMatrix should mirror the row of the current one.
-                                cellMatrixRow, (x) -> cellMatrix.get(y).get(x)));
+                                cellMatrixRow, (x) -> new Cell(getCellColor(x, y))));
+    }
+
+    /**
+     * Return a deep copy of the PackedCellMatrix, which stores the cellMatrix of this Grid. The copy is always kept
+     * on the Java heap.
+     *
+     * @return A deep copy of the PackedCellMatrix, which stores the cellMatrix of this Grid.
+     *
+     * */
+    public PackedCellMatrix getPackedCellMatrix() {
+        return new HeapPackedCellMatrix(packedCellMatrix);
+    }
+
+    /**
+     * Copy the cellMatrix of this Grid into an existing PackedCellMatrix, without allocating a new one.
+     *
+     * @param packedCellMatrix The PackedCellMatrix, which will be populated. It must have the dimensions of this
+     *                         Grids cellMatrix.
+     *
+     * */
+    public void copyPackedCellMatrixTo(final PackedCellMatrix packedCellMatrix) {
+        packedCellMatrix.populateFromPackedCellMatrix(this.packedCellMatrix);
+    }
+
+    /**
+     * Get the Zobrist hash of this Grids cellMatrix. It is computed by the first call (if the cellMatrix was adopted
+     * or populated) and maintained incrementally afterwards, therefore it is not recomputed.
+     *
+     * @return The 64-bit Zobrist hash of this Grids cellMatrix (see ZobristHash).
+     *
+     * */
+    public long getZobristHash() {
+        if (!zobristHashComputed) {
+            zobristHash = ZobristHash.computeHash(packedCellMatrix);
+            zobristHashComputed = true;
+        }
+
+        return zobristHash;
+    }
+
+    /**
+     * Get the Storage option, which keeps the cellMatrix of this Grid.
+     *
+     * @return The Storage option of this Grids cellMatrix.
+     *
+     * */
+    public PackedCellMatrix.Storage getStorage() {
+        return packedCellMatrix.getStorage();
+    }
+
+    /**
+     * Release the storage of this Grids cellMatrix. The Grid must not be used afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        packedCellMatrix.close();
     }
 
     /**
@@ -177,7 +296,7 @@ public final class Grid {
      *
      * */
     public short getCellMatrixSizeAxisX() {
-        return (short) cellMatrix.get(0).size();
+        return packedCellMatrix.getCellMatrixSizeAxisX();
     }
 
     /**
@@ -187,7 +306,7 @@ public final class Grid {
      *
      * */
     public short getCellMatrixSizeAxisY() {
-        return (short) cellMatrix.size();
+        return packedCellMatrix.getCellMatrixSizeAxisY();
     }
 
     /**
@@ -239,16 +358,59 @@ public final class Grid {
                 replaceCell(x, y, cellMatrix.get(y).get(x));
     }
 
+    /**
+     * Replace all of the Cells in this Grids cellMatrix with those from an existing PackedCellMatrix.
+     *
+     * @param packedCellMatrix An existing PackedCellMatrix. Its Cells will replace the ones that are stored in this
+     *                         Grids cellMatrix.
+     *
+     * @throws IncompatibleGridCellMatrixShapeException An Exception, which will be thrown if the provided
+     * PackedCellMatrix does not have the exact size as the cellMatrix of this Grid.
+     *
+     * */
+    public void populateFromPackedCellMatrix(final PackedCellMatrix packedCellMatrix) {
+        //Assure that the provided PackedCellMatrix has the exact size as the cellMatrix of this Grid.
+        if (packedCellMatrix.getCellMatrixSizeAxisX() != getCellMatrixSizeAxisX() ||
+                packedCellMatrix.getCellMatrixSizeAxisY() != getCellMatrixSizeAxisY())
+            throw new IncompatibleGridCellMatrixShapeException(
+                    packedCellMatrix.getCellMatrixSizeAxisX(), packedCellMatrix.getCellMatrixSizeAxisY(),
+                    "The provided PackedCellMatrix does not have the size of the cellMatrix of this Grid.");
+
+        //Copy all of the bit-packed Cells at once.
+        this.packedCellMatrix.populateFromPackedCellMatrix(packedCellMatrix);
+
+        //The populated cellMatrix is only hashed once its hash is next requested.
+        zobristHashComputed = false;
+    }
+
     /**
      * Internal utility function.
-     * Get a reference to the List row of the internal cellMatrix via a provided vertical coordinate.
+     * Set the Color of a Cell in the internal cellMatrix and update the Zobrist hash, if the Cell flips its Color.
+     *
+     * */
+    private void setCellGreen(final short cellCoordinateX, final short cellCoordinateY, final boolean isGreen) {
+        if (packedCellMatrix.isGreen(cellCoordinateX, cellCoordinateY) == isGreen)
+            return;
+
+        packedCellMatrix.setGreen(cellCoordinateX, cellCoordinateY, isGreen);
+
+        //A hash, which is not computed yet, will include the flip once it is.
+        if (zobristHashComputed)
+            zobristHash ^= ZobristHash.getCellKey(cellCoordinateX, cellCoordinateY);
+    }
+
+    /**
+     * Internal utility function.
+     * Get the Color of a Cell in the internal cellMatrix via its coordinates.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
      *
-     * @param coordinateY The vertical coordinate of the targeted cellMatrix List row.
+     * @param cellCoordinateY The vertical coordinate of the Cell.
      *
-     * @return A reference to the targeted List row of the internal cellMatrix.
+     * @return The Color of the Cell.
      * */
-    private List<Cell> getCellMatrixRowReference(final short coordinateY) {
-        return cellMatrix.get(coordinateY);
+    private Cell.Color getCellColor(final int cellCoordinateX, final int cellCoordinateY) {
+        return packedCellMatrix.isGreen(cellCoordinateX, cellCoordinateY) ? Cell.Color.GREEN : Cell.Color.RED;
     }
 
     /**
@@ -293,8 +455,8 @@ public final class Grid {
      * */
     private void assertCellCoordinatesAreInBounds(final short cellCoordinateX, final short cellCoordinateY) {
         //Validate that the provided Cell coordinates are within the bounds of the cellMatrix stored in this Grid.
-        if (!RectangularCellMatrixUtil.cellCoordinatesAreInBoundsOfRectangularCellMatrix(
-                cellMatrix, cellCoordinateX, cellCoordinateY))
+        if (cellCoordinateX < 0 || cellCoordinateX >= getCellMatrixSizeAxisX() ||
+                cellCoordinateY < 0 || cellCoordinateY >= getCellMatrixSizeAxisY())
             /*
             * If the provided Cell coordinate are not within the bounds of the cellMatrix stored in this Grid,
             * throw an Exception.
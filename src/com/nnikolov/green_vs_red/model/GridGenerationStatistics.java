@@ -0,0 +1,161 @@
+package com.nnikolov.green_vs_red.model;
+
+/**
+ * Immutable population statistics of a single generation of a Grids cellMatrix:
+ *
+ *      - The amount of GREEN Color Cells.
+ *
+ *      - The amount of Cells, which have changed their Color since the previous generation (0 for the ZERO
+ *      generation).
+ *
+ *      - The bounding box of the GREEN Color Cells (inclusive). It is empty (all of its coordinates are -1) if there
+ *      are no GREEN Color Cells.
+ *
+ * */
+public final class GridGenerationStatistics {
+
+    /**
+     * The index of the generation.
+     *
+     * */
+    private final long generation;
+
+    /**
+     * The amount of GREEN Color Cells within the generation.
+     *
+     * */
+    private final int greenCellsCount;
+
+    /**
+     * The amount of Cells, which have changed their Color since the previous generation.
+     *
+     * */
+    private final int changedCellsCount;
+
+    /**
+     * The bounding box of the GREEN Color Cells (inclusive), or -1 if there are none.
+     *
+     * */
+    private final short greenCellsMinX, greenCellsMinY, greenCellsMaxX, greenCellsMaxY;
+
+    /**
+     * Lone constructor.
+     *
+     * @param generation The index of the generation.
+     *
+     * @param greenCellsCount The amount of GREEN Color Cells within the generation.
+     *
+     * @param changedCellsCount The amount of Cells, which have changed their Color since the previous generation.
+     *
+     * @param greenCellsMinX The minimal horizontal coordinate of a GREEN Color Cell, or -1 if there are none.
+     *
+     * @param greenCellsMinY The minimal vertical coordinate of a GREEN Color Cell, or -1 if there are none.
+     *
+     * @param greenCellsMaxX The maximal horizontal coordinate of a GREEN Color Cell, or -1 if there are none.
+     *
+     * @param greenCellsMaxY The maximal vertical coordinate of a GREEN Color Cell, or -1 if there are none.
+     *
+     * */
+    public GridGenerationStatistics(final long generation, final int greenCellsCount, final int changedCellsCount,
+                                    final short greenCellsMinX, final short greenCellsMinY,
+                                    final short greenCellsMaxX, final short greenCellsMaxY) {
+        this.generation = generation;
+        this.greenCellsCount = greenCellsCount;
+        this.changedCellsCount = changedCellsCount;
+        this.greenCellsMinX = greenCellsMinX;
+        this.greenCellsMinY = greenCellsMinY;
+        this.greenCellsMaxX = greenCellsMaxX;
+        this.greenCellsMaxY = greenCellsMaxY;
+    }
+
+    /**
+     * Get the index of the generation.
+     *
+     * @return The index of the generation.
+     *
+     * */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the amount of GREEN Color Cells within the generation.
+     *
+     * @return The GREEN Color population of the generation.
+     *
+     * */
+    public int getGreenCellsCount() {
+        return greenCellsCount;
+    }
+
+    /**
+     * Get the amount of Cells, which have changed their Color since the previous generation.
+     *
+     * @return The amount of changed Cells.
+     *
+     * */
+    public int getChangedCellsCount() {
+        return changedCellsCount;
+    }
+
+    /**
+     * Check if the generation has no GREEN Color Cells, i.e. if its bounding box is empty.
+     *
+     * @return A boolean, which indicates whether the bounding box is empty.
+     *
+     * */
+    public boolean isGreenCellsBoundingBoxEmpty() {
+        return greenCellsCount == 0;
+    }
+
+    /**
+     * Get the minimal horizontal coordinate of a GREEN Color Cell.
+     *
+     * @return The minimal horizontal coordinate, or -1 if there are no GREEN Color Cells.
+     *
+     * */
+    public short getGreenCellsMinX() {
+        return greenCellsMinX;
+    }
+
+    /**
+     * Get the minimal vertical coordinate of a GREEN Color Cell.
+     *
+     * @return The minimal vertical coordinate, or -1 if there are no GREEN Color Cells.
+     *
+     * */
+    public short getGreenCellsMinY() {
+        return greenCellsMinY;
+    }
+
+    /**
+     * Get the maximal horizontal coordinate of a GREEN Color Cell.
+     *
+     * @return The maximal horizontal coordinate, or -1 if there are no GREEN Color Cells.
+     *
+     * */
+    public short getGreenCellsMaxX() {
+        return greenCellsMaxX;
+    }
+
+    /**
+     * Get the maximal vertical coordinate of a GREEN Color Cell.
+     *
+     * @return The maximal vertical coordinate, or -1 if there are no GREEN Color Cells.
+     *
+     * */
+    public short getGreenCellsMaxY() {
+        return greenCellsMaxY;
+    }
+
+    @Override
+    public String toString() {
+        return "GridGenerationStatistics{" +
+                "generation=" + generation +
+                ", greenCellsCount=" + greenCellsCount +
+                ", changedCellsCount=" + changedCellsCount +
+                ", greenCellsBoundingBox=(" + greenCellsMinX + ", " + greenCellsMinY + ") - (" +
+                greenCellsMaxX + ", " + greenCellsMaxY + ")" +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package com.nnikolov.green_vs_red.model;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * A PackedCellMatrix, whose words are kept in a 'long' array on the Java heap (the HEAP Storage option).
+ *
+ * Closing a HeapPackedCellMatrix has no effect, its memory is reclaimed by the garbage collector once it is no
+ * longer referenced. The only exception is a HeapPackedCellMatrix, which was acquired from a PackedCellMatrixPool:
+ * closing it releases its words back to the pool, therefore it must not be used afterwards.
+ *
+ * */
+public final class HeapPackedCellMatrix extends PackedCellMatrix {
+
+    /**
+     * The bit-packed cellMatrix rows, stored one after another.
+     *
+     * */
+    private final long[] words;
+
+    /**
+     * The PackedCellMatrixPool, which the words were acquired from. NULL if they were not pooled.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Whether the words were already released back to their PackedCellMatrixPool.
+     *
+     * */
+    private boolean released;
+
+    /**
+     * Standard constructor, which initialises a new HeapPackedCellMatrix, filled with RED Color Cells.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * */
+    public HeapPackedCellMatrix(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        super(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        this.words = new long[getWordsCount()];
+        this.packedCellMatrixPool = null;
+    }
+
+    /**
+     * Pooled constructor, which is used by a PackedCellMatrixPool. The words array may be longer than the cellMatrix
+     * requires, and it must already be cleared.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * @param words A cleared 'long' array with at least (rowWordsCount * cellMatrixSizeAxisY) words.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the words array will be released back to.
+     *
+     * */
+    HeapPackedCellMatrix(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY,
+                         final long[] words, final PackedCellMatrixPool packedCellMatrixPool) {
+        super(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        this.words = words;
+        this.packedCellMatrixPool = packedCellMatrixPool;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param packedCellMatrix An existing PackedCellMatrix instance with any Storage option.
+     *
+     * */
+    public HeapPackedCellMatrix(final PackedCellMatrix packedCellMatrix) {
+        this(packedCellMatrix.getCellMatrixSizeAxisX(), packedCellMatrix.getCellMatrixSizeAxisY());
+        populateFromPackedCellMatrix(packedCellMatrix);
+    }
+
+    @Override
+    long getWord(final int wordIndex) {
+        return words[wordIndex];
+    }
+
+    @Override
+    void setWord(final int wordIndex, final long word) {
+        words[wordIndex] = word;
+    }
+
+    @Override
+    public Storage getStorage() {
+        return Storage.HEAP;
+    }
+
+    @Override
+    public void close() {
+        //Pooled words are released back to their pool (only once), other ones are reclaimed by the garbage collector.
+        if (packedCellMatrixPool != null && !released) {
+            released = true;
+
+            packedCellMatrixPool.release(words);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0, getWordsCount(), 0L);
+    }
+
+    @Override
+    public void populateFromPackedCellMatrix(final PackedCellMatrix packedCellMatrix) {
+        //Copy the words in bulk, if the other PackedCellMatrix is on the Java heap as well.
+        if (packedCellMatrix instanceof HeapPackedCellMatrix)
+            System.arraycopy(((HeapPackedCellMatrix) packedCellMatrix).words, 0, words, 0, getWordsCount());
+        else
+            super.populateFromPackedCellMatrix(packedCellMatrix);
+    }
+
+    @Override
+    public void readRowWordsFrom(final LongBuffer longBuffer) {
+        longBuffer.get(words, 0, getWordsCount());
+
+        //Clear the bits, which are beyond the horizontal size of the cellMatrix.
+        for (int wordIndex = getRowWordsCount() - 1; wordIndex < getWordsCount(); wordIndex += getRowWordsCount())
+            words[wordIndex] &= getLastRowWordMask();
+    }
+
+    @Override
+    public void writeRowWordsTo(final LongBuffer longBuffer) {
+        longBuffer.put(words, 0, getWordsCount());
+    }
+}
@@ -0,0 +1,433 @@
+package com.nnikolov.green_vs_red.model;
+
+import java.nio.LongBuffer;
+import java.util.Locale;
+
+/**
+ * Represents a 2D rectangular cellMatrix in a bit-packed form, where every Cell is stored as a single bit:
+ * 0 (RED) or 1 (GREEN).
+ *
+ * Each cellMatrix row is stored in a fixed amount of consecutive 'long' words (rowWordsCount). The Cell with a
+ * horizontal coordinate X is stored in the word X / 64 of its row, at the bit X % 64 (counting from the least
+ * significant bit). The unused bits of the last word of each row are always 0.
+ *
+ * The words themselves are kept by one of the Storage options:
+ *
+ *      - HEAP: A 'long' array on the Java heap (HeapPackedCellMatrix).
+ *      - DIRECT: Native memory outside of the Java heap (DirectPackedCellMatrix), which is not scanned by the
+ *      garbage collector and which may also be shared with a memory-mapped file.
+ *
+ * A PackedCellMatrix should be closed by its owner once it is no longer needed, so that a DIRECT one releases its
+ * memory. Closing a HEAP PackedCellMatrix has no effect.
+ *
+ * NOTE: For the sake of performance, the functions of this class do not perform any bounds checks. The validity
+ * of Cell coordinates and of the cellMatrix shape should be asserted by the owner (e.g. a Grid).
+ *
+ * */
+public abstract class PackedCellMatrix implements AutoCloseable {
+
+    /**
+     * The amount of Cells, which are stored in a single 'long' word.
+     *
+     * */
+    public static final int CELLS_PER_WORD = Long.SIZE;
+
+    /**
+     * The horizontal & vertical sizes of the cellMatrix.
+     *
+     * */
+    private final short cellMatrixSizeAxisX, cellMatrixSizeAxisY;
+
+    /**
+     * The amount of 'long' words, which store a single cellMatrix row.
+     *
+     * */
+    private final int rowWordsCount;
+
+    /**
+     * A bit-mask of the used bits in the last word of each cellMatrix row.
+     *
+     * */
+    private final long lastRowWordMask;
+
+    /**
+     * Constructor for the Storage specific subclasses, which initialises the dimensions of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * */
+    PackedCellMatrix(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        this.cellMatrixSizeAxisX = cellMatrixSizeAxisX;
+        this.cellMatrixSizeAxisY = cellMatrixSizeAxisY;
+        this.rowWordsCount = getRowWordsCount(cellMatrixSizeAxisX);
+        this.lastRowWordMask = getLastRowWordMask(cellMatrixSizeAxisX);
+    }
+
+    /**
+     * Get a word via its index among all of the words of the cellMatrix.
+     *
+     * @param wordIndex The index of the word (cellCoordinateY * rowWordsCount + rowWordIndex).
+     *
+     * @return The bit-packed Cells, which are stored in the word.
+     *
+     * */
+    abstract long getWord(int wordIndex);
+
+    /**
+     * Set a word via its index among all of the words of the cellMatrix, as is.
+     *
+     * @param wordIndex The index of the word (cellCoordinateY * rowWordsCount + rowWordIndex).
+     *
+     * @param word The bit-packed Cells, which will be stored in the word.
+     *
+     * */
+    abstract void setWord(int wordIndex, long word);
+
+    /**
+     * Get the Storage option, which keeps the words of this PackedCellMatrix.
+     *
+     * @return The Storage option of this PackedCellMatrix.
+     *
+     * */
+    public abstract Storage getStorage();
+
+    /**
+     * Release the storage of this PackedCellMatrix. It must not be used afterwards.
+     *
+     * */
+    @Override
+    public abstract void close();
+
+    /**
+     * Get the horizontal size of the cellMatrix.
+     *
+     * @return The horizontal size of the cellMatrix, represented as a 'short' number type.
+     *
+     * */
+    public final short getCellMatrixSizeAxisX() {
+        return cellMatrixSizeAxisX;
+    }
+
+    /**
+     * Get the vertical size of the cellMatrix.
+     *
+     * @return The vertical size of the cellMatrix, represented as a 'short' number type.
+     *
+     * */
+    public final short getCellMatrixSizeAxisY() {
+        return cellMatrixSizeAxisY;
+    }
+
+    /**
+     * Get the amount of 'long' words, which store a single cellMatrix row.
+     *
+     * @return The amount of 'long' words, which store a single cellMatrix row.
+     *
+     * */
+    public final int getRowWordsCount() {
+        return rowWordsCount;
+    }
+
+    /**
+     * Get the amount of 'long' words, which store the whole cellMatrix.
+     *
+     * @return The amount of 'long' words, which store the whole cellMatrix.
+     *
+     * */
+    public final int getWordsCount() {
+        return rowWordsCount * cellMatrixSizeAxisY;
+    }
+
+    /**
+     * Check if a Cell of the cellMatrix has a GREEN Color.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @return A boolean, which indicates whether the Cell has a GREEN Color.
+     *
+     * */
+    public final boolean isGreen(final int cellCoordinateX, final int cellCoordinateY) {
+        return (getWord(cellCoordinateY * rowWordsCount + (cellCoordinateX >>> 6)) >>> cellCoordinateX & 1L) != 0;
+    }
+
+    /**
+     * Set the Color of a Cell of the cellMatrix.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @param green Whether the Cell should have a GREEN (true) or a RED (false) Color.
+     *
+     * */
+    public final void setGreen(final int cellCoordinateX, final int cellCoordinateY, final boolean green) {
+        final int wordIndex = cellCoordinateY * rowWordsCount + (cellCoordinateX >>> 6);
+
+        if (green)
+            setWord(wordIndex, getWord(wordIndex) | 1L << cellCoordinateX);
+        else
+            setWord(wordIndex, getWord(wordIndex) & ~(1L << cellCoordinateX));
+    }
+
+    /**
+     * Set the Color of a horizontal run of consecutive Cells within a cellMatrix row to GREEN.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the first Cell of the run.
+     *
+     * @param cellCoordinateY The vertical coordinate of the cellMatrix row.
+     *
+     * @param runLength The amount of Cells within the run.
+     *
+     * */
+    public final void setGreenRun(final int cellCoordinateX, final int cellCoordinateY, final int runLength) {
+        final int rowOffset = cellCoordinateY * rowWordsCount;
+
+        //Fill the run one word at a time.
+        for (int x = cellCoordinateX, runEnd = cellCoordinateX + runLength; x < runEnd; ) {
+            final int wordBitsCount = Math.min(CELLS_PER_WORD - (x & 63), runEnd - x);
+            final long wordRunMask = (wordBitsCount == CELLS_PER_WORD ? -1L : (1L << wordBitsCount) - 1) << x;
+            final int wordIndex = rowOffset + (x >>> 6);
+
+            setWord(wordIndex, getWord(wordIndex) | wordRunMask);
+            x += wordBitsCount;
+        }
+    }
+
+    /**
+     * Set the Color of all of the Cells of the cellMatrix to RED.
+     *
+     * */
+    public void clear() {
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            setWord(wordIndex, 0L);
+    }
+
+    /**
+     * Get a single 'long' word of a cellMatrix row.
+     *
+     * @param cellCoordinateY The vertical coordinate of the cellMatrix row.
+     *
+     * @param rowWordIndex The index of the word within the cellMatrix row.
+     *
+     * @return The bit-packed Cells, which are stored in the word.
+     *
+     * */
+    public final long getRowWord(final int cellCoordinateY, final int rowWordIndex) {
+        return getWord(cellCoordinateY * rowWordsCount + rowWordIndex);
+    }
+
+    /**
+     * Set a single 'long' word of a cellMatrix row. The bits, which are beyond the horizontal size of the
+     * cellMatrix, are cleared.
+     *
+     * @param cellCoordinateY The vertical coordinate of the cellMatrix row.
+     *
+     * @param rowWordIndex The index of the word within the cellMatrix row.
+     *
+     * @param word The bit-packed Cells, which will be stored in the word.
+     *
+     * */
+    public final void setRowWord(final int cellCoordinateY, final int rowWordIndex, final long word) {
+        setWord(cellCoordinateY * rowWordsCount + rowWordIndex,
+                rowWordIndex == rowWordsCount - 1 ? word & lastRowWordMask : word);
+    }
+
+    /**
+     * Replace all of the Cells of this PackedCellMatrix with those of another one with the same dimensions.
+     * The two PackedCellMatrices may use different Storage options.
+     *
+     * @param packedCellMatrix An existing PackedCellMatrix with the same dimensions.
+     *
+     * */
+    public void populateFromPackedCellMatrix(final PackedCellMatrix packedCellMatrix) {
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            setWord(wordIndex, packedCellMatrix.getWord(wordIndex));
+    }
+
+    /**
+     * Bulk-read all of the cellMatrix rows from a LongBuffer, which holds them one after another. The bits, which
+     * are beyond the horizontal size of the cellMatrix, are cleared.
+     *
+     * @param longBuffer A LongBuffer with at least (rowWordsCount * cellMatrixSizeAxisY) remaining words.
+     *
+     * */
+    public void readRowWordsFrom(final LongBuffer longBuffer) {
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            setWord(wordIndex, (wordIndex + 1) % rowWordsCount == 0 ?
+                    longBuffer.get() & lastRowWordMask : longBuffer.get());
+    }
+
+    /**
+     * Bulk-write all of the cellMatrix rows to a LongBuffer, one after another.
+     *
+     * @param longBuffer A LongBuffer with at least (rowWordsCount * cellMatrixSizeAxisY) remaining words.
+     *
+     * */
+    public void writeRowWordsTo(final LongBuffer longBuffer) {
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            longBuffer.put(getWord(wordIndex));
+    }
+
+    /**
+     * Count the Cells of the cellMatrix, which have a GREEN Color.
+     *
+     * @return The amount of GREEN Color Cells.
+     *
+     * */
+    public final long getGreenCellsCount() {
+        long greenCellsCount = 0;
+
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            greenCellsCount += Long.bitCount(getWord(wordIndex));
+
+        return greenCellsCount;
+    }
+
+    /**
+     * Two PackedCellMatrices are equal if they have the same dimensions and Cell Colors, regardless of their
+     * Storage options.
+     *
+     * */
+    @Override
+    public final boolean equals(final Object object) {
+        if (this == object)
+            return true;
+
+        if (!(object instanceof PackedCellMatrix))
+            return false;
+
+        final PackedCellMatrix packedCellMatrix = (PackedCellMatrix) object;
+
+        if (cellMatrixSizeAxisX != packedCellMatrix.cellMatrixSizeAxisX ||
+                cellMatrixSizeAxisY != packedCellMatrix.cellMatrixSizeAxisY)
+            return false;
+
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            if (getWord(wordIndex) != packedCellMatrix.getWord(wordIndex))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * The hash code is derived from the dimensions and the Cell Colors of this PackedCellMatrix.
+     *
+     * */
+    @Override
+    public final int hashCode() {
+        int hashCode = 31 * cellMatrixSizeAxisX + cellMatrixSizeAxisY;
+
+        for (int wordIndex = 0, wordsCount = getWordsCount(); wordIndex < wordsCount; wordIndex++)
+            hashCode = 31 * hashCode + Long.hashCode(getWord(wordIndex));
+
+        return hashCode;
+    }
+
+    /**
+     * Get a bit-mask of the used bits in the last word of each cellMatrix row.
+     *
+     * @return A bit-mask of the used bits in the last word of each cellMatrix row.
+     *
+     * */
+    public final long getLastRowWordMask() {
+        return lastRowWordMask;
+    }
+
+    /**
+     * Get the amount of 'long' words, which are needed to store a cellMatrix row with a given horizontal size.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @return The amount of 'long' words, which are needed to store a single cellMatrix row.
+     *
+     * */
+    public static int getRowWordsCount(final short cellMatrixSizeAxisX) {
+        return (cellMatrixSizeAxisX + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /**
+     * Internal utility function.
+     * Get a bit-mask of the used bits in the last word of a cellMatrix row with a given horizontal size.
+     *
+     * */
+    private static long getLastRowWordMask(final short cellMatrixSizeAxisX) {
+        final int usedBits = cellMatrixSizeAxisX % CELLS_PER_WORD;
+
+        return usedBits == 0 ? -1L : (1L << usedBits) - 1;
+    }
+
+    /**
+     *
+     * PackedCellMatrix Storage enumeration nested type.
+     *
+     * Possible values are: HEAP & DIRECT.
+     *
+     * */
+    public enum Storage {
+        HEAP,
+        DIRECT;
+
+        /**
+         * Allocate a new PackedCellMatrix with this Storage option, filled with RED Color Cells.
+         *
+         * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+         *
+         * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+         *
+         * @return A new PackedCellMatrix, which should be closed by its owner.
+         *
+         * */
+        public PackedCellMatrix allocate(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+            return this == HEAP ?
+                    new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY) :
+                    DirectPackedCellMatrix.allocate(cellMatrixSizeAxisX, cellMatrixSizeAxisY);
+        }
+
+        /**
+         * Allocate a deep copy of an existing PackedCellMatrix with this Storage option.
+         *
+         * @param packedCellMatrix An existing PackedCellMatrix with any Storage option.
+         *
+         * @return A new PackedCellMatrix, which should be closed by its owner.
+         *
+         * */
+        public PackedCellMatrix copyOf(final PackedCellMatrix packedCellMatrix) {
+            final PackedCellMatrix copy =
+                    allocate(packedCellMatrix.getCellMatrixSizeAxisX(), packedCellMatrix.getCellMatrixSizeAxisY());
+            copy.populateFromPackedCellMatrix(packedCellMatrix);
+
+            return copy;
+        }
+
+        /**
+         * Get the preferred Storage option of this application, as selected via the 'green_vs_red.storage' system
+         * property (HEAP by default).
+         *
+         * @return The preferred Storage option.
+         *
+         * @throws IllegalArgumentException If no Storage option matches the system property.
+         *
+         * */
+        public static Storage getPreferred() {
+            return fromName(System.getProperty("green_vs_red.storage"));
+        }
+
+        /**
+         * Obtain a Storage option via its case-insensitive name.
+         *
+         * @param name The name of the Storage option (e.g. "heap" or "direct"), or NULL.
+         *
+         * @return The matching Storage option, or HEAP if the name is NULL.
+         *
+         * @throws IllegalArgumentException If no Storage option matches the name.
+         *
+         * */
+        public static Storage fromName(final String name) {
+            return name == null ? HEAP : valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.nnikolov.green_vs_red.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * A thread-safe pool of the 'long' word arrays of HeapPackedCellMatrices, so that a process, which answers many
+ * queries back to back, recycles its cellMatrix buffers instead of allocating new ones for every query.
+ *
+ * The word arrays are grouped by size classes: the length of a pooled array is the smallest power of two, which can
+ * hold the words of the requested cellMatrix. Hence cellMatrices of similar (not only of identical) dimensions share
+ * their arrays.
+ *
+ * A cellMatrix is acquired via 'acquire' and released explicitly by closing it. The pool retains the released arrays
+ * only up to a bound of words in total; any array beyond it is left to the garbage collector.
+ *
+ * The pool also recycles the 'byte' scratch buffers of the query engines (e.g. unpacked rows, light cone regions and
+ * tiles), which are acquired via 'acquireBytes' and released via 'releaseBytes', and their 'int' scratch buffers
+ * (e.g. the hash tables of the sparse engine), which are acquired via 'acquireInts' and released via 'releaseInts'.
+ * They are grouped by the same power of two size classes, and they count towards the same bound (in words of 8
+ * bytes).
+ *
+ * */
+public final class PackedCellMatrixPool {
+
+    /**
+     * The default bound of the words, which are retained by a pool (8 MiB).
+     *
+     * */
+    public static final long DEFAULT_MAX_RETAINED_WORDS_COUNT = 1L << 20;
+
+    /**
+     * The amount of size classes. The largest one (2^14 words) holds the largest possible cellMatrix
+     * (16 words * 999 rows).
+     *
+     * */
+    private static final int SIZE_CLASSES_COUNT = 15;
+
+    /**
+     * The amount of size classes of the 'byte' buffers. The largest one (2^20 bytes) holds the largest possible
+     * padded colorCode buffer (1001 * 1001 bytes).
+     *
+     * */
+    private static final int BYTES_SIZE_CLASSES_COUNT = 21;
+
+    /**
+     * The amount of size classes of the 'int' buffers. The largest one (2^22 ints) holds the largest hash table of the
+     * sparse engine.
+     *
+     * */
+    private static final int INTS_SIZE_CLASSES_COUNT = 23;
+
+    /**
+     * The released word arrays of each size class.
+     *
+     * */
+    private final ArrayDeque<long[]>[] retainedWordArrays;
+
+    /**
+     * The released 'byte' buffers of each size class.
+     *
+     * */
+    private final ArrayDeque<byte[]>[] retainedByteArrays;
+
+    /**
+     * The released 'int' buffers of each size class.
+     *
+     * */
+    private final ArrayDeque<int[]>[] retainedIntArrays;
+
+    /**
+     * The bound of the words, which are retained by this pool.
+     *
+     * */
+    private final long maxRetainedWordsCount;
+
+    /**
+     * The amount of words, which are currently retained by this pool.
+     *
+     * */
+    private long retainedWordsCount;
+
+    /**
+     * The amount of acquired cellMatrices (or scratch buffers), which required a new array.
+     *
+     * */
+    private long allocationsCount;
+
+    /**
+     * The amount of acquired cellMatrices (or scratch buffers), which recycled a released array.
+     *
+     * */
+    private long reusesCount;
+
+    /**
+     * Standard constructor.
+     * Retains up to DEFAULT_MAX_RETAINED_WORDS_COUNT words.
+     *
+     * */
+    public PackedCellMatrixPool() {
+        this(DEFAULT_MAX_RETAINED_WORDS_COUNT);
+    }
+
+    /**
+     * Advanced constructor.
+     * Retains up to a given amount of words.
+     *
+     * @param maxRetainedWordsCount The bound of the words, which will be retained by the pool.
+     *
+     * @throws IllegalArgumentException If the bound is negative.
+     *
+     * */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PackedCellMatrixPool(final long maxRetainedWordsCount) {
+        if (maxRetainedWordsCount < 0)
+            throw new IllegalArgumentException("The bound of the retained words: " + maxRetainedWordsCount +
+                    " is negative.");
+
+        this.maxRetainedWordsCount = maxRetainedWordsCount;
+        this.retainedWordArrays = new ArrayDeque[SIZE_CLASSES_COUNT];
+        this.retainedByteArrays = new ArrayDeque[BYTES_SIZE_CLASSES_COUNT];
+        this.retainedIntArrays = new ArrayDeque[INTS_SIZE_CLASSES_COUNT];
+
+        for (int sizeClass = 0; sizeClass < SIZE_CLASSES_COUNT; sizeClass++)
+            retainedWordArrays[sizeClass] = new ArrayDeque<>();
+
+        for (int sizeClass = 0; sizeClass < BYTES_SIZE_CLASSES_COUNT; sizeClass++)
+            retainedByteArrays[sizeClass] = new ArrayDeque<>();
+
+        for (int sizeClass = 0; sizeClass < INTS_SIZE_CLASSES_COUNT; sizeClass++)
+            retainedIntArrays[sizeClass] = new ArrayDeque<>();
+    }
+
+    /**
+     * Acquire a cellMatrix on the Java heap, filled with RED Color Cells. It should be closed by its owner, once it
+     * is no longer needed, so that its words are released back to this pool.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrix.
+     *
+     * @param cellMatrixSizeAxisY The vertical size of the cellMatrix.
+     *
+     * @return A pooled PackedCellMatrix.
+     *
+     * */
+    public PackedCellMatrix acquire(final short cellMatrixSizeAxisX, final short cellMatrixSizeAxisY) {
+        final int wordsCount = PackedCellMatrix.getRowWordsCount(cellMatrixSizeAxisX) * cellMatrixSizeAxisY;
+        final int sizeClass = getSizeClass(wordsCount);
+
+        long[] words;
+
+        synchronized (this) {
+            words = retainedWordArrays[sizeClass].pollLast();
+
+            if (words != null) {
+                retainedWordsCount -= words.length;
+                reusesCount++;
+            } else
+                allocationsCount++;
+        }
+
+        //Clear only the words, which will be used by the cellMatrix.
+        if (words == null)
+            words = new long[1 << sizeClass];
+        else
+            Arrays.fill(words, 0, wordsCount, 0L);
+
+        return new HeapPackedCellMatrix(cellMatrixSizeAxisX, cellMatrixSizeAxisY, words, this);
+    }
+
+    /**
+     * Acquire a deep copy of an existing cellMatrix on the Java heap. It should be closed by its owner, once it is no
+     * longer needed, so that its words are released back to this pool.
+     *
+     * @param packedCellMatrix An existing PackedCellMatrix with any Storage option.
+     *
+     * @return A pooled PackedCellMatrix.
+     *
+     * */
+    public PackedCellMatrix acquireCopyOf(final PackedCellMatrix packedCellMatrix) {
+        final PackedCellMatrix copy =
+                acquire(packedCellMatrix.getCellMatrixSizeAxisX(), packedCellMatrix.getCellMatrixSizeAxisY());
+        copy.populateFromPackedCellMatrix(packedCellMatrix);
+
+        return copy;
+    }
+
+    /**
+     * Acquire a 'byte' buffer, whose first 'length' bytes are ZERO. It may be longer than requested (up to the next
+     * power of two). It should be released via 'releaseBytes' by its owner, once it is no longer needed. A buffer,
+     * which is larger than the largest size class, is simply allocated.
+     *
+     * @param length The amount of bytes, which are needed.
+     *
+     * @return A pooled 'byte' buffer with at least the requested length.
+     *
+     * @throws IllegalArgumentException If the length is negative.
+     *
+     * */
+    public byte[] acquireBytes(final int length) {
+        if (length < 0)
+            throw new IllegalArgumentException("The buffer length: " + length + " is negative.");
+
+        if (length > 1 << BYTES_SIZE_CLASSES_COUNT - 1) {
+            synchronized (this) {
+                allocationsCount++;
+            }
+
+            return new byte[length];
+        }
+
+        final int sizeClass = getSizeClass(length);
+
+        byte[] bytes;
+
+        synchronized (this) {
+            bytes = retainedByteArrays[sizeClass].pollLast();
+
+            if (bytes != null) {
+                retainedWordsCount -= getWordsCount(bytes);
+                reusesCount++;
+            } else
+                allocationsCount++;
+        }
+
+        //Clear only the bytes, which will be used.
+        if (bytes == null)
+            bytes = new byte[1 << sizeClass];
+        else
+            Arrays.fill(bytes, 0, length, (byte) 0);
+
+        return bytes;
+    }
+
+    /**
+     * Release a 'byte' buffer, which was acquired via 'acquireBytes', back to this pool. It must not be used
+     * afterwards. A buffer, whose length is not one of the size classes, is ignored.
+     *
+     * @param bytes The released 'byte' buffer.
+     *
+     * */
+    public synchronized void releaseBytes(final byte[] bytes) {
+        final int sizeClass = Integer.numberOfTrailingZeros(bytes.length);
+
+        if (Integer.bitCount(bytes.length) != 1 || sizeClass >= BYTES_SIZE_CLASSES_COUNT ||
+                retainedWordsCount + getWordsCount(bytes) > maxRetainedWordsCount)
+            return;
+
+        retainedByteArrays[sizeClass].addLast(bytes);
+        retainedWordsCount += getWordsCount(bytes);
+    }
+
+    /**
+     * Acquire an 'int' buffer, whose first 'length' ints are ZERO. It may be longer than requested (up to the next
+     * power of two). It should be released via 'releaseInts' by its owner, once it is no longer needed. A buffer,
+     * which is larger than the largest size class, is simply allocated.
+     *
+     * @param length The amount of ints, which are needed.
+     *
+     * @return A pooled 'int' buffer with at least the requested length.
+     *
+     * @throws IllegalArgumentException If the length is negative.
+     *
+     * */
+    public int[] acquireInts(final int length) {
+        if (length < 0)
+            throw new IllegalArgumentException("The buffer length: " + length + " is negative.");
+
+        if (length > 1 << INTS_SIZE_CLASSES_COUNT - 1) {
+            synchronized (this) {
+                allocationsCount++;
+            }
+
+            return new int[length];
+        }
+
+        final int sizeClass = getSizeClass(length);
+
+        int[] ints;
+
+        synchronized (this) {
+            ints = retainedIntArrays[sizeClass].pollLast();
+
+            if (ints != null) {
+                retainedWordsCount -= getWordsCount(ints);
+                reusesCount++;
+            } else
+                allocationsCount++;
+        }
+
+        //Clear only the ints, which will be used.
+        if (ints == null)
+            ints = new int[1 << sizeClass];
+        else
+            Arrays.fill(ints, 0, length, 0);
+
+        return ints;
+    }
+
+    /**
+     * Release an 'int' buffer, which was acquired via 'acquireInts', back to this pool. It must not be used
+     * afterwards. A buffer, whose length is not one of the size classes, is ignored.
+     *
+     * @param ints The released 'int' buffer.
+     *
+     * */
+    public synchronized void releaseInts(final int[] ints) {
+        final int sizeClass = Integer.numberOfTrailingZeros(ints.length);
+
+        if (Integer.bitCount(ints.length) != 1 || sizeClass >= INTS_SIZE_CLASSES_COUNT ||
+                retainedWordsCount + getWordsCount(ints) > maxRetainedWordsCount)
+            return;
+
+        retainedIntArrays[sizeClass].addLast(ints);
+        retainedWordsCount += getWordsCount(ints);
+    }
+
+    /**
+     * Get the amount of words, which are currently retained by this pool.
+     *
+     * @return The amount of retained words.
+     *
+     * */
+    public synchronized long getRetainedWordsCount() {
+        return retainedWordsCount;
+    }
+
+    /**
+     * Get the amount of acquired cellMatrices (or scratch buffers), which required a new array.
+     *
+     * @return The amount of allocations.
+     *
+     * */
+    public synchronized long getAllocationsCount() {
+        return allocationsCount;
+    }
+
+    /**
+     * Get the amount of acquired cellMatrices (or scratch buffers), which recycled a released array.
+     *
+     * @return The amount of reuses.
+     *
+     * */
+    public synchronized long getReusesCount() {
+        return reusesCount;
+    }
+
+    /**
+     * Package-level utility function, which is called by a pooled HeapPackedCellMatrix once it is closed.
+     * Retain a released word array, unless the bound of the retained words would be exceeded.
+     *
+     * @param words The released word array.
+     *
+     * */
+    synchronized void release(final long[] words) {
+        if (retainedWordsCount + words.length > maxRetainedWordsCount)
+            return;
+
+        retainedWordArrays[Integer.numberOfTrailingZeros(words.length)].addLast(words);
+        retainedWordsCount += words.length;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the amount of words of 8 bytes, which a 'byte' buffer counts as towards the bound of the retained words.
+     *
+     * */
+    private static long getWordsCount(final byte[] bytes) {
+        return (bytes.length + Long.BYTES - 1) / Long.BYTES;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the amount of words of 8 bytes, which an 'int' buffer counts as towards the bound of the retained words.
+     *
+     * */
+    private static long getWordsCount(final int[] ints) {
+        return (ints.length + 1) / 2;
+    }
+
+    /**
+     * Internal utility function.
+     * Get the size class of a cellMatrix (or of a scratch buffer): the exponent of the smallest power of two, which is
+     * at least its amount of words (or bytes, or ints).
+     *
+     * */
+    private static int getSizeClass(final int wordsCount) {
+        return wordsCount <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(wordsCount - 1);
+    }
+}
@@ -5,23 +5,23 @@ import com.nnikolov.green_vs_red.exception.InvalidTargetGridGeneration;
 /**
  * Represents a TargetGridGeneration Number, which is specific for this application.
  *
- * An instance of this class can only be obtained if initialized via a positive Long type, else
- * an Exception will be thrown.
+ * An instance of this class can only be obtained if initialized via a positive 'long' value, else
+ * an Exception will be thrown. The value is stored as a primitive, therefore it is never boxed.
  *
  * */
 public final class TargetGridGeneration extends Number {
 
-    private final Long numericValue;
+    private final long numericValue;
 
     /**
-     * Lone constructor. Accepts a positive Long Number type.
+     * Lone constructor. Accepts a positive 'long' value.
      *
-     * @param numericValue A Long Number type, which will be stored in this class.
+     * @param numericValue A 'long' value, which will be stored in this class.
      *
      * @throws InvalidTargetGridGeneration If the provided numericValue is non-positive, an Exception will be thrown.
      *
      * */
-    public TargetGridGeneration(final Long numericValue) {
+    public TargetGridGeneration(final long numericValue) {
         if (numericValue <= 0)
             throw new InvalidTargetGridGeneration(numericValue);
 
@@ -37,7 +37,7 @@ public final class TargetGridGeneration extends Number {
      * */
     @Override
     public int intValue() {
-        return numericValue.intValue();
+        return (int) numericValue;
     }
 
     /**
@@ -60,7 +60,7 @@ public final class TargetGridGeneration extends Number {
      * */
     @Override
     public float floatValue() {
-        return numericValue.floatValue();
+        return (float) numericValue;
     }
 
     /**
@@ -72,6 +72,6 @@ public final class TargetGridGeneration extends Number {
      * */
     @Override
     public double doubleValue() {
-        return numericValue.doubleValue();
+        return (double) numericValue;
     }
 }
@@ -0,0 +1,57 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+/**
+ * Utility class, which detects the mirror symmetries of a bit-packed cellMatrix.
+ *
+ * The Grid generation progression algorithm only counts the GREEN neighbours of each Cell, and the neighbourhood of a
+ * Cell is mirrored along with it, therefore a cellMatrix, which is symmetric about its vertical or horizontal middle
+ * axis, stays symmetric about it in all of its next generations.
+ *
+ * */
+public final class CellMatrixMirrorSymmetry {
+
+    /**
+     * Determine whether a cellMatrix is symmetric about its vertical middle axis, i.e. whether the Cell x of each row
+     * has the same Color as the Cell (cellMatrixSizeAxisX - 1 - x).
+     *
+     * @param packedCellMatrix The cellMatrix.
+     *
+     * @return A boolean, which indicates whether the cellMatrix is symmetric about its vertical middle axis.
+     *
+     * */
+    public static boolean isSymmetricAboutVerticalAxis(final PackedCellMatrix packedCellMatrix) {
+        final int cellMatrixSizeAxisX = packedCellMatrix.getCellMatrixSizeAxisX();
+
+        //Compare each Cell of the left half of a row with its mirror Cell, until a mismatch is found.
+        for (int y = 0; y < packedCellMatrix.getCellMatrixSizeAxisY(); y++)
+            for (int x = 0; x < cellMatrixSizeAxisX / 2; x++)
+                if (packedCellMatrix.isGreen(x, y) != packedCellMatrix.isGreen(cellMatrixSizeAxisX - 1 - x, y))
+                    return false;
+
+        return true;
+    }
+
+    /**
+     * Determine whether a cellMatrix is symmetric about its horizontal middle axis, i.e. whether the row y has the
+     * same Colors as the row (cellMatrixSizeAxisY - 1 - y).
+     *
+     * @param packedCellMatrix The cellMatrix.
+     *
+     * @return A boolean, which indicates whether the cellMatrix is symmetric about its horizontal middle axis.
+     *
+     * */
+    public static boolean isSymmetricAboutHorizontalAxis(final PackedCellMatrix packedCellMatrix) {
+        final int cellMatrixSizeAxisY = packedCellMatrix.getCellMatrixSizeAxisY();
+
+        //Compare each row of the upper half with its mirror row, one word at a time.
+        for (int y = 0; y < cellMatrixSizeAxisY / 2; y++)
+            for (int rowWordIndex = 0; rowWordIndex < packedCellMatrix.getRowWordsCount(); rowWordIndex++)
+                if (packedCellMatrix.getRowWord(y, rowWordIndex) !=
+                        packedCellMatrix.getRowWord(cellMatrixSizeAxisY - 1 - y, rowWordIndex))
+                    return false;
+
+        return true;
+    }
+}
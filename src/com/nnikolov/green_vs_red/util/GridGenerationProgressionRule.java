@@ -0,0 +1,86 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.Cell;
+
+/**
+ * Utility class, which holds the Grid generation progression algorithm of this application, so that every class that
+ * progresses a cellMatrix to its next generation follows exactly the same rules:
+ *
+ *      - If a red color Cell is surrounded by 3 or 6 green Cells, it will become green in the next generation.
+ *      - If a red color Cell is surrounded by 1, 2, 4, 5, 7 or 8 green Cells, it will remain red in the next
+ *      generation.
+ *      - If a green color Cell is surrounded by 1, 4, 5, 7 or 8 green Cells, it will become red in the next generation.
+ *      - If a green color Cell is surrounded by 2, 3 or 6 green Cells, it will remain green in the next generation.
+ *
+ * Primitive colorCodes (0 - RED, 1 - GREEN) are supported, in order to allow the use of the rules within tight loops
+ * over primitive cellMatrix representations.
+ *
+ * */
+public final class GridGenerationProgressionRule {
+
+    /**
+     * The maximum amount of neighbours that a Cell can have.
+     *
+     * */
+    public static final int MAX_NEIGHBOURS_COUNT = 8;
+
+    /**
+     * A lookup table of the next generation colorCodes, indexed by: colorCode * 9 + greenNeighboursCount.
+     *
+     * */
+    private static final byte[] nextGenerationCellColorCodes = new byte[2 * (MAX_NEIGHBOURS_COUNT + 1)];
+
+    static {
+        //Populate the lookup table via the application rules.
+        for (int greenNeighboursCount = 0; greenNeighboursCount <= MAX_NEIGHBOURS_COUNT; greenNeighboursCount++) {
+            nextGenerationCellColorCodes[greenNeighboursCount] =
+                    (byte) (greenNeighboursCount == 3 || greenNeighboursCount == 6 ? 1 : 0);
+            nextGenerationCellColorCodes[MAX_NEIGHBOURS_COUNT + 1 + greenNeighboursCount] =
+                    (byte) (greenNeighboursCount == 2 || greenNeighboursCount == 3 ||
+                            greenNeighboursCount == 6 ? 1 : 0);
+        }
+    }
+
+    /**
+     * Determine the next generation colorCode of a Cell.
+     *
+     * @param cellColorCode The current colorCode of the Cell: 0 (RED) or 1 (GREEN).
+     *
+     * @param greenNeighboursCount The amount of GREEN Color neighbours of the Cell (0 to 8).
+     *
+     * @return The next generation colorCode of the Cell: 0 (RED) or 1 (GREEN).
+     *
+     * */
+    public static byte nextGenerationCellColorCode(final int cellColorCode, final int greenNeighboursCount) {
+        return nextGenerationCellColorCodes[cellColorCode * (MAX_NEIGHBOURS_COUNT + 1) + greenNeighboursCount];
+    }
+
+    /**
+     * Determine whether a Cell will have a GREEN Color in the next generation.
+     *
+     * @param cellIsGreen Whether the Cell currently has a GREEN Color.
+     *
+     * @param greenNeighboursCount The amount of GREEN Color neighbours of the Cell (0 to 8).
+     *
+     * @return A boolean, which indicates whether the Cell will have a GREEN Color in the next generation.
+     *
+     * */
+    public static boolean nextGenerationCellIsGreen(final boolean cellIsGreen, final int greenNeighboursCount) {
+        return nextGenerationCellColorCode(cellIsGreen ? 1 : 0, greenNeighboursCount) == 1;
+    }
+
+    /**
+     * Determine the next generation Color of a Cell.
+     *
+     * @param cellColor The current Color of the Cell.
+     *
+     * @param greenNeighboursCount The amount of GREEN Color neighbours of the Cell (0 to 8).
+     *
+     * @return The next generation Color of the Cell.
+     *
+     * */
+    public static Cell.Color nextGenerationCellColor(final Cell.Color cellColor, final int greenNeighboursCount) {
+        return nextGenerationCellIsGreen(cellColor.isGreen(), greenNeighboursCount) ?
+                Cell.Color.GREEN : Cell.Color.RED;
+    }
+}
@@ -0,0 +1,318 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A Flow.Publisher of the generations of a Grid, from the ZERO generation up to a last generation (inclusive).
+ *
+ * Each Subscriber receives its own Flow.Subscription, which progresses its own GridGenerationStepper, and only steps
+ * it up as far as the Subscriber has requested. Hence a slow Subscriber slows down its simulation, instead of
+ * forcing the simulation to buffer the generations, which it has not consumed yet.
+ *
+ * Every delivered generation is mapped to an item via a snapshot function, which is applied to the
+ * GridGenerationStepper at that generation, e.g.:
+ *
+ *      - GridGenerationStepper::getGridGenerationStatistics, for a cheap stream of population statistics.
+ *
+ *      - GridGenerationStepper::getGrid, for a stream of deep-copy Grid snapshots.
+ *
+ * The signals of a Subscriber are delivered on a given Executor (the common ForkJoinPool by default), one at a time,
+ * and the internal cellMatrices of a Subscription are released once it completes, fails or is cancelled.
+ *
+ * @param <T> The type of the published items.
+ *
+ * */
+public final class GridGenerationPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * The Grid, whose generations are published. It is deep-copied by each Subscription.
+     *
+     * */
+    private final Grid grid;
+
+    /**
+     * The last published generation (inclusive).
+     *
+     * */
+    private final long lastGeneration;
+
+    /**
+     * The function, which maps the GridGenerationStepper at each generation to a published item.
+     *
+     * */
+    private final Function<GridGenerationStepper, ? extends T> snapshotFunction;
+
+    /**
+     * The Executor, which delivers the signals of the Subscribers.
+     *
+     * */
+    private final Executor executor;
+
+    /**
+     * Standard constructor.
+     * Delivers the signals of the Subscribers on the common ForkJoinPool.
+     *
+     * @param grid The Grid, whose generations will be published. It must not be modified afterwards.
+     *
+     * @param lastGeneration The last published generation (inclusive).
+     *
+     * @param snapshotFunction The function, which maps the GridGenerationStepper at each generation to a published
+     *                         item.
+     *
+     * */
+    public GridGenerationPublisher(final Grid grid, final long lastGeneration,
+                                   final Function<GridGenerationStepper, ? extends T> snapshotFunction) {
+        this(grid, lastGeneration, snapshotFunction, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Advanced constructor.
+     * Delivers the signals of the Subscribers on a given Executor.
+     *
+     * @param grid The Grid, whose generations will be published. It must not be modified afterwards.
+     *
+     * @param lastGeneration The last published generation (inclusive).
+     *
+     * @param snapshotFunction The function, which maps the GridGenerationStepper at each generation to a published
+     *                         item.
+     *
+     * @param executor The Executor, which will deliver the signals of the Subscribers.
+     *
+     * @throws IllegalArgumentException If the last generation is negative.
+     *
+     * */
+    public GridGenerationPublisher(final Grid grid, final long lastGeneration,
+                                   final Function<GridGenerationStepper, ? extends T> snapshotFunction,
+                                   final Executor executor) {
+        if (lastGeneration < 0)
+            throw new IllegalArgumentException("The last generation: " + lastGeneration + " is negative.");
+
+        this.grid = grid;
+        this.lastGeneration = lastGeneration;
+        this.snapshotFunction = snapshotFunction;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribe a Subscriber to its own simulation of the Grid. No generation is stepped up, until the Subscriber
+     * requests it.
+     *
+     * @param subscriber The Subscriber.
+     *
+     * @throws NullPointerException If the Subscriber is NULL.
+     *
+     * */
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException("The Subscriber must not be NULL.");
+
+        final GenerationSubscription generationSubscription = new GenerationSubscription(subscriber);
+
+        subscriber.onSubscribe(generationSubscription);
+    }
+
+    /**
+     * A Flow.Subscription, which steps up its own GridGenerationStepper on demand.
+     *
+     * All of the signals are delivered by a drain loop, which runs on the Executor and which is never run by more
+     * than one thread at a time (guarded by a work-in-progress counter). Therefore the GridGenerationStepper is only
+     * ever touched by a single thread at a time.
+     *
+     * */
+    private final class GenerationSubscription implements Flow.Subscription, Runnable {
+
+        /**
+         * The Subscriber, which receives the signals.
+         *
+         * */
+        private final Flow.Subscriber<? super T> subscriber;
+
+        /**
+         * The amount of requested, but not yet delivered, generations (capped at Long.MAX_VALUE).
+         *
+         * */
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * The amount of pending drain requests. The drain loop is scheduled only when it rises from ZERO.
+         *
+         * */
+        private final AtomicInteger workInProgress = new AtomicInteger();
+
+        /**
+         * Whether the Subscription was cancelled (or has failed).
+         *
+         * */
+        private volatile boolean cancelled;
+
+        /**
+         * The failure, which is caused by a non-positive request (a violation of the Flow specification), or NULL if
+         * there was none.
+         *
+         * */
+        private volatile IllegalArgumentException invalidRequestFailure;
+
+        /**
+         * The GridGenerationStepper, which is created upon the first drain. NULL once it was released.
+         *
+         * */
+        private GridGenerationStepper gridGenerationStepper;
+
+        /**
+         * Whether the Subscription has reached a terminal state (its stepper was released).
+         *
+         * */
+        private boolean terminated;
+
+        /**
+         * Lone constructor.
+         *
+         * @param subscriber The Subscriber, which will receive the signals.
+         *
+         * */
+        private GenerationSubscription(final Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Request more generations. A non-positive amount fails the Subscription with an IllegalArgumentException.
+         *
+         * @param n The amount of additionally requested generations.
+         *
+         * */
+        @Override
+        public void request(final long n) {
+            if (n <= 0)
+                invalidRequestFailure = new IllegalArgumentException(
+                        "The requested amount of generations: " + n + " is not positive.");
+            else
+                demand.accumulateAndGet(n, (current, added) ->
+                        current + added < 0 ? Long.MAX_VALUE : current + added);
+
+            schedule();
+        }
+
+        /**
+         * Cancel the Subscription. No more signals are delivered, and its internal cellMatrices are released.
+         *
+         * */
+        @Override
+        public void cancel() {
+            cancelled = true;
+
+            schedule();
+        }
+
+        /**
+         * The drain loop. Steps up and delivers as many generations, as were requested.
+         *
+         * */
+        @Override
+        public void run() {
+            int missed = 1;
+
+            do {
+                drain();
+
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Internal utility function.
+         * Schedule the drain loop on the Executor, unless it is already scheduled or running.
+         *
+         * */
+        private void schedule() {
+            if (workInProgress.getAndIncrement() == 0)
+                executor.execute(this);
+        }
+
+        /**
+         * Internal utility function.
+         * Deliver the requested generations, or a terminal signal.
+         *
+         * */
+        private void drain() {
+            if (terminated)
+                return;
+
+            if (cancelled) {
+                terminate();
+
+                return;
+            }
+
+            if (invalidRequestFailure != null) {
+                fail(invalidRequestFailure);
+
+                return;
+            }
+
+            try {
+                while (demand.get() > 0 && !cancelled) {
+                    //The ZERO generation is delivered as it is, every next one is stepped up first.
+                    if (gridGenerationStepper == null)
+                        gridGenerationStepper =
+                                new GridGenerationStepper(grid, PackedCellMatrix.Storage.getPreferred());
+                    else
+                        gridGenerationStepper.stepToNext();
+
+                    subscriber.onNext(snapshotFunction.apply(gridGenerationStepper));
+
+                    demand.decrementAndGet();
+
+                    if (gridGenerationStepper.getGeneration() == lastGeneration) {
+                        terminate();
+
+                        subscriber.onComplete();
+
+                        return;
+                    }
+                }
+            } catch (final RuntimeException ex) {
+                fail(ex);
+
+                return;
+            }
+
+            if (cancelled)
+                terminate();
+        }
+
+        /**
+         * Internal utility function.
+         * Release the internal cellMatrices and signal a failure to the Subscriber.
+         *
+         * */
+        private void fail(final Throwable throwable) {
+            terminate();
+
+            subscriber.onError(throwable);
+        }
+
+        /**
+         * Internal utility function.
+         * Release the internal cellMatrices and ignore any further requests.
+         *
+         * */
+        private void terminate() {
+            terminated = true;
+            cancelled = true;
+
+            if (gridGenerationStepper != null) {
+                gridGenerationStepper.close();
+                gridGenerationStepper = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+
+/**
+ * The reusable row buffers of 'GridGenerationStepper.stepPackedCellMatrixRows' for cellMatrices of a given
+ * horizontal size: a ring of three padded colorCode row buffers, an all-RED row buffer and the per-column sums.
+ *
+ * A single instance is kept by each owner, which steps many generations (a GridGenerationStepper, a session, an
+ * index or a partition worker), so that no generation allocates its own buffers. An instance must not be used by
+ * more than one thread at a time.
+ *
+ * The buffers can be acquired from a PackedCellMatrixPool, in which case they are released back to it once the
+ * instance is closed.
+ *
+ * */
+public final class GridGenerationStepBuffers implements AutoCloseable {
+
+    /**
+     * The horizontal size of the cellMatrices, which the buffers are sized for.
+     *
+     * */
+    private final short cellMatrixSizeAxisX;
+
+    /**
+     * The ring of three padded row buffers (indexed by y % 3), the all-RED row buffer and the per-column sums. The
+     * all-RED row buffer and the padding Cells of the row buffers are never written, hence they stay RED.
+     *
+     * */
+    final byte[] firstRow, secondRow, thirdRow, redRow, columnSums;
+
+    /**
+     * The PackedCellMatrixPool, which the buffers were acquired from. NULL if they were allocated.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Determines whether the buffers were already released.
+     *
+     * */
+    private boolean closed;
+
+    /**
+     * Standard constructor.
+     * Allocates the buffers for cellMatrices of a given horizontal size.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrices.
+     *
+     * */
+    public GridGenerationStepBuffers(final short cellMatrixSizeAxisX) {
+        this(cellMatrixSizeAxisX, null);
+    }
+
+    /**
+     * Pooled constructor.
+     * Acquires the buffers for cellMatrices of a given horizontal size from a PackedCellMatrixPool. They are released
+     * back to the pool once the instance is closed.
+     *
+     * @param cellMatrixSizeAxisX The horizontal size of the cellMatrices.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the buffers will be acquired from. If NULL, the
+     *                             buffers are allocated.
+     *
+     * */
+    public GridGenerationStepBuffers(final short cellMatrixSizeAxisX, final PackedCellMatrixPool packedCellMatrixPool) {
+        final int paddedRowLength = cellMatrixSizeAxisX + 2;
+
+        this.cellMatrixSizeAxisX = cellMatrixSizeAxisX;
+        this.packedCellMatrixPool = packedCellMatrixPool;
+        this.firstRow = acquireBuffer(paddedRowLength);
+        this.secondRow = acquireBuffer(paddedRowLength);
+        this.thirdRow = acquireBuffer(paddedRowLength);
+        this.redRow = acquireBuffer(paddedRowLength);
+        this.columnSums = acquireBuffer(paddedRowLength);
+    }
+
+    /**
+     * Get the horizontal size of the cellMatrices, which the buffers are sized for.
+     *
+     * @return The horizontal size.
+     *
+     * */
+    public short getCellMatrixSizeAxisX() {
+        return cellMatrixSizeAxisX;
+    }
+
+    /**
+     * Get the row buffer of the ring, which holds the row y.
+     *
+     * @param cellCoordinateY The vertical coordinate of the row.
+     *
+     * @return The row buffer.
+     *
+     * */
+    byte[] getRow(final int cellCoordinateY) {
+        switch (cellCoordinateY % 3) {
+            case 0:
+                return firstRow;
+            case 1:
+                return secondRow;
+            default:
+                return thirdRow;
+        }
+    }
+
+    /**
+     * Release the buffers back to the PackedCellMatrixPool, if they were acquired from one. The instance must not be
+     * used afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        if (closed || packedCellMatrixPool == null)
+            return;
+
+        closed = true;
+
+        packedCellMatrixPool.releaseBytes(firstRow);
+        packedCellMatrixPool.releaseBytes(secondRow);
+        packedCellMatrixPool.releaseBytes(thirdRow);
+        packedCellMatrixPool.releaseBytes(redRow);
+        packedCellMatrixPool.releaseBytes(columnSums);
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain a ZERO (RED) buffer, from the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private byte[] acquireBuffer(final int length) {
+        return packedCellMatrixPool != null ? packedCellMatrixPool.acquireBytes(length) : new byte[length];
+    }
+}
@@ -1,135 +1,622 @@
 package com.nnikolov.green_vs_red.util;
 
-import com.nnikolov.green_vs_red.model.Cell;
+import com.nnikolov.green_vs_red.jfr.GridGenerationStepEvent;
 import com.nnikolov.green_vs_red.model.Grid;
+import com.nnikolov.green_vs_red.model.GridGenerationStatistics;
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
 
-import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A class, which accepts a Grid instance and progressively steps up its generations (as per the requirements
  * of this application). This process can continue indefinitely.
  *
- * The internal Grid instance is initially deep-copied from a provided Grid instance, as such, this class insures
+ * The internal cellMatrix is initially deep-copied from a provided Grid instance, as such, this class insures
  * that it will independently modify a Grid without affecting the original one.
  *
- * Additionally, when requested by the User (at any generation), the internal Grid instance is provided as a deep-copy,
- * therefore assuring that the operation of the instance of this class cannot be interrupted.
+ * Additionally, when requested by the User (at any generation), the internal cellMatrix is provided as a deep-copy
+ * Grid, therefore assuring that the operation of the instance of this class cannot be interrupted.
+ *
+ * Internally, the generations are stepped directly on two bit-packed cellMatrices (the current and the next
+ * generation), which are kept by a chosen PackedCellMatrix.Storage option and swapped after each step. Since a DIRECT
+ * Storage keeps them outside of the Java heap, a GridGenerationStepper should be closed once it is no longer needed.
+ *
+ * The Zobrist hash of the current generation is computed once it is first requested, and afterwards it is maintained
+ * by XOR-ing the keys of the Cells, which flip their Color during each step (they are found via the differences
+ * between the old and the new words, while each new word is built). Until then, no step pays for the keys. The population statistics of the current generation (see GridGenerationStatistics) are tallied from the
+ * same words within the same pass, and a GridGenerationStatistics instance is only created once it is requested.
+ *
+ * Consumers, which should progress at their own pace (rather than block the simulation or hoard Grid copies), can
+ * subscribe to a GridGenerationPublisher instead, which steps up its own GridGenerationStepper on demand.
  *
  * */
-public final class GridGenerationStepper {
+public final class GridGenerationStepper implements AutoCloseable {
+
+    /**
+     * The internal cellMatrices, which hold the current and the next generation.
+     *
+     * */
+    private PackedCellMatrix currentGenerationCellMatrix, nextGenerationCellMatrix;
+
+    /**
+     * The index of the current generation of the internal cellMatrix (the ZERO generation is the initial one).
+     *
+     * */
+    private long generation;
+
+    /**
+     * The Zobrist hash of the current generation of the internal cellMatrix (see ZobristHash).
+     *
+     * */
+    private long zobristHash;
+
+    /**
+     * Determines whether the Zobrist hash is computed (and therefore maintained during each step).
+     *
+     * */
+    private boolean zobristHashComputed;
+
+    /**
+     * The population statistics of the current generation of the internal cellMatrix, which are tallied during each
+     * step.
+     *
+     * */
+    private final GenerationTally generationTally = new GenerationTally();
+
+    /**
+     * The reusable row buffers of each step (see GridGenerationStepBuffers).
+     *
+     * */
+    private final GridGenerationStepBuffers gridGenerationStepBuffers;
 
     /**
-     * Internal Grid instance
+     * The population statistics of the current generation of the internal cellMatrix. NULL until they are requested.
      *
      * */
-    private final Grid grid;
+    private GridGenerationStatistics gridGenerationStatistics;
 
     /**
-     * Lone constructor.
-     * Deep copies an existing Grid instance into the internal Grid variable.
+     * Standard constructor.
+     * Deep copies the cellMatrix of an existing Grid instance into internal cellMatrices on the Java heap.
      *
      * @param grid An existing Grid instance.
      *
      * */
     public GridGenerationStepper(final Grid grid) {
-        this.grid = new Grid(grid);
+        this(grid, PackedCellMatrix.Storage.HEAP);
+    }
+
+    /**
+     * Storage specific constructor.
+     * Deep copies the cellMatrix of an existing Grid instance into internal cellMatrices, which are kept by a given
+     * Storage option.
+     *
+     * @param grid An existing Grid instance.
+     *
+     * @param storage The Storage option, which will keep the internal cellMatrices.
+     *
+     * */
+    public GridGenerationStepper(final Grid grid, final PackedCellMatrix.Storage storage) {
+        this(grid,
+                storage.allocate(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()),
+                storage.allocate(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()),
+                new GridGenerationStepBuffers(grid.getCellMatrixSizeAxisX()));
+    }
+
+    /**
+     * Pooled constructor.
+     * Deep copies the cellMatrix of an existing Grid instance into internal cellMatrices, which are acquired from a
+     * PackedCellMatrixPool along with the row buffers of each step. They are released back to the pool once the
+     * GridGenerationStepper is closed.
+     *
+     * @param grid An existing Grid instance.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the internal cellMatrices will be acquired from.
+     *
+     * */
+    public GridGenerationStepper(final Grid grid, final PackedCellMatrixPool packedCellMatrixPool) {
+        this(grid,
+                packedCellMatrixPool.acquire(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()),
+                packedCellMatrixPool.acquire(grid.getCellMatrixSizeAxisX(), grid.getCellMatrixSizeAxisY()),
+                new GridGenerationStepBuffers(grid.getCellMatrixSizeAxisX(), packedCellMatrixPool));
     }
 
     /**
-     * Steps up the internal Grid instance to its next generation.
+     * Internal constructor.
+     * Deep copies the cellMatrix of an existing Grid instance into the first of two allocated internal cellMatrices.
+     *
+     * */
+    private GridGenerationStepper(final Grid grid,
+                                  final PackedCellMatrix currentGenerationCellMatrix,
+                                  final PackedCellMatrix nextGenerationCellMatrix,
+                                  final GridGenerationStepBuffers gridGenerationStepBuffers) {
+        grid.copyPackedCellMatrixTo(currentGenerationCellMatrix);
+
+        this.currentGenerationCellMatrix = currentGenerationCellMatrix;
+        this.nextGenerationCellMatrix = nextGenerationCellMatrix;
+        this.gridGenerationStepBuffers = gridGenerationStepBuffers;
+    }
+
+    /**
+     * Steps up the internal cellMatrix to its next generation.
      *
      * */
     public void stepToNext() {
-        //Obtain the internal Grids cellMatrix.
-        final List<List<Cell>> cellMatrix = grid.getCellMatrix();
+        //Begin a JFR Event, which is only committed if a recording that has enabled it is active.
+        final GridGenerationStepEvent gridGenerationStepEvent = new GridGenerationStepEvent();
+        gridGenerationStepEvent.begin();
 
-        //Obtain the dimension of the internal Grids cellMatrix.
+        final PackedCellMatrix current = currentGenerationCellMatrix, next = nextGenerationCellMatrix;
+
+        //Obtain the dimension of the internal cellMatrix.
         final short
-                cellMatrixSizeAxisX = (short) cellMatrix.get(0).size(),
-                cellMatrixSizeAxisY = (short) cellMatrix.size();
+                cellMatrixSizeAxisX = current.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = current.getCellMatrixSizeAxisY();
+
+        //Progress the whole cellMatrix, while the statistics and the flipped Cells of each new word are tallied.
+        generationTally.reset(zobristHashComputed);
+        stepPackedCellMatrixRows(current, next, 0, cellMatrixSizeAxisY - 1, gridGenerationStepBuffers, generationTally);
+
+        //Swap the internal cellMatrices, so that the next generation becomes the current one.
+        currentGenerationCellMatrix = next;
+        nextGenerationCellMatrix = current;
 
-        //Initialise a new cellMatrix, which will hold the Cells of the next generation of the internal Grid.
-        final List<List<Cell>> nextGenerationMatrix = RectangularCellMatrixUtil
-                 //Initialise the 2D cellMatrix with fixed vertical & horizontal dimensions.
-                .createUnmodifiableShapeRectangularCellMatrix.apply(
-                        new RectangularCellMatrixUtil.RectangularCellMatrixDimensions(
-                                cellMatrixSizeAxisX, cellMatrixSizeAxisY) /*Define the dimension of the cellMatrix*/,
-                        (VoidArg0, VoidArg1) -> {}); //Fill each row of the modified cellMatrix with NULLs.
+        //The internal cellMatrix is now at its next generation.
+        generation++;
 
-        //Loop through all of the NULL Cells of the new modified cellMatrix.
-        for (short y = 0; y < cellMatrixSizeAxisY; y++)
-            for (short x = 0; x < cellMatrixSizeAxisX; x++)
-                //Replace each NULL cell of the new modified cellMatrix with is next generation variant.
-                nextGenerationMatrix.get(y).set(x, new Cell(getNextGenerationCellColor(x, y)));
+        //Update the Zobrist hash (if it is maintained) from the flipped Cells, and drop the previous statistics.
+        zobristHash ^= generationTally.flippedCellKeys;
+        gridGenerationStatistics = null;
 
-        //Replace the cellMatrix of the internal Grid instance with the next Grid generation cellMatrix.
-        grid.populateFromCellMatrix(nextGenerationMatrix);
+        //Populate and commit the JFR Event, if a recording requires it.
+        gridGenerationStepEvent.end();
+        if (gridGenerationStepEvent.shouldCommit()) {
+            gridGenerationStepEvent.cellMatrixSizeAxisX = cellMatrixSizeAxisX;
+            gridGenerationStepEvent.cellMatrixSizeAxisY = cellMatrixSizeAxisY;
+            gridGenerationStepEvent.generation = generation;
+            gridGenerationStepEvent.changedCells = generationTally.changedCellsCount;
+            gridGenerationStepEvent.greenCells = generationTally.greenCellsCount;
+            gridGenerationStepEvent.commit();
+        }
+    }
+
+    /**
+     * Get the index of the current generation of the internal cellMatrix.
+     *
+     * @return The index of the current generation of the internal cellMatrix. The initial one is the ZERO
+     * generation.
+     *
+     * */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the Zobrist hash of the current generation of the internal cellMatrix. It is computed by the first call and
+     * maintained incrementally afterwards, therefore it is not recomputed.
+     *
+     * @return The 64-bit Zobrist hash of the current generation (see ZobristHash).
+     *
+     * */
+    public long getZobristHash() {
+        if (!zobristHashComputed) {
+            zobristHash = ZobristHash.computeHash(currentGenerationCellMatrix);
+            zobristHashComputed = true;
+        }
+
+        return zobristHash;
+    }
+
+    /**
+     * Get the population statistics of the current generation of the internal cellMatrix. They are tallied from the
+     * bit-packed rows during each step, therefore they are not recomputed (only the ZERO generation is scanned, once
+     * its statistics are first requested).
+     *
+     * @return The GridGenerationStatistics of the current generation.
+     *
+     * */
+    public GridGenerationStatistics getGridGenerationStatistics() {
+        if (gridGenerationStatistics == null) {
+            //The ZERO generation was not stepped up, hence it has not been tallied yet.
+            if (generation == 0) {
+                generationTally.reset(false);
+
+                for (int y = 0; y < currentGenerationCellMatrix.getCellMatrixSizeAxisY(); y++)
+                    for (int rowWordIndex = 0; rowWordIndex < currentGenerationCellMatrix.getRowWordsCount();
+                         rowWordIndex++) {
+                        final long word = currentGenerationCellMatrix.getRowWord(y, rowWordIndex);
+
+                        generationTally.tallyRowWord(y, rowWordIndex, word, word);
+                    }
+            }
+
+            gridGenerationStatistics = generationTally.toGridGenerationStatistics(generation);
+        }
+
+        return gridGenerationStatistics;
+    }
+
+    /**
+     * Check if a Cell of the current generation of the internal cellMatrix has a GREEN Color, without copying the
+     * whole cellMatrix.
+     *
+     * NOTE: The validity of the Cell coordinates is not checked.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @return A boolean, which indicates whether the Cell has a GREEN Color.
+     *
+     * */
+    public boolean isCellGreen(final short cellCoordinateX, final short cellCoordinateY) {
+        return currentGenerationCellMatrix.isGreen(cellCoordinateX, cellCoordinateY);
+    }
+
+    /**
+     * Get a lazily evaluated, sequential Stream of the generations of the internal cellMatrix, which starts with the
+     * current generation. A generation is only stepped up, once the Stream requests its next element, therefore
+     * short-circuiting operations (e.g. findFirst, anyMatch, limit) stop the simulation as soon as they are answered:
+     *
+     *      - The GREEN count of a Cell up to a generation N:
+     *      generations().limit(N + 1).filter(stepper -> stepper.isCellGreen(x, y)).count()
+     *
+     *      - The first generation, in which a Cell is RED:
+     *      generations().filter(stepper -> !stepper.isCellGreen(x, y)).findFirst()
+     *
+     * Every element of the Stream is this GridGenerationStepper itself (at the corresponding generation), hence no
+     * cellMatrix is copied per generation. An element is only valid until the Stream advances to its next element;
+     * if it must be kept, a deep-copy should be obtained from it (e.g. via getGrid or getGridGenerationStatistics).
+     * The Stream is infinite, and this GridGenerationStepper must not be stepped up by anything else while the Stream
+     * is consumed.
+     *
+     * @return A lazily evaluated, infinite and ordered Stream of the generations.
+     *
+     * */
+    public Stream<GridGenerationStepper> generations() {
+        return StreamSupport.stream(new GenerationSpliterator(), false);
     }
 
     /**
-     * Get a deep-copy of the internal Grid instance.
+     * Copy the current generation of the internal cellMatrix into another cellMatrix, without allocating a new one.
      *
-     * @return A deep-copy of the internal Grid instance.
+     * @param packedCellMatrix The cellMatrix, which will be populated. It must have the dimensions of the Grid.
+     *
+     * */
+    public void copyCurrentGenerationTo(final PackedCellMatrix packedCellMatrix) {
+        packedCellMatrix.populateFromPackedCellMatrix(currentGenerationCellMatrix);
+    }
+
+    /**
+     * Get a deep-copy of the internal cellMatrix as a Grid, which is kept on the Java heap.
+     *
+     * @return A deep-copy of the internal cellMatrix as a Grid.
      *
      * */
     public Grid getGrid() {
-        return new Grid(grid);
+        return new Grid(PackedCellMatrix.Storage.HEAP.copyOf(currentGenerationCellMatrix));
+    }
+
+    /**
+     * Release the storage of the internal cellMatrices and the row buffers. The GridGenerationStepper must not be used
+     * afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        currentGenerationCellMatrix.close();
+        nextGenerationCellMatrix.close();
+        gridGenerationStepBuffers.close();
+    }
+
+    /**
+     * Progress a range of rows of a bit-packed cellMatrix to their next generation. The neighbours, which are
+     * outside of the cellMatrix, are considered RED. The rows outside of the range are not written.
+     *
+     * The rows are unpacked into primitive colorCode row buffers (one byte per Cell), which are padded with a RED
+     * Cell on each side, while the missing rows above the first and below the last row of the cellMatrix are
+     * replaced by an all-RED row buffer. Hence the border Cells need no bounds checks, and the kernel of each row is a
+     * pair of tight, monomorphic loops over primitive arrays (the per-column sums of the three rows, and the 3x3 sums
+     * made from them), which the JIT compiler can unroll and vectorise. The row buffers are provided by the caller
+     * (see GridGenerationStepBuffers), so that no generation allocates its own.
+     *
+     * @param current The cellMatrix, which holds the current generation. It will not be modified.
+     *
+     * @param next A cellMatrix with the same dimensions, which will hold the next generation of the rows.
+     *
+     * @param minY The vertical coordinate of the first progressed row.
+     *
+     * @param maxY The vertical coordinate of the last progressed row (inclusive).
+     *
+     * @param gridGenerationStepBuffers The row buffers, which are sized for the horizontal size of the cellMatrix.
+     *
+     * @throws IllegalArgumentException If the row buffers are sized for another horizontal size.
+     *
+     * */
+    public static void stepPackedCellMatrixRows(final PackedCellMatrix current, final PackedCellMatrix next,
+                                                final int minY, final int maxY,
+                                                final GridGenerationStepBuffers gridGenerationStepBuffers) {
+        if (gridGenerationStepBuffers.getCellMatrixSizeAxisX() != current.getCellMatrixSizeAxisX())
+            throw new IllegalArgumentException("The row buffers are sized for a horizontal size of: " +
+                    gridGenerationStepBuffers.getCellMatrixSizeAxisX() + ", rather than: " +
+                    current.getCellMatrixSizeAxisX() + ".");
+
+        stepPackedCellMatrixRows(current, next, minY, maxY, gridGenerationStepBuffers, null);
     }
 
     /**
      * Internal utility function.
-     * Calculate the next generation Color of an existing Cell in the internal Grids cellMatrix.
-     *
-     * @param cellCoordinateX The horizontal coordinate of the existing Cell in the internal Grids cellMatrix.
-     *
-     * @param cellCoordinateY The vertical coordinate of the existing Cell in the internal Grids cellMatrix.
-     *
-     * @return The next generation Color of the existing Cell in the internal Grids cellMatrix.
-     *
-     * */
-    private Cell.Color getNextGenerationCellColor(final short cellCoordinateX, final short cellCoordinateY) {
-        //Obtain the internal Grids cellMatrix.
-        final List<List<Cell>> cellMatrix = grid.getCellMatrix();
-
-        //Counter for the GREEN Color neighbours of the existing Cell in the internal Grids cellMatrix.
-        long greenNeighboursCount = 0;
-
-        /*
-        * Scan all of the coordinates in the immediate vicinity of the target existing
-        * Cell (including its own coordinates).*/
-        for (short x = (short) (cellCoordinateX - 1); x <= cellCoordinateX + 1; x++) {
-            for (short y = (short) (cellCoordinateY - 1); y <= cellCoordinateY + 1; y++) {
-                /*
-                * If our current coordinates equal the target existing Cell, continue with the next iteration
-                * of the loop.
-                * */
-                if (x == cellCoordinateX && y == cellCoordinateY)
-                    continue;
-
-                /*
-                 * Assure that the current target Cell neighbour coordinates are within the bounds of the internal
-                 * Grids cellMatrix.
-                 * */
-                if (RectangularCellMatrixUtil.cellCoordinatesAreInBoundsOfRectangularCellMatrix(cellMatrix, x, y))
-                    //Check if the target Cell neighbouring Cell has a GREEN Color.
-                    if (cellMatrix.get(y).get(x).getColor().isGreen())
-                        //Increment GREEN neighbours counter.
-                        greenNeighboursCount++;
+     * Progress a range of rows of a bit-packed cellMatrix to their next generation (see above), and tally each new
+     * word into a GenerationTally, unless it is NULL.
+     *
+     * */
+    private static void stepPackedCellMatrixRows(final PackedCellMatrix current, final PackedCellMatrix next,
+                                                 final int minY, final int maxY,
+                                                 final GridGenerationStepBuffers gridGenerationStepBuffers,
+                                                 final GenerationTally generationTally) {
+        final int cellMatrixSizeAxisX = current.getCellMatrixSizeAxisX(),
+                cellMatrixSizeAxisY = current.getCellMatrixSizeAxisY(),
+                rowWordsCount = current.getRowWordsCount(),
+                paddedRowLength = cellMatrixSizeAxisX + 2;
+
+        //A ring of three padded row buffers (indexed by y % 3), an all-RED row buffer and the per-column sums.
+        final GridGenerationStepBuffers buffers = gridGenerationStepBuffers;
+        final byte[] redRow = buffers.redRow, columnSums = buffers.columnSums;
+
+        if (minY > 0)
+            unpackRow(current, minY - 1, buffers.getRow(minY + 2));
+
+        unpackRow(current, minY, buffers.getRow(minY));
+
+        for (int y = minY; y <= maxY; y++) {
+            //Peel the top and the bottom row of the cellMatrix, by replacing their missing neighbours with RED ones.
+            final byte[] above = y > 0 ? buffers.getRow(y + 2) : redRow, row = buffers.getRow(y);
+            final byte[] below = y + 1 < cellMatrixSizeAxisY ?
+                    unpackRow(current, y + 1, buffers.getRow(y + 1)) : redRow;
+
+            //Sum the colorCodes of each column of the three rows.
+            for (int x = 0; x < paddedRowLength; x++)
+                columnSums[x] = (byte) (above[x] + row[x] + below[x]);
+
+            //Build each word of the next generation from the 3x3 sums, excluding the Cell itself.
+            for (int rowWordIndex = 0; rowWordIndex < rowWordsCount; rowWordIndex++) {
+                final int wordStartX = rowWordIndex * PackedCellMatrix.CELLS_PER_WORD;
+                final int wordEndX = Math.min(wordStartX + PackedCellMatrix.CELLS_PER_WORD, cellMatrixSizeAxisX);
+
+                long nextGenerationWord = 0;
+
+                for (int x = wordStartX; x < wordEndX; x++) {
+                    final int cellColorCode = row[x + 1];
+                    final int greenNeighboursCount = columnSums[x] + columnSums[x + 1] + columnSums[x + 2] -
+                            cellColorCode;
+
+                    nextGenerationWord |= (long) GridGenerationProgressionRule
+                            .nextGenerationCellColorCode(cellColorCode, greenNeighboursCount) << x;
+                }
+
+                next.setRowWord(y, rowWordIndex, nextGenerationWord);
+
+                //Tally the new word, while it is still at hand.
+                if (generationTally != null)
+                    generationTally.tallyRowWord(y, rowWordIndex, current.getRowWord(y, rowWordIndex),
+                            nextGenerationWord);
             }
         }
+    }
+
+    /**
+     * Internal utility function.
+     * Unpack a row of a bit-packed cellMatrix into a padded row buffer, so that the colorCode of the Cell x is stored
+     * at the index x + 1. The padding Cells are left RED.
+     *
+     * @return The populated row buffer.
+     *
+     * */
+    private static byte[] unpackRow(final PackedCellMatrix cellMatrix, final int cellCoordinateY, final byte[] row) {
+        final int cellMatrixSizeAxisX = cellMatrix.getCellMatrixSizeAxisX();
+
+        for (int rowWordIndex = 0; rowWordIndex < cellMatrix.getRowWordsCount(); rowWordIndex++) {
+            final long word = cellMatrix.getRowWord(cellCoordinateY, rowWordIndex);
+            final int wordStartX = rowWordIndex * PackedCellMatrix.CELLS_PER_WORD;
+            final int wordEndX = Math.min(wordStartX + PackedCellMatrix.CELLS_PER_WORD, cellMatrixSizeAxisX);
+
+            for (int x = wordStartX; x < wordEndX; x++)
+                row[x + 1] = (byte) (word >>> x & 1L);
+        }
+
+        return row;
+    }
+
+    /**
+     * Check if a single Cell of a bit-packed cellMatrix will have a GREEN Color in the next generation. The
+     * neighbours, which are outside of the cellMatrix, are considered RED.
+     *
+     * NOTE: The validity of the Cell coordinates is not checked.
+     *
+     * @param current The cellMatrix, which holds the current generation.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @return A boolean, which indicates whether the Cell will have a GREEN Color in the next generation.
+     *
+     * */
+    public static boolean isNextGenerationCellGreen(final PackedCellMatrix current,
+                                                    final int cellCoordinateX, final int cellCoordinateY) {
+        return GridGenerationProgressionRule.nextGenerationCellIsGreen(
+                current.isGreen(cellCoordinateX, cellCoordinateY),
+                getGreenNeighboursCount(current, cellCoordinateX, cellCoordinateY));
+    }
 
-        //Obtain the Color of the targeted internal Grid cellMatrix Cell.
-        final Cell.Color targetCellColor = cellMatrix.get(cellCoordinateY).get(cellCoordinateX).getColor();
-
-        /* Depending on the amount of GREEN neighbours the targeted internal Grid cellMatrix Cell has and its
-         * current Color, determine its next Grid generation Color within the cellMatrix.
-         */
-        if (targetCellColor.isRed())
-            return greenNeighboursCount == 3 ||
-                    greenNeighboursCount == 6 ? Cell.Color.GREEN : targetCellColor;
-        else
-            return greenNeighboursCount == 2 ||
-                    greenNeighboursCount == 3 ||
-                    greenNeighboursCount == 6 ? targetCellColor : Cell.Color.RED;
+    /**
+     * Internal utility function.
+     * Count the GREEN Color neighbours of a Cell in a cellMatrix. The neighbours, which are outside of the
+     * cellMatrix, are skipped.
+     *
+     * @param cellMatrix The cellMatrix, which holds the Cell.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @return The amount of GREEN Color neighbours of the Cell.
+     *
+     * */
+    private static int getGreenNeighboursCount(final PackedCellMatrix cellMatrix,
+                                               final int cellCoordinateX, final int cellCoordinateY) {
+        //Clip the vicinity of the Cell to the bounds of the cellMatrix.
+        final int minX = Math.max(cellCoordinateX - 1, 0),
+                maxX = Math.min(cellCoordinateX + 1, cellMatrix.getCellMatrixSizeAxisX() - 1),
+                minY = Math.max(cellCoordinateY - 1, 0),
+                maxY = Math.min(cellCoordinateY + 1, cellMatrix.getCellMatrixSizeAxisY() - 1);
+
+        //Counter for the GREEN Color Cells in the vicinity of the Cell (including itself).
+        int greenCellsCount = 0;
+
+        for (int y = minY; y <= maxY; y++)
+            for (int x = minX; x <= maxX; x++)
+                if (cellMatrix.isGreen(x, y))
+                    greenCellsCount++;
+
+        //Exclude the Cell itself.
+        return cellMatrix.isGreen(cellCoordinateX, cellCoordinateY) ? greenCellsCount - 1 : greenCellsCount;
+    }
+
+    /**
+     * The population statistics of a generation and the XOR of the Zobrist keys of its flipped Cells, which are
+     * tallied one new word at a time (via Long.bitCount and the leading & trailing zeros of each word). A single
+     * instance is reused by every step, so that no statistics are allocated, unless they are requested.
+     *
+     * */
+    private static final class GenerationTally {
+
+        /**
+         * The amount of GREEN Color Cells and of the Cells, which have changed their Color.
+         *
+         * */
+        private int greenCellsCount, changedCellsCount;
+
+        /**
+         * The bounding box of the GREEN Color Cells (inclusive). The minimal vertical coordinate is -1 while there
+         * are none.
+         *
+         * */
+        private int minX, minY, maxX, maxY;
+
+        /**
+         * The XOR of the Zobrist keys of the Cells, which have changed their Color.
+         *
+         * */
+        private long flippedCellKeys;
+
+        /**
+         * Determines whether the Zobrist keys of the flipped Cells are tallied.
+         *
+         * */
+        private boolean tallyFlippedCellKeys;
+
+        /**
+         * Clear the tally before a new generation.
+         *
+         * */
+        private void reset(final boolean tallyFlippedCellKeys) {
+            this.tallyFlippedCellKeys = tallyFlippedCellKeys;
+            greenCellsCount = 0;
+            changedCellsCount = 0;
+            minX = Integer.MAX_VALUE;
+            minY = -1;
+            maxX = -1;
+            maxY = -1;
+            flippedCellKeys = 0;
+        }
+
+        /**
+         * Tally a new word of a row, given its old word.
+         *
+         * */
+        private void tallyRowWord(final int cellCoordinateY, final int rowWordIndex,
+                                  final long oldWord, final long newWord) {
+            final long flippedBits = oldWord ^ newWord;
+
+            if (flippedBits != 0) {
+                if (tallyFlippedCellKeys)
+                    flippedCellKeys ^= ZobristHash.getRowWordCellKeys(cellCoordinateY, rowWordIndex, flippedBits);
+
+                changedCellsCount += Long.bitCount(flippedBits);
+            }
+
+            if (newWord != 0) {
+                final int wordStartX = rowWordIndex * PackedCellMatrix.CELLS_PER_WORD;
+
+                greenCellsCount += Long.bitCount(newWord);
+
+                //Extend the bounding box of the GREEN Color Cells.
+                minX = Math.min(minX, wordStartX + Long.numberOfTrailingZeros(newWord));
+                maxX = Math.max(maxX, wordStartX + PackedCellMatrix.CELLS_PER_WORD - 1 -
+                        Long.numberOfLeadingZeros(newWord));
+
+                if (minY < 0)
+                    minY = cellCoordinateY;
+
+                maxY = cellCoordinateY;
+            }
+        }
+
+        /**
+         * Create the GridGenerationStatistics of the tallied generation.
+         *
+         * */
+        private GridGenerationStatistics toGridGenerationStatistics(final long generation) {
+            return new GridGenerationStatistics(generation, greenCellsCount, changedCellsCount,
+                    (short) (minY < 0 ? -1 : minX), (short) minY, (short) maxX, (short) maxY);
+        }
+    }
+
+    /**
+     * A Spliterator, which yields its enclosing GridGenerationStepper at the current generation first, and steps it
+     * up to the next generation before every further element. It cannot be split, since every generation depends on
+     * the previous one.
+     *
+     * */
+    private final class GenerationSpliterator implements Spliterator<GridGenerationStepper> {
+
+        /**
+         * Whether the current generation has not been yielded yet.
+         *
+         * */
+        private boolean isFirstGeneration = true;
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super GridGenerationStepper> action) {
+            //Yield the current generation as it is, and step up every next one.
+            if (isFirstGeneration)
+                isFirstGeneration = false;
+            else
+                stepToNext();
+
+            action.accept(GridGenerationStepper.this);
+
+            return true;
+        }
+
+        @Override
+        public Spliterator<GridGenerationStepper> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL;
+        }
     }
 }
@@ -0,0 +1,246 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from non-negative 'int' keys to 'int' counters, which stores them in primitive arrays via open
+ * addressing (linear probing), without boxing them.
+ *
+ * Besides the hash table, the slots of the keys are also kept in a dense array in the order of their insertion, so
+ * that the map can be iterated (via 'size', 'getKey' and 'getCount') and cleared in a time, which is proportional to
+ * its size rather than to the capacity of its hash table.
+ *
+ * The arrays can be acquired from a PackedCellMatrixPool, in which case they are released back to it once the map is
+ * closed (and the outgrown arrays, once it grows).
+ *
+ * */
+public final class OpenAddressingIntCounterMap implements AutoCloseable {
+
+    /**
+     * The marker of an empty slot of the hash table.
+     *
+     * */
+    private static final int EMPTY_SLOT = -1;
+
+    /**
+     * The keys and the counters of the hash table, whose capacity is a power of two and which is at most half full.
+     *
+     * */
+    private int[] slotKeys, slotCounters;
+
+    /**
+     * The slots of the keys of the map, in the order of their insertion.
+     *
+     * */
+    private int[] occupiedSlots;
+
+    /**
+     * The amount of keys in the map.
+     *
+     * */
+    private int size;
+
+    /**
+     * The PackedCellMatrixPool, which the arrays are acquired from. NULL if they are allocated.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Determines whether the arrays were already released.
+     *
+     * */
+    private boolean closed;
+
+    /**
+     * Standard constructor.
+     *
+     * @param expectedSize The amount of keys, which the map is expected to hold without growing.
+     *
+     * */
+    public OpenAddressingIntCounterMap(final int expectedSize) {
+        this(expectedSize, null);
+    }
+
+    /**
+     * Pooled constructor.
+     * The arrays are acquired from a PackedCellMatrixPool, and they are released back to it once the map is closed.
+     *
+     * @param expectedSize The amount of keys, which the map is expected to hold without growing.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the arrays will be acquired from. If NULL, they are
+     *                             allocated.
+     *
+     * */
+    public OpenAddressingIntCounterMap(final int expectedSize, final PackedCellMatrixPool packedCellMatrixPool) {
+        this.packedCellMatrixPool = packedCellMatrixPool;
+
+        //The capacity of the hash table is a power of two, hence a pooled array has exactly the requested length.
+        final int capacity = OpenAddressingIntHashSet.getCapacity(expectedSize);
+        slotKeys = acquireArray(capacity);
+        slotCounters = acquireArray(capacity);
+        occupiedSlots = acquireArray(Math.max(expectedSize, 1));
+
+        Arrays.fill(slotKeys, 0, capacity, EMPTY_SLOT);
+    }
+
+    /**
+     * Increment the counter of a key. A key, which is not in the map yet, is added with a counter of 1.
+     *
+     * @param key A non-negative key.
+     *
+     * */
+    public void increment(final int key) {
+        final int mask = slotKeys.length - 1;
+
+        for (int slotIndex = OpenAddressingIntHashSet.hash(key) & mask; ; slotIndex = slotIndex + 1 & mask) {
+            if (slotKeys[slotIndex] == key) {
+                slotCounters[slotIndex]++;
+
+                return;
+            }
+
+            if (slotKeys[slotIndex] == EMPTY_SLOT) {
+                slotKeys[slotIndex] = key;
+                slotCounters[slotIndex] = 1;
+
+                if (size == occupiedSlots.length)
+                    growOccupiedSlots();
+
+                occupiedSlots[size++] = slotIndex;
+
+                //Keep the hash table at most half full.
+                if (2 * size > slotKeys.length)
+                    rehash(2 * slotKeys.length);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the amount of keys in the map.
+     *
+     * @return The amount of keys in the map.
+     *
+     * */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a key of the map via the order of its insertion.
+     *
+     * @param index The index of the key, between 0 (inclusive) and the size of the map (exclusive).
+     *
+     * @return The key, which was inserted at the provided index.
+     *
+     * */
+    public int getKey(final int index) {
+        return slotKeys[occupiedSlots[index]];
+    }
+
+    /**
+     * Get the counter of a key of the map via the order of its insertion.
+     *
+     * @param index The index of the key, between 0 (inclusive) and the size of the map (exclusive).
+     *
+     * @return The counter of the key, which was inserted at the provided index.
+     *
+     * */
+    public int getCount(final int index) {
+        return slotCounters[occupiedSlots[index]];
+    }
+
+    /**
+     * Remove all of the keys from the map, while keeping its capacity.
+     *
+     * */
+    public void clear() {
+        for (int index = 0; index < size; index++)
+            slotKeys[occupiedSlots[index]] = EMPTY_SLOT;
+
+        size = 0;
+    }
+
+    /**
+     * Release the arrays back to the PackedCellMatrixPool, if they were acquired from one. The map must not be used
+     * afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        if (closed || packedCellMatrixPool == null)
+            return;
+
+        closed = true;
+
+        packedCellMatrixPool.releaseInts(slotKeys);
+        packedCellMatrixPool.releaseInts(slotCounters);
+        packedCellMatrixPool.releaseInts(occupiedSlots);
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain an array with at least the requested length, from the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private int[] acquireArray(final int length) {
+        return packedCellMatrixPool != null ? packedCellMatrixPool.acquireInts(length) : new int[length];
+    }
+
+    /**
+     * Internal utility function.
+     * Release an array, which is no longer used, back to the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private void releaseArray(final int[] array) {
+        if (packedCellMatrixPool != null)
+            packedCellMatrixPool.releaseInts(array);
+    }
+
+    /**
+     * Internal utility function.
+     * Grow the array of the occupied slots, while keeping its contents.
+     *
+     * */
+    private void growOccupiedSlots() {
+        final int[] previousOccupiedSlots = occupiedSlots;
+
+        occupiedSlots = acquireArray(2 * size);
+        System.arraycopy(previousOccupiedSlots, 0, occupiedSlots, 0, size);
+        releaseArray(previousOccupiedSlots);
+    }
+
+    /**
+     * Internal utility function.
+     * Rebuild the hash table with a new capacity.
+     *
+     * */
+    private void rehash(final int capacity) {
+        final int[] previousSlotKeys = slotKeys, previousSlotCounters = slotCounters;
+
+        slotKeys = acquireArray(capacity);
+        slotCounters = acquireArray(capacity);
+        Arrays.fill(slotKeys, EMPTY_SLOT);
+
+        final int mask = capacity - 1;
+
+        for (int index = 0; index < size; index++) {
+            final int previousSlotIndex = occupiedSlots[index];
+            int slotIndex = OpenAddressingIntHashSet.hash(previousSlotKeys[previousSlotIndex]) & mask;
+
+            while (slotKeys[slotIndex] != EMPTY_SLOT)
+                slotIndex = slotIndex + 1 & mask;
+
+            slotKeys[slotIndex] = previousSlotKeys[previousSlotIndex];
+            slotCounters[slotIndex] = previousSlotCounters[previousSlotIndex];
+            occupiedSlots[index] = slotIndex;
+        }
+
+        releaseArray(previousSlotKeys);
+        releaseArray(previousSlotCounters);
+    }
+}
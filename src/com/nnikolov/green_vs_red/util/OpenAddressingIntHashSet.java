@@ -0,0 +1,273 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrixPool;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of non-negative 'int' keys, which stores them in primitive arrays via open addressing (linear probing),
+ * without boxing them.
+ *
+ * Besides the hash table, the slots of the keys are also kept in a dense array in the order of their insertion, so
+ * that the set can be iterated (via 'size' and 'get') and cleared in a time, which is proportional to its size rather
+ * than to the capacity of its hash table.
+ *
+ * The arrays can be acquired from a PackedCellMatrixPool, in which case they are released back to it once the set is
+ * closed (and the outgrown arrays, once it grows).
+ *
+ * */
+public final class OpenAddressingIntHashSet implements AutoCloseable {
+
+    /**
+     * The marker of an empty slot of the hash table.
+     *
+     * */
+    private static final int EMPTY_SLOT = -1;
+
+    /**
+     * The hash table, whose capacity is a power of two and which is at most half full.
+     *
+     * */
+    private int[] slots;
+
+    /**
+     * The slots of the keys of the set, in the order of their insertion.
+     *
+     * */
+    private int[] occupiedSlots;
+
+    /**
+     * The amount of keys in the set.
+     *
+     * */
+    private int size;
+
+    /**
+     * The PackedCellMatrixPool, which the arrays are acquired from. NULL if they are allocated.
+     *
+     * */
+    private final PackedCellMatrixPool packedCellMatrixPool;
+
+    /**
+     * Determines whether the arrays were already released.
+     *
+     * */
+    private boolean closed;
+
+    /**
+     * Standard constructor.
+     *
+     * @param expectedSize The amount of keys, which the set is expected to hold without growing.
+     *
+     * */
+    public OpenAddressingIntHashSet(final int expectedSize) {
+        this(expectedSize, null);
+    }
+
+    /**
+     * Pooled constructor.
+     * The arrays are acquired from a PackedCellMatrixPool, and they are released back to it once the set is closed.
+     *
+     * @param expectedSize The amount of keys, which the set is expected to hold without growing.
+     *
+     * @param packedCellMatrixPool The PackedCellMatrixPool, which the arrays will be acquired from. If NULL, they are
+     *                             allocated.
+     *
+     * */
+    public OpenAddressingIntHashSet(final int expectedSize, final PackedCellMatrixPool packedCellMatrixPool) {
+        this.packedCellMatrixPool = packedCellMatrixPool;
+
+        //The capacity of the hash table is a power of two, hence a pooled array has exactly the requested length.
+        final int capacity = getCapacity(expectedSize);
+        slots = acquireArray(capacity);
+        occupiedSlots = acquireArray(Math.max(expectedSize, 1));
+
+        Arrays.fill(slots, 0, capacity, EMPTY_SLOT);
+    }
+
+    /**
+     * Add a key to the set.
+     *
+     * @param key A non-negative key.
+     *
+     * @return A boolean, which indicates whether the key was not already in the set.
+     *
+     * */
+    public boolean add(final int key) {
+        final int mask = slots.length - 1;
+
+        for (int slotIndex = hash(key) & mask; ; slotIndex = slotIndex + 1 & mask) {
+            if (slots[slotIndex] == key)
+                return false;
+
+            if (slots[slotIndex] == EMPTY_SLOT) {
+                slots[slotIndex] = key;
+
+                if (size == occupiedSlots.length)
+                    growOccupiedSlots();
+
+                occupiedSlots[size++] = slotIndex;
+
+                //Keep the hash table at most half full.
+                if (2 * size > slots.length)
+                    rehash(2 * slots.length);
+
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Check whether a key is in the set.
+     *
+     * @param key A non-negative key.
+     *
+     * @return A boolean, which indicates whether the key is in the set.
+     *
+     * */
+    public boolean contains(final int key) {
+        final int mask = slots.length - 1;
+
+        for (int slotIndex = hash(key) & mask; ; slotIndex = slotIndex + 1 & mask) {
+            if (slots[slotIndex] == key)
+                return true;
+
+            if (slots[slotIndex] == EMPTY_SLOT)
+                return false;
+        }
+    }
+
+    /**
+     * Get the amount of keys in the set.
+     *
+     * @return The amount of keys in the set.
+     *
+     * */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a key of the set via the order of its insertion.
+     *
+     * @param index The index of the key, between 0 (inclusive) and the size of the set (exclusive).
+     *
+     * @return The key, which was inserted at the provided index.
+     *
+     * */
+    public int get(final int index) {
+        return slots[occupiedSlots[index]];
+    }
+
+    /**
+     * Remove all of the keys from the set, while keeping its capacity.
+     *
+     * */
+    public void clear() {
+        for (int index = 0; index < size; index++)
+            slots[occupiedSlots[index]] = EMPTY_SLOT;
+
+        size = 0;
+    }
+
+    /**
+     * Release the arrays back to the PackedCellMatrixPool, if they were acquired from one. The set must not be used
+     * afterwards.
+     *
+     * */
+    @Override
+    public void close() {
+        if (closed || packedCellMatrixPool == null)
+            return;
+
+        closed = true;
+
+        packedCellMatrixPool.releaseInts(slots);
+        packedCellMatrixPool.releaseInts(occupiedSlots);
+    }
+
+    /**
+     * Internal utility function.
+     * Obtain an array with at least the requested length, from the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private int[] acquireArray(final int length) {
+        return packedCellMatrixPool != null ? packedCellMatrixPool.acquireInts(length) : new int[length];
+    }
+
+    /**
+     * Internal utility function.
+     * Release an array, which is no longer used, back to the PackedCellMatrixPool, if there is one.
+     *
+     * */
+    private void releaseArray(final int[] array) {
+        if (packedCellMatrixPool != null)
+            packedCellMatrixPool.releaseInts(array);
+    }
+
+    /**
+     * Internal utility function.
+     * Grow the array of the occupied slots, while keeping its contents.
+     *
+     * */
+    private void growOccupiedSlots() {
+        final int[] previousOccupiedSlots = occupiedSlots;
+
+        occupiedSlots = acquireArray(2 * size);
+        System.arraycopy(previousOccupiedSlots, 0, occupiedSlots, 0, size);
+        releaseArray(previousOccupiedSlots);
+    }
+
+    /**
+     * Spread the bits of a key over the whole 'int', so that consecutive keys do not form long probe sequences.
+     *
+     * @param key A key.
+     *
+     * @return The hash of the key.
+     *
+     * */
+    static int hash(final int key) {
+        final int hash = key * 0x9E3779B9;
+
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * Get the capacity of a hash table, which holds an expected amount of keys while it is at most half full.
+     *
+     * @param expectedSize The amount of keys, which the hash table is expected to hold.
+     *
+     * @return A power of two.
+     *
+     * */
+    static int getCapacity(final int expectedSize) {
+        return Integer.highestOneBit(Math.max(2 * expectedSize, 2) - 1) << 1;
+    }
+
+    /**
+     * Internal utility function.
+     * Rebuild the hash table with a new capacity.
+     *
+     * */
+    private void rehash(final int capacity) {
+        final int[] previousSlots = slots;
+
+        slots = acquireArray(capacity);
+        Arrays.fill(slots, EMPTY_SLOT);
+
+        final int mask = capacity - 1;
+
+        for (int index = 0; index < size; index++) {
+            final int key = previousSlots[occupiedSlots[index]];
+            int slotIndex = hash(key) & mask;
+
+            while (slots[slotIndex] != EMPTY_SLOT)
+                slotIndex = slotIndex + 1 & mask;
+
+            slots[slotIndex] = key;
+            occupiedSlots[index] = slotIndex;
+        }
+
+        releaseArray(previousSlots);
+    }
+}
@@ -0,0 +1,103 @@
+package com.nnikolov.green_vs_red.util;
+
+import com.nnikolov.green_vs_red.model.PackedCellMatrix;
+
+/**
+ * Utility class, which computes the 64-bit Zobrist hash of a cellMatrix: the XOR of the random keys of all of its GREEN
+ * Color Cells.
+ *
+ * Since a Cell contributes its key only while it has a GREEN Color, the hash of a cellMatrix is maintained
+ * incrementally by XOR-ing the keys of the Cells, which flip their Color, instead of hashing the whole cellMatrix
+ * again.
+ *
+ * The key of each Cell is derived from its coordinates via the SplitMix64 generator, so that it does not have to be
+ * stored in a table and it is the same for all of the cellMatrices (regardless of their dimensions). Hence, the hashes
+ * of two cellMatrices with the same GREEN Color Cells are equal, and the hashes of two different cellMatrices are
+ * equal only with a probability of about 2^-64.
+ *
+ * */
+public final class ZobristHash {
+
+    /**
+     * The seed of the keys of the Cells.
+     *
+     * */
+    private static final long seed = 0x6A09E667F3BCC909L;
+
+    /**
+     * The increment of the SplitMix64 generator (the 64-bit golden ratio).
+     *
+     * */
+    private static final long goldenGamma = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The amount of distinct horizontal coordinates, which are reserved per row of keys (the cellMatrix axes sizes are
+     * less than 1000).
+     *
+     * */
+    private static final int keysPerRow = 1000;
+
+    /**
+     * Get the key of a Cell.
+     *
+     * @param cellCoordinateX The horizontal coordinate of the Cell.
+     *
+     * @param cellCoordinateY The vertical coordinate of the Cell.
+     *
+     * @return The 64-bit key of the Cell.
+     *
+     * */
+    public static long getCellKey(final int cellCoordinateX, final int cellCoordinateY) {
+        long key = seed + ((long) cellCoordinateY * keysPerRow + cellCoordinateX + 1) * goldenGamma;
+
+        //The finalizer of the SplitMix64 generator.
+        key = (key ^ key >>> 30) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ key >>> 27) * 0x94D049BB133111EBL;
+
+        return key ^ key >>> 31;
+    }
+
+    /**
+     * Get the XOR of the keys of the Cells, which are set within a word of a bit-packed cellMatrix row.
+     *
+     * @param cellCoordinateY The vertical coordinate of the row.
+     *
+     * @param rowWordIndex The index of the word within the row.
+     *
+     * @param cellBits The bits of the word, whose Cells contribute their keys (e.g. the GREEN or the flipped Cells).
+     *
+     * @return The XOR of the keys of the Cells.
+     *
+     * */
+    public static long getRowWordCellKeys(final int cellCoordinateY, final int rowWordIndex, long cellBits) {
+        long cellKeys = 0;
+
+        while (cellBits != 0) {
+            cellKeys ^= getCellKey(rowWordIndex * PackedCellMatrix.CELLS_PER_WORD +
+                    Long.numberOfTrailingZeros(cellBits), cellCoordinateY);
+
+            //Clear the lowest set bit.
+            cellBits &= cellBits - 1;
+        }
+
+        return cellKeys;
+    }
+
+    /**
+     * Compute the Zobrist hash of a whole bit-packed cellMatrix.
+     *
+     * @param packedCellMatrix The bit-packed cellMatrix.
+     *
+     * @return The Zobrist hash of the cellMatrix.
+     *
+     * */
+    public static long computeHash(final PackedCellMatrix packedCellMatrix) {
+        long hash = 0;
+
+        for (int y = 0; y < packedCellMatrix.getCellMatrixSizeAxisY(); y++)
+            for (int rowWordIndex = 0; rowWordIndex < packedCellMatrix.getRowWordsCount(); rowWordIndex++)
+                hash ^= getRowWordCellKeys(y, rowWordIndex, packedCellMatrix.getRowWord(y, rowWordIndex));
+
+        return hash;
+    }
+}